@@ -0,0 +1,361 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.arrow;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.sf.json.JSONObject;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.geoserver.catalog.ResourcePool;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.FeatureTypes;
+import org.geotools.referencing.CRS;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.WKBWriter;
+
+/**
+ * Encodes a simple feature collection as an Arrow IPC stream: a schema message followed by record batches, each one
+ * holding up to {@code batchSize} features, encoded by column.
+ *
+ * <p>The feature id is written in the first column, named {@link #FID} (with more leading underscores if an attribute
+ * already has that name, case insensitively, as some readers are), followed by the attributes, in schema order.
+ * Geometries follow the GeoArrow conventions, encoded as WKB, or for points, as a struct of x and y ordinates when
+ * using {@link GeometryEncoding#NATIVE}, always in x/y order, flipping them when the CRS has a north/east axis order.
+ * Big integers with a known length are encoded as decimals, big decimals as strings, since their scale is unknown,
+ * other numbers that are not integers or floats as doubles, dates as UTC timestamps, and any other type as a string.
+ */
+class ArrowFeatureWriter {
+
+    static final Logger LOGGER = Logging.getLogger(ArrowFeatureWriter.class);
+
+    static final String EXTENSION_NAME = "ARROW:extension:name";
+
+    static final String EXTENSION_METADATA = "ARROW:extension:metadata";
+
+    static final String FID = "__fid";
+
+    /** The maximum precision of a 128 bits decimal */
+    static final int MAX_DECIMAL_PRECISION = 38;
+
+    /** How geometries are encoded */
+    enum GeometryEncoding {
+        /** All geometries encoded as WKB */
+        WKB,
+        /** Points encoded as x/y structs, other geometries as WKB */
+        NATIVE
+    }
+
+    /** Writes a non null value at the given row */
+    @FunctionalInterface
+    private interface ValueSetter {
+        void set(FieldVector vector, int row, Object value);
+    }
+
+    /** A column, and how to fill it from the features */
+    private record Column(Field field, int attribute, ValueSetter setter) {
+
+        void write(FieldVector vector, int row, SimpleFeature feature) {
+            Object value = attribute < 0 ? feature.getID() : feature.getAttribute(attribute);
+            if (value == null) {
+                setNull(vector, row);
+            } else {
+                setter.set(vector, row, value);
+            }
+        }
+    }
+
+    private final int batchSize;
+
+    private final GeometryEncoding geometryEncoding;
+
+    ArrowFeatureWriter(int batchSize, GeometryEncoding geometryEncoding) {
+        this.batchSize = batchSize;
+        this.geometryEncoding = geometryEncoding;
+    }
+
+    /** Writes the features to the output, which is left open */
+    void write(SimpleFeatureCollection features, OutputStream output) throws IOException {
+        List<Column> columns = getColumns(features.getSchema());
+        List<Field> fields = new ArrayList<>(columns.size());
+        for (Column column : columns) {
+            fields.add(column.field());
+        }
+
+        try (BufferAllocator allocator = new RootAllocator();
+                VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(fields), allocator);
+                ArrowStreamWriter writer = new ArrowStreamWriter(
+                        root, null, Channels.newChannel(CloseShieldOutputStream.wrap(output)));
+                SimpleFeatureIterator it = features.features()) {
+            List<FieldVector> vectors = root.getFieldVectors();
+            writer.start();
+            root.allocateNew();
+            int row = 0;
+            while (it.hasNext()) {
+                SimpleFeature feature = it.next();
+                for (int i = 0; i < columns.size(); i++) {
+                    columns.get(i).write(vectors.get(i), row, feature);
+                }
+                row++;
+                if (row == batchSize) {
+                    root.setRowCount(row);
+                    writer.writeBatch();
+                    root.allocateNew();
+                    row = 0;
+                }
+            }
+            if (row > 0) {
+                root.setRowCount(row);
+                writer.writeBatch();
+            }
+            writer.end();
+        }
+    }
+
+    private List<Column> getColumns(SimpleFeatureType schema) {
+        List<Column> columns = new ArrayList<>();
+        columns.add(new Column(field(getIdName(schema), ArrowType.Utf8.INSTANCE), -1, ArrowFeatureWriter::setString));
+        for (int i = 0; i < schema.getAttributeCount(); i++) {
+            columns.add(getColumn(schema.getDescriptor(i), i));
+        }
+        return columns;
+    }
+
+    /** Returns the name of the feature id column, making sure it does not collide with any attribute */
+    static String getIdName(SimpleFeatureType schema) {
+        String name = FID;
+        while (hasAttribute(schema, name)) {
+            name = "_" + name;
+        }
+        return name;
+    }
+
+    private static boolean hasAttribute(SimpleFeatureType schema, String name) {
+        for (AttributeDescriptor ad : schema.getAttributeDescriptors()) {
+            if (ad.getLocalName().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Column getColumn(AttributeDescriptor ad, int index) {
+        String name = ad.getLocalName();
+        if (ad instanceof GeometryDescriptor gd) {
+            return getGeometryColumn(gd, index);
+        }
+        Class<?> binding = ad.getType().getBinding();
+        if (Boolean.class.isAssignableFrom(binding)) {
+            return new Column(
+                    field(name, ArrowType.Bool.INSTANCE),
+                    index,
+                    (v, row, value) -> ((BitVector) v).setSafe(row, (Boolean) value ? 1 : 0));
+        } else if (Integer.class.isAssignableFrom(binding)
+                || Short.class.isAssignableFrom(binding)
+                || Byte.class.isAssignableFrom(binding)) {
+            return new Column(
+                    field(name, new ArrowType.Int(32, true)),
+                    index,
+                    (v, row, value) -> ((IntVector) v).setSafe(row, ((Number) value).intValue()));
+        } else if (Long.class.isAssignableFrom(binding)) {
+            return new Column(
+                    field(name, new ArrowType.Int(64, true)),
+                    index,
+                    (v, row, value) -> ((BigIntVector) v).setSafe(row, ((Number) value).longValue()));
+        } else if (Float.class.isAssignableFrom(binding)) {
+            return new Column(
+                    field(name, new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE)),
+                    index,
+                    (v, row, value) -> ((Float4Vector) v).setSafe(row, ((Number) value).floatValue()));
+        } else if (BigInteger.class.isAssignableFrom(binding)) {
+            // the length is the maximum number of digits, when known
+            int precision = FeatureTypes.getFieldLength(ad);
+            if (precision > 0 && precision <= MAX_DECIMAL_PRECISION) {
+                return new Column(
+                        field(name, new ArrowType.Decimal(precision, 0, 128)),
+                        index,
+                        (v, row, value) -> ((DecimalVector) v).setSafe(row, new BigDecimal((BigInteger) value)));
+            }
+        } else if (BigDecimal.class.isAssignableFrom(binding)) {
+            // the scale is not available in the feature type, keep the exact value as a string
+            return new Column(field(name, ArrowType.Utf8.INSTANCE), index, ArrowFeatureWriter::setString);
+        } else if (Number.class.isAssignableFrom(binding)) {
+            return new Column(
+                    field(name, new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+                    index,
+                    (v, row, value) -> ((Float8Vector) v).setSafe(row, ((Number) value).doubleValue()));
+        } else if (java.sql.Date.class.isAssignableFrom(binding)) {
+            return new Column(
+                    field(name, new ArrowType.Date(DateUnit.DAY)),
+                    index,
+                    (v, row, value) -> ((DateDayVector) v)
+                            .setSafe(row, (int) ((java.sql.Date) value).toLocalDate().toEpochDay()));
+        } else if (java.sql.Time.class.isAssignableFrom(binding)) {
+            return new Column(
+                    field(name, new ArrowType.Time(TimeUnit.MILLISECOND, 32)),
+                    index,
+                    (v, row, value) -> ((TimeMilliVector) v)
+                            .setSafe(row, (int) (((java.sql.Time) value).toLocalTime().toNanoOfDay() / 1_000_000)));
+        } else if (java.util.Date.class.isAssignableFrom(binding)) {
+            return new Column(
+                    field(name, new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC")),
+                    index,
+                    (v, row, value) -> ((TimeStampMilliTZVector) v).setSafe(row, ((java.util.Date) value).getTime()));
+        }
+        return new Column(field(name, ArrowType.Utf8.INSTANCE), index, ArrowFeatureWriter::setString);
+    }
+
+    private Column getGeometryColumn(GeometryDescriptor gd, int index) {
+        String name = gd.getLocalName();
+        Map<String, String> metadata = new HashMap<>();
+        CoordinateReferenceSystem crs = gd.getCoordinateReferenceSystem();
+        String extensionMetadata = getExtensionMetadata(crs);
+        if (extensionMetadata != null) {
+            metadata.put(EXTENSION_METADATA, extensionMetadata);
+        }
+        // GeoArrow ordinates are in x/y order, e.g., longitude/latitude
+        boolean flip = crs != null && CRS.getAxisOrder(crs) == CRS.AxisOrder.NORTH_EAST;
+
+        if (geometryEncoding == GeometryEncoding.NATIVE && Point.class.equals(gd.getType().getBinding())) {
+            metadata.put(EXTENSION_NAME, "geoarrow.point");
+            ArrowType doubleType = new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            List<Field> children = List.of(
+                    new Field("x", FieldType.notNullable(doubleType), null),
+                    new Field("y", FieldType.notNullable(doubleType), null));
+            Field field = new Field(name, new FieldType(true, ArrowType.Struct.INSTANCE, null, metadata), children);
+            return new Column(field, index, (v, row, value) -> setPoint(v, row, (Point) value, flip));
+        }
+
+        metadata.put(EXTENSION_NAME, "geoarrow.wkb");
+        Field field = new Field(name, new FieldType(true, ArrowType.Binary.INSTANCE, null, metadata), null);
+        WKBWriter wkbWriter = new WKBWriter();
+        return new Column(field, index, (v, row, value) -> {
+            Geometry geometry = flip ? flip((Geometry) value) : (Geometry) value;
+            ((VarBinaryVector) v).setSafe(row, wkbWriter.write(geometry));
+        });
+    }
+
+    /** Returns a copy of the geometry with the x and y ordinates swapped */
+    static Geometry flip(Geometry geometry) {
+        Geometry flipped = geometry.copy();
+        flipped.apply(new CoordinateSequenceFilter() {
+            @Override
+            public void filter(CoordinateSequence seq, int i) {
+                double x = seq.getOrdinate(i, CoordinateSequence.X);
+                seq.setOrdinate(i, CoordinateSequence.X, seq.getOrdinate(i, CoordinateSequence.Y));
+                seq.setOrdinate(i, CoordinateSequence.Y, x);
+            }
+
+            @Override
+            public boolean isDone() {
+                return false;
+            }
+
+            @Override
+            public boolean isGeometryChanged() {
+                return true;
+            }
+        });
+        return flipped;
+    }
+
+    /** Returns the GeoArrow extension metadata, reporting the CRS authority code, if any */
+    private static String getExtensionMetadata(CoordinateReferenceSystem crs) {
+        if (crs == null) {
+            return null;
+        }
+        try {
+            String identifier = ResourcePool.lookupIdentifier(crs, true);
+            if (identifier != null) {
+                JSONObject metadata = new JSONObject();
+                metadata.put("crs", identifier);
+                metadata.put("crs_type", "authority_code");
+                return metadata.toString();
+            }
+        } catch (FactoryException e) {
+            LOGGER.log(Level.FINE, "Failed to lookup the CRS identifier, won't be reported", e);
+        }
+        return null;
+    }
+
+    private static Field field(String name, ArrowType type) {
+        return new Field(name, FieldType.nullable(type), null);
+    }
+
+    private static void setString(FieldVector vector, int row, Object value) {
+        ((VarCharVector) vector).setSafe(row, value.toString().getBytes(UTF_8));
+    }
+
+    private static void setPoint(FieldVector vector, int row, Point point, boolean flip) {
+        StructVector struct = (StructVector) vector;
+        if (point.isEmpty()) {
+            setNull(struct, row);
+            return;
+        }
+        ((Float8Vector) struct.getChildByOrdinal(0)).setSafe(row, flip ? point.getY() : point.getX());
+        ((Float8Vector) struct.getChildByOrdinal(1)).setSafe(row, flip ? point.getX() : point.getY());
+        struct.setIndexDefined(row);
+    }
+
+    private static void setNull(FieldVector vector, int row) {
+        if (vector instanceof BaseFixedWidthVector fixed) {
+            fixed.setNull(row);
+        } else if (vector instanceof BaseVariableWidthVector variable) {
+            variable.setNull(row);
+        } else if (vector instanceof StructVector struct) {
+            // the ordinates are not nullable, fill them anyway
+            ((Float8Vector) struct.getChildByOrdinal(0)).setSafe(row, 0);
+            ((Float8Vector) struct.getChildByOrdinal(1)).setSafe(row, 0);
+            struct.setNull(row);
+        }
+    }
+}
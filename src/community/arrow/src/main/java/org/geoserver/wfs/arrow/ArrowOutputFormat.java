@@ -0,0 +1,138 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.arrow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.geoserver.config.GeoServer;
+import org.geoserver.feature.FlatteningFeatureCollection;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.wfs.WFSGetFeatureOutputFormat;
+import org.geoserver.wfs.arrow.ArrowFeatureWriter.GeometryEncoding;
+import org.geoserver.wfs.request.FeatureCollectionResponse;
+import org.geoserver.wfs.request.GetFeatureRequest;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.feature.FeatureCollection;
+
+/**
+ * WFS output format for a GetFeature operation producing an Apache Arrow IPC stream, with GeoArrow encoded geometries.
+ * Being a {@link WFSGetFeatureOutputFormat}, it's also available in OGC API - Features.
+ *
+ * <p>The following format options are supported:
+ *
+ * <ul>
+ *   <li>{@code BATCH_SIZE}: number of features per record batch, defaults to the {@link #BATCH_SIZE_PROPERTY}
+ *       property, or 10000. Capped to {@link #MAX_BATCH_SIZE}, as a batch is kept in memory until complete
+ *   <li>{@code GEOMETRY_ENCODING}: {@code WKB} (default) or {@code NATIVE}, the latter encodes points as x/y structs
+ * </ul>
+ */
+public class ArrowOutputFormat extends WFSGetFeatureOutputFormat {
+
+    /** The Arrow IPC stream MIME type */
+    public static final String MIME_TYPE = "application/vnd.apache.arrow.stream";
+
+    /** System property controlling the default number of features per record batch */
+    public static final String BATCH_SIZE_PROPERTY = "GEOSERVER_ARROW_BATCH_SIZE";
+
+    static final int DEFAULT_BATCH_SIZE = 10000;
+
+    static final int MAX_BATCH_SIZE = 100000;
+
+    public ArrowOutputFormat(GeoServer gs) {
+        super(gs, new LinkedHashSet<>(Arrays.asList(MIME_TYPE, "arrow")));
+    }
+
+    @Override
+    public String getMimeType(Object value, Operation operation) throws ServiceException {
+        return MIME_TYPE;
+    }
+
+    @Override
+    public String getCapabilitiesElementName() {
+        return "ARROW";
+    }
+
+    @Override
+    protected String getExtension(FeatureCollectionResponse response) {
+        return "arrows";
+    }
+
+    @Override
+    public String getPreferredDisposition(Object value, Operation operation) {
+        return DISPOSITION_ATTACH;
+    }
+
+    @Override
+    protected void write(FeatureCollectionResponse featureCollection, OutputStream output, Operation operation)
+            throws IOException, ServiceException {
+        // an Arrow stream has a single schema
+        List<FeatureCollection> collections = featureCollection.getFeature();
+        if (collections.size() != 1) {
+            throw new ServiceException(
+                    "Arrow output supports a single feature type per request",
+                    ServiceException.INVALID_PARAMETER_VALUE,
+                    "typeNames");
+        }
+        FeatureCollection fc = collections.get(0);
+        if (!(fc.getSchema() instanceof SimpleFeatureType)) {
+            throw new ServiceException("Arrow output does not support complex features");
+        }
+        // flatten the joined features, if any
+        SimpleFeatureCollection features = FlatteningFeatureCollection.flatten((SimpleFeatureCollection) fc);
+
+        Map<String, ?> formatOptions = getFormatOptions(operation);
+        ArrowFeatureWriter writer =
+                new ArrowFeatureWriter(getBatchSize(formatOptions), getGeometryEncoding(formatOptions));
+        writer.write(features, output);
+    }
+
+    private Map<String, ?> getFormatOptions(Operation operation) {
+        GetFeatureRequest request = GetFeatureRequest.adapt(operation.getParameters()[0]);
+        return request != null && request.getFormatOptions() != null ? request.getFormatOptions() : Map.of();
+    }
+
+    private int getBatchSize(Map<String, ?> formatOptions) {
+        Object value = formatOptions.get("BATCH_SIZE");
+        if (value == null) {
+            value = GeoServerExtensions.getProperty(BATCH_SIZE_PROPERTY);
+        }
+        if (value == null) {
+            return DEFAULT_BATCH_SIZE;
+        }
+        try {
+            int batchSize = Integer.parseInt(value.toString().trim());
+            if (batchSize > 0) {
+                return Math.min(batchSize, MAX_BATCH_SIZE);
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new ServiceException(
+                "Invalid Arrow batch size: " + value, ServiceException.INVALID_PARAMETER_VALUE, "format_options");
+    }
+
+    private GeometryEncoding getGeometryEncoding(Map<String, ?> formatOptions) {
+        Object value = formatOptions.get("GEOMETRY_ENCODING");
+        if (value == null) {
+            return GeometryEncoding.WKB;
+        }
+        try {
+            return GeometryEncoding.valueOf(value.toString().trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException(
+                    "Invalid Arrow geometry encoding: " + value + ", supported values are WKB and NATIVE",
+                    ServiceException.INVALID_PARAMETER_VALUE,
+                    "format_options");
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.arrow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import net.sf.json.JSONObject;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.geoserver.data.test.MockData;
+import org.geoserver.wfs.WFSTestSupport;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.geometry.jts.JTSFactoryFinder;
+import org.geotools.referencing.CRS;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.WKBReader;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class ArrowOutputFormatTest extends WFSTestSupport {
+
+    @Test
+    public void testWKB() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse(
+                "wfs?request=GetFeature&version=1.0.0&typeName=cite:Buildings&outputFormat=arrow");
+        assertEquals(ArrowOutputFormat.MIME_TYPE, response.getContentType());
+        assertEquals("attachment; filename=Buildings.arrows", response.getHeader("Content-Disposition"));
+
+        List<SimpleFeature> expected =
+                DataUtilities.list(getFeatureSource(MockData.BUILDINGS).getFeatures());
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader =
+                        new ArrowStreamReader(new ByteArrayInputStream(response.getContentAsByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            List<String> names = new ArrayList<>();
+            for (Field field : root.getSchema().getFields()) {
+                names.add(field.getName());
+            }
+            assertEquals(List.of("__fid", "the_geom", "FID", "ADDRESS"), names);
+            Field geometry = root.getSchema().findField("the_geom");
+            assertEquals("geoarrow.wkb", geometry.getMetadata().get(ArrowFeatureWriter.EXTENSION_NAME));
+
+            assertTrue(reader.loadNextBatch());
+            assertEquals(expected.size(), root.getRowCount());
+            WKBReader wkbReader = new WKBReader();
+            for (int i = 0; i < expected.size(); i++) {
+                SimpleFeature feature = expected.get(i);
+                assertEquals(feature.getID(), ((VarCharVector) root.getVector("__fid")).getObject(i).toString());
+                assertEquals(
+                        feature.getAttribute("ADDRESS"),
+                        ((VarCharVector) root.getVector("ADDRESS")).getObject(i).toString());
+                Geometry actual = wkbReader.read(((VarBinaryVector) root.getVector("the_geom")).get(i));
+                assertTrue(((Geometry) feature.getDefaultGeometry()).equalsExact(actual));
+            }
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+
+    @Test
+    public void testBatchSize() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.0.0"
+                + "&typeName=cite:Buildings&outputFormat=arrow&format_options=batch_size:1");
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader =
+                        new ArrowStreamReader(new ByteArrayInputStream(response.getContentAsByteArray()), allocator)) {
+            int batches = 0;
+            while (reader.loadNextBatch()) {
+                assertEquals(1, reader.getVectorSchemaRoot().getRowCount());
+                batches++;
+            }
+            assertEquals(2, batches);
+        }
+    }
+
+    @Test
+    public void testBatchSizeCapped() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.0.0"
+                + "&typeName=cite:Buildings&outputFormat=arrow&format_options=batch_size:2000000000");
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader =
+                        new ArrowStreamReader(new ByteArrayInputStream(response.getContentAsByteArray()), allocator)) {
+            assertTrue(reader.loadNextBatch());
+            assertEquals(2, reader.getVectorSchemaRoot().getRowCount());
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+
+    @Test
+    public void testIdName() throws Exception {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("test");
+        tb.add("name", String.class);
+        assertEquals("__fid", ArrowFeatureWriter.getIdName(tb.buildFeatureType()));
+
+        tb.setName("test");
+        tb.add("name", String.class);
+        tb.add("__FID", String.class);
+        tb.add("___fid", String.class);
+        assertEquals("____fid", ArrowFeatureWriter.getIdName(tb.buildFeatureType()));
+    }
+
+    @Test
+    public void testNativePoints() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.0.0"
+                + "&typeName=cgf:Points&outputFormat=arrow&format_options=geometry_encoding:native");
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader =
+                        new ArrowStreamReader(new ByteArrayInputStream(response.getContentAsByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            Field geometry = root.getSchema().findField("pointProperty");
+            assertEquals("geoarrow.point", geometry.getMetadata().get(ArrowFeatureWriter.EXTENSION_NAME));
+            JSONObject metadata =
+                    JSONObject.fromObject(geometry.getMetadata().get(ArrowFeatureWriter.EXTENSION_METADATA));
+            assertEquals("EPSG:32615", metadata.getString("crs"));
+
+            assertTrue(reader.loadNextBatch());
+            assertEquals(1, root.getRowCount());
+            assertEquals(500, ((IntVector) root.getVector("altitude")).get(0));
+            StructVector point = (StructVector) root.getVector("pointProperty");
+            assertEquals(500050, ((Float8Vector) point.getChild("x")).get(0), 0d);
+            assertEquals(500050, ((Float8Vector) point.getChild("y")).get(0), 0d);
+        }
+    }
+
+    @Test
+    public void testLatLonAxisOrder() throws Exception {
+        // the native data is in longitude/latitude order, the output must not change
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.1.0"
+                + "&typeName=cite:Buildings&outputFormat=arrow&srsName=urn:ogc:def:crs:EPSG::4326");
+        List<SimpleFeature> expected =
+                DataUtilities.list(getFeatureSource(MockData.BUILDINGS).getFeatures());
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader =
+                        new ArrowStreamReader(new ByteArrayInputStream(response.getContentAsByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertTrue(reader.loadNextBatch());
+            assertEquals(expected.size(), root.getRowCount());
+            WKBReader wkbReader = new WKBReader();
+            for (int i = 0; i < expected.size(); i++) {
+                Geometry actual = wkbReader.read(((VarBinaryVector) root.getVector("the_geom")).get(i));
+                assertTrue(((Geometry) expected.get(i).getDefaultGeometry()).equalsExact(actual));
+            }
+        }
+    }
+
+    @Test
+    public void testNativePointsLatLon() throws Exception {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("test");
+        tb.crs(CRS.decode("urn:ogc:def:crs:EPSG::4326"));
+        tb.add("geom", Point.class);
+        SimpleFeatureType schema = tb.buildFeatureType();
+        GeometryFactory gf = JTSFactoryFinder.getGeometryFactory();
+        SimpleFeature feature =
+                SimpleFeatureBuilder.build(schema, new Object[] {gf.createPoint(new Coordinate(45, 10))}, "test.1");
+
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader = new ArrowStreamReader(
+                        write(new ArrowFeatureWriter(10, ArrowFeatureWriter.GeometryEncoding.NATIVE), feature),
+                        allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertTrue(reader.loadNextBatch());
+            StructVector point = (StructVector) root.getVector("geom");
+            assertEquals(10, ((Float8Vector) point.getChild("x")).get(0), 0d);
+            assertEquals(45, ((Float8Vector) point.getChild("y")).get(0), 0d);
+        }
+    }
+
+    @Test
+    public void testBigNumbers() throws Exception {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("test");
+        tb.length(20).add("counted", BigInteger.class);
+        tb.add("unbounded", BigInteger.class);
+        tb.add("amount", BigDecimal.class);
+        SimpleFeatureType schema = tb.buildFeatureType();
+        BigInteger big = new BigInteger("12345678901234567890");
+        BigDecimal amount = new BigDecimal("1234567890.123456789012345");
+        SimpleFeature feature = SimpleFeatureBuilder.build(schema, new Object[] {big, big, amount}, "test.1");
+
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader = new ArrowStreamReader(
+                        write(new ArrowFeatureWriter(10, ArrowFeatureWriter.GeometryEncoding.WKB), feature),
+                        allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertEquals(new ArrowType.Decimal(20, 0, 128), root.getSchema().findField("counted").getType());
+            assertEquals(ArrowType.Utf8.INSTANCE, root.getSchema().findField("unbounded").getType());
+            assertEquals(ArrowType.Utf8.INSTANCE, root.getSchema().findField("amount").getType());
+
+            assertTrue(reader.loadNextBatch());
+            assertEquals(new BigDecimal(big), ((DecimalVector) root.getVector("counted")).getObject(0));
+            assertEquals(big.toString(), ((VarCharVector) root.getVector("unbounded")).getObject(0).toString());
+            assertEquals(amount.toString(), ((VarCharVector) root.getVector("amount")).getObject(0).toString());
+        }
+    }
+
+    private ByteArrayInputStream write(ArrowFeatureWriter writer, SimpleFeature... features) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.write(DataUtilities.collection(features), bos);
+        return new ByteArrayInputStream(bos.toByteArray());
+    }
+
+    @Test
+    public void testMultipleTypes() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.0.0"
+                + "&typeName=cite:Buildings,cite:Bridges&outputFormat=arrow");
+        assertTrue(response.getContentAsString().contains("single feature type"));
+    }
+}
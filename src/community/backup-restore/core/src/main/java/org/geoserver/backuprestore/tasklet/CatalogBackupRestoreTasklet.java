@@ -30,6 +30,7 @@
 import org.geoserver.gwc.config.GeoserverXMLResourceProvider;
 import org.geoserver.gwc.layer.DefaultTileLayerCatalog;
 import org.geoserver.gwc.layer.GeoServerTileLayerInfo;
+import org.geoserver.gwc.layer.IndexedTileLayerCatalog;
 import org.geoserver.gwc.layer.TileLayerCatalog;
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.GeoServerResourceLoader;
@@ -1151,9 +1152,14 @@ private void restoreGwcLayers(Resource sourceRestoreFolder, Resource targetGWCPr
         gwcRestoreCatalog.initialize();
         // only delete gwc layers directory if its a full restore
         if (!filterIsValid()) {
-            Resource gwcCatalogPersistenceLocation =
-                    targetGWCProviderRestoreDir.parent().get(gwcCatalog.getPersistenceLocation());
-            Files.delete(gwcCatalogPersistenceLocation.dir());
+            if (gwcCatalog instanceof IndexedTileLayerCatalog) {
+                // the single file store is kept open, clear it through the catalog instead
+                gwcCatalog.getLayerIds().forEach(gwcCatalog::delete);
+            } else {
+                Resource gwcCatalogPersistenceLocation =
+                        targetGWCProviderRestoreDir.parent().get(gwcCatalog.getPersistenceLocation());
+                Files.delete(gwcCatalogPersistenceLocation.dir());
+            }
         }
         // restore tile layers
         restoreGWCTileLayersInfos(gwcCatalog, layersByName, gwcRestoreCatalog);
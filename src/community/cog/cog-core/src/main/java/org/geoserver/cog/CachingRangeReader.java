@@ -0,0 +1,132 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cog;
+
+import com.google.common.hash.Hashing;
+import it.geosolutions.imageio.core.BasicAuthURI;
+import it.geosolutions.imageioimpl.plugins.cog.AbstractRangeReader;
+import it.geosolutions.imageioimpl.plugins.cog.RangeReader;
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.util.Map;
+import org.geoserver.cog.CogSettings.RangeReaderType;
+
+/**
+ * {@link RangeReader} serving the COG data through the shared {@link CogBlockCache}, and delegating the actual remote
+ * reads to the range reader of the configured {@link RangeReaderType}.
+ *
+ * <p>The remote file version is identified by its size and the content of its header, which is always fetched
+ * remotely when the file is opened: a file replaced on the remote side gets a new set of cache entries, and the old
+ * ones are evicted in LRU order.
+ *
+ * <p>The COG reader instantiates range readers by class name, there is one subclass per range reader type, named
+ * after the {@link RangeReaderType} constants.
+ */
+public abstract class CachingRangeReader extends AbstractRangeReader {
+
+    private final RangeReader delegate;
+
+    private final CogBlockCache cache;
+
+    private volatile String source;
+
+    protected CachingRangeReader(BasicAuthURI uri, int headerLength, RangeReaderType type) {
+        super(uri.getUri(), headerLength);
+        this.delegate = createDelegate(type, uri, BasicAuthURI.class, headerLength);
+        this.cache = CogBlockCache.get();
+    }
+
+    protected CachingRangeReader(URI uri, int headerLength, RangeReaderType type) {
+        super(uri, headerLength);
+        this.delegate = createDelegate(type, uri, URI.class, headerLength);
+        this.cache = CogBlockCache.get();
+    }
+
+    private static RangeReader createDelegate(RangeReaderType type, Object uri, Class<?> uriClass, int headerLength) {
+        String className = type.getRangeReaderClassName();
+        try {
+            Constructor<?> constructor = Class.forName(className).getConstructor(uriClass, int.class);
+            return (RangeReader) constructor.newInstance(uri, headerLength);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create the range reader " + className, e);
+        }
+    }
+
+    @Override
+    public void setHeaderLength(int headerLength) {
+        super.setHeaderLength(headerLength);
+        delegate.setHeaderLength(headerLength);
+    }
+
+    @Override
+    public byte[] fetchHeader() {
+        byte[] header = delegate.fetchHeader();
+        source = uri + "#" + delegate.getFileSize() + "#" + Hashing.murmur3_128().hashBytes(header);
+        return header;
+    }
+
+    @Override
+    public long getFileSize() {
+        return delegate.getFileSize();
+    }
+
+    @Override
+    public Map<Long, byte[]> read(long[]... ranges) {
+        String version = source;
+        if (version == null) {
+            // header not fetched yet, the file version is unknown
+            return delegate.read(ranges);
+        }
+        return cache.read(version, ranges, r -> delegate.read(r.toArray(new long[r.size()][])));
+    }
+
+    /** Caching {@link RangeReaderType#HTTP} reader */
+    public static class HTTP extends CachingRangeReader {
+
+        public HTTP(BasicAuthURI uri, int headerLength) {
+            super(uri, headerLength, RangeReaderType.HTTP);
+        }
+
+        public HTTP(URI uri, int headerLength) {
+            super(uri, headerLength, RangeReaderType.HTTP);
+        }
+    }
+
+    /** Caching {@link RangeReaderType#S3} reader */
+    public static class S3 extends CachingRangeReader {
+
+        public S3(BasicAuthURI uri, int headerLength) {
+            super(uri, headerLength, RangeReaderType.S3);
+        }
+
+        public S3(URI uri, int headerLength) {
+            super(uri, headerLength, RangeReaderType.S3);
+        }
+    }
+
+    /** Caching {@link RangeReaderType#GS} reader */
+    public static class GS extends CachingRangeReader {
+
+        public GS(BasicAuthURI uri, int headerLength) {
+            super(uri, headerLength, RangeReaderType.GS);
+        }
+
+        public GS(URI uri, int headerLength) {
+            super(uri, headerLength, RangeReaderType.GS);
+        }
+    }
+
+    /** Caching {@link RangeReaderType#Azure} reader */
+    public static class Azure extends CachingRangeReader {
+
+        public Azure(BasicAuthURI uri, int headerLength) {
+            super(uri, headerLength, RangeReaderType.Azure);
+        }
+
+        public Azure(URI uri, int headerLength) {
+            super(uri, headerLength, RangeReaderType.Azure);
+        }
+    }
+}
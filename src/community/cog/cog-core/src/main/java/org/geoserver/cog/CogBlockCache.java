@@ -0,0 +1,389 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cog;
+
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Block cache for the byte ranges read from remote COGs. The remote files are split in fixed size blocks, kept in an
+ * off-heap LRU memory tier, backed by an LRU local disk tier. Blocks are keyed by the source, which includes the file
+ * version, and the block index.
+ *
+ * <p>Missing blocks needed by a read are fetched with as few remote requests as possible, adjacent blocks are
+ * coalesced in a single range.
+ *
+ * <p>The shared instance is configured with the following system properties:
+ *
+ * <ul>
+ *   <li><code>org.geoserver.cog.blockCache.blockSize</code>: the block size in bytes, 64KB by default
+ *   <li><code>org.geoserver.cog.blockCache.memory</code>: the memory tier size in bytes, 64MB by default
+ *   <li><code>org.geoserver.cog.blockCache.disk</code>: the disk tier size in bytes, 1GB by default, 0 to disable it
+ *   <li><code>org.geoserver.cog.blockCache.dir</code>: the disk tier location, <code>cog-cache</code> in the data
+ *       directory by default
+ * </ul>
+ */
+public class CogBlockCache {
+
+    static final Logger LOGGER = Logging.getLogger(CogBlockCache.class);
+
+    static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    static final long DEFAULT_MEMORY_SIZE = 64 * 1024 * 1024;
+
+    static final long DEFAULT_DISK_SIZE = 1024 * 1024 * 1024;
+
+    static final String BLOCK_EXTENSION = ".blk";
+
+    /** Fetches byte ranges from the remote source */
+    @FunctionalInterface
+    public interface RangeFetcher {
+
+        /**
+         * Fetches the ranges, each one made of a start and an inclusive end offset, and returns the data keyed by the
+         * range start offset. Ranges going past the end of the file return a shorter array.
+         */
+        Map<Long, byte[]> fetch(List<long[]> ranges);
+    }
+
+    /** Cache usage statistics */
+    public record Statistics(
+            long memoryHits,
+            long diskHits,
+            long misses,
+            long remoteRequests,
+            long remoteBytes,
+            long memoryBytes,
+            long diskBytes) {
+
+        /** Ratio of the blocks found in the cache, in memory or on disk */
+        public double hitRatio() {
+            long total = memoryHits + diskHits + misses;
+            return total == 0 ? 0 : (double) (memoryHits + diskHits) / total;
+        }
+    }
+
+    private record BlockKey(String source, long index) {}
+
+    private static CogBlockCache instance;
+
+    private final int blockSize;
+
+    private final long maxMemory;
+
+    private final long maxDisk;
+
+    private final Path directory;
+
+    private final LinkedHashMap<BlockKey, ByteBuffer> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long memoryBytes;
+
+    /** Disk blocks sizes, by path relative to the cache directory, in access order */
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long diskBytes;
+
+    private final LongAdder memoryHits = new LongAdder();
+
+    private final LongAdder diskHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder remoteRequests = new LongAdder();
+
+    private final LongAdder remoteBytes = new LongAdder();
+
+    /**
+     * Builds a cache
+     *
+     * @param blockSize the block size in bytes
+     * @param maxMemory the max size of the off-heap memory tier
+     * @param maxDisk the max size of the disk tier, 0 to disable it
+     * @param directory the disk tier directory, can be null if the disk tier is disabled
+     */
+    public CogBlockCache(int blockSize, long maxMemory, long maxDisk, File directory) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive, but was " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.maxMemory = maxMemory;
+        this.maxDisk = directory != null ? maxDisk : 0;
+        this.directory = directory != null ? directory.toPath() : null;
+        if (this.maxDisk > 0) {
+            loadDiskIndex();
+        }
+    }
+
+    /** Returns the shared cache, configured from system properties */
+    public static synchronized CogBlockCache get() {
+        if (instance == null) {
+            int blockSize = Integer.getInteger("org.geoserver.cog.blockCache.blockSize", DEFAULT_BLOCK_SIZE);
+            long maxMemory = Long.getLong("org.geoserver.cog.blockCache.memory", DEFAULT_MEMORY_SIZE);
+            long maxDisk = Long.getLong("org.geoserver.cog.blockCache.disk", DEFAULT_DISK_SIZE);
+            instance = new CogBlockCache(blockSize, maxMemory, maxDisk, getDefaultDirectory());
+        }
+        return instance;
+    }
+
+    private static File getDefaultDirectory() {
+        String location = System.getProperty("org.geoserver.cog.blockCache.dir");
+        if (location != null) {
+            return new File(location);
+        }
+        GeoServerResourceLoader loader = GeoServerExtensions.bean(GeoServerResourceLoader.class);
+        if (loader != null) {
+            return loader.get("cog-cache").dir();
+        }
+        return new File(System.getProperty("java.io.tmpdir"), "geoserver-cog-cache");
+    }
+
+    /** Returns the block size */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Reads the given ranges of the source, using the cached blocks and fetching the missing ones
+     *
+     * @param source the source identifier, should change when the remote file changes
+     * @param ranges the ranges to be read, each one made of a start and an inclusive end offset
+     * @param fetcher fetches the missing data from the remote source
+     * @return the data keyed by the range start offset
+     */
+    public Map<Long, byte[]> read(String source, long[][] ranges, RangeFetcher fetcher) {
+        String key = Hashing.sha256().hashString(source, StandardCharsets.UTF_8).toString();
+
+        // the blocks needed to satisfy the request
+        TreeSet<Long> needed = new TreeSet<>();
+        for (long[] range : ranges) {
+            for (long b = range[0] / blockSize; b <= range[1] / blockSize; b++) {
+                needed.add(b);
+            }
+        }
+        Map<Long, byte[]> blocks = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long index : needed) {
+            byte[] block = getCached(new BlockKey(key, index));
+            if (block != null) {
+                blocks.put(index, block);
+            } else {
+                missing.add(index);
+            }
+        }
+        misses.add(missing.size());
+
+        // fetch the missing ones, coalescing adjacent blocks
+        if (!missing.isEmpty()) {
+            List<long[]> fetchRanges = new ArrayList<>();
+            long first = missing.get(0);
+            long last = first;
+            for (int i = 1; i <= missing.size(); i++) {
+                if (i < missing.size() && missing.get(i) == last + 1) {
+                    last = missing.get(i);
+                    continue;
+                }
+                fetchRanges.add(new long[] {first * blockSize, (last + 1) * blockSize - 1});
+                if (i < missing.size()) {
+                    first = last = missing.get(i);
+                }
+            }
+            remoteRequests.add(fetchRanges.size());
+            Map<Long, byte[]> fetched = fetcher.fetch(fetchRanges);
+            for (long[] range : fetchRanges) {
+                byte[] data = fetched.get(range[0]);
+                if (data == null) {
+                    throw new IllegalStateException(
+                            "Range " + range[0] + "-" + range[1] + " was not returned while reading " + source);
+                }
+                remoteBytes.add(data.length);
+                // blocks past the end of the file are cached as empty ones
+                long firstBlock = range[0] / blockSize;
+                for (long b = firstBlock; b <= range[1] / blockSize; b++) {
+                    int offset = (int) Math.min(data.length, (b - firstBlock) * blockSize);
+                    byte[] block = Arrays.copyOfRange(data, offset, Math.min(data.length, offset + blockSize));
+                    BlockKey blockKey = new BlockKey(key, b);
+                    blocks.put(blockKey.index(), block);
+                    putMemory(blockKey, block);
+                    putDisk(blockKey, block);
+                }
+            }
+        }
+
+        // assemble the results
+        Map<Long, byte[]> result = new HashMap<>();
+        for (long[] range : ranges) {
+            byte[] data = new byte[(int) (range[1] - range[0] + 1)];
+            int length = 0;
+            for (long b = range[0] / blockSize; b <= range[1] / blockSize; b++) {
+                byte[] block = blocks.get(b);
+                long blockStart = b * blockSize;
+                int from = (int) Math.max(0, range[0] - blockStart);
+                int to = (int) Math.min(block == null ? 0 : block.length, range[1] - blockStart + 1);
+                if (to <= from) {
+                    // past the end of the file
+                    break;
+                }
+                System.arraycopy(block, from, data, length, to - from);
+                length += to - from;
+            }
+            result.put(range[0], length == data.length ? data : Arrays.copyOf(data, length));
+        }
+        return result;
+    }
+
+    private byte[] getCached(BlockKey key) {
+        synchronized (memory) {
+            ByteBuffer buffer = memory.get(key);
+            if (buffer != null) {
+                memoryHits.increment();
+                byte[] block = new byte[buffer.remaining()];
+                buffer.duplicate().get(block);
+                return block;
+            }
+        }
+        if (maxDisk > 0) {
+            String path = getRelativePath(key);
+            boolean found;
+            synchronized (disk) {
+                found = disk.get(path) != null;
+            }
+            if (found) {
+                try {
+                    byte[] block = Files.readAllBytes(directory.resolve(path));
+                    diskHits.increment();
+                    putMemory(key, block);
+                    return block;
+                } catch (IOException e) {
+                    // evicted in the meantime, or unreadable, fetch it again
+                    LOGGER.log(Level.FINE, "Failed to read cached block " + path, e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void putMemory(BlockKey key, byte[] block) {
+        if (block.length > maxMemory) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(block.length);
+        buffer.put(block).flip();
+        synchronized (memory) {
+            ByteBuffer previous = memory.put(key, buffer);
+            if (previous != null) {
+                memoryBytes -= previous.capacity();
+            }
+            memoryBytes += block.length;
+            Iterator<ByteBuffer> it = memory.values().iterator();
+            while (memoryBytes > maxMemory && it.hasNext()) {
+                memoryBytes -= it.next().capacity();
+                it.remove();
+            }
+        }
+    }
+
+    private void putDisk(BlockKey key, byte[] block) {
+        if (maxDisk <= 0 || block.length > maxDisk) {
+            return;
+        }
+        String path = getRelativePath(key);
+        try {
+            Path target = directory.resolve(path);
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "block", ".tmp");
+            Files.write(temp, block);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write cached block " + path, e);
+            return;
+        }
+        List<String> evicted = new ArrayList<>();
+        synchronized (disk) {
+            Long previous = disk.put(path, (long) block.length);
+            if (previous != null) {
+                diskBytes -= previous;
+            }
+            diskBytes += block.length;
+            Iterator<Map.Entry<String, Long>> it = disk.entrySet().iterator();
+            while (diskBytes > maxDisk && it.hasNext()) {
+                Map.Entry<String, Long> entry = it.next();
+                diskBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                it.remove();
+            }
+        }
+        for (String evictedPath : evicted) {
+            try {
+                Files.deleteIfExists(directory.resolve(evictedPath));
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to remove cached block " + evictedPath, e);
+            }
+        }
+    }
+
+    private String getRelativePath(BlockKey key) {
+        return key.source() + "/" + key.index() + BLOCK_EXTENSION;
+    }
+
+    /** Rebuilds the disk tier index from the blocks left by a previous run, least recently modified first */
+    private void loadDiskIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            files.filter(p -> p.getFileName().toString().endsWith(BLOCK_EXTENSION))
+                    .map(Path::toFile)
+                    .sorted(Comparator.comparingLong(File::lastModified))
+                    .forEach(f -> {
+                        disk.put(directory.relativize(f.toPath()).toString().replace('\\', '/'), f.length());
+                        diskBytes += f.length();
+                    });
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to scan the COG block cache directory " + directory, e);
+        }
+    }
+
+    /** Returns the cache usage statistics */
+    public Statistics getStatistics() {
+        long currentMemory, currentDisk;
+        synchronized (memory) {
+            currentMemory = memoryBytes;
+        }
+        synchronized (disk) {
+            currentDisk = diskBytes;
+        }
+        return new Statistics(
+                memoryHits.sum(),
+                diskHits.sum(),
+                misses.sum(),
+                remoteRequests.sum(),
+                remoteBytes.sum(),
+                currentMemory,
+                currentDisk);
+    }
+}
@@ -0,0 +1,68 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cog;
+
+import java.util.Optional;
+import org.geoserver.platform.ModuleStatus;
+
+/** Reports the {@link CogBlockCache} usage statistics in the module status page */
+public class CogBlockCacheStatus implements ModuleStatus {
+
+    @Override
+    public String getModule() {
+        return "gs-cog-core";
+    }
+
+    @Override
+    public Optional<String> getComponent() {
+        return Optional.of("COG block cache");
+    }
+
+    @Override
+    public String getName() {
+        return "COG Block Cache";
+    }
+
+    @Override
+    public Optional<String> getVersion() {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public Optional<String> getMessage() {
+        CogBlockCache cache = CogBlockCache.get();
+        CogBlockCache.Statistics stats = cache.getStatistics();
+        String message = "Block size: " + cache.getBlockSize();
+        message += "\nMemory hits: " + stats.memoryHits();
+        message += "\nDisk hits: " + stats.diskHits();
+        message += "\nMisses: " + stats.misses();
+        message += String.format("\nHit ratio: %.2f", stats.hitRatio());
+        message += "\nRemote requests: " + stats.remoteRequests();
+        message += "\nRemote bytes: " + stats.remoteBytes();
+        message += "\nMemory bytes: " + stats.memoryBytes();
+        message += "\nDisk bytes: " + stats.diskBytes();
+        return Optional.of(message);
+    }
+
+    @Override
+    public Optional<String> getDocumentation() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Category getCategory() {
+        return Category.COMMUNITY;
+    }
+}
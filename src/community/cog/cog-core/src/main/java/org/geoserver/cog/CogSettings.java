@@ -18,6 +18,7 @@ public class CogSettings implements Serializable {
     public CogSettings(CogSettings settings) {
         this.rangeReaderSettings = settings.rangeReaderSettings;
         this.useCachingStream = settings.useCachingStream;
+        this.useBlockCache = settings.useBlockCache;
     }
 
     public CogSettings() {}
@@ -57,14 +58,23 @@ String getRangeReaderClassName() {
         };
 
         abstract String getRangeReaderClassName();
+
+        /** Returns the range reader going through the {@link CogBlockCache} before using this type of reader */
+        String getCachingRangeReaderClassName() {
+            return CachingRangeReader.class.getName() + "$" + name();
+        }
     }
 
     public static final String COG_SETTINGS_KEY = "CogSettings.Key";
 
     public static final boolean DEFAULT_USE_CACHING_STREAM = false;
 
+    public static final boolean DEFAULT_USE_BLOCK_CACHE = false;
+
     protected boolean useCachingStream = DEFAULT_USE_CACHING_STREAM;
 
+    protected boolean useBlockCache = DEFAULT_USE_BLOCK_CACHE;
+
     protected RangeReaderType rangeReaderSettings = RangeReaderType.HTTP;
 
     public RangeReaderType getRangeReaderSettings() {
@@ -82,4 +92,13 @@ public boolean isUseCachingStream() {
     public void setUseCachingStream(boolean useCachingStream) {
         this.useCachingStream = useCachingStream;
     }
+
+    public boolean isUseBlockCache() {
+        return useBlockCache;
+    }
+
+    /** Enables the GeoServer managed {@link CogBlockCache}, shared by all the stores using it */
+    public void setUseBlockCache(boolean useBlockCache) {
+        this.useBlockCache = useBlockCache;
+    }
 }
@@ -104,11 +104,12 @@ protected Optional<SourceSPIProvider> convertReaderInputObject(String input, Cov
             }
         }
         BasicAuthURI cogUri = new BasicAuthURI(baseUri, cogSettings.isUseCachingStream(), user, password);
-        SourceSPIProvider object = new CogSourceSPIProvider(
-                cogUri,
-                COG_IMAGE_READER_SPI,
-                COG_IMAGE_INPUT_STREAM_SPI,
-                cogSettings.getRangeReaderSettings().getRangeReaderClassName());
+        CogSettings.RangeReaderType rangeReaderType = cogSettings.getRangeReaderSettings();
+        String rangeReader = cogSettings.isUseBlockCache()
+                ? rangeReaderType.getCachingRangeReaderClassName()
+                : rangeReaderType.getRangeReaderClassName();
+        SourceSPIProvider object =
+                new CogSourceSPIProvider(cogUri, COG_IMAGE_READER_SPI, COG_IMAGE_INPUT_STREAM_SPI, rangeReader);
         return Optional.of(object);
     }
 }
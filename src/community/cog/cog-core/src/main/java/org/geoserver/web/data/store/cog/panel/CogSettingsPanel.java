@@ -25,6 +25,8 @@
     /** Note that caching is temporarily disabled from the UI */
     protected final CheckBox useCachingStream;
 
+    protected final CheckBox useBlockCache;
+
     protected DropDownChoice<CogSettings.RangeReaderType> rangeReaderSettings;
 
     protected final WebMarkupContainer container;
@@ -38,6 +40,8 @@ public CogSettingsPanel(String id, IModel<T> model) {
         useCachingStream = new CheckBox("useCachingStream", new PropertyModel<>(model, "useCachingStream"));
         useCachingStream.setVisible(false);
         container.add(useCachingStream);
+        useBlockCache = new CheckBox("useBlockCache", new PropertyModel<>(model, "useBlockCache"));
+        container.add(useBlockCache);
 
         List<CogSettings.RangeReaderType> rangeReaderTypes =
                 new ArrayList<>(Arrays.asList(CogSettings.RangeReaderType.values()));
@@ -62,6 +66,18 @@ protected void onUpdate(AjaxRequestTarget target) {
             }
         });
 
+        useBlockCache.add(new OnChangeAjaxBehavior() {
+            @Serial
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void onUpdate(AjaxRequestTarget target) {
+                CogSettings object = getSettings(model);
+                object.setUseBlockCache(useBlockCache.getModelObject());
+                model.setObject((T) object);
+            }
+        });
+
         rangeReaderSettings.add(new OnChangeAjaxBehavior() {
 
             @Override
@@ -86,6 +102,7 @@ private CogSettings getSettings(IModel<T> model) {
     public void convertInput() {
         CogSettings convertedInput = new CogSettings();
         convertedInput.setUseCachingStream(useCachingStream.getModelObject());
+        convertedInput.setUseBlockCache(useBlockCache.getModelObject());
         convertedInput.setRangeReaderSettings(rangeReaderSettings.getModelObject());
         setConvertedInput((T) convertedInput);
     }
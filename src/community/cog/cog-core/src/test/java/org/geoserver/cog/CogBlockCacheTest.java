@@ -0,0 +1,124 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cog;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CogBlockCacheTest {
+
+    private static final int BLOCK_SIZE = 16;
+
+    private static final byte[] FILE = new byte[1000];
+
+    static {
+        for (int i = 0; i < FILE.length; i++) {
+            FILE[i] = (byte) i;
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<long[]> fetched = new ArrayList<>();
+
+    private Map<Long, byte[]> fetch(List<long[]> ranges) {
+        Map<Long, byte[]> result = new HashMap<>();
+        for (long[] range : ranges) {
+            fetched.add(range);
+            int end = (int) Math.min(FILE.length, range[1] + 1);
+            result.put(range[0], Arrays.copyOfRange(FILE, (int) range[0], end));
+        }
+        return result;
+    }
+
+    @Test
+    public void testCoalesceAndMemoryHits() throws Exception {
+        CogBlockCache cache = new CogBlockCache(BLOCK_SIZE, 1024, 0, null);
+
+        // blocks 0-2 and 5
+        assertRead(cache, new long[] {10, 40}, new long[] {85, 90});
+        assertEquals(2, fetched.size());
+        assertArrayEquals(new long[] {0, 47}, fetched.get(0));
+        assertArrayEquals(new long[] {80, 95}, fetched.get(1));
+
+        // blocks 1-5, only 3 and 4 are missing, and get fetched in a single range
+        fetched.clear();
+        assertRead(cache, new long[] {20, 90});
+        assertEquals(1, fetched.size());
+        assertArrayEquals(new long[] {48, 79}, fetched.get(0));
+
+        CogBlockCache.Statistics stats = cache.getStatistics();
+        assertEquals(3, stats.memoryHits());
+        assertEquals(6, stats.misses());
+        assertEquals(3, stats.remoteRequests());
+        assertEquals(6 * BLOCK_SIZE, stats.remoteBytes());
+    }
+
+    @Test
+    public void testEndOfFile() throws Exception {
+        CogBlockCache cache = new CogBlockCache(BLOCK_SIZE, 1024, 0, null);
+        Map<Long, byte[]> result = cache.read("file", new long[][] {{990, 1010}}, this::fetch);
+        assertArrayEquals(Arrays.copyOfRange(FILE, 990, 1000), result.get(990L));
+        // cached short block
+        fetched.clear();
+        result = cache.read("file", new long[][] {{995, 1010}}, this::fetch);
+        assertArrayEquals(Arrays.copyOfRange(FILE, 995, 1000), result.get(995L));
+        assertEquals(0, fetched.size());
+    }
+
+    @Test
+    public void testDiskTier() throws Exception {
+        // memory holds only two blocks
+        CogBlockCache cache = new CogBlockCache(BLOCK_SIZE, 2 * BLOCK_SIZE, 1024, folder.getRoot());
+        assertRead(cache, new long[] {0, 63});
+        assertEquals(0, cache.getStatistics().diskHits());
+
+        // first blocks got evicted from memory, but are still on disk
+        fetched.clear();
+        assertRead(cache, new long[] {0, 31});
+        assertEquals(0, fetched.size());
+        assertEquals(2, cache.getStatistics().diskHits());
+
+        // a new cache instance picks up the blocks left on disk
+        CogBlockCache reloaded = new CogBlockCache(BLOCK_SIZE, 2 * BLOCK_SIZE, 1024, folder.getRoot());
+        assertEquals(4 * BLOCK_SIZE, reloaded.getStatistics().diskBytes());
+        assertRead(reloaded, new long[] {32, 63});
+        assertEquals(0, fetched.size());
+
+        // a different version of the file does not use the cached blocks
+        reloaded.read("file#v2", new long[][] {{0, 15}}, this::fetch);
+        assertEquals(1, fetched.size());
+    }
+
+    @Test
+    public void testDiskEviction() throws Exception {
+        CogBlockCache cache = new CogBlockCache(BLOCK_SIZE, BLOCK_SIZE, 4 * BLOCK_SIZE, folder.getRoot());
+        assertRead(cache, new long[] {0, 127});
+        assertEquals(4 * BLOCK_SIZE, cache.getStatistics().diskBytes());
+
+        // the least recently used blocks are gone
+        fetched.clear();
+        assertRead(cache, new long[] {0, 15});
+        assertEquals(1, fetched.size());
+    }
+
+    private void assertRead(CogBlockCache cache, long[]... ranges) {
+        Map<Long, byte[]> result = cache.read("file", ranges, this::fetch);
+        assertEquals(ranges.length, result.size());
+        for (long[] range : ranges) {
+            assertArrayEquals(Arrays.copyOfRange(FILE, (int) range[0], (int) range[1] + 1), result.get(range[0]));
+        }
+    }
+}
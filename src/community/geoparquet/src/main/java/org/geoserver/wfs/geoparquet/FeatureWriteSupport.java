@@ -0,0 +1,409 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.geoserver.catalog.ResourcePool;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.referencing.crs.GeographicCRS;
+import org.geotools.api.referencing.crs.ProjectedCRS;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.io.WKBWriter;
+
+/**
+ * Maps simple features to Parquet records, following the GeoParquet 1.1 specification.
+ *
+ * <p>The feature id is written in the first column, named {@link #FID} (with more leading underscores if an attribute
+ * already has that name, case insensitively, as some readers are), followed by the attributes, in schema order, all of
+ * them optional. Geometries are encoded as 2D WKB, always in longitude/latitude (x/y) order as the specification
+ * requires, flipping them when the CRS has a north/east axis order. The envelope of the default geometry is also
+ * written in a {@code bbox} struct column, declared as the geometry covering, so that readers can skip row groups using
+ * the column statistics. Numbers that are not integers or floats are encoded as doubles, dates as UTC timestamps, and
+ * any other type as a string.
+ *
+ * <p>The geometry types and bounds of each geometry column are collected while writing, and reported in the
+ * {@code geo} file metadata once all the features have been written. The CRS is omitted for WGS84 (the GeoParquet
+ * default) and otherwise reported as a PROJJSON object carrying only the name and the authority code, which is enough
+ * for readers that resolve CRSs from their identifiers.
+ */
+class FeatureWriteSupport extends WriteSupport<SimpleFeature> {
+
+    static final Logger LOGGER = Logging.getLogger(FeatureWriteSupport.class);
+
+    static final String GEO_METADATA = "geo";
+
+    static final String GEOPARQUET_VERSION = "1.1.0";
+
+    static final String FID = "__fid";
+
+    static final String BBOX = "bbox";
+
+    static final String PROJJSON_SCHEMA = "https://proj.org/schemas/v0.7/projjson.schema.json";
+
+    /** Writes a non null value in the current field */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(RecordConsumer consumer, Object value);
+    }
+
+    /** A column, and how to fill it from the features */
+    private record Column(String name, int attribute, ValueWriter writer) {}
+
+    /** Geometry types and bounds found in a geometry column */
+    private static class GeometryStats {
+        final CoordinateReferenceSystem crs;
+        final boolean flip;
+        final Set<String> types = new TreeSet<>();
+        final Envelope bounds = new Envelope();
+
+        GeometryStats(CoordinateReferenceSystem crs) {
+            this.crs = crs;
+            this.flip = crs != null && CRS.getAxisOrder(crs) == CRS.AxisOrder.NORTH_EAST;
+        }
+
+        void add(Geometry geometry) {
+            types.add(geometry instanceof LinearRing ? Geometry.TYPENAME_LINESTRING : geometry.getGeometryType());
+            if (!geometry.isEmpty()) {
+                bounds.expandToInclude(geometry.getEnvelopeInternal());
+            }
+        }
+    }
+
+    private final List<Column> columns = new ArrayList<>();
+
+    private final Map<String, GeometryStats> geometries = new LinkedHashMap<>();
+
+    private final WKBWriter wkbWriter = new WKBWriter(2);
+
+    private final MessageType schema;
+
+    private final String primaryColumn;
+
+    private final String bboxColumn;
+
+    private final boolean flipBBox;
+
+    private RecordConsumer consumer;
+
+    FeatureWriteSupport(SimpleFeatureType featureType) {
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        String idName = getIdName(featureType);
+        builder.optional(PrimitiveTypeName.BINARY)
+                .as(LogicalTypeAnnotation.stringType())
+                .named(idName);
+        columns.add(new Column(idName, -1, FeatureWriteSupport::writeString));
+        for (int i = 0; i < featureType.getAttributeCount(); i++) {
+            columns.add(addColumn(builder, featureType.getDescriptor(i), i));
+        }
+
+        // the bbox covering is only provided for the primary geometry
+        GeometryDescriptor defaultGeometry = featureType.getGeometryDescriptor();
+        if (defaultGeometry != null) {
+            primaryColumn = defaultGeometry.getLocalName();
+            String name = featureType.getDescriptor(BBOX) == null ? BBOX : primaryColumn + "_" + BBOX;
+            builder.optionalGroup()
+                    .required(PrimitiveTypeName.DOUBLE)
+                    .named("xmin")
+                    .required(PrimitiveTypeName.DOUBLE)
+                    .named("ymin")
+                    .required(PrimitiveTypeName.DOUBLE)
+                    .named("xmax")
+                    .required(PrimitiveTypeName.DOUBLE)
+                    .named("ymax")
+                    .named(name);
+            bboxColumn = name;
+            flipBBox = geometries.get(primaryColumn).flip;
+        } else {
+            primaryColumn = null;
+            bboxColumn = null;
+            flipBBox = false;
+        }
+        schema = builder.named(featureType.getTypeName());
+    }
+
+    /** Returns the name of the feature id column, making sure it does not collide with any attribute */
+    static String getIdName(SimpleFeatureType featureType) {
+        String name = FID;
+        while (hasAttribute(featureType, name)) {
+            name = "_" + name;
+        }
+        return name;
+    }
+
+    private static boolean hasAttribute(SimpleFeatureType featureType, String name) {
+        for (AttributeDescriptor ad : featureType.getAttributeDescriptors()) {
+            if (ad.getLocalName().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Column addColumn(Types.MessageTypeBuilder builder, AttributeDescriptor ad, int index) {
+        String name = ad.getLocalName();
+        if (ad instanceof GeometryDescriptor gd) {
+            builder.optional(PrimitiveTypeName.BINARY).named(name);
+            GeometryStats stats = new GeometryStats(gd.getCoordinateReferenceSystem());
+            geometries.put(name, stats);
+            return new Column(name, index, (c, value) -> {
+                Geometry geometry = stats.flip ? flip((Geometry) value) : (Geometry) value;
+                stats.add(geometry);
+                c.addBinary(Binary.fromConstantByteArray(wkbWriter.write(geometry)));
+            });
+        }
+        Class<?> binding = ad.getType().getBinding();
+        if (Boolean.class.isAssignableFrom(binding)) {
+            builder.optional(PrimitiveTypeName.BOOLEAN).named(name);
+            return new Column(name, index, (c, value) -> c.addBoolean((Boolean) value));
+        } else if (Integer.class.isAssignableFrom(binding)
+                || Short.class.isAssignableFrom(binding)
+                || Byte.class.isAssignableFrom(binding)) {
+            builder.optional(PrimitiveTypeName.INT32).named(name);
+            return new Column(name, index, (c, value) -> c.addInteger(((Number) value).intValue()));
+        } else if (Long.class.isAssignableFrom(binding)) {
+            builder.optional(PrimitiveTypeName.INT64).named(name);
+            return new Column(name, index, (c, value) -> c.addLong(((Number) value).longValue()));
+        } else if (Float.class.isAssignableFrom(binding)) {
+            builder.optional(PrimitiveTypeName.FLOAT).named(name);
+            return new Column(name, index, (c, value) -> c.addFloat(((Number) value).floatValue()));
+        } else if (Number.class.isAssignableFrom(binding)) {
+            builder.optional(PrimitiveTypeName.DOUBLE).named(name);
+            return new Column(name, index, (c, value) -> c.addDouble(((Number) value).doubleValue()));
+        } else if (java.sql.Date.class.isAssignableFrom(binding)) {
+            builder.optional(PrimitiveTypeName.INT32)
+                    .as(LogicalTypeAnnotation.dateType())
+                    .named(name);
+            return new Column(
+                    name, index, (c, value) -> c.addInteger((int) ((java.sql.Date) value).toLocalDate().toEpochDay()));
+        } else if (java.sql.Time.class.isAssignableFrom(binding)) {
+            builder.optional(PrimitiveTypeName.INT32)
+                    .as(LogicalTypeAnnotation.timeType(false, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                    .named(name);
+            return new Column(name, index, (c, value) -> c.addInteger((int)
+                    (((java.sql.Time) value).toLocalTime().toNanoOfDay() / 1_000_000)));
+        } else if (java.util.Date.class.isAssignableFrom(binding)) {
+            builder.optional(PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                    .named(name);
+            return new Column(name, index, (c, value) -> c.addLong(((java.util.Date) value).getTime()));
+        }
+        builder.optional(PrimitiveTypeName.BINARY)
+                .as(LogicalTypeAnnotation.stringType())
+                .named(name);
+        return new Column(name, index, FeatureWriteSupport::writeString);
+    }
+
+    /** Returns a copy of the geometry with the x and y ordinates swapped */
+    static Geometry flip(Geometry geometry) {
+        Geometry flipped = geometry.copy();
+        flipped.apply(new CoordinateSequenceFilter() {
+            @Override
+            public void filter(CoordinateSequence seq, int i) {
+                double x = seq.getOrdinate(i, CoordinateSequence.X);
+                seq.setOrdinate(i, CoordinateSequence.X, seq.getOrdinate(i, CoordinateSequence.Y));
+                seq.setOrdinate(i, CoordinateSequence.Y, x);
+            }
+
+            @Override
+            public boolean isDone() {
+                return false;
+            }
+
+            @Override
+            public boolean isGeometryChanged() {
+                return true;
+            }
+        });
+        return flipped;
+    }
+
+    private static void writeString(RecordConsumer consumer, Object value) {
+        consumer.addBinary(Binary.fromString(value.toString()));
+    }
+
+    /** The Parquet schema the features are mapped to */
+    MessageType getSchema() {
+        return schema;
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(schema, new HashMap<>());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.consumer = recordConsumer;
+    }
+
+    @Override
+    public void write(SimpleFeature feature) {
+        consumer.startMessage();
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            Object value = column.attribute() < 0 ? feature.getID() : feature.getAttribute(column.attribute());
+            if (value != null) {
+                consumer.startField(column.name(), i);
+                column.writer().write(consumer, value);
+                consumer.endField(column.name(), i);
+            }
+        }
+        if (bboxColumn != null) {
+            Geometry geometry = (Geometry) feature.getDefaultGeometry();
+            if (geometry != null && !geometry.isEmpty()) {
+                Envelope envelope = geometry.getEnvelopeInternal();
+                if (flipBBox) {
+                    envelope = new Envelope(
+                            envelope.getMinY(), envelope.getMaxY(), envelope.getMinX(), envelope.getMaxX());
+                }
+                writeBBox(envelope, columns.size());
+            }
+        }
+        consumer.endMessage();
+    }
+
+    private void writeBBox(Envelope envelope, int index) {
+        consumer.startField(bboxColumn, index);
+        consumer.startGroup();
+        writeDouble("xmin", 0, envelope.getMinX());
+        writeDouble("ymin", 1, envelope.getMinY());
+        writeDouble("xmax", 2, envelope.getMaxX());
+        writeDouble("ymax", 3, envelope.getMaxY());
+        consumer.endGroup();
+        consumer.endField(bboxColumn, index);
+    }
+
+    private void writeDouble(String name, int index, double value) {
+        consumer.startField(name, index);
+        consumer.addDouble(value);
+        consumer.endField(name, index);
+    }
+
+    @Override
+    public FinalizedWriteContext finalizeWrite() {
+        Map<String, String> metadata = new HashMap<>();
+        // without a geometry this is a plain Parquet file
+        if (primaryColumn != null) {
+            metadata.put(GEO_METADATA, getGeoMetadata().toString());
+        }
+        return new FinalizedWriteContext(metadata);
+    }
+
+    private JSONObject getGeoMetadata() {
+        JSONObject columnsMetadata = new JSONObject();
+        for (Map.Entry<String, GeometryStats> entry : geometries.entrySet()) {
+            String name = entry.getKey();
+            GeometryStats stats = entry.getValue();
+            JSONObject column = new JSONObject();
+            column.put("encoding", "WKB");
+            column.put("geometry_types", JSONArray.fromObject(stats.types));
+            if (!stats.bounds.isNull()) {
+                Envelope b = stats.bounds;
+                double[] bounds = {b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY()};
+                column.put("bbox", JSONArray.fromObject(bounds));
+            }
+            if (!isDefaultCRS(stats.crs)) {
+                column.put("crs", getProjJSON(stats.crs));
+            }
+            if (name.equals(primaryColumn)) {
+                JSONObject bbox = new JSONObject();
+                for (String ordinate : List.of("xmin", "ymin", "xmax", "ymax")) {
+                    bbox.put(ordinate, JSONArray.fromObject(List.of(bboxColumn, ordinate)));
+                }
+                JSONObject covering = new JSONObject();
+                covering.put(BBOX, bbox);
+                column.put("covering", covering);
+            }
+            columnsMetadata.put(name, column);
+        }
+
+        JSONObject geo = new JSONObject();
+        geo.put("version", GEOPARQUET_VERSION);
+        geo.put("primary_column", primaryColumn);
+        geo.put("columns", columnsMetadata);
+        return geo;
+    }
+
+    /**
+     * WGS84 is the GeoParquet default and need not be declared. The coordinates are always written in
+     * longitude/latitude order, so this includes the latitude/longitude variant too
+     */
+    private static boolean isDefaultCRS(CoordinateReferenceSystem crs) {
+        if (crs == null) {
+            return false;
+        } else if (CRS.equalsIgnoreMetadata(crs, DefaultGeographicCRS.WGS84)) {
+            return true;
+        }
+        try {
+            return CRS.getAxisOrder(crs) == CRS.AxisOrder.NORTH_EAST
+                    && Integer.valueOf(4326).equals(CRS.lookupEpsgCode(crs, false));
+        } catch (FactoryException e) {
+            LOGGER.log(Level.FINE, "Failed to lookup the CRS code", e);
+            return false;
+        }
+    }
+
+    /** Returns a PROJJSON object identifying the CRS, or JSON null if the CRS is unknown */
+    private static Object getProjJSON(CoordinateReferenceSystem crs) {
+        if (crs == null) {
+            return JSONNull.getInstance();
+        }
+        try {
+            String identifier = ResourcePool.lookupIdentifier(crs, true);
+            int separator = identifier != null ? identifier.lastIndexOf(':') : -1;
+            if (separator > 0) {
+                JSONObject id = new JSONObject();
+                id.put("authority", identifier.substring(0, separator));
+                String code = identifier.substring(separator + 1);
+                id.put("code", code.matches("\\d+") ? Integer.valueOf(code) : code);
+
+                JSONObject projjson = new JSONObject();
+                projjson.put("$schema", PROJJSON_SCHEMA);
+                if (crs instanceof ProjectedCRS) {
+                    projjson.put("type", "ProjectedCRS");
+                } else if (crs instanceof GeographicCRS) {
+                    projjson.put("type", "GeographicCRS");
+                }
+                projjson.put("name", crs.getName().getCode());
+                projjson.put("id", id);
+                return projjson;
+            }
+        } catch (FactoryException e) {
+            LOGGER.log(Level.FINE, "Failed to lookup the CRS identifier, won't be reported", e);
+        }
+        return JSONNull.getInstance();
+    }
+}
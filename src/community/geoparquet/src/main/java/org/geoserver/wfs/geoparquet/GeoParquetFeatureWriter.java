@@ -0,0 +1,172 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Encodes a simple feature collection as a GeoParquet file, streaming it out one row group at a time: each row group
+ * holds up to {@code rowGroupSize} features, and is compressed and written to the output as soon as it's complete, so
+ * memory usage depends on the row group size rather than on the number of features.
+ *
+ * <p>When Hilbert sorting is enabled, the features of each row group are buffered and sorted along a Hilbert curve
+ * covering the row group extent, before being written. Spatially close features end up in the same pages, making the
+ * {@code bbox} column statistics selective for readers doing spatial filtering, at the cost of holding a row group
+ * worth of features in memory.
+ */
+class GeoParquetFeatureWriter {
+
+    /** Number of bits per axis of the Hilbert curve grid */
+    static final int HILBERT_ORDER = 16;
+
+    private static final int HILBERT_MAX = (1 << HILBERT_ORDER) - 1;
+
+    private final int rowGroupSize;
+
+    private final CompressionCodecName compression;
+
+    private final boolean hilbertSort;
+
+    GeoParquetFeatureWriter(int rowGroupSize, CompressionCodecName compression, boolean hilbertSort) {
+        this.rowGroupSize = rowGroupSize;
+        this.compression = compression;
+        this.hilbertSort = hilbertSort;
+    }
+
+    /** Writes the features to the output, which is left open */
+    void write(SimpleFeatureCollection features, OutputStream output) throws IOException {
+        FeatureWriteSupport writeSupport = new FeatureWriteSupport(features.getSchema());
+        try (ParquetWriter<SimpleFeature> writer = new Builder(new StreamOutputFile(output), writeSupport)
+                        .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                        .withCompressionCodec(compression)
+                        .withRowGroupRowCountLimit(rowGroupSize)
+                        .build();
+                SimpleFeatureIterator it = features.features()) {
+            if (!hilbertSort) {
+                while (it.hasNext()) {
+                    writer.write(it.next());
+                }
+                return;
+            }
+
+            List<SimpleFeature> rowGroup = new ArrayList<>(Math.min(rowGroupSize, 10000));
+            while (it.hasNext()) {
+                rowGroup.add(it.next());
+                if (rowGroup.size() == rowGroupSize) {
+                    writeSorted(writer, rowGroup);
+                }
+            }
+            writeSorted(writer, rowGroup);
+        }
+    }
+
+    private void writeSorted(ParquetWriter<SimpleFeature> writer, List<SimpleFeature> rowGroup) throws IOException {
+        hilbertSort(rowGroup);
+        for (SimpleFeature feature : rowGroup) {
+            writer.write(feature);
+        }
+        rowGroup.clear();
+    }
+
+    /**
+     * Sorts the features in place, by the Hilbert index of their default geometry envelope center. Features without a
+     * geometry are moved at the end.
+     */
+    static void hilbertSort(List<SimpleFeature> features) {
+        List<Coordinate> centers = new ArrayList<>(features.size());
+        Envelope extent = new Envelope();
+        for (SimpleFeature feature : features) {
+            Geometry geometry = (Geometry) feature.getDefaultGeometry();
+            Coordinate center = null;
+            if (geometry != null && !geometry.isEmpty()) {
+                center = geometry.getEnvelopeInternal().centre();
+                extent.expandToInclude(center);
+            }
+            centers.add(center);
+        }
+        if (extent.isNull()) {
+            return;
+        }
+
+        List<SortKey> keys = new ArrayList<>(features.size());
+        for (int i = 0; i < features.size(); i++) {
+            Coordinate c = centers.get(i);
+            long index = c == null
+                    ? Long.MAX_VALUE
+                    : hilbertIndex(
+                            scale(c.x, extent.getMinX(), extent.getWidth()),
+                            scale(c.y, extent.getMinY(), extent.getHeight()));
+            keys.add(new SortKey(index, features.get(i)));
+        }
+        keys.sort(Comparator.comparingLong(SortKey::index));
+        for (int i = 0; i < keys.size(); i++) {
+            features.set(i, keys.get(i).feature());
+        }
+    }
+
+    private record SortKey(long index, SimpleFeature feature) {}
+
+    private static int scale(double value, double min, double span) {
+        return span > 0 ? (int) Math.round((value - min) / span * HILBERT_MAX) : 0;
+    }
+
+    /** Returns the distance along the Hilbert curve of the given cell of the grid */
+    static long hilbertIndex(int x, int y) {
+        long index = 0;
+        for (int s = 1 << (HILBERT_ORDER - 1); s > 0; s >>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant, so that the curve stays continuous
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = HILBERT_MAX - x;
+                    y = HILBERT_MAX - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+
+    /** Builds a Parquet writer around the provided write support */
+    private static class Builder extends ParquetWriter.Builder<SimpleFeature, Builder> {
+
+        private final FeatureWriteSupport writeSupport;
+
+        Builder(OutputFile file, FeatureWriteSupport writeSupport) {
+            super(file);
+            this.writeSupport = writeSupport;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<SimpleFeature> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.geoserver.config.GeoServer;
+import org.geoserver.feature.FlatteningFeatureCollection;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.wfs.WFSGetFeatureOutputFormat;
+import org.geoserver.wfs.request.FeatureCollectionResponse;
+import org.geoserver.wfs.request.GetFeatureRequest;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.feature.FeatureCollection;
+
+/**
+ * WFS output format for a GetFeature operation producing a GeoParquet file, streamed out one compressed row group at a
+ * time. Being a {@link WFSGetFeatureOutputFormat}, it's also available in OGC API - Features.
+ *
+ * <p>The following format options are supported:
+ *
+ * <ul>
+ *   <li>{@code ROW_GROUP_SIZE}: number of features per row group, defaults to the {@link #ROW_GROUP_SIZE_PROPERTY}
+ *       property, or 100000
+ *   <li>{@code COMPRESSION}: the row group compression codec, one of {@code ZSTD} (default), {@code SNAPPY},
+ *       {@code GZIP} or {@code UNCOMPRESSED}
+ *   <li>{@code HILBERT}: when {@code true}, features are sorted along a Hilbert curve within each row group
+ * </ul>
+ */
+public class GeoParquetOutputFormat extends WFSGetFeatureOutputFormat {
+
+    /** The Parquet MIME type */
+    public static final String MIME_TYPE = "application/vnd.apache.parquet";
+
+    /** System property controlling the default number of features per row group */
+    public static final String ROW_GROUP_SIZE_PROPERTY = "GEOSERVER_GEOPARQUET_ROW_GROUP_SIZE";
+
+    static final int DEFAULT_ROW_GROUP_SIZE = 100000;
+
+    static final List<CompressionCodecName> SUPPORTED_COMPRESSIONS = List.of(
+            CompressionCodecName.ZSTD,
+            CompressionCodecName.SNAPPY,
+            CompressionCodecName.GZIP,
+            CompressionCodecName.UNCOMPRESSED);
+
+    public GeoParquetOutputFormat(GeoServer gs) {
+        super(gs, new LinkedHashSet<>(Arrays.asList(MIME_TYPE, "geoparquet", "parquet")));
+    }
+
+    @Override
+    public String getMimeType(Object value, Operation operation) throws ServiceException {
+        return MIME_TYPE;
+    }
+
+    @Override
+    public String getCapabilitiesElementName() {
+        return "GEOPARQUET";
+    }
+
+    @Override
+    protected String getExtension(FeatureCollectionResponse response) {
+        return "parquet";
+    }
+
+    @Override
+    public String getPreferredDisposition(Object value, Operation operation) {
+        return DISPOSITION_ATTACH;
+    }
+
+    @Override
+    protected void write(FeatureCollectionResponse featureCollection, OutputStream output, Operation operation)
+            throws IOException, ServiceException {
+        // a Parquet file has a single schema
+        List<FeatureCollection> collections = featureCollection.getFeature();
+        if (collections.size() != 1) {
+            throw new ServiceException(
+                    "GeoParquet output supports a single feature type per request",
+                    ServiceException.INVALID_PARAMETER_VALUE,
+                    "typeNames");
+        }
+        FeatureCollection fc = collections.get(0);
+        if (!(fc.getSchema() instanceof SimpleFeatureType)) {
+            throw new ServiceException("GeoParquet output does not support complex features");
+        }
+        // flatten the joined features, if any
+        SimpleFeatureCollection features = FlatteningFeatureCollection.flatten((SimpleFeatureCollection) fc);
+
+        Map<String, ?> formatOptions = getFormatOptions(operation);
+        GeoParquetFeatureWriter writer = new GeoParquetFeatureWriter(
+                getRowGroupSize(formatOptions),
+                getCompression(formatOptions),
+                Boolean.parseBoolean(String.valueOf(formatOptions.get("HILBERT"))));
+        writer.write(features, output);
+    }
+
+    private Map<String, ?> getFormatOptions(Operation operation) {
+        GetFeatureRequest request = GetFeatureRequest.adapt(operation.getParameters()[0]);
+        return request != null && request.getFormatOptions() != null ? request.getFormatOptions() : Map.of();
+    }
+
+    private int getRowGroupSize(Map<String, ?> formatOptions) {
+        Object value = formatOptions.get("ROW_GROUP_SIZE");
+        if (value == null) {
+            value = GeoServerExtensions.getProperty(ROW_GROUP_SIZE_PROPERTY);
+        }
+        if (value == null) {
+            return DEFAULT_ROW_GROUP_SIZE;
+        }
+        try {
+            int rowGroupSize = Integer.parseInt(value.toString().trim());
+            if (rowGroupSize > 0) {
+                return rowGroupSize;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new ServiceException(
+                "Invalid GeoParquet row group size: " + value,
+                ServiceException.INVALID_PARAMETER_VALUE,
+                "format_options");
+    }
+
+    private CompressionCodecName getCompression(Map<String, ?> formatOptions) {
+        Object value = formatOptions.get("COMPRESSION");
+        if (value == null) {
+            return CompressionCodecName.ZSTD;
+        }
+        try {
+            CompressionCodecName compression =
+                    CompressionCodecName.valueOf(value.toString().trim().toUpperCase(Locale.ENGLISH));
+            if (SUPPORTED_COMPRESSIONS.contains(compression)) {
+                return compression;
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw new ServiceException(
+                "Invalid GeoParquet compression: " + value + ", supported values are " + SUPPORTED_COMPRESSIONS,
+                ServiceException.INVALID_PARAMETER_VALUE,
+                "format_options");
+    }
+}
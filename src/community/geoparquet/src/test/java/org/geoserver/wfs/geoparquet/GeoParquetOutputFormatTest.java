@@ -0,0 +1,297 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.geoserver.data.test.MockData;
+import org.geoserver.wfs.WFSTestSupport;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKTReader;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class GeoParquetOutputFormatTest extends WFSTestSupport {
+
+    @Test
+    public void testGeoParquet() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse(
+                "wfs?request=GetFeature&version=1.0.0&typeName=cite:Buildings&outputFormat=geoparquet");
+        assertEquals(GeoParquetOutputFormat.MIME_TYPE, response.getContentType());
+        assertEquals("attachment; filename=Buildings.parquet", response.getHeader("Content-Disposition"));
+        byte[] content = response.getContentAsByteArray();
+
+        List<SimpleFeature> expected =
+                DataUtilities.list(getFeatureSource(MockData.BUILDINGS).getFeatures());
+        Set<String> types = new TreeSet<>();
+        Envelope bounds = new Envelope();
+        for (SimpleFeature feature : expected) {
+            Geometry geometry = (Geometry) feature.getDefaultGeometry();
+            types.add(geometry.getGeometryType());
+            bounds.expandToInclude(geometry.getEnvelopeInternal());
+        }
+
+        ParquetMetadata footer = readFooter(content);
+        assertEquals(1, footer.getBlocks().size());
+        JSONObject geo = JSONObject.fromObject(
+                footer.getFileMetaData().getKeyValueMetaData().get(FeatureWriteSupport.GEO_METADATA));
+        assertEquals("1.1.0", geo.getString("version"));
+        assertEquals("the_geom", geo.getString("primary_column"));
+        JSONObject column = geo.getJSONObject("columns").getJSONObject("the_geom");
+        assertEquals("WKB", column.getString("encoding"));
+        assertEquals(JSONArray.fromObject(types), column.getJSONArray("geometry_types"));
+        JSONArray bbox = column.getJSONArray("bbox");
+        assertEquals(bounds.getMinX(), bbox.getDouble(0), 0d);
+        assertEquals(bounds.getMaxY(), bbox.getDouble(3), 0d);
+        assertEquals(
+                JSONArray.fromObject(List.of("bbox", "xmin")),
+                column.getJSONObject("covering").getJSONObject("bbox").getJSONArray("xmin"));
+
+        List<Group> records = readRecords(content);
+        assertEquals(expected.size(), records.size());
+        WKBReader wkbReader = new WKBReader();
+        for (int i = 0; i < expected.size(); i++) {
+            SimpleFeature feature = expected.get(i);
+            Group record = records.get(i);
+            assertEquals(feature.getID(), record.getString("__fid", 0));
+            assertEquals(feature.getAttribute("ADDRESS"), record.getString("ADDRESS", 0));
+            Geometry geometry = (Geometry) feature.getDefaultGeometry();
+            Geometry actual = wkbReader.read(record.getBinary("the_geom", 0).getBytes());
+            assertTrue(geometry.equalsExact(actual));
+            Group featureBBox = record.getGroup("bbox", 0);
+            assertEquals(geometry.getEnvelopeInternal().getMinX(), featureBBox.getDouble("xmin", 0), 0d);
+            assertEquals(geometry.getEnvelopeInternal().getMaxY(), featureBBox.getDouble("ymax", 0), 0d);
+        }
+    }
+
+    @Test
+    public void testLatLonAxisOrder() throws Exception {
+        // the URN asks for latitude/longitude order, but GeoParquet is always longitude/latitude
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.1.0"
+                + "&typeName=cite:Buildings&outputFormat=geoparquet&srsName=urn:ogc:def:crs:EPSG::4326");
+        assertEquals(GeoParquetOutputFormat.MIME_TYPE, response.getContentType());
+        byte[] content = response.getContentAsByteArray();
+
+        List<SimpleFeature> expected =
+                DataUtilities.list(getFeatureSource(MockData.BUILDINGS).getFeatures());
+        Envelope bounds = new Envelope();
+        for (SimpleFeature feature : expected) {
+            bounds.expandToInclude(((Geometry) feature.getDefaultGeometry()).getEnvelopeInternal());
+        }
+
+        // WGS84, no need to declare the CRS, and the bounds are in longitude/latitude order
+        JSONObject geo = JSONObject.fromObject(
+                readFooter(content).getFileMetaData().getKeyValueMetaData().get(FeatureWriteSupport.GEO_METADATA));
+        JSONObject column = geo.getJSONObject("columns").getJSONObject("the_geom");
+        assertFalse(column.has("crs"));
+        JSONArray bbox = column.getJSONArray("bbox");
+        assertEquals(bounds.getMinX(), bbox.getDouble(0), 1e-9);
+        assertEquals(bounds.getMinY(), bbox.getDouble(1), 1e-9);
+        assertEquals(bounds.getMaxX(), bbox.getDouble(2), 1e-9);
+        assertEquals(bounds.getMaxY(), bbox.getDouble(3), 1e-9);
+
+        List<Group> records = readRecords(content);
+        assertEquals(expected.size(), records.size());
+        WKBReader wkbReader = new WKBReader();
+        for (int i = 0; i < expected.size(); i++) {
+            Geometry geometry = (Geometry) expected.get(i).getDefaultGeometry();
+            Group record = records.get(i);
+            Geometry actual = wkbReader.read(record.getBinary("the_geom", 0).getBytes());
+            assertTrue(geometry.equalsExact(actual, 1e-9));
+            Group featureBBox = record.getGroup("bbox", 0);
+            assertEquals(geometry.getEnvelopeInternal().getMinX(), featureBBox.getDouble("xmin", 0), 1e-9);
+            assertEquals(geometry.getEnvelopeInternal().getMaxY(), featureBBox.getDouble("ymax", 0), 1e-9);
+        }
+    }
+
+    @Test
+    public void testIdName() throws Exception {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("test");
+        tb.add("fid", String.class);
+        assertEquals("__fid", FeatureWriteSupport.getIdName(tb.buildFeatureType()));
+
+        tb.setName("test");
+        tb.add("fid", String.class);
+        tb.add("__FID", String.class);
+        SimpleFeatureType schema = tb.buildFeatureType();
+        assertEquals("___fid", FeatureWriteSupport.getIdName(schema));
+        // the attributes keep their names
+        MessageType messageType = new FeatureWriteSupport(schema).init(new Configuration()).getSchema();
+        List<String> columns = new ArrayList<>();
+        for (Type field : messageType.getFields()) {
+            columns.add(field.getName());
+        }
+        assertEquals(List.of("___fid", "fid", "__FID"), columns);
+    }
+
+    @Test
+    public void testRowGroups() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.0.0"
+                + "&typeName=cite:Buildings&outputFormat=geoparquet&format_options=row_group_size:1;compression:gzip");
+        ParquetMetadata footer = readFooter(response.getContentAsByteArray());
+        assertEquals(2, footer.getBlocks().size());
+        assertEquals(1, footer.getBlocks().get(0).getRowCount());
+        assertEquals("GZIP", footer.getBlocks().get(0).getColumns().get(0).getCodec().name());
+    }
+
+    @Test
+    public void testHilbertOption() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.0.0"
+                + "&typeName=cgf:Points&outputFormat=geoparquet&format_options=hilbert:true");
+        byte[] content = response.getContentAsByteArray();
+        List<Group> records = readRecords(content);
+        assertEquals(1, records.size());
+        assertEquals(500, records.get(0).getInteger("altitude", 0));
+
+        // not in WGS84, the CRS is identified by its code
+        JSONObject geo = JSONObject.fromObject(
+                readFooter(content).getFileMetaData().getKeyValueMetaData().get(FeatureWriteSupport.GEO_METADATA));
+        JSONObject crs = geo.getJSONObject("columns").getJSONObject("pointProperty").getJSONObject("crs");
+        assertEquals("EPSG", crs.getJSONObject("id").getString("authority"));
+        assertEquals(32615, crs.getJSONObject("id").getInt("code"));
+    }
+
+    @Test
+    public void testHilbertSort() throws Exception {
+        SimpleFeatureType type = DataUtilities.createType("test", "geom:Point");
+        WKTReader reader = new WKTReader();
+        List<SimpleFeature> features = new ArrayList<>();
+        // the Hilbert curve visits the corners of a square in this order
+        String[] corners = {"POINT (0 0)", "POINT (0 10)", "POINT (10 10)", "POINT (10 0)"};
+        for (int i = 0; i < corners.length; i++) {
+            features.add(SimpleFeatureBuilder.build(type, new Object[] {reader.read(corners[i])}, "test." + i));
+        }
+        features.add(SimpleFeatureBuilder.build(type, new Object[] {null}, "test.null"));
+        Collections.reverse(features);
+
+        GeoParquetFeatureWriter.hilbertSort(features);
+        List<String> ids = new ArrayList<>();
+        for (SimpleFeature feature : features) {
+            ids.add(feature.getID());
+        }
+        assertEquals(List.of("test.0", "test.1", "test.2", "test.3", "test.null"), ids);
+    }
+
+    @Test
+    public void testMultipleTypes() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.0.0"
+                + "&typeName=cite:Buildings,cite:Bridges&outputFormat=geoparquet");
+        assertTrue(response.getContentAsString().contains("single feature type"));
+    }
+
+    @Test
+    public void testInvalidCompression() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse("wfs?request=GetFeature&version=1.0.0"
+                + "&typeName=cite:Buildings&outputFormat=geoparquet&format_options=compression:foo");
+        assertFalse(GeoParquetOutputFormat.MIME_TYPE.equals(response.getContentType()));
+        assertTrue(response.getContentAsString().contains("Invalid GeoParquet compression"));
+    }
+
+    private static ParquetMetadata readFooter(byte[] content) throws IOException {
+        try (ParquetFileReader reader = ParquetFileReader.open(new BytesInputFile(content))) {
+            return reader.getFooter();
+        }
+    }
+
+    private static List<Group> readRecords(byte[] content) throws IOException {
+        List<Group> records = new ArrayList<>();
+        try (ParquetReader<Group> reader = new GroupReaderBuilder(new BytesInputFile(content)).build()) {
+            Group record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static class GroupReaderBuilder extends ParquetReader.Builder<Group> {
+
+        GroupReaderBuilder(InputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected ReadSupport<Group> getReadSupport() {
+            return new GroupReadSupport();
+        }
+    }
+
+    /** An in memory Parquet file */
+    private static class BytesInputFile implements InputFile {
+
+        private final byte[] content;
+
+        BytesInputFile(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public long getLength() {
+            return content.length;
+        }
+
+        @Override
+        public SeekableInputStream newStream() {
+            SeekableByteArrayInputStream in = new SeekableByteArrayInputStream(content);
+            return new DelegatingSeekableInputStream(in) {
+                @Override
+                public long getPos() {
+                    return in.getPos();
+                }
+
+                @Override
+                public void seek(long newPos) {
+                    in.seek(newPos);
+                }
+            };
+        }
+    }
+
+    private static class SeekableByteArrayInputStream extends ByteArrayInputStream {
+
+        SeekableByteArrayInputStream(byte[] content) {
+            super(content);
+        }
+
+        long getPos() {
+            return pos;
+        }
+
+        void seek(long newPos) {
+            pos = (int) newPos;
+        }
+    }
+}
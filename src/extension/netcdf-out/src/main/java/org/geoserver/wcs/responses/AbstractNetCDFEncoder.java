@@ -25,6 +25,7 @@
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.wcs2_0.response.DimensionBean;
 import org.geoserver.wcs2_0.response.GranuleStack;
+import org.geoserver.wcs2_0.response.ParallelGranuleLoader;
 import org.geoserver.wcs2_0.response.WCS20GetCoverageResponse;
 import org.geoserver.wcs2_0.util.NCNameResourceCodec;
 import org.geoserver.web.netcdf.DataPacking;
@@ -67,6 +68,9 @@ public abstract class AbstractNetCDFEncoder implements NetCDFEncoder {
     public static final String UOM_KEY = "uom";
     public static final String COPY_GLOBAL_ATTRIBUTES_KEY = "copyGlobalAttributes";
     public static final String COPY_VARIABLE_ATTRIBUTES_KEY = "copyVariableAttributes";
+    public static final String CHUNK_WIDTH_KEY = "chunkWidth";
+    public static final String CHUNK_HEIGHT_KEY = "chunkHeight";
+    public static final String CHUNK_DEPTH_KEY = "chunkDepth";
 
     protected static StandardUnitFormat SUF = StandardUnitFormat.instance();
 
@@ -124,6 +128,13 @@ public abstract class AbstractNetCDFEncoder implements NetCDFEncoder {
 
     protected int compressionLevel = NetCDFSettingsContainer.DEFAULT_COMPRESSION;
 
+    /** NetCDF-4 chunk sizes along x, y and the outermost non spatial dimension */
+    protected int chunkWidth = NetCDFSettingsContainer.DEFAULT_CHUNK_SIZE;
+
+    protected int chunkHeight = NetCDFSettingsContainer.DEFAULT_CHUNK_SIZE;
+
+    protected int chunkDepth = NetCDFSettingsContainer.DEFAULT_CHUNK_SIZE;
+
     protected DataPacking dataPacking = DataPacking.getDefault();
 
     /** The underlying {@link NetcdfFormatWriter.Builder} which will be used to write down data. */
@@ -164,13 +175,16 @@ protected void initializeFromSettings(NetCDFLayerSettingsContainer settings) {
         copyGlobalAttributes = settings.isCopyGlobalAttributes();
         dataPacking = settings.getDataPacking();
         compressionLevel = checkLevel(settings.getCompressionLevel());
+        chunkWidth = Math.max(0, settings.getChunkWidth());
+        chunkHeight = Math.max(0, settings.getChunkHeight());
+        chunkDepth = Math.max(0, settings.getChunkDepth());
         globalAttributes = settings.getGlobalAttributes();
         variableAttributes = settings.getVariableAttributes();
         extraVariables = settings.getExtraVariables();
     }
 
     /** Basic NetCDF Initialization */
-    protected void initializeNetCDF() {
+    protected void initializeNetCDF() throws IOException {
         // Initialize the coordinates writer
         crsWriter = new NetCDFCRSWriter(writerb, sampleGranule);
 
@@ -184,7 +198,7 @@ protected void initializeNetCDF() {
     }
 
     /** Initializes the actual data variables in the output NetCDF (not lon/lat/time/elevation) */
-    protected abstract void initializeVariables();
+    protected abstract void initializeVariables() throws IOException;
 
     /** Add global attributes to the Dataset if needed */
     protected void initializeGlobalAttributes() {
@@ -276,7 +290,9 @@ protected NetcdfFormatWriter.Builder getWriterBuilder(File file, String outputFo
             if (!NetCDFUtilities.isNC4CAvailable()) {
                 throw new IOException(NetCDFUtilities.NC4_ERROR_MESSAGE);
             }
-            Nc4Chunking chunker = new Nc4ChunkingDefault(compressionLevel, shuffle);
+            Nc4Chunking chunker = chunkWidth > 0 || chunkHeight > 0 || chunkDepth > 0
+                    ? new NetCDFChunking(compressionLevel, shuffle, chunkWidth, chunkHeight, chunkDepth)
+                    : new Nc4ChunkingDefault(compressionLevel, shuffle);
             writerb = NetcdfFormatWriter.createNewNetcdf4(ncFormat, file.getAbsolutePath(), chunker);
         }
 
@@ -290,10 +306,35 @@ protected NetcdfFormatWriter.Builder getWriterBuilder(File file, String outputFo
      * @param statsList The list of statistic beans, one per image band
      */
     protected void collectStats(GridCoverage2D coverage, List<DataPacking.DataStats> statsList) {
+        updateStats(computeExtrema(coverage), statsList);
+    }
+
+    /**
+     * Collects stats for future dataPacking from all the provided coverages, computing the extrema of multiple
+     * coverages in parallel, and update the statistics.
+     *
+     * @param coverages The coverages on which the statistics will be collected
+     * @param statsList The list of statistic beans, one per image band
+     */
+    protected void collectStats(List<GridCoverage2D> coverages, List<DataPacking.DataStats> statsList)
+            throws IOException {
+        try (ParallelGranuleLoader<double[][]> loader = new ParallelGranuleLoader<>(coverages, this::computeExtrema)) {
+            while (loader.hasNext()) {
+                updateStats(loader.next(), statsList);
+            }
+        }
+    }
+
+    /** Returns the minimums and maximums of the provided coverage, one per band */
+    protected double[][] computeExtrema(GridCoverage2D coverage) {
         // It will internally take care of noData
         ImageWorker iw = new ImageWorker(coverage.getRenderedImage());
-        double[] minimum = iw.getMinimums();
-        double[] maximum = iw.getMaximums();
+        return new double[][] {iw.getMinimums(), iw.getMaximums()};
+    }
+
+    private void updateStats(double[][] extrema, List<DataPacking.DataStats> statsList) {
+        double[] minimum = extrema[0];
+        double[] maximum = extrema[1];
         int count = Math.min(minimum.length, statsList.size());
         for (int i = 0; i < count; i++) {
             DataPacking.DataStats stats = statsList.get(i);
@@ -336,6 +377,9 @@ private boolean hasEncodingParams(Map<String, String> encodingParameters) {
         return encodingParameters.containsKey(COMPRESSION_KEY)
                 || encodingParameters.containsKey(DATA_PACKING_KEY)
                 || encodingParameters.containsKey(SHUFFLE_KEY)
+                || encodingParameters.containsKey(CHUNK_WIDTH_KEY)
+                || encodingParameters.containsKey(CHUNK_HEIGHT_KEY)
+                || encodingParameters.containsKey(CHUNK_DEPTH_KEY)
                 || encodingParameters.containsKey(VARIABLE_NAME_KEY)
                 || encodingParameters.containsKey(UOM_KEY);
     }
@@ -366,6 +410,9 @@ private NetCDFLayerSettingsContainer applyEncodingOverrides(
             boolean cs = Boolean.parseBoolean(shuffle);
             settings.setShuffle(cs);
         }
+        getChunkSize(encodingParameters, CHUNK_WIDTH_KEY).ifPresent(settings::setChunkWidth);
+        getChunkSize(encodingParameters, CHUNK_HEIGHT_KEY).ifPresent(settings::setChunkHeight);
+        getChunkSize(encodingParameters, CHUNK_DEPTH_KEY).ifPresent(settings::setChunkDepth);
         if (encodingParameters.containsKey(COPY_GLOBAL_ATTRIBUTES_KEY)) {
             String copyGlobal = encodingParameters.get(COPY_GLOBAL_ATTRIBUTES_KEY);
             boolean cpga = Boolean.parseBoolean(copyGlobal);
@@ -385,6 +432,23 @@ private NetCDFLayerSettingsContainer applyEncodingOverrides(
         return settings;
     }
 
+    private static Optional<Integer> getChunkSize(Map<String, String> encodingParameters, String key) {
+        String value = encodingParameters.get(key);
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            int size = Integer.parseInt(value);
+            if (size >= 0) {
+                return Optional.of(size);
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        LOGGER.info("Specified chunk size is not valid. " + key + " = " + value);
+        return Optional.empty();
+    }
+
     private static Optional<DataPacking> getDataPacking(String input) {
         try {
             return Optional.of(DataPacking.valueOf(input.toUpperCase()));
@@ -5,7 +5,7 @@
  */
 package org.geoserver.wcs.responses;
 
-import java.awt.image.RenderedImage;
+import java.awt.image.Raster;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
@@ -21,6 +21,7 @@
 import org.eclipse.imagen.media.range.NoDataContainer;
 import org.geoserver.wcs.responses.NetCDFDimensionsManager.NetCDFDimensionMapping;
 import org.geoserver.wcs2_0.response.GranuleStack;
+import org.geoserver.wcs2_0.response.ParallelGranuleLoader;
 import org.geoserver.web.netcdf.DataPacking;
 import org.geoserver.web.netcdf.DataPacking.DataPacker;
 import org.geoserver.web.netcdf.DataPacking.DataStats;
@@ -38,6 +39,7 @@
 import ucar.nc2.Dimension;
 import ucar.nc2.Variable;
 import ucar.nc2.dataset.NetcdfDataset;
+import ucar.nc2.write.NetcdfFileFormat;
 
 /**
  * A class which takes care of initializing NetCDF dimension from coverages dimension, variables, values for the NetCDF
@@ -47,6 +49,13 @@
  */
 public class DefaultNetCDFEncoder extends AbstractNetCDFEncoder {
 
+    /**
+     * The max memory, in bytes, used to collect the slices of a chunk aligned slab, set with the
+     * <code>org.geoserver.netcdf.maxSlabSize</code> system variable, in megabytes, 64 by default. Slabs shallower than
+     * the chunks are still written correctly, but the chunks get compressed more than once.
+     */
+    static final long MAX_SLAB_SIZE = Long.getLong("org.geoserver.netcdf.maxSlabSize", 64) * 1024 * 1024;
+
     /** The user supplied variableName */
     private String variableName;
 
@@ -90,7 +99,7 @@ protected void initializeFromSettings(NetCDFLayerSettingsContainer settings) {
 
     /** Initialize the NetCDF variables on this writer */
     @Override
-    protected void initializeVariables() {
+    protected void initializeVariables() throws IOException {
 
         // group the dimensions to be added to the variable
         List<Dimension> netCDFDimensions = new LinkedList<>();
@@ -190,10 +199,8 @@ protected void initializeVariables() {
             this.stats = new DataPacking.DataStats();
             for (GridCoverage2D coverage : this.granuleStack.getGranules()) {
                 updateDimensionValues(coverage);
-                if (!(dataPacking == DataPacking.NONE)) {
-                    collectStats(coverage, Arrays.asList(this.stats));
-                }
             }
+            collectStats(this.granuleStack.getGranules(), Arrays.asList(this.stats));
 
             DataStats updatedStats = stats;
             if (unitConverter != null) {
@@ -275,117 +282,252 @@ protected void writeDataValues() throws IOException, InvalidRangeException {
         // the same sample model
         final int imageDataType =
                 sampleGranule.getRenderedImage().getSampleModel().getDataType();
+        final DataType transcodedDataType = NetCDFUtilities.transcodeImageDataType(imageDataType);
         final DataType netCDFDataType = var.getDataType();
-        final Array matrix = NetCDFUtilities.getArray(dimSize, netCDFDataType);
-
-        // Loop over all granules
-        for (GridCoverage2D gridCoverage : granuleStack.getGranules()) {
-            final RenderedImage ri = gridCoverage.getRenderedImage();
-
-            //
-            // Preparing tile properties for future scan
-            //
-            int width = ri.getWidth();
-            int height = ri.getHeight();
-            int minX = ri.getMinX();
-            int minY = ri.getMinY();
-            int maxX = minX + width - 1;
-            int maxY = minY + height - 1;
-            int tileWidth = Math.min(ri.getTileWidth(), width);
-            int tileHeight = Math.min(ri.getTileHeight(), height);
-
-            int minTileX = minX / tileWidth - (minX < 0 ? (-minX % tileWidth > 0 ? 1 : 0) : 0);
-            int minTileY = minY / tileHeight - (minY < 0 ? (-minY % tileHeight > 0 ? 1 : 0) : 0);
-            int maxTileX = maxX / tileWidth - (maxX < 0 ? (-maxX % tileWidth > 0 ? 1 : 0) : 0);
-            int maxTileY = maxY / tileHeight - (maxY < 0 ? (-maxY % tileHeight > 0 ? 1 : 0) : 0);
-
-            final Index matrixIndex = matrix.getIndex();
-            final int[] indexing = new int[numDimensions];
-
-            // Update the NetCDF array indexing to set values for a specific 2D slice
-            updateIndexing(indexing, gridCoverage);
-
-            // copy non-scalar extra variable data
-            if (!nonscalarExtraVariables.isEmpty()) {
-                // Before opening the source NetCDF/GRIB, see if any record requires data from it;
-                // we might be iterating over many time/elevation/custom dimensions but have
-                // granules with sources in common and want to avoid unnecessary opening of
-                // source NetCDF/GRIB. Only the first matching data value is used.
-                // This loop also ensures that the source for each granule is only opened once.
-                boolean needSource = false;
-                for (ExtraVariableRecord record : nonscalarExtraVariables) {
-                    if (!record.writtenIndices.contains(indexing[record.dimensionIndex])) {
-                        needSource = true;
-                        break;
+
+        // The 2D slices are filled in a slab as deep as the chunks along the outermost dimension, and
+        // written as soon as the slab is complete, while the next granules are being read in parallel.
+        // The chunk depth comes from the request, the slab is kept within the memory budget
+        int depth = 1;
+        if (numDimensions > 2 && chunkDepth > 1 && ncFormat == NetcdfFileFormat.NETCDF4_CLASSIC) {
+            long slabBytes = (long) var.getDataType().getSize();
+            for (int i = 1; i < numDimensions; i++) {
+                slabBytes *= dimSize[i];
+            }
+            long maxDepth = Math.max(1, MAX_SLAB_SIZE / Math.max(1, slabBytes));
+            depth = (int) Math.min(maxDepth, Math.min(chunkDepth, dimSize[0]));
+        }
+        final SlabWriter slabWriter = new SlabWriter(var, dimSize, depth);
+        final Array slab = slabWriter.slab;
+        final Index slabIndex = slab.getIndex();
+        final int[] slabIndexing = new int[numDimensions];
+
+        List<GridCoverage2D> granules = granuleStack.getGranules();
+        try (ParallelGranuleLoader<Raster> loader =
+                new ParallelGranuleLoader<>(granules, c -> c.getRenderedImage().getData())) {
+            for (GridCoverage2D gridCoverage : granules) {
+                final Raster raster = loader.next();
+                final int[] indexing = new int[numDimensions];
+
+                // Update the NetCDF array indexing to set values for a specific 2D slice
+                updateIndexing(indexing, gridCoverage);
+
+                // copy non-scalar extra variable data
+                if (!nonscalarExtraVariables.isEmpty()) {
+                    // Before opening the source NetCDF/GRIB, see if any record requires data from it;
+                    // we might be iterating over many time/elevation/custom dimensions but have
+                    // granules with sources in common and want to avoid unnecessary opening of
+                    // source NetCDF/GRIB. Only the first matching data value is used.
+                    // This loop also ensures that the source for each granule is only opened once.
+                    boolean needSource = false;
+                    for (ExtraVariableRecord record : nonscalarExtraVariables) {
+                        if (!record.writtenIndices.contains(indexing[record.dimensionIndex])) {
+                            needSource = true;
+                            break;
+                        }
                     }
-                }
-                if (needSource) {
-                    try (NetcdfDataset source = getSourceNetcdfDataset(gridCoverage)) {
-                        if (source != null) {
-                            for (ExtraVariableRecord record : nonscalarExtraVariables) {
-                                if (!record.writtenIndices.contains(indexing[record.dimensionIndex])) {
-                                    writer.write(
-                                            writer.findVariable(record.extraVariable.getOutput()),
-                                            new int[] {indexing[record.dimensionIndex]},
-                                            source.findVariable(record.extraVariable.getSource())
-                                                    .read()
-                                                    .reshape(new int[] {1}));
-                                    record.writtenIndices.add(indexing[record.dimensionIndex]);
+                    if (needSource) {
+                        try (NetcdfDataset source = getSourceNetcdfDataset(gridCoverage)) {
+                            if (source != null) {
+                                for (ExtraVariableRecord record : nonscalarExtraVariables) {
+                                    if (!record.writtenIndices.contains(indexing[record.dimensionIndex])) {
+                                        writer.write(
+                                                writer.findVariable(record.extraVariable.getOutput()),
+                                                new int[] {indexing[record.dimensionIndex]},
+                                                source.findVariable(record.extraVariable.getSource())
+                                                        .read()
+                                                        .reshape(new int[] {1}));
+                                        record.writtenIndices.add(indexing[record.dimensionIndex]);
+                                    }
                                 }
                             }
                         }
                     }
                 }
+
+                // -----------------
+                // Fill data slice
+                // -----------------
+                int width = raster.getWidth();
+                int height = raster.getHeight();
+                int minX = raster.getMinX();
+                int minY = raster.getMinY();
+                slabWriter.startSlice(indexing, slabIndexing);
+                final RandomIter data = RandomIterFactory.create(raster, null);
+                for (int j = minY; j < minY + height; j++) {
+                    // Simply setting lat and lon
+                    slabIndexing[numDimensions - 2] = height - j + minY - 1;
+                    for (int k = minX; k < minX + width; k++) {
+                        slabIndexing[numDimensions - 1] = k - minX;
+                        slabIndex.set(slabIndexing);
+                        setPixel(
+                                k,
+                                j,
+                                transcodedDataType,
+                                netCDFDataType,
+                                data,
+                                slab,
+                                slabIndex,
+                                dataPacker,
+                                noDataValue,
+                                unitConverter,
+                                0);
+                    }
+                }
+                // Finalize the iterator
+                data.done();
+
+                // --------------------------------------------
+                // Write the slab to the variable, if complete
+                // --------------------------------------------
+                slabWriter.endSlice();
             }
+        }
+        // Write what's left of the last slab
+        slabWriter.flush();
+        writer.flush();
+    }
 
-            // ----------------
-            // Fill data matrix
-            // ----------------
-
-            // Loop over bands using a RandomIter
-            final RandomIter data = RandomIterFactory.create(ri, null);
-            for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
-                for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
-                    for (int trow = 0; trow < tileHeight; trow++) {
-                        int j = (tileY * tileHeight) + trow;
-                        if ((j >= minY) && (j <= maxY)) {
-                            for (int tcol = 0; tcol < tileWidth; tcol++) {
-                                int col = (tileX * tileWidth) + tcol;
-                                if ((col >= minX) && (col <= maxX)) {
-                                    int k = col;
-                                    final int yPos = height - j + minY - 1;
-
-                                    // Simply setting lat and lon
-                                    indexing[numDimensions - 1] = k - minX;
-                                    indexing[numDimensions - 2] = yPos;
-                                    matrixIndex.set(indexing);
-                                    setPixel(
-                                            k,
-                                            j,
-                                            NetCDFUtilities.transcodeImageDataType(imageDataType),
-                                            netCDFDataType,
-                                            data,
-                                            matrix,
-                                            matrixIndex,
-                                            dataPacker,
-                                            noDataValue,
-                                            unitConverter,
-                                            0);
-                                }
-                            }
+    /**
+     * Collects consecutive 2D slices along the outermost dimension, writing them together once a slab as deep as the
+     * chunks is complete, so that each chunk is compressed once. When there are other non spatial dimensions (e.g.,
+     * time and elevation) the slab holds all their slices for each step along the outermost one, whatever the order the
+     * granules come in. Slices are written as soon as possible, a partial slab is flushed when the next slice does not
+     * belong to it.
+     */
+    private class SlabWriter {
+
+        final Variable var;
+
+        final Array slab;
+
+        final int depth;
+
+        /** The size of the outermost dimension, or 0 if there are only the spatial ones */
+        final int outerSize;
+
+        /** The sizes of the non spatial dimensions held by the slab, besides the outermost one */
+        final int[] innerShape;
+
+        /** The number of slices held by the slab for each step along the outermost dimension */
+        final int innerCount;
+
+        /** The filled slices, by step along the outermost dimension, then by inner position */
+        final boolean[] filled;
+
+        /** The slab origin in the variable, null if the slab is empty */
+        int[] origin;
+
+        SlabWriter(Variable var, int[] dimSize, int depth) {
+            this.var = var;
+            this.depth = depth;
+            int numDimensions = dimSize.length;
+            this.outerSize = numDimensions > 2 ? dimSize[0] : 0;
+            // without chunk alignment each slice is written on its own, there is no need to hold the others
+            this.innerShape = depth > 1 ? Arrays.copyOfRange(dimSize, 1, numDimensions - 2) : new int[0];
+            int count = 1;
+            for (int size : innerShape) {
+                count *= size;
+            }
+            this.innerCount = count;
+            int[] shape = new int[numDimensions];
+            Arrays.fill(shape, 1);
+            shape[0] = depth;
+            System.arraycopy(innerShape, 0, shape, 1, innerShape.length);
+            shape[numDimensions - 1] = dimSize[numDimensions - 1];
+            shape[numDimensions - 2] = dimSize[numDimensions - 2];
+            this.slab = NetCDFUtilities.getArray(shape, var.getDataType());
+            this.filled = new boolean[depth * innerCount];
+        }
+
+        /**
+         * Prepares the slab to receive the slice at the given indexing, flushing the current slab if the slice does
+         * not belong to it, and sets the slice position in the slab in the non spatial elements of slabIndexing
+         */
+        void startSlice(int[] indexing, int[] slabIndexing) throws IOException, InvalidRangeException {
+            int[] sliceOrigin = indexing.clone();
+            sliceOrigin[sliceOrigin.length - 1] = 0;
+            sliceOrigin[sliceOrigin.length - 2] = 0;
+            int position = 0;
+            if (outerSize > 0) {
+                sliceOrigin[0] = indexing[0] / depth * depth;
+                position = indexing[0] - sliceOrigin[0];
+                slabIndexing[0] = position;
+            }
+            int inner = 0;
+            for (int i = 0; i < innerShape.length; i++) {
+                sliceOrigin[i + 1] = 0;
+                slabIndexing[i + 1] = indexing[i + 1];
+                inner = inner * innerShape[i] + indexing[i + 1];
+            }
+            if (origin != null && !Arrays.equals(origin, sliceOrigin)) {
+                flush();
+            }
+            origin = sliceOrigin;
+            filled[position * innerCount + inner] = true;
+        }
+
+        /** The number of steps along the outermost dimension the slab holds, less than the depth at the end */
+        private int getSteps() {
+            return outerSize > 0 ? Math.min(depth, outerSize - origin[0]) : 1;
+        }
+
+        /** Writes the slab right away if all its slices have been filled */
+        void endSlice() throws IOException, InvalidRangeException {
+            for (int i = 0; i < getSteps() * innerCount; i++) {
+                if (!filled[i]) {
+                    return;
+                }
+            }
+            flush();
+        }
+
+        /** Writes the filled slices of the slab, as few contiguous runs as possible */
+        void flush() throws IOException, InvalidRangeException {
+            if (origin == null) {
+                return;
+            }
+            boolean complete = getSteps() == depth;
+            for (int i = 0; i < filled.length && complete; i++) {
+                complete = filled[i];
+            }
+            if (complete) {
+                writer.write(var, origin, slab);
+            } else {
+                // runs along the outermost dimension, for each inner position
+                for (int inner = 0; inner < innerCount; inner++) {
+                    int start = -1;
+                    for (int i = 0; i <= depth; i++) {
+                        boolean isFilled = i < depth && filled[i * innerCount + inner];
+                        if (isFilled && start < 0) {
+                            start = i;
+                        } else if (!isFilled && start >= 0) {
+                            writeRun(inner, start, i);
+                            start = -1;
                         }
                     }
                 }
             }
-            // Finalize the iterator
-            data.done();
+            Arrays.fill(filled, false);
+            origin = null;
         }
 
-        // ------------------------------
-        // Write the data to the variable
-        // ------------------------------
-        writer.write(var, matrix);
-        writer.flush();
+        private void writeRun(int inner, int start, int end) throws IOException, InvalidRangeException {
+            int[] sectionOrigin = new int[slab.getRank()];
+            int[] sectionShape = slab.getShape();
+            sectionOrigin[0] = start;
+            sectionShape[0] = end - start;
+            for (int i = innerShape.length - 1; i >= 0; i--) {
+                sectionOrigin[i + 1] = inner % innerShape[i];
+                sectionShape[i + 1] = 1;
+                inner /= innerShape[i];
+            }
+            int[] runOrigin = origin.clone();
+            for (int i = 0; i < innerShape.length + 1; i++) {
+                runOrigin[i] += sectionOrigin[i];
+            }
+            writer.write(var, runOrigin, slab.section(sectionOrigin, sectionShape));
+        }
     }
 
     @Override
@@ -0,0 +1,70 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs.responses;
+
+import ucar.nc2.Variable;
+import ucar.nc2.write.Nc4ChunkingDefault;
+
+/**
+ * NetCDF-4 chunking strategy using a configured chunk shape for the multidimensional output variables. The last two
+ * dimensions of a variable are the y and x axes, the first one is the outermost non spatial dimension (usually time),
+ * any other dimension is chunked one value at a time. One dimensional variables, such as coordinates, keep the default
+ * chunking.
+ */
+class NetCDFChunking extends Nc4ChunkingDefault {
+
+    private final int width;
+
+    private final int height;
+
+    private final int depth;
+
+    /**
+     * Builds the chunking strategy
+     *
+     * @param deflateLevel the compression level
+     * @param shuffle whether to apply the shuffle filter
+     * @param width chunk size along x, 0 for the whole dimension
+     * @param height chunk size along y, 0 for the whole dimension
+     * @param depth chunk size along the outermost non spatial dimension, 0 for one slice per chunk
+     */
+    NetCDFChunking(int deflateLevel, boolean shuffle, int width, int height, int depth) {
+        super(deflateLevel, shuffle);
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+    }
+
+    @Override
+    public boolean isChunked(Variable v) {
+        return v.getRank() >= 2 || super.isChunked(v);
+    }
+
+    @Override
+    public long[] computeChunking(Variable v) {
+        int rank = v.getRank();
+        if (rank < 2) {
+            return super.computeChunking(v);
+        }
+        int[] shape = v.getShape();
+        long[] chunks = new long[rank];
+        for (int i = 0; i < rank - 2; i++) {
+            chunks[i] = 1;
+        }
+        if (rank > 2 && depth > 0) {
+            chunks[0] = getChunkSize(depth, shape[0]);
+        }
+        chunks[rank - 2] = getChunkSize(height, shape[rank - 2]);
+        chunks[rank - 1] = getChunkSize(width, shape[rank - 1]);
+        return chunks;
+    }
+
+    private static long getChunkSize(int size, int length) {
+        if (size <= 0) {
+            return Math.max(1, length);
+        }
+        return Math.max(1, Math.min(size, length));
+    }
+}
@@ -52,6 +52,12 @@
 
     protected final TextField<Integer> compressionLevel;
 
+    protected final TextField<Integer> chunkWidth;
+
+    protected final TextField<Integer> chunkHeight;
+
+    protected final TextField<Integer> chunkDepth;
+
     public static final PackageResourceReference ADD_ICON =
             new PackageResourceReference(GeoServerBasePage.class, "img/icons/silk/add.png");
 
@@ -84,6 +90,15 @@ public NetCDFPanel(String id, IModel<T> netcdfModel) {
         container.add(dataPacking);
         compressionLevel.add(new RangeValidator<>(0, 9));
         container.add(compressionLevel);
+        chunkWidth = new TextField<>("chunkWidth", new PropertyModel<>(netcdfModel, "chunkWidth"));
+        chunkWidth.add(RangeValidator.minimum(0));
+        container.add(chunkWidth);
+        chunkHeight = new TextField<>("chunkHeight", new PropertyModel<>(netcdfModel, "chunkHeight"));
+        chunkHeight.add(RangeValidator.minimum(0));
+        container.add(chunkHeight);
+        chunkDepth = new TextField<>("chunkDepth", new PropertyModel<>(netcdfModel, "chunkDepth"));
+        chunkDepth.add(RangeValidator.minimum(0));
+        container.add(chunkDepth);
 
         ///////////////////////////////
         // Global Attributes definition
@@ -214,12 +229,18 @@ public void convertInput() {
         variableAttributes.visitChildren(formComponentVisitor);
         extraVariables.visitChildren(formComponentVisitor);
         compressionLevel.processInput();
+        chunkWidth.processInput();
+        chunkHeight.processInput();
+        chunkDepth.processInput();
         dataPacking.processInput();
         shuffle.processInput();
         copyAttributes.processInput();
         copyGlobalAttributes.processInput();
         NetCDFSettingsContainer convertedInput = new NetCDFSettingsContainer();
         convertedInput.setCompressionLevel(compressionLevel.getModelObject());
+        convertedInput.setChunkWidth(chunkWidth.getModelObject());
+        convertedInput.setChunkHeight(chunkHeight.getModelObject());
+        convertedInput.setChunkDepth(chunkDepth.getModelObject());
         convertedInput.setGlobalAttributes(globalAttributes.getModelObject());
         convertedInput.setVariableAttributes(variableAttributes.getModelObject());
         convertedInput.setExtraVariables(extraVariables.getModelObject());
@@ -28,6 +28,9 @@ public enum Version {
 
     public static final boolean DEFAULT_SHUFFLE = true;
 
+    /** Chunk size meaning the NetCDF library default chunking is used */
+    public static final int DEFAULT_CHUNK_SIZE = 0;
+
     public static final boolean DEFAULT_COPY_ATTRIBUTES = false;
 
     public static final boolean DEFAULT_COPY_GLOBAL_ATTRIBUTES = false;
@@ -44,6 +47,12 @@ public enum Version {
 
     private boolean shuffle = DEFAULT_SHUFFLE;
 
+    private int chunkWidth = DEFAULT_CHUNK_SIZE;
+
+    private int chunkHeight = DEFAULT_CHUNK_SIZE;
+
+    private int chunkDepth = DEFAULT_CHUNK_SIZE;
+
     private boolean copyAttributes = DEFAULT_COPY_ATTRIBUTES;
 
     private boolean copyGlobalAttributes = DEFAULT_COPY_GLOBAL_ATTRIBUTES;
@@ -82,6 +91,47 @@ public void setShuffle(boolean shuffle) {
         this.shuffle = shuffle;
     }
 
+    /**
+     * NetCDF-4 chunk size along the x axis of the output variables, 0 to use the whole dimension (or the library
+     * default chunking, if no chunk size is set at all)
+     */
+    public int getChunkWidth() {
+        return chunkWidth;
+    }
+
+    public void setChunkWidth(int chunkWidth) {
+        this.chunkWidth = chunkWidth;
+    }
+
+    /**
+     * NetCDF-4 chunk size along the y axis of the output variables, 0 to use the whole dimension (or the library
+     * default chunking, if no chunk size is set at all)
+     */
+    public int getChunkHeight() {
+        return chunkHeight;
+    }
+
+    public void setChunkHeight(int chunkHeight) {
+        this.chunkHeight = chunkHeight;
+    }
+
+    /**
+     * NetCDF-4 chunk size along the outermost non spatial dimension (usually time) of the output variables, 0 to chunk
+     * one slice at a time. Larger values favor time series access over map access.
+     */
+    public int getChunkDepth() {
+        return chunkDepth;
+    }
+
+    public void setChunkDepth(int chunkDepth) {
+        this.chunkDepth = chunkDepth;
+    }
+
+    /** Whether a custom chunk shape has been configured */
+    public boolean isChunked() {
+        return chunkWidth > 0 || chunkHeight > 0 || chunkDepth > 0;
+    }
+
     /** Whether to copy attributes from the NetCDF/GRIB source to the main output variable. */
     public boolean isCopyAttributes() {
         return copyAttributes;
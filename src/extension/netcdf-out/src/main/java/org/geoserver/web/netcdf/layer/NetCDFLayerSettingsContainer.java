@@ -26,6 +26,9 @@ public NetCDFLayerSettingsContainer(NetCDFSettingsContainer globalContainer) {
         setCompressionLevel(globalContainer.getCompressionLevel());
         setDataPacking(globalContainer.getDataPacking());
         setShuffle(globalContainer.isShuffle());
+        setChunkWidth(globalContainer.getChunkWidth());
+        setChunkHeight(globalContainer.getChunkHeight());
+        setChunkDepth(globalContainer.getChunkDepth());
         setCopyAttributes(globalContainer.isCopyAttributes());
         setCopyGlobalAttributes(globalContainer.isCopyGlobalAttributes());
         setGlobalAttributes(globalContainer.getGlobalAttributes());
@@ -48,6 +51,9 @@ public NetCDFLayerSettingsContainer copy() {
         copy.setCompressionLevel(this.getCompressionLevel());
         copy.setDataPacking(this.getDataPacking());
         copy.setShuffle(this.isShuffle());
+        copy.setChunkWidth(this.getChunkWidth());
+        copy.setChunkHeight(this.getChunkHeight());
+        copy.setChunkDepth(this.getChunkDepth());
         copy.setCopyAttributes(this.isCopyAttributes());
         copy.setCopyGlobalAttributes(this.isCopyGlobalAttributes());
         copy.setGlobalAttributes(this.getGlobalAttributes());
@@ -155,6 +155,9 @@ public void convertInput() {
         variableAttributes.visitChildren(formComponentVisitor);
         extraVariables.visitChildren(formComponentVisitor);
         compressionLevel.processInput();
+        chunkWidth.processInput();
+        chunkHeight.processInput();
+        chunkDepth.processInput();
         dataPacking.processInput();
         shuffle.processInput();
         copyAttributes.processInput();
@@ -163,6 +166,9 @@ public void convertInput() {
         uom.processInput();
         NetCDFLayerSettingsContainer convertedInput = new NetCDFLayerSettingsContainer();
         convertedInput.setCompressionLevel(compressionLevel.getModelObject());
+        convertedInput.setChunkWidth(chunkWidth.getModelObject());
+        convertedInput.setChunkHeight(chunkHeight.getModelObject());
+        convertedInput.setChunkDepth(chunkDepth.getModelObject());
         convertedInput.setGlobalAttributes(globalAttributes.getModelObject());
         convertedInput.setVariableAttributes(variableAttributes.getModelObject());
         convertedInput.setExtraVariables(extraVariables.getModelObject());
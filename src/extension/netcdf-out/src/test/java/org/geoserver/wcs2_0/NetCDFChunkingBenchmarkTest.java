@@ -0,0 +1,154 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import javax.xml.namespace.QName;
+import org.apache.commons.io.FileUtils;
+import org.geoserver.catalog.DimensionPresentation;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.data.test.MockData;
+import org.geoserver.data.test.SystemTestData;
+import org.geoserver.test.GeoServerSystemTestSupport;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ucar.ma2.Array;
+import ucar.nc2.Variable;
+import ucar.nc2.dataset.NetcdfDataset;
+import ucar.nc2.dataset.NetcdfDatasets;
+
+/**
+ * Compares the NetCDF-4 output of a time series mosaic with different chunk shapes and compression levels, both when
+ * writing the file and when reading it back as maps or as pixel time series. Requires the NetCDF C library.
+ */
+@Ignore
+public class NetCDFChunkingBenchmarkTest {
+
+    static final QName TIMESERIES = new QName(MockData.SF_URI, "timeseries", MockData.SF_PREFIX);
+
+    static final String REQUEST = "wcs?request=GetCoverage&service=WCS&version=2.0.1&coverageId=timeseries"
+            + "&subset=time(\"2014-01-01T00:00:00Z\",\"2019-01-01T00:00:00Z\")"
+            + "&format=application/x-netcdf4";
+
+    /**
+     * Runs the JMH benchmark. This isn't a real test, by integrating JMH with JUnit it just provides an easy way to run
+     * the benchmark (typically through the IDE).
+     */
+    @Test
+    public void runBenchmark() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(NetCDFChunkingBenchmark.class.getSimpleName() + ".*")
+                .result("./target/netcdf-chunking-results.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+
+    private static class GeoServerBenchmarkSupport extends WCSNetCDFBaseTest {
+
+        @Override
+        protected void onSetUp(SystemTestData testData) throws Exception {
+            super.onSetUp(testData);
+            testData.addRasterLayer(TIMESERIES, "timeseries.zip", null, getCatalog());
+            setupRasterDimension(TIMESERIES, ResourceInfo.TIME, DimensionPresentation.LIST, null, null, null);
+        }
+
+        @Override
+        public MockHttpServletResponse getAsServletResponse(String path) throws Exception {
+            return super.getAsServletResponse(path);
+        }
+    }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(1)
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class NetCDFChunkingBenchmark {
+
+        @State(Scope.Benchmark)
+        public static class BenchmarkState {
+
+            /** The chunking encoding parameters, the empty string uses the library default chunking */
+            @Param({"", "&chunkDepth=1", "&chunkWidth=64&chunkHeight=64", "&chunkWidth=64&chunkHeight=64&chunkDepth=6"})
+            String chunking;
+
+            @Param({"0", "5"})
+            String compression;
+
+            GeoServerBenchmarkSupport support = new GeoServerBenchmarkSupport();
+
+            File output;
+
+            @Setup(Level.Trial)
+            public void setup() throws Exception {
+                support.doSetup();
+                output = File.createTempFile("chunking", ".nc", new File("./target"));
+                FileUtils.writeByteArrayToFile(output, getNetCDF(this));
+            }
+
+            @TearDown(Level.Trial)
+            public void tearDown() throws Exception {
+                GeoServerSystemTestSupport.doTearDownClass();
+                FileUtils.deleteQuietly(output);
+            }
+        }
+
+        @Benchmark
+        public byte[] write(BenchmarkState state) throws Exception {
+            return getNetCDF(state);
+        }
+
+        private static byte[] getNetCDF(BenchmarkState state) throws Exception {
+            MockHttpServletResponse response = state.support.getAsServletResponse(
+                    REQUEST + "&compression=" + state.compression + state.chunking);
+            assertEquals("application/x-netcdf4", response.getContentType());
+            return response.getContentAsByteArray();
+        }
+
+        @Benchmark
+        public Array readMap(BenchmarkState state) throws Exception {
+            try (NetcdfDataset dataset = NetcdfDatasets.openDataset(state.output.getAbsolutePath())) {
+                Variable variable = getGridVariable(dataset);
+                int[] shape = variable.getShape();
+                return variable.read(new int[] {shape[0] / 2, 0, 0}, new int[] {1, shape[1], shape[2]});
+            }
+        }
+
+        @Benchmark
+        public Array readTimeSeries(BenchmarkState state) throws Exception {
+            try (NetcdfDataset dataset = NetcdfDatasets.openDataset(state.output.getAbsolutePath())) {
+                Variable variable = getGridVariable(dataset);
+                int[] shape = variable.getShape();
+                return variable.read(new int[] {0, shape[1] / 2, shape[2] / 2}, new int[] {shape[0], 1, 1});
+            }
+        }
+
+        private static Variable getGridVariable(NetcdfDataset dataset) {
+            return dataset.getVariables().stream()
+                    .filter(v -> v.getRank() == 3)
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+}
@@ -66,6 +66,7 @@
 import org.springframework.mock.web.MockHttpServletResponse;
 import ucar.ma2.Array;
 import ucar.ma2.DataType;
+import ucar.ma2.MAMath;
 import ucar.ma2.Range;
 import ucar.ma2.Section;
 import ucar.nc2.Attribute;
@@ -394,6 +395,68 @@ public void testRequestNetCDFCompression() throws Exception {
         }
     }
 
+    @Test
+    public void testRequestNetCDF4Chunking() throws Exception {
+        assumeTrue(NetCDFUtilities.isNC4CAvailable());
+        String request = "wcs?request=GetCoverage&service=WCS&version=2.0.1&coverageId=timeseries"
+                + "&subset=time(\"2014-01-01T00:00:00Z\",\"2019-01-01T00:00:00Z\")"
+                + "&format=application/x-netcdf4";
+        File reference = getNetCDF4(request, "outUnchunked.nc");
+        // 6 time slices, the last slab is a partial one
+        File chunked = getNetCDF4(request + "&chunkWidth=16&chunkHeight=8&chunkDepth=4", "outChunked.nc");
+
+        try (NetcdfDataset expected = NetcdfDatasets.openDataset(reference.getAbsolutePath());
+                NetcdfDataset actual = NetcdfDatasets.openDataset(chunked.getAbsolutePath())) {
+            Variable expectedVar = getGridVariable(expected, 3);
+            Variable actualVar = getGridVariable(actual, 3);
+            int[] shape = actualVar.getShape();
+            assertEquals(6, shape[0]);
+            Attribute chunkSizes = actualVar.findAttribute("_ChunkSizes");
+            assertNotNull(chunkSizes);
+            assertEquals(4, chunkSizes.getNumericValue(0).intValue());
+            assertEquals(Math.min(8, shape[1]), chunkSizes.getNumericValue(1).intValue());
+            assertEquals(Math.min(16, shape[2]), chunkSizes.getNumericValue(2).intValue());
+
+            // same values, whatever the chunking
+            assertArrayEquals(expectedVar.getShape(), shape);
+            assertTrue(MAMath.nearlyEquals(expectedVar.read(), actualVar.read()));
+        }
+    }
+
+    private File getNetCDF4(String request, String suffix) throws Exception {
+        MockHttpServletResponse response = getAsServletResponse(request);
+        assertEquals("application/x-netcdf4", response.getContentType());
+        File file = File.createTempFile("netcdf", suffix, new File("./target"));
+        FileUtils.writeByteArrayToFile(file, getBinary(response));
+        return file;
+    }
+
+    @Test
+    public void testRequestNetCDF4ChunkingTwoDimensions() throws Exception {
+        assumeTrue(NetCDFUtilities.isNC4CAvailable());
+        // time and a custom dimension, the slab has to hold the slices of both
+        String request = "wcs?request=GetCoverage&service=WCS&version=2.0.1&coverageId=wcs__2DLatLonCoverage"
+                + "&format=application/x-netcdf4";
+        File reference = getNetCDF4(request, "outUnchunked4D.nc");
+        File chunked = getNetCDF4(request + "&chunkDepth=2", "outChunked4D.nc");
+
+        try (NetcdfDataset expected = NetcdfDatasets.openDataset(reference.getAbsolutePath());
+                NetcdfDataset actual = NetcdfDatasets.openDataset(chunked.getAbsolutePath())) {
+            Variable expectedVar = getGridVariable(expected, 4);
+            Variable actualVar = getGridVariable(actual, 4);
+            assertArrayEquals(expectedVar.getShape(), actualVar.getShape());
+            assertTrue(MAMath.nearlyEquals(expectedVar.read(), actualVar.read()));
+        }
+    }
+
+    /** Returns the grid variable of the dataset, with the given number of dimensions */
+    private Variable getGridVariable(NetcdfDataset dataset, int rank) {
+        return dataset.getVariables().stream()
+                .filter(v -> v.getRank() == rank)
+                .findFirst()
+                .orElseThrow();
+    }
+
     @Test
     public void testRequestNetCDFDataPacking() throws Exception {
 
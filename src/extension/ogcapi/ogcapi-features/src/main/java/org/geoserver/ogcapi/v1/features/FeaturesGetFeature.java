@@ -26,6 +26,9 @@ public class FeaturesGetFeature extends org.geoserver.wfs.GetFeature {
 
     static final Logger LOGGER = Logging.getLogger(FeaturesGetFeature.class);
 
+    /** The keyset paging cursor parameter, see {@link org.geoserver.wfs.KeysetCursor} */
+    static final String CURSOR = "cursor";
+
     public FeaturesGetFeature(WFSInfo wfs, Catalog catalog) {
         super(wfs, catalog);
     }
@@ -37,7 +40,8 @@ protected void buildPrevNextLinks(
             int maxFeatures,
             int count,
             FeatureCollectionResponse result,
-            Map<String, String> kvp) {
+            Map<String, String> kvp,
+            String nextCursor) {
         // can we build the links?
         List<Query> queries = request.getQueries();
         if (queries == null
@@ -64,6 +68,8 @@ protected void buildPrevNextLinks(
         // wait for the filtering/crs extensions to show up before deciding exactly what exactly to
         // do
         kvp = APIRequestInfo.get().getSimpleQueryMap();
+        // the cursor is valid only for the current page
+        kvp.remove(CURSOR);
         // build prev link if needed
         if (offset > 0) {
             // previous offset calculated as the current offset - maxFeatures, or 0 if this is a
@@ -78,10 +84,19 @@ protected void buildPrevNextLinks(
         if (count > 0 && offset > -1 && maxFeatures <= count) {
             kvp.put("startIndex", String.valueOf(offset > 0 ? offset + count : count));
             kvp.put("limit", String.valueOf(maxFeatures));
+            if (nextCursor != null) {
+                kvp.put(CURSOR, nextCursor);
+            }
             result.setNext(buildURL(itemsPath, kvp));
         }
     }
 
+    @Override
+    protected String getCursor(GetFeatureRequest request) {
+        Map<String, String> kvp = APIRequestInfo.get().getSimpleQueryMap();
+        return kvp != null ? kvp.get(CURSOR) : null;
+    }
+
     protected String getItemsPath(String collectionName) {
         return "ogc/features/v1/collections/" + ResponseUtils.urlEncode(collectionName) + "/items";
     }
@@ -45,6 +45,9 @@ protected void writeExtraFeatureProperties(Feature feature, GeoJSONBuilder jb) {
     protected void writeCollectionCounts(BigInteger featureCount, long numberReturned, GeoJSONBuilder jsonWriter) {
         if (featureCount != null) {
             jsonWriter.key("numberMatched").value(featureCount);
+            if (response.isTotalNumberOfFeaturesEstimated()) {
+                jsonWriter.key("numberMatchedEstimated").value(true);
+            }
         }
         jsonWriter.key("numberReturned").value(numberReturned);
     }
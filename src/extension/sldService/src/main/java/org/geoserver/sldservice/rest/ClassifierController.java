@@ -108,9 +108,12 @@ public class ClassifierController extends BaseSLDServiceController {
     private static final Logger LOGGER = Logging.getLogger(ClassifierController.class);
     private static final int FIRST_BAND = 1;
 
+    private final RasterStatisticsCache statisticsCache;
+
     @Autowired
-    public ClassifierController(@Qualifier("catalog") Catalog catalog) {
+    public ClassifierController(@Qualifier("catalog") Catalog catalog, RasterStatisticsCache statisticsCache) {
         super(catalog);
+        this.statisticsCache = statisticsCache;
     }
 
     @Override
@@ -367,6 +370,13 @@ private List<Rule> getRasterRules(
         builder.setStandardDeviations(stddevs);
         ColorMap colorMap;
         try {
+            // the statistics of the whole band do not depend on the request, they can be reused
+            if (bbox == null && !imageReader.isFiltered()) {
+                builder.setStatistics(statisticsCache.getStatistics(
+                        coverageInfo, selectedBand, () -> builder.computeStatistics(image)));
+            } else {
+                builder.setStatistics(builder.computeStatistics(image));
+            }
             if (customClasses.isEmpty()) {
                 if ("equalInterval".equals(method)) {
                     colorMap = builder.equalIntervalClassification(image, intervals, open, continuous);
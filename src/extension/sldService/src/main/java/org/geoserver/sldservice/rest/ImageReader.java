@@ -63,6 +63,7 @@ class ImageReader {
     private RenderedImage image;
     private int maxPixels;
     private GridCoverage2D coverage;
+    private boolean filtered;
 
     public ImageReader(CoverageInfo coverageInfo, int selectedBand, int maxPixels, ReferencedEnvelope envelope) {
         this.coverageInfo = coverageInfo;
@@ -91,6 +92,7 @@ public ImageReader invoke() throws IOException, TransformException, FactoryExcep
 
         // grab the original grid geometry
         Filter readFilter = getReadFilter(readParameters);
+        filtered = readFilter != null;
         GridGeometry originalGeometry = getOriginalGridGeometry(reader, readFilter);
         ReferencedEnvelope originalEnvelope = ((GridGeometry2D) originalGeometry).getEnvelope2D();
         CoordinateReferenceSystem crs = originalEnvelope.getCoordinateReferenceSystem();
@@ -272,6 +274,11 @@ public RenderedImage getImage() {
         return image;
     }
 
+    /** Returns true if the read is filtered, e.g., a mosaic with a CQL filter in the layer configuration */
+    boolean isFiltered() {
+        return filtered;
+    }
+
     List<GeneralParameterValue> getReadParameters() {
         return Arrays.asList(readParameters);
     }
@@ -0,0 +1,201 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.sldservice.rest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.catalog.CoverageStoreInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geoserver.platform.resource.Files;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.platform.resource.Resources;
+import org.geoserver.sldservice.utils.classifier.RasterStatistics;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Keeps the {@link RasterStatistics} of the coverage bands classified by the {@link ClassifierController}, in memory
+ * and in the <code>sldservice/statistics</code> folder of the data directory, so that they survive restarts.
+ *
+ * <p>The statistics are dropped when the coverage or its store are modified or removed. They are also tagged with the
+ * modification dates of the coverage, the store and the store file, so that changes made while GeoServer was not
+ * running are detected as well. The cache can be disabled setting the <code>org.geoserver.sldService.stats.cache
+ * </code> system property to false.
+ */
+public class RasterStatisticsCache implements CatalogListener {
+
+    static final Logger LOGGER = Logging.getLogger(RasterStatisticsCache.class);
+
+    static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("org.geoserver.sldService.stats.cache", "true"));
+
+    static final String VERSION = "version";
+
+    private final Catalog catalog;
+
+    private final GeoServerResourceLoader loader;
+
+    private final Resource directory;
+
+    private final Map<String, CachedStatistics> statistics = new ConcurrentHashMap<>();
+
+    record CachedStatistics(String version, RasterStatistics statistics) {}
+
+    public RasterStatisticsCache(Catalog catalog, GeoServerResourceLoader loader) {
+        this.catalog = catalog;
+        this.loader = loader;
+        this.directory = loader.get("sldservice/statistics");
+        catalog.addListener(this);
+    }
+
+    /**
+     * Returns the statistics of a coverage band, computing them if not available, or stale
+     *
+     * @param coverage the coverage
+     * @param band the band, one based
+     * @param computer computes the statistics on cache miss
+     */
+    public RasterStatistics getStatistics(CoverageInfo coverage, int band, Supplier<RasterStatistics> computer) {
+        if (!ENABLED || coverage.getId() == null) {
+            return computer.get();
+        }
+        String key = getKey(coverage, band);
+        String version = getVersion(coverage);
+        CachedStatistics cached = statistics.computeIfAbsent(key, k -> load(coverage, band));
+        if (cached != null && version.equals(cached.version())) {
+            return cached.statistics();
+        }
+
+        RasterStatistics result = computer.get();
+        cached = new CachedStatistics(version, result);
+        statistics.put(key, cached);
+        store(coverage, band, cached);
+        return result;
+    }
+
+    /** Drops the statistics of all the bands of the given coverage */
+    public void clear(CoverageInfo coverage) {
+        if (coverage.getId() == null) {
+            return;
+        }
+        String prefix = coverage.getId() + "#";
+        statistics.keySet().removeIf(k -> k.startsWith(prefix));
+        getCoverageDirectory(coverage.getId()).delete();
+    }
+
+    private String getKey(CoverageInfo coverage, int band) {
+        return coverage.getId() + "#" + band;
+    }
+
+    private Resource getCoverageDirectory(String coverageId) {
+        // ids can contain characters that are not valid in file names
+        return directory.get(coverageId.replaceAll("[^\\w\\-.]", "_"));
+    }
+
+    /** Identifies the state of the coverage configuration and data the statistics were computed against */
+    private String getVersion(CoverageInfo coverage) {
+        CoverageStoreInfo store = coverage.getStore();
+        StringBuilder sb = new StringBuilder();
+        sb.append(getTime(coverage)).append('-').append(getTime(store));
+        File file = getStoreFile(store);
+        sb.append('-').append(file != null ? file.lastModified() : 0);
+        return sb.toString();
+    }
+
+    private long getTime(CatalogInfo info) {
+        Date date = info != null ? info.getDateModified() : null;
+        return date != null ? date.getTime() : 0;
+    }
+
+    private File getStoreFile(CoverageStoreInfo store) {
+        if (store == null || store.getURL() == null) {
+            return null;
+        }
+        try {
+            return Resources.find(Resources.fromURL(Files.asResource(loader.getBaseDirectory()), store.getURL()), true);
+        } catch (Exception e) {
+            // not a file based store
+            return null;
+        }
+    }
+
+    private CachedStatistics load(CoverageInfo coverage, int band) {
+        Resource resource = getCoverageDirectory(coverage.getId()).get("band" + band + ".properties");
+        if (resource.getType() != Resource.Type.RESOURCE) {
+            return null;
+        }
+        try (InputStream is = resource.in()) {
+            Properties properties = new Properties();
+            properties.load(is);
+            return new CachedStatistics(properties.getProperty(VERSION), RasterStatistics.load(properties));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to load the statistics from " + resource.path(), e);
+            return null;
+        }
+    }
+
+    private void store(CoverageInfo coverage, int band, CachedStatistics cached) {
+        Resource resource = getCoverageDirectory(coverage.getId()).get("band" + band + ".properties");
+        Properties properties = new Properties();
+        properties.setProperty(VERSION, cached.version());
+        cached.statistics().store(properties);
+        try (OutputStream os = resource.out()) {
+            properties.store(os, "Statistics of band " + band + " of " + coverage.prefixedName());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to store the statistics in " + resource.path(), e);
+        }
+    }
+
+    private void clear(CatalogInfo info) {
+        if (info instanceof CoverageInfo coverage) {
+            clear(coverage);
+        } else if (info instanceof CoverageStoreInfo store) {
+            for (CoverageInfo coverage : catalog.getCoveragesByCoverageStore(store)) {
+                clear(coverage);
+            }
+        }
+    }
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) {
+        // nothing to do
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) {
+        clear(event.getSource());
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) {
+        // wait for the post modify event
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) {
+        clear(event.getSource());
+    }
+
+    @Override
+    public void reloaded() {
+        statistics.clear();
+    }
+}
@@ -0,0 +1,426 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.sldservice.utils.classifier;
+
+import java.awt.Rectangle;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.eclipse.imagen.ROI;
+import org.eclipse.imagen.media.range.Range;
+import org.geotools.util.NumberRange;
+
+/**
+ * Statistics of a single raster band: extrema, mean, standard deviation, histogram and percentiles. The statistics are
+ * computed scanning the image tiles in parallel, and can be saved to and loaded from {@link Properties}, so that they
+ * can be reused across requests.
+ *
+ * <p>For integral data whose value range is small enough, the histogram records the count of each value, and can be
+ * used to compute exactly the same histograms as the ImageN "Histogram" operation over the same pixels. For other data
+ * a histogram with a fixed number of bins is computed, and used only for the percentiles estimation. The accuracy is
+ * controlled by the following system properties:
+ *
+ * <ul>
+ *   <li><code>org.geoserver.sldService.stats.bins</code>: number of bins of the histogram of non integral data, 1024
+ *       by default
+ *   <li><code>org.geoserver.sldService.stats.maxExactValues</code>: the max number of distinct values for which the
+ *       count of each value is recorded, 65536 by default
+ * </ul>
+ */
+public class RasterStatistics {
+
+    static final int BINS = Integer.getInteger("org.geoserver.sldService.stats.bins", 1024);
+
+    static final int MAX_EXACT_VALUES = Integer.getInteger("org.geoserver.sldService.stats.maxExactValues", 65536);
+
+    private final long count;
+
+    private final double minimum;
+
+    private final double maximum;
+
+    private final double sum;
+
+    private final double sumSquares;
+
+    /** Count of each value between minimum and maximum, for integral data, or null */
+    private final long[] valueCounts;
+
+    /** Histogram with fixed size bins between minimum and maximum, for non integral data, or null */
+    private final long[] bins;
+
+    RasterStatistics(
+            long count,
+            double minimum,
+            double maximum,
+            double sum,
+            double sumSquares,
+            long[] valueCounts,
+            long[] bins) {
+        this.count = count;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.sum = sum;
+        this.sumSquares = sumSquares;
+        this.valueCounts = valueCounts;
+        this.bins = bins;
+    }
+
+    /**
+     * Computes the statistics of a band, skipping the pixels outside of the ROI and the ones matching the nodata
+     *
+     * @param image the source image
+     * @param band the band, zero based
+     * @param roi the region of interest, or null
+     * @param noData the nodata range, or null
+     * @param xPeriod the horizontal subsampling period
+     * @param yPeriod the vertical subsampling period
+     * @return the statistics, with a zero count if there are no valid pixels
+     */
+    public static RasterStatistics compute(
+            RenderedImage image, int band, ROI roi, Range noData, int xPeriod, int yPeriod) {
+        TileScanner scanner = new TileScanner(image, band, roi, noData, Math.max(1, xPeriod), Math.max(1, yPeriod));
+        Moments moments = scanner.tiles()
+                .mapToObj(t -> scanner.scan(t, new Moments()))
+                .reduce(new Moments(), Moments::merge);
+        if (moments.count == 0) {
+            return new RasterStatistics(0, Double.NaN, Double.NaN, 0, 0, null, null);
+        }
+
+        double min = moments.min;
+        double max = moments.max;
+        int dataType = image.getSampleModel().getDataType();
+        boolean integral = dataType != DataBuffer.TYPE_FLOAT && dataType != DataBuffer.TYPE_DOUBLE;
+        if (integral && max - min + 1 <= MAX_EXACT_VALUES) {
+            int size = (int) (max - min + 1);
+            long[] counts = scanner.tiles()
+                    .mapToObj(t -> scanner.scan(t, new ValueCounter(min, size)))
+                    .reduce(new ValueCounter(min, size), ValueCounter::merge)
+                    .counts;
+            return new RasterStatistics(moments.count, min, max, moments.sum, moments.sumSquares, counts, null);
+        } else {
+            long[] bins = scanner.tiles()
+                    .mapToObj(t -> scanner.scan(t, new BinCounter(min, max, BINS)))
+                    .reduce(new BinCounter(min, max, BINS), BinCounter::merge)
+                    .counts;
+            return new RasterStatistics(moments.count, min, max, moments.sum, moments.sumSquares, null, bins);
+        }
+    }
+
+    /** The number of valid pixels */
+    public long getCount() {
+        return count;
+    }
+
+    public double getMinimum() {
+        return minimum;
+    }
+
+    public double getMaximum() {
+        return maximum;
+    }
+
+    public double getMean() {
+        return sum / count;
+    }
+
+    /** The sample standard deviation */
+    public double getStandardDeviation() {
+        if (count <= 1) {
+            return 0;
+        }
+        double variance = (sumSquares - sum * sum / count) / (count - 1);
+        return Math.sqrt(Math.max(0, variance));
+    }
+
+    /** Returns true if the count of each value is available, and histograms can be computed exactly */
+    public boolean isExact() {
+        return valueCounts != null;
+    }
+
+    /**
+     * Returns the range of values, restricted to the given number of standard deviations around the mean (but never
+     * exceeding the extrema) if not null
+     */
+    public NumberRange<Double> getRange(Double standardDeviations) {
+        if (standardDeviations == null) {
+            return new NumberRange<>(Double.class, minimum, maximum);
+        }
+        double mean = getMean();
+        double stddev = getStandardDeviation();
+        return new NumberRange<>(
+                Double.class,
+                Math.max(mean - stddev * standardDeviations, minimum),
+                Math.min(mean + stddev * standardDeviations, maximum));
+    }
+
+    /**
+     * Computes a single band histogram with the same binning as the ImageN "Histogram" operation: values in
+     * <code>[low, high)</code> are counted, in <code>numBins</code> bins of equal width.
+     *
+     * @return the bins, or null if the statistics are not exact
+     */
+    public int[] getHistogram(int numBins, double low, double high) {
+        if (valueCounts == null) {
+            return null;
+        }
+        int[] result = new int[numBins];
+        double binWidth = (high - low) / numBins;
+        for (int i = 0; i < valueCounts.length; i++) {
+            double value = minimum + i;
+            if (valueCounts[i] > 0 && value >= low && value < high) {
+                int index = (int) ((value - low) / binWidth);
+                if (index < numBins) {
+                    result[index] += (int) valueCounts[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the valid pixels fall. Exact for integral data, linearly
+     * interpolated inside the histogram bins otherwise.
+     *
+     * @param percentile the percentile, between 0 and 100
+     */
+    public double getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, but was " + percentile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double target = percentile / 100 * count;
+        long cumulated = 0;
+        if (valueCounts != null) {
+            for (int i = 0; i < valueCounts.length; i++) {
+                cumulated += valueCounts[i];
+                if (cumulated >= target && cumulated > 0) {
+                    return minimum + i;
+                }
+            }
+            return maximum;
+        }
+        double binWidth = (maximum - minimum) / bins.length;
+        for (int i = 0; i < bins.length; i++) {
+            if (bins[i] > 0 && cumulated + bins[i] >= target) {
+                double fraction = (target - cumulated) / bins[i];
+                return Math.min(maximum, minimum + (i + fraction) * binWidth);
+            }
+            cumulated += bins[i];
+        }
+        return maximum;
+    }
+
+    /** Stores the statistics in the given properties */
+    public void store(Properties properties) {
+        properties.setProperty("count", String.valueOf(count));
+        properties.setProperty("minimum", String.valueOf(minimum));
+        properties.setProperty("maximum", String.valueOf(maximum));
+        properties.setProperty("sum", String.valueOf(sum));
+        properties.setProperty("sumSquares", String.valueOf(sumSquares));
+        if (valueCounts != null) {
+            properties.setProperty("valueCounts", join(valueCounts));
+        }
+        if (bins != null) {
+            properties.setProperty("bins", join(bins));
+        }
+    }
+
+    /** Loads the statistics from the given properties, as written by {@link #store(Properties)} */
+    public static RasterStatistics load(Properties properties) {
+        return new RasterStatistics(
+                Long.parseLong(properties.getProperty("count")),
+                Double.parseDouble(properties.getProperty("minimum")),
+                Double.parseDouble(properties.getProperty("maximum")),
+                Double.parseDouble(properties.getProperty("sum")),
+                Double.parseDouble(properties.getProperty("sumSquares")),
+                split(properties.getProperty("valueCounts")),
+                split(properties.getProperty("bins")));
+    }
+
+    private static String join(long[] values) {
+        return Arrays.stream(values).mapToObj(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static long[] split(String values) {
+        if (values == null) {
+            return null;
+        }
+        if (values.isEmpty()) {
+            return new long[0];
+        }
+        return Arrays.stream(values.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    @Override
+    public String toString() {
+        return "RasterStatistics [count=" + count + ", minimum=" + minimum + ", maximum=" + maximum + "]";
+    }
+
+    /** Accumulates the valid pixels of a tile */
+    private interface Accumulator {
+        void add(double value);
+    }
+
+    private static class Moments implements Accumulator {
+        long count;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum;
+        double sumSquares;
+
+        @Override
+        public void add(double value) {
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            sumSquares += value * value;
+        }
+
+        Moments merge(Moments other) {
+            count += other.count;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            sum += other.sum;
+            sumSquares += other.sumSquares;
+            return this;
+        }
+    }
+
+    private static class ValueCounter implements Accumulator {
+        final double offset;
+        final long[] counts;
+
+        ValueCounter(double offset, int size) {
+            this.offset = offset;
+            this.counts = new long[size];
+        }
+
+        @Override
+        public void add(double value) {
+            counts[(int) (value - offset)]++;
+        }
+
+        ValueCounter merge(ValueCounter other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            return this;
+        }
+    }
+
+    private static class BinCounter implements Accumulator {
+        final double low;
+        final double binWidth;
+        final long[] counts;
+
+        BinCounter(double low, double high, int numBins) {
+            this.low = low;
+            this.binWidth = (high - low) / numBins;
+            this.counts = new long[numBins];
+        }
+
+        @Override
+        public void add(double value) {
+            // the maximum goes in the last bin
+            int index = binWidth > 0 ? (int) ((value - low) / binWidth) : 0;
+            counts[Math.min(index, counts.length - 1)]++;
+        }
+
+        BinCounter merge(BinCounter other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            return this;
+        }
+    }
+
+    /** Scans the valid pixels of an image, one tile at a time */
+    private static class TileScanner {
+        final RenderedImage image;
+        final int band;
+        final RenderedImage roiImage;
+        final Range noData;
+        final double noDataMin;
+        final double noDataMax;
+        final int xPeriod;
+        final int yPeriod;
+
+        TileScanner(RenderedImage image, int band, ROI roi, Range noData, int xPeriod, int yPeriod) {
+            this.image = image;
+            this.band = band;
+            this.roiImage = roi != null ? roi.getAsImage() : null;
+            this.noData = noData;
+            this.noDataMin = noData != null ? noData.getMin().doubleValue() : Double.NaN;
+            this.noDataMax = noData != null ? noData.getMax().doubleValue() : Double.NaN;
+            this.xPeriod = xPeriod;
+            this.yPeriod = yPeriod;
+        }
+
+        /** The tile indexes, as a parallel stream */
+        IntStream tiles() {
+            return IntStream.range(0, image.getNumXTiles() * image.getNumYTiles()).parallel();
+        }
+
+        <T extends Accumulator> T scan(int tile, T accumulator) {
+            int tx = image.getMinTileX() + tile % image.getNumXTiles();
+            int ty = image.getMinTileY() + tile / image.getNumXTiles();
+            Rectangle imageBounds =
+                    new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight());
+            Rectangle bounds = new Rectangle(
+                            image.getTileGridXOffset() + tx * image.getTileWidth(),
+                            image.getTileGridYOffset() + ty * image.getTileHeight(),
+                            image.getTileWidth(),
+                            image.getTileHeight())
+                    .intersection(imageBounds);
+            if (bounds.isEmpty()) {
+                return accumulator;
+            }
+            // align to the subsampling grid, which starts at the image origin
+            int startX = align(bounds.x, image.getMinX(), xPeriod);
+            int startY = align(bounds.y, image.getMinY(), yPeriod);
+            int maxX = bounds.x + bounds.width;
+            int maxY = bounds.y + bounds.height;
+            if (startX >= maxX || startY >= maxY) {
+                return accumulator;
+            }
+
+            Raster raster = image.getTile(tx, ty);
+            Raster roiRaster = roiImage != null ? roiImage.getData(bounds) : null;
+            double[] row = new double[bounds.width];
+            for (int y = startY; y < maxY; y += yPeriod) {
+                raster.getSamples(bounds.x, y, bounds.width, 1, band, row);
+                for (int x = startX; x < maxX; x += xPeriod) {
+                    double value = row[x - bounds.x];
+                    if (Double.isNaN(value)
+                            || isNoData(value)
+                            || (roiRaster != null && roiRaster.getSample(x, y, 0) == 0)) {
+                        continue;
+                    }
+                    accumulator.add(value);
+                }
+            }
+            return accumulator;
+        }
+
+        private boolean isNoData(double value) {
+            return noData != null
+                    && (value > noDataMin || (value == noDataMin && noData.isMinIncluded()))
+                    && (value < noDataMax || (value == noDataMax && noData.isMaxIncluded()));
+        }
+
+        private static int align(int position, int origin, int period) {
+            int remainder = Math.floorMod(position - origin, period);
+            return remainder == 0 ? position : position + period - remainder;
+        }
+    }
+}
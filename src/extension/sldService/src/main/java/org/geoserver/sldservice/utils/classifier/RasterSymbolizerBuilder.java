@@ -61,6 +61,7 @@ public class RasterSymbolizerBuilder {
     private Double standardDeviations;
     private boolean outputPercentages;
     private Integer percentagesScale;
+    private RasterStatistics statistics;
 
     /**
      * Builds the {@link RasterSymbolizerBuilder} with a given pixel reading threshold before starting to recur to
@@ -122,8 +123,8 @@ public ColorMap uniqueIntervalClassification(RenderedImage image, Integer maxInt
         // turn the histogram into a ColorMap (just values, no colors, those will be added later)
         ColorMap colorMap = SF.createColorMap();
         colorMap.setType(ColorMap.TYPE_VALUES);
-        double min = iw.getMinimums()[0];
-        double max = iw.getMaximums()[0];
+        double min = getMinimum(iw);
+        double max = getMaximum(iw);
         if (min == max) {
             addEntriesSingleValue(
                     colorMap,
@@ -132,8 +133,7 @@ public ColorMap uniqueIntervalClassification(RenderedImage image, Integer maxInt
             return colorMap;
         }
         // compute the histogram
-        Histogram histogram = iw.getHistogram(new int[] {high - low + 1}, new double[] {low}, new double[] {high});
-        int[] bins = histogram.getBins(0);
+        int[] bins = getHistogram(iw, high - low + 1, low, high);
         int entries = 0;
         PercentagesRoundHandler roundHandler = new PercentagesRoundHandler(percentagesScale);
         for (int i = 0; i < bins.length; i++) {
@@ -163,6 +163,39 @@ public ColorMap uniqueIntervalClassification(RenderedImage image, Integer maxInt
         return colorMap;
     }
 
+    /**
+     * Sets pre-computed statistics of the image being classified, used instead of scanning the image where possible.
+     * The statistics must have been computed by {@link #computeStatistics(RenderedImage)} on the same image, they are
+     * ignored if there are no valid pixels.
+     */
+    public void setStatistics(RasterStatistics statistics) {
+        this.statistics = statistics != null && statistics.getCount() > 0 ? statistics : null;
+    }
+
+    /** Computes the statistics of the first band of the image, using the same subsampling as the classifications */
+    public RasterStatistics computeStatistics(RenderedImage image) {
+        ImageWorker iw = getImageWorker(image);
+        return RasterStatistics.compute(image, 0, iw.getROI(), iw.getNoData(), iw.getXPeriod(), iw.getYPeriod());
+    }
+
+    private double getMinimum(ImageWorker iw) {
+        return statistics != null ? statistics.getMinimum() : iw.getMinimums()[0];
+    }
+
+    private double getMaximum(ImageWorker iw) {
+        return statistics != null ? statistics.getMaximum() : iw.getMaximums()[0];
+    }
+
+    /** Computes a single band histogram, from the statistics if they are exact, scanning the image otherwise */
+    private int[] getHistogram(ImageWorker iw, int numBins, double low, double high) {
+        int[] bins = statistics != null ? statistics.getHistogram(numBins, low, high) : null;
+        if (bins == null) {
+            Histogram histogram = iw.getHistogram(new int[] {numBins}, new double[] {low}, new double[] {high});
+            bins = histogram.getBins(0);
+        }
+        return bins;
+    }
+
     /** Builds a ImageWorker with subsampling factors suitable to respect the configured max pixels */
     ImageWorker getImageWorker(RenderedImage image) {
         ImageWorker iw = new ImageWorker(image);
@@ -189,8 +222,8 @@ ImageWorker getImageWorker(RenderedImage image) {
      */
     public ColorMap equalIntervalClassification(RenderedImage image, int intervals, boolean open, boolean continuous) {
         ImageWorker iw = getImageWorker(image);
-        double min = iw.getMinimums()[0];
-        double max = iw.getMaximums()[0];
+        double min = getMinimum(iw);
+        double max = getMaximum(iw);
         boolean isSingleValue = min == max;
         double[] percentages = null;
         Number[] breaks;
@@ -351,7 +384,9 @@ public void setStandardDeviations(Double standardDeviations) {
     }
 
     private NumberRange getOperationRange(ImageWorker iw) {
-        if (standardDeviations == null) {
+        if (statistics != null) {
+            return statistics.getRange(standardDeviations);
+        } else if (standardDeviations == null) {
             double min = iw.getMinimums()[0];
             double max = iw.getMaximums()[0];
             return new NumberRange<>(Double.class, min, max);
@@ -391,14 +426,18 @@ private String getPercentagesLabelPortion(double[] percentages, int i) {
 
     private double[] getCustomClassifierPercentages(RenderedImage image, Number[] breaks) {
         ImageWorker iw = new ImageWorker(image);
+        // percentages are computed at full resolution, the statistics can be used only if not subsampled
+        ImageWorker sampled = getImageWorker(image);
+        boolean fullResolution = sampled.getXPeriod() == 1 && sampled.getYPeriod() == 1;
         int classNum = breaks.length - 1;
         double[] classMembersAr = new double[classNum];
         for (int i = 0; i < classNum; i++) {
             double[] low = {(double) breaks[i]};
             double dHigh = i != classNum - 1 ? Math.nextDown((double) breaks[i + 1]) : (double) breaks[i + 1];
             double[] high = {dHigh};
-            Histogram hist = iw.getHistogram(new int[] {1}, low, high);
-            classMembersAr[i] = hist.getBins(0)[0];
+            classMembersAr[i] = fullResolution
+                    ? getHistogram(iw, 1, low[0], high[0])[0]
+                    : iw.getHistogram(new int[] {1}, low, high).getBins(0)[0];
         }
         double total = DoubleStream.of(classMembersAr).sum();
         double[] percentages = new double[classNum];
@@ -412,8 +451,7 @@ private double[] getCustomClassifierPercentages(RenderedImage image, Number[] br
 
     private double[] computePercentagesFromHistogram(ImageWorker iw, int intervals, double low, double high) {
         if (low == high) return null;
-        Histogram hist = iw.getHistogram(new int[] {intervals}, new double[] {low}, new double[] {high});
-        int[] bins = hist.getBins(0);
+        int[] bins = getHistogram(iw, intervals, low, high);
         double[] percentages = new double[intervals];
         int total = IntStream.of(bins).sum();
         for (int i = 0; i < intervals; i++) {
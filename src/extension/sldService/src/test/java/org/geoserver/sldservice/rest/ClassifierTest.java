@@ -50,6 +50,7 @@
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.data.test.SystemTestData;
 import org.geoserver.data.test.SystemTestData.LayerProperty;
+import org.geoserver.platform.resource.Resource;
 import org.geoserver.rest.RestBaseController;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
@@ -937,6 +938,35 @@ public void testRasterUniqueByte() throws Exception {
         assertEquals(CQL.toExpression("'#0000FF'"), entries[166].getColor());
     }
 
+    @Test
+    public void testRasterStatisticsCache() throws Exception {
+        Catalog catalog = getCatalog();
+        CoverageInfo coverage = catalog.getCoverageByName(getLayerId(TAZBYTE));
+        Resource statistics = getResourceLoader()
+                .get("sldservice/statistics")
+                .get(coverage.getId().replaceAll("[^\\w\\-.]", "_"))
+                .get("band1.properties");
+        final String restPath = RestBaseController.ROOT_PATH
+                + "/sldservice/cite:tazbyte/"
+                + getServiceUrl()
+                + ".xml?"
+                + "method=equalInterval&intervals=5&ramp=blue&fullSLD=true";
+        String first = getAsString(restPath);
+        assertEquals(Resource.Type.RESOURCE, statistics.getType());
+
+        // same classification when the statistics are reused
+        assertEquals(first, getAsString(restPath));
+
+        // dropped on configuration changes
+        String title = coverage.getTitle();
+        coverage.setTitle("Changed title");
+        catalog.save(coverage);
+        assertEquals(Resource.Type.UNDEFINED, statistics.getType());
+        coverage = catalog.getCoverageByName(getLayerId(TAZBYTE));
+        coverage.setTitle(title);
+        catalog.save(coverage);
+    }
+
     @Test
     public void testRasterUniqueByteStddev() throws Exception {
         // filter the list of values to those within 2 stddevs from average
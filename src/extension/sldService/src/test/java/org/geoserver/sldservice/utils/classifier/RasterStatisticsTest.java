@@ -0,0 +1,122 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.sldservice.utils.classifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.RenderedImage;
+import java.io.IOException;
+import java.util.Properties;
+import javax.imageio.ImageIO;
+import org.geoserver.data.test.SystemTestData;
+import org.geoserver.sldservice.rest.ClassifierTest;
+import org.geotools.api.style.ColorMap;
+import org.geotools.api.style.ColorMapEntry;
+import org.geotools.image.ImageWorker;
+import org.junit.Test;
+
+public class RasterStatisticsTest {
+
+    @Test
+    public void testIntegralStatistics() throws IOException {
+        RenderedImage image = ImageIO.read(SystemTestData.class.getResourceAsStream("tazbyte.tiff"));
+        RasterStatistics stats = RasterStatistics.compute(image, 0, null, null, 1, 1);
+
+        ImageWorker iw = new ImageWorker(image);
+        assertTrue(stats.isExact());
+        assertEquals(iw.getMinimums()[0], stats.getMinimum(), 0d);
+        assertEquals(iw.getMaximums()[0], stats.getMaximum(), 0d);
+        assertEquals((long) image.getWidth() * image.getHeight(), stats.getCount());
+
+        // same histograms as the ImageN operation
+        int[] expected = iw.getHistogram(new int[] {10}, new double[] {0}, new double[] {100})
+                .getBins(0);
+        assertArrayEquals(expected, stats.getHistogram(10, 0, 100));
+        expected = iw.getHistogram(new int[] {256}, new double[] {0}, new double[] {255})
+                .getBins(0);
+        assertArrayEquals(expected, stats.getHistogram(256, 0, 255));
+
+        // percentiles are exact
+        assertEquals(stats.getMinimum(), stats.getPercentile(0), 0d);
+        assertEquals(stats.getMaximum(), stats.getPercentile(100), 0d);
+        double median = stats.getPercentile(50);
+        int[] belowMedian = stats.getHistogram(1, stats.getMinimum(), median);
+        assertTrue(belowMedian[0] < stats.getCount() / 2d);
+    }
+
+    @Test
+    public void testFloatStatistics() throws IOException {
+        RenderedImage image = ImageIO.read(ClassifierTest.class.getResourceAsStream("dem_float.tif"));
+        RasterStatistics stats = RasterStatistics.compute(image, 0, null, null, 1, 1);
+
+        ImageWorker iw = new ImageWorker(image);
+        assertFalse(stats.isExact());
+        assertNull(stats.getHistogram(10, 0, 100));
+        assertEquals(iw.getMinimums()[0], stats.getMinimum(), 0d);
+        assertEquals(iw.getMaximums()[0], stats.getMaximum(), 0d);
+        double p25 = stats.getPercentile(25);
+        double p75 = stats.getPercentile(75);
+        assertTrue(p25 >= stats.getMinimum() && p25 <= p75 && p75 <= stats.getMaximum());
+    }
+
+    @Test
+    public void testSubsampling() throws IOException {
+        RenderedImage image = ImageIO.read(SystemTestData.class.getResourceAsStream("tazbyte.tiff"));
+        RasterStatistics stats = RasterStatistics.compute(image, 0, null, null, 3, 2);
+
+        ImageWorker iw = new ImageWorker(image).setXPeriod(3).setYPeriod(2);
+        long expectedCount = ((image.getWidth() + 2) / 3) * (long) ((image.getHeight() + 1) / 2);
+        assertEquals(expectedCount, stats.getCount());
+        int[] expected = iw.getHistogram(new int[] {20}, new double[] {0}, new double[] {200})
+                .getBins(0);
+        assertArrayEquals(expected, stats.getHistogram(20, 0, 200));
+    }
+
+    @Test
+    public void testStoreLoad() throws IOException {
+        RenderedImage image = ImageIO.read(SystemTestData.class.getResourceAsStream("tazbyte.tiff"));
+        RasterStatistics stats = RasterStatistics.compute(image, 0, null, null, 1, 1);
+
+        Properties properties = new Properties();
+        stats.store(properties);
+        RasterStatistics loaded = RasterStatistics.load(properties);
+        assertEquals(stats.getCount(), loaded.getCount());
+        assertEquals(stats.getMean(), loaded.getMean(), 0d);
+        assertEquals(stats.getStandardDeviation(), loaded.getStandardDeviation(), 0d);
+        assertArrayEquals(stats.getHistogram(50, 0, 250), loaded.getHistogram(50, 0, 250));
+    }
+
+    @Test
+    public void testClassificationFromStatistics() throws IOException {
+        RenderedImage image = ImageIO.read(SystemTestData.class.getResourceAsStream("tazbyte.tiff"));
+        RasterSymbolizerBuilder builder = new RasterSymbolizerBuilder(true, null);
+        builder.setStandardDeviations(2d);
+        ColorMap expected = builder.uniqueIntervalClassification(image, null);
+
+        builder.setStatistics(builder.computeStatistics(image));
+        ColorMap actual = builder.uniqueIntervalClassification(image, null);
+        assertColorMapEquals(expected, actual);
+
+        builder.setStatistics(null);
+        expected = builder.equalIntervalClassification(image, 5, false, false);
+        builder.setStatistics(builder.computeStatistics(image));
+        actual = builder.equalIntervalClassification(image, 5, false, false);
+        assertColorMapEquals(expected, actual);
+    }
+
+    private void assertColorMapEquals(ColorMap expected, ColorMap actual) {
+        ColorMapEntry[] expectedEntries = expected.getColorMapEntries();
+        ColorMapEntry[] actualEntries = actual.getColorMapEntries();
+        assertEquals(expectedEntries.length, actualEntries.length);
+        for (int i = 0; i < expectedEntries.length; i++) {
+            assertEquals(expectedEntries[i].getLabel(), actualEntries[i].getLabel());
+            assertEquals(expectedEntries[i].getQuantity(), actualEntries[i].getQuantity());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.gs.download;
+
+import java.util.Map;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.config.GeoServer;
+import org.geoserver.wps.executor.ProcessCostEstimator;
+import org.geotools.api.coverage.grid.GridEnvelope;
+import org.geotools.api.feature.type.Name;
+
+/**
+ * Estimates the cost of the raster downloads out of the number of pixels to be produced, one megapixel costing as much
+ * as a typical process execution. The target size is used when provided, the native size of the coverage otherwise.
+ * The region of interest is not taken into account, as it's a complex input that would have to be parsed before the
+ * execution starts, so the estimate is an upper bound. Vector downloads are not estimated.
+ *
+ * <p>The estimate is capped to {@link #MAX_COST}: the scheduler pushes the next executions of the user behind by the
+ * cost, so an uncapped estimate of a huge (possibly mistaken) request would lock its user out for a very long time.
+ */
+public class DownloadCostEstimator implements ProcessCostEstimator {
+
+    static final String DOWNLOAD_PROCESS = "gs:Download";
+
+    static final double PIXELS_PER_COST_UNIT = 1024 * 1024;
+
+    /** The maximum cost of a download, in typical executions */
+    static final double MAX_COST = 100;
+
+    private final Catalog catalog;
+
+    public DownloadCostEstimator(GeoServer geoServer) {
+        this.catalog = geoServer.getCatalog();
+    }
+
+    @Override
+    public double estimateCost(Name processName, Map<String, Object> inputs) {
+        if (!DOWNLOAD_PROCESS.equals(processName.getURI())
+                || !(inputs.get("layerName") instanceof String layerName)) {
+            return -1;
+        }
+        LayerInfo layer = catalog.getLayerByName(layerName);
+        if (layer == null || !(layer.getResource() instanceof CoverageInfo coverage)) {
+            return -1;
+        }
+
+        Integer targetSizeX = inputs.get("targetSizeX") instanceof Integer i ? i : null;
+        Integer targetSizeY = inputs.get("targetSizeY") instanceof Integer i ? i : null;
+        double pixels;
+        if (targetSizeX != null && targetSizeY != null) {
+            pixels = (double) targetSizeX * targetSizeY;
+        } else if (coverage.getGrid() != null) {
+            GridEnvelope range = coverage.getGrid().getGridRange();
+            double width = range.getSpan(0);
+            double height = range.getSpan(1);
+            // a single target size preserves the native aspect ratio
+            if (targetSizeX != null) {
+                pixels = (double) targetSizeX * targetSizeX * height / width;
+            } else if (targetSizeY != null) {
+                pixels = (double) targetSizeY * targetSizeY * width / height;
+            } else {
+                pixels = width * height;
+            }
+        } else {
+            return -1;
+        }
+
+        return Math.min(MAX_COST, Math.max(DEFAULT_COST, pixels / PIXELS_PER_COST_UNIT));
+    }
+}
@@ -6,6 +6,8 @@
 package org.geoserver.wps.gs.download;
 
 import static org.geoserver.wcs.responses.GeoTIFFCoverageResponseDelegate.COMPRESSION;
+import static org.geoserver.wcs.responses.GeoTIFFCoverageResponseDelegate.TILEHEIGHT;
+import static org.geoserver.wcs.responses.GeoTIFFCoverageResponseDelegate.TILEWIDTH;
 import static org.geoserver.wps.gs.download.RasterDirectDownloader.AUTO;
 
 import it.geosolutions.imageio.stream.output.FileImageOutputStreamExtImpl;
@@ -106,6 +108,8 @@ class RasterDownload {
 
     private static final Logger LOGGER = Logging.getLogger(RasterDownload.class);
 
+    private static final String IMAGE_TIFF = "image/tiff";
+
     /** The {@link DownloadServiceConfiguration} object containing the configured limits. */
     private DownloadServiceConfiguration limits;
 
@@ -858,13 +862,57 @@ private Resource writeRaster(CoverageInfo ci, String mimeType, GridCoverage2D gr
             }
         }
 
+        // tiled outputs pull the tiles in row major order, compute them in parallel ahead of the writer
+        RenderedImage prefetching = image;
+        if (IMAGE_TIFF.equals(mimeType) || GeopkgPPIO.MIME_TYPE.equals(mimeType)) {
+            prefetching = TilePrefetchingImage.wrap(image);
+        }
+        if (prefetching != image) {
+            gridCoverage = GC_FACTORY.create(
+                    gridCoverage.getName(),
+                    prefetching,
+                    gridCoverage.getGridGeometry(),
+                    gridCoverage.getSampleDimensions(),
+                    null,
+                    gridCoverage.getProperties());
+        }
+
         // add metadata access
         MetaGridCoverage2D meta = new MetaGridCoverage2D(gridCoverage);
         meta.getUserData().put(ResourceInfo.class, ci);
         gridCoverage = meta;
 
         encodingParams = writeParams != null ? writeParams.getParametersMap() : null;
-        return encodeWithPPIO(gridCoverage, encodingParams, mimeType, GridCoverage2D.class);
+        if (prefetching != image && IMAGE_TIFF.equals(mimeType)) {
+            encodingParams = setDefaultTiling(encodingParams, image);
+        }
+        try {
+            return encodeWithPPIO(gridCoverage, encodingParams, mimeType, GridCoverage2D.class);
+        } finally {
+            if (prefetching instanceof TilePrefetchingImage planar) {
+                planar.dispose();
+            }
+        }
+    }
+
+    /**
+     * Makes the GeoTIFF writer use the same tiles as the image, unless a tiling was explicitly requested, so that each
+     * output tile is encoded as soon as the matching prefetched tile is available. TIFF tiles must be a multiple of 16
+     * in size, the image ones are rounded up if needed
+     */
+    @SuppressWarnings("unchecked")
+    static Map setDefaultTiling(Map encodingParams, RenderedImage image) {
+        Map<String, String> result = encodingParams != null ? encodingParams : new HashMap<>();
+        if (!result.containsKey(TILEWIDTH) && !result.containsKey(TILEHEIGHT)) {
+            result.put(TILEWIDTH, String.valueOf(roundTileSize(Math.min(image.getTileWidth(), image.getWidth()))));
+            result.put(TILEHEIGHT, String.valueOf(roundTileSize(Math.min(image.getTileHeight(), image.getHeight()))));
+        }
+        return result;
+    }
+
+    /** Rounds up the tile size to a multiple of 16, as required by TIFF */
+    private static int roundTileSize(int size) {
+        return (size + 15) / 16 * 16;
     }
 
     @SuppressWarnings("unchecked")
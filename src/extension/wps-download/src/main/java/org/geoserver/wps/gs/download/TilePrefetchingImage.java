@@ -0,0 +1,172 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.gs.download;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.imagen.ImageLayout;
+import org.eclipse.imagen.PlanarImage;
+
+/**
+ * Wraps the image to be written by a raster download, computing its tiles in parallel ahead of the writer. Writers
+ * such as the tiled GeoTIFF and the GeoPackage ones request the tiles in row major order, so while the writer encodes
+ * a tile, the following ones are being read and processed on the prefetch threads, overlapping reads and writes.
+ *
+ * <p>Only a bounded window of tiles is computed ahead of the last requested one, and the tiles that fell behind the
+ * window are released, so the memory usage does not depend on the size of the download. The behavior is controlled by
+ * the following system properties:
+ *
+ * <ul>
+ *   <li><code>org.geoserver.wps.download.raster.prefetch.threads</code>: the number of threads computing tiles, shared
+ *       among all downloads, defaults to the number of available processors. Set to 0 to disable prefetching
+ *   <li><code>org.geoserver.wps.download.raster.prefetch.tiles</code>: the number of tiles computed ahead of the
+ *       writer, defaults to twice the number of threads
+ * </ul>
+ */
+class TilePrefetchingImage extends PlanarImage {
+
+    static final int THREADS = Integer.getInteger(
+            "org.geoserver.wps.download.raster.prefetch.threads",
+            Runtime.getRuntime().availableProcessors());
+
+    static final int WINDOW = Integer.getInteger("org.geoserver.wps.download.raster.prefetch.tiles", THREADS * 2);
+
+    private static ExecutorService executor;
+
+    private final RenderedImage source;
+
+    private final int window;
+
+    /** The tiles by row major index, a long as large images can have more than {@link Integer#MAX_VALUE} tiles */
+    private final Map<Long, Future<Raster>> tiles = new ConcurrentHashMap<>();
+
+    /** Index of the next tile to be scheduled */
+    private long next;
+
+    private volatile boolean disposed;
+
+    TilePrefetchingImage(RenderedImage source, int window) {
+        super(new ImageLayout(source), null, null);
+        this.source = source;
+        this.window = window;
+    }
+
+    /**
+     * Wraps the image in a {@link TilePrefetchingImage}, if prefetching is enabled and the image has more than one
+     * tile, returns the image as is otherwise
+     */
+    static RenderedImage wrap(RenderedImage image) {
+        if (THREADS <= 0 || WINDOW <= 0 || (long) image.getNumXTiles() * image.getNumYTiles() <= 1) {
+            return image;
+        }
+        return new TilePrefetchingImage(image, WINDOW);
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    THREADS,
+                    THREADS,
+                    60,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("WPSDownloadPrefetch-%d")
+                            .setDaemon(true)
+                            .build());
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    /** The wrapped image */
+    RenderedImage getSource() {
+        return source;
+    }
+
+    @Override
+    public Raster getTile(int tileX, int tileY) {
+        if (tileX < getMinTileX()
+                || tileX > getMaxTileX()
+                || tileY < getMinTileY()
+                || tileY > getMaxTileY()) {
+            return null;
+        }
+        long index = (long) (tileY - getMinTileY()) * getNumXTiles() + (tileX - getMinTileX());
+        Future<Raster> future = schedule(index);
+        if (future == null) {
+            return source.getTile(tileX, tileY);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for tile " + tileX + "," + tileY, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error error) throw error;
+            throw new RuntimeException("Failed to compute tile " + tileX + "," + tileY, cause);
+        }
+    }
+
+    /**
+     * Schedules the tiles up to the end of the window starting at the given index, and releases the ones that fell
+     * behind it. Returns the future computing the requested tile, or null if it's not tracked anymore
+     */
+    private synchronized Future<Raster> schedule(long index) {
+        if (disposed) {
+            return null;
+        }
+        // the writer jumped ahead, no point computing the tiles in between
+        if (index > next) {
+            next = index;
+        }
+        long last = Math.min(index + window, (long) getNumXTiles() * getNumYTiles() - 1);
+        ExecutorService pool = getExecutor();
+        for (; next <= last; next++) {
+            int tileX = getMinTileX() + (int) (next % getNumXTiles());
+            int tileY = getMinTileY() + (int) (next / getNumXTiles());
+            tiles.put(next, pool.submit(() -> source.getTile(tileX, tileY)));
+        }
+        // keep the tiles just behind the requested one, writers whose tiles are smaller than
+        // the source ones request the same source tile more than once
+        tiles.keySet().removeIf(i -> i < index - window);
+        return tiles.get(index);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return source.getProperty(name);
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return source.getPropertyNames();
+    }
+
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        tiles.values().forEach(f -> f.cancel(false));
+        tiles.clear();
+        super.dispose();
+    }
+
+    /** The number of tiles being computed, or kept around, for testing purposes */
+    int getTrackedTiles() {
+        return tiles.size();
+    }
+}
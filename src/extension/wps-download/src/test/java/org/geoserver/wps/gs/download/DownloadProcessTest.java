@@ -10,6 +10,7 @@
 import static org.geoserver.wcs.responses.GeoTIFFCoverageResponseDelegate.TILEWIDTH;
 import static org.geoserver.wcs.responses.GeoTIFFCoverageResponseDelegate.TILING;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -121,6 +122,7 @@
 import org.geotools.util.logging.Logging;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.locationtech.jts.geom.Envelope;
@@ -819,6 +821,64 @@ public void testDownloadRaster() throws Exception {
         }
     }
 
+    @Test
+    public void testDownloadRasterPrefetching() throws Exception {
+        Assume.assumeTrue(TilePrefetchingImage.THREADS > 0 && TilePrefetchingImage.WINDOW > 0);
+        final WPSResourceManager resourceManager = getResourceManager();
+        DownloadProcess downloadProcess = createDefaultTestingDownloadProcess(resourceManager);
+
+        // crop the world image, 256x256 tiles, to a 400x180 pixels area spanning more than one tile
+        Polygon roi = (Polygon) new WKTReader2().read("POLYGON ((-100 -40, 100 -40, 100 50, -100 50, -100 -40))");
+        roi.setSRID(4326);
+        RawData raster = downloadProcess.execute(
+                getLayerId(MockData.WORLD), // layerName
+                null, // filter
+                "image/tiff", // outputFormat
+                "image/tiff",
+                null, // targetCRS
+                WGS84, // roiCRS
+                roi, // roi
+                true, // cropToGeometry
+                null, // interpolation
+                null, // targetSizeX
+                null, // targetSizeY
+                null, // bandSelectIndices
+                null, // Writing params
+                false,
+                false,
+                0d,
+                null,
+                new NullProgressListener() // progressListener
+                );
+
+        CoverageStoreInfo store = getCatalog().getCoverageStoreByName(MockData.WORLD.getLocalPart());
+        File input = URLs.urlToFile(new URL(store.getURL()));
+        try (AutoCloseableResource resource = new AutoCloseableResource(resourceManager, raster);
+                AutoDisposableGeoTiffReader reader = new AutoDisposableGeoTiffReader(resource.getFile());
+                AutoDisposableGridCoverage2D gc = reader.read();
+                AutoDisposableGeoTiffReader sourceReader = new AutoDisposableGeoTiffReader(input);
+                AutoDisposableGridCoverage2D source = sourceReader.read()) {
+            // the output uses the image tiles, with a size the TIFF format accepts
+            RenderedImage image = gc.getRenderedImage();
+            assertEquals(0, image.getTileWidth() % 16);
+            assertEquals(0, image.getTileHeight() % 16);
+
+            // the prefetched tiles have been written in the right place
+            for (double x = -99.75; x < 100; x += 10) {
+                for (double y = -39.75; y < 50; y += 10) {
+                    Position2D position = new Position2D(WGS84, x, y);
+                    assertArrayEquals((byte[]) source.evaluate(position), (byte[]) gc.evaluate(position));
+                }
+            }
+        }
+
+        // TIFF tiles are rounded up to a multiple of 16
+        BufferedImage untiled = new BufferedImage(100, 300, BufferedImage.TYPE_BYTE_GRAY);
+        Map<?, ?> params = RasterDownload.setDefaultTiling(null, untiled);
+        assertEquals("112", params.get(TILEWIDTH));
+        assertEquals("304", params.get(TILEHEIGHT));
+    }
+
     @Test
     public void testDownloadRasterGeoPackage() throws Exception {
         final WPSResourceManager resourceManager = getResourceManager();
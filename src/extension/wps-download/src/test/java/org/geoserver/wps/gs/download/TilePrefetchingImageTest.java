@@ -0,0 +1,76 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.gs.download;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import org.eclipse.imagen.TiledImage;
+import org.junit.Test;
+
+public class TilePrefetchingImageTest {
+
+    private TiledImage buildImage(int tileSize) {
+        BufferedImage bi = new BufferedImage(100, 70, BufferedImage.TYPE_BYTE_GRAY);
+        WritableRaster raster = bi.getRaster();
+        for (int y = 0; y < bi.getHeight(); y++) {
+            for (int x = 0; x < bi.getWidth(); x++) {
+                raster.setSample(x, y, 0, (x + y * 3) % 256);
+            }
+        }
+        return new TiledImage(bi, tileSize, tileSize);
+    }
+
+    @Test
+    public void testSameContents() {
+        TiledImage source = buildImage(16);
+        TilePrefetchingImage image = new TilePrefetchingImage(source, 4);
+        try {
+            assertEquals(source.getNumXTiles(), image.getNumXTiles());
+            assertEquals(source.getNumYTiles(), image.getNumYTiles());
+            for (int ty = image.getMinTileY(); ty <= image.getMaxTileY(); ty++) {
+                for (int tx = image.getMinTileX(); tx <= image.getMaxTileX(); tx++) {
+                    assertRasterEquals(source.getTile(tx, ty), image.getTile(tx, ty));
+                    // window ahead, the current tile, and the window behind
+                    assertTrue(image.getTrackedTiles() <= 9);
+                }
+            }
+            // out of order and repeated requests work as well
+            assertRasterEquals(source.getTile(0, 0), image.getTile(0, 0));
+            assertRasterEquals(source.getTile(3, 2), image.getTile(3, 2));
+            assertNull(image.getTile(100, 100));
+
+            // region reads, as used by writers whose tiles do not match the source ones
+            assertRasterEquals(source.getData(), image.getData());
+        } finally {
+            image.dispose();
+        }
+        assertEquals(0, image.getTrackedTiles());
+        // still usable after dispose, just not prefetching anymore
+        assertRasterEquals(source.getTile(1, 1), image.getTile(1, 1));
+    }
+
+    @Test
+    public void testSingleTileNotWrapped() {
+        RenderedImage source = buildImage(128);
+        assertSame(source, TilePrefetchingImage.wrap(source));
+    }
+
+    private void assertRasterEquals(Raster expected, Raster actual) {
+        assertEquals(expected.getBounds(), actual.getBounds());
+        int[] expectedPixels = expected.getPixels(
+                expected.getMinX(), expected.getMinY(), expected.getWidth(), expected.getHeight(), (int[]) null);
+        int[] actualPixels = actual.getPixels(
+                actual.getMinX(), actual.getMinY(), actual.getWidth(), actual.getHeight(), (int[]) null);
+        assertArrayEquals(expectedPixels, actualPixels);
+    }
+}
@@ -5,17 +5,25 @@
  */
 package org.geoserver.wps.executor;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
 import org.geoserver.platform.ExtensionPriority;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geoserver.security.PropertyFileWatcher;
 import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geoserver.wps.ProcessDismissedException;
 import org.geoserver.wps.WPSException;
 import org.geoserver.wps.process.GeoServerProcessors;
 import org.geoserver.wps.resource.WPSResourceManager;
@@ -24,69 +32,61 @@
 import org.geotools.process.Process;
 import org.geotools.process.ProcessException;
 import org.geotools.process.ProcessFactory;
+import org.geotools.util.logging.Logging;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
+/**
+ * Runs the processes on two thread pools, one for the synchronous and one for the asynchronous executions. The queued
+ * executions are not started in submission order, but shared fairly among the users, according to the weights and
+ * limits found in the {@link ProcessSchedulerConfiguration#PROPERTY_FILE} file, and to the costs estimated by the
+ * available {@link ProcessCostEstimator} extensions. See {@link FairProcessScheduler} for details.
+ */
 public class DefaultProcessManager implements ProcessManager, ExtensionPriority, ApplicationListener<ApplicationEvent> {
 
+    static final Logger LOGGER = Logging.getLogger(DefaultProcessManager.class);
+
     ConcurrentHashMap<String, Future<Map<String, Object>>> executions = new ConcurrentHashMap<>();
 
-    ThreadPoolExecutor synchService;
+    FairProcessScheduler synchScheduler;
 
-    ThreadPoolExecutor asynchService;
+    FairProcessScheduler asynchScheduler;
 
     WPSResourceManager resourceManager;
 
+    PropertyFileWatcher schedulerConfigurationWatcher;
+
+    volatile ProcessSchedulerConfiguration schedulerConfiguration;
+
     public DefaultProcessManager(WPSResourceManager resourceManager) {
         this.resourceManager = resourceManager;
     }
 
     public void setMaxAsynchronousProcesses(int maxAsynchronousProcesses) {
-        if (asynchService == null) {
-            // create a fixed size pool. If we allow a delta between core and max
-            // the pool will create new threads only if the queue is full, but the linked queue
-            // never is
-            asynchService = new ThreadPoolExecutor(
-                    maxAsynchronousProcesses,
-                    maxAsynchronousProcesses,
-                    0L,
-                    TimeUnit.MILLISECONDS,
-                    new LinkedBlockingQueue<>());
+        if (asynchScheduler == null) {
+            asynchScheduler = new FairProcessScheduler(maxAsynchronousProcesses);
         } else {
-            // JDK 11 checks the relation between core and max pool size on each set,
-            // need to lower core pool size before changing max
-            asynchService.setCorePoolSize(1);
-            asynchService.setMaximumPoolSize(maxAsynchronousProcesses);
-            asynchService.setCorePoolSize(maxAsynchronousProcesses);
+            asynchScheduler.setMaxRunning(maxAsynchronousProcesses);
         }
     }
 
     public void setMaxSynchronousProcesses(int maxSynchronousProcesses) {
-        if (synchService == null) {
-            // create a fixed size pool. If we allow a delta between core and max
-            // the pool will create new threads only if the queue is full, but the linked queue
-            // never is
-            synchService = new ThreadPoolExecutor(
-                    maxSynchronousProcesses,
-                    maxSynchronousProcesses,
-                    0L,
-                    TimeUnit.MILLISECONDS,
-                    new LinkedBlockingQueue<>());
+        if (synchScheduler == null) {
+            synchScheduler = new FairProcessScheduler(maxSynchronousProcesses);
         } else {
-            // JDK 11 checks the relation between core and max pool size on each set,
-            // need to lower core pool size before changing max
-            synchService.setCorePoolSize(1);
-            synchService.setMaximumPoolSize(maxSynchronousProcesses);
-            synchService.setCorePoolSize(maxSynchronousProcesses);
+            synchScheduler.setMaxRunning(maxSynchronousProcesses);
         }
     }
 
     @Override
     public void onApplicationEvent(ApplicationEvent event) {
         if (event instanceof ContextClosedEvent) {
-            synchService.shutdownNow();
-            asynchService.shutdownNow();
+            synchScheduler.shutdownNow();
+            asynchScheduler.shutdownNow();
         }
     }
 
@@ -120,13 +120,30 @@ public void submit(
             ProgressListener listener,
             boolean background)
             throws ProcessException {
+        // the security context is transferred to the submitting thread, but the client address is not available there
+        submit(executionId, processName, inputs, listener, background, getUserName(), null);
+    }
+
+    @Override
+    public void submit(
+            String executionId,
+            Name processName,
+            Map<String, Object> inputs,
+            ProgressListener listener,
+            boolean background,
+            String userName,
+            String clientAddress)
+            throws ProcessException {
         ProcessCallable callable = new ProcessCallable(processName, inputs, listener);
-        Future<Map<String, Object>> future;
-        if (background) {
-            future = asynchService.submit(callable);
-        } else {
-            future = synchService.submit(callable);
-        }
+        FairProcessScheduler scheduler = background ? asynchScheduler : synchScheduler;
+        Future<Map<String, Object>> future = scheduler.submit(
+                executionId,
+                userName,
+                clientAddress,
+                processName,
+                estimateCost(processName, inputs),
+                getSchedulerConfiguration(),
+                callable);
         executions.put(executionId, future);
     }
 
@@ -148,6 +165,9 @@ public Map<String, Object> getOutput(String executionId, long timeout) throws Pr
         } catch (TimeoutException e) {
             timedOut = true;
             throw new ProcessException(e);
+        } catch (CancellationException e) {
+            // cancelled while still queued, or interrupted while running, either way it got dismissed
+            throw new ProcessDismissedException();
         } catch (Exception e) {
             if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
                 e = (Exception) e.getCause();
@@ -175,11 +195,81 @@ public void cancel(String executionId) {
         }
     }
 
+    @Override
+    public int getQueuePosition(String executionId) {
+        int position = asynchScheduler.getQueuePosition(executionId);
+        if (position < 0) {
+            position = synchScheduler.getQueuePosition(executionId);
+        }
+        return position;
+    }
+
     @Override
     public int getPriority() {
         return ExtensionPriority.LOWEST;
     }
 
+    /** Returns the name of the user submitting the execution, or null if not authenticated */
+    static String getUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Returns the address of the client submitting the execution, or null if not running in a request. To be called
+     * only from the request thread, the servlet request cannot be used once the request is completed.
+     */
+    static String getClientAddress() {
+        Request request = Dispatcher.REQUEST.get();
+        if (request != null && request.getHttpRequest() != null) {
+            return request.getHttpRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    /** Returns the first cost estimate available among the {@link ProcessCostEstimator} extensions */
+    double estimateCost(Name processName, Map<String, Object> inputs) {
+        for (ProcessCostEstimator estimator : GeoServerExtensions.extensions(ProcessCostEstimator.class)) {
+            try {
+                double cost = estimator.estimateCost(processName, inputs);
+                if (cost >= 0) {
+                    return cost;
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Failed to estimate the cost of " + processName + " with " + estimator, e);
+            }
+        }
+        return ProcessCostEstimator.DEFAULT_COST;
+    }
+
+    /** Returns the scheduler configuration, reloading it if the configuration file changed */
+    ProcessSchedulerConfiguration getSchedulerConfiguration() {
+        if (schedulerConfigurationWatcher == null) {
+            GeoServerResourceLoader loader = GeoServerExtensions.bean(GeoServerResourceLoader.class);
+            if (loader == null) {
+                return ProcessSchedulerConfiguration.DEFAULT;
+            }
+            schedulerConfigurationWatcher =
+                    new PropertyFileWatcher(loader.get(ProcessSchedulerConfiguration.PROPERTY_FILE));
+        }
+        ProcessSchedulerConfiguration configuration = schedulerConfiguration;
+        if (configuration == null || schedulerConfigurationWatcher.isStale()) {
+            try {
+                configuration = ProcessSchedulerConfiguration.parse(schedulerConfigurationWatcher.getProperties());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to read the WPS scheduler configuration, using the defaults", e);
+                configuration = ProcessSchedulerConfiguration.DEFAULT;
+            }
+            schedulerConfiguration = configuration;
+        }
+        return configuration;
+    }
+
     static class ProcessCallable implements Callable<Map<String, Object>> {
 
         Name processName;
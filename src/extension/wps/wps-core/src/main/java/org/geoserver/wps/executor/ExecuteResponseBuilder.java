@@ -38,6 +38,7 @@
 import org.geoserver.ows.Ows11Util;
 import org.geoserver.ows.URLMangler.URLType;
 import org.geoserver.ows.util.ResponseUtils;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.platform.resource.Resource;
 import org.geoserver.wps.BinaryEncoderDelegate;
@@ -98,6 +99,16 @@ public ExecuteResponseType build() {
         return build(new NullProgressListener());
     }
 
+    /** The process accepted message, reporting the position in the queue if the execution is waiting to start */
+    private String getAcceptedMessage() {
+        WPSExecutionManager executionManager = GeoServerExtensions.bean(WPSExecutionManager.class, context);
+        int position = executionManager != null ? executionManager.getQueuePosition(status) : -1;
+        if (position > 0) {
+            return "Process accepted, queue position " + position + ".";
+        }
+        return "Process accepted.";
+    }
+
     @SuppressWarnings("unchecked") // EMF model without generics
     public ExecuteResponseType build(ProgressListener listener) {
         ExecuteRequest helper = new ExecuteRequest(request);
@@ -135,7 +146,7 @@ public ExecuteResponseType build(ProgressListener listener) {
             XMLGregorianCalendar gc = Converters.convert(status.getCreationTime(), XMLGregorianCalendar.class);
             response.getStatus().setCreationTime(gc);
             if (status.getPhase() == ProcessState.QUEUED) {
-                response.getStatus().setProcessAccepted("Process accepted.");
+                response.getStatus().setProcessAccepted(getAcceptedMessage());
             } else if (status.getPhase() == ProcessState.RUNNING) {
                 ProcessStartedType startedType = f.createProcessStartedType();
                 int progressPercent = Math.round(status.getProgress());
@@ -0,0 +1,260 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.executor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.wps.executor.ProcessSchedulerConfiguration.Limits;
+import org.geotools.api.feature.type.Name;
+
+/**
+ * Runs the process executions on a fixed number of threads, sharing them fairly among the users instead of running the
+ * executions in submission order. A user submitting many executions does not get to occupy all the threads while the
+ * executions of the other users wait behind.
+ *
+ * <p>The queue is ordered using start time fair queuing: each execution gets a virtual start time, the larger between
+ * the current virtual time and the virtual finish time of the previous execution of the same user, and a finish time,
+ * its start time plus its estimated cost divided by the user and process weights. When a thread is available the
+ * queued execution with the lowest start time, whose user and process are within their concurrency limits, is started.
+ * Executions submitted by a user that has not been using its share are thus placed ahead of the ones already queued by
+ * the heavier users. Running executions are never interrupted to make room for others.
+ */
+class FairProcessScheduler {
+
+    /** Orders the queue by virtual start time, then by submission order */
+    static final Comparator<ScheduledExecution> QUEUE_ORDER =
+            Comparator.comparingDouble((ScheduledExecution e) -> e.startTag).thenComparingLong(e -> e.sequence);
+
+    private final ThreadPoolExecutor workers;
+
+    private final NavigableSet<ScheduledExecution> queue = new TreeSet<>(QUEUE_ORDER);
+
+    /** Virtual finish time of the last execution submitted by each user */
+    private final Map<String, Double> finishTags = new HashMap<>();
+
+    private final Map<String, Integer> runningByUser = new HashMap<>();
+
+    private final Map<String, Integer> runningByProcess = new HashMap<>();
+
+    private int maxRunning;
+
+    private int running;
+
+    private double virtualTime;
+
+    private long sequence;
+
+    private boolean shutdown;
+
+    FairProcessScheduler(int maxRunning) {
+        this.maxRunning = maxRunning;
+        // create a fixed size pool, the scheduler never hands it more executions than threads
+        this.workers =
+                new ThreadPoolExecutor(maxRunning, maxRunning, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+
+    /** Changes the maximum number of concurrently running executions */
+    synchronized void setMaxRunning(int maxRunning) {
+        this.maxRunning = maxRunning;
+        // JDK 11 checks the relation between core and max pool size on each set,
+        // need to lower core pool size before changing max
+        workers.setCorePoolSize(1);
+        workers.setMaximumPoolSize(maxRunning);
+        workers.setCorePoolSize(maxRunning);
+        dispatch();
+    }
+
+    synchronized int getMaxRunning() {
+        return maxRunning;
+    }
+
+    /**
+     * Queues the execution, starting it right away if a thread is available and the limits allow it
+     *
+     * @param executionId The execution identifier
+     * @param userName The user that submitted the execution, or null if unauthenticated
+     * @param clientAddress The address of the client that submitted the execution, used to tell apart the
+     *     unauthenticated users. Can be null
+     * @param processName The process name
+     * @param cost The estimated cost of the execution, see {@link ProcessCostEstimator}
+     * @param configuration The weights and limits of users and processes
+     * @param callable The actual execution
+     * @return A future tracking the execution. Cancelling it before it starts removes the execution from the queue
+     */
+    synchronized Future<Map<String, Object>> submit(
+            String executionId,
+            String userName,
+            String clientAddress,
+            Name processName,
+            double cost,
+            ProcessSchedulerConfiguration configuration,
+            Callable<Map<String, Object>> callable) {
+        // unauthenticated users share the anonymous limits, but each client gets its own share
+        String user = userName != null
+                ? userName
+                : clientAddress != null
+                        ? ProcessSchedulerConfiguration.ANONYMOUS + "@" + clientAddress
+                        : ProcessSchedulerConfiguration.ANONYMOUS;
+        Limits userLimits = configuration.getUserLimits(userName);
+        Limits processLimits = configuration.getProcessLimits(processName);
+        double startTag = Math.max(virtualTime, finishTags.getOrDefault(user, 0d));
+        finishTags.put(user, startTag + cost / (userLimits.weight() * processLimits.weight()));
+
+        ScheduledExecution execution = new ScheduledExecution(
+                callable, executionId, user, processName.getURI(), userLimits, processLimits, startTag, sequence++);
+        if (shutdown) {
+            execution.cancel(false);
+        } else {
+            queue.add(execution);
+            dispatch();
+        }
+        return execution;
+    }
+
+    /**
+     * Returns the position of the execution in the queue, starting from 1, or -1 if the execution is not queued
+     * (either running, completed, or unknown). Executions whose user or process reached its concurrency limit are
+     * counted, even if the ones behind them might start first.
+     */
+    synchronized int getQueuePosition(String executionId) {
+        int position = 1;
+        for (ScheduledExecution execution : queue) {
+            if (execution.executionId.equals(executionId)) {
+                return position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /** Returns the number of queued executions */
+    synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /** Returns the number of running executions */
+    synchronized int getRunning() {
+        return running;
+    }
+
+    /** Stops the worker threads, and cancels the queued executions */
+    void shutdownNow() {
+        List<ScheduledExecution> queued;
+        synchronized (this) {
+            shutdown = true;
+            queued = new ArrayList<>(queue);
+        }
+        queued.forEach(e -> e.cancel(false));
+        workers.shutdownNow();
+    }
+
+    /** Starts the queued executions, in queue order, as long as there are threads available */
+    private void dispatch() {
+        Iterator<ScheduledExecution> it = queue.iterator();
+        while (!shutdown && running < maxRunning && it.hasNext()) {
+            ScheduledExecution execution = it.next();
+            if (execution.userLimits.isReached(runningByUser.getOrDefault(execution.user, 0))
+                    || execution.processLimits.isReached(runningByProcess.getOrDefault(execution.process, 0))) {
+                continue;
+            }
+            it.remove();
+            execution.started = true;
+            running++;
+            runningByUser.merge(execution.user, 1, Integer::sum);
+            runningByProcess.merge(execution.process, 1, Integer::sum);
+            virtualTime = Math.max(virtualTime, execution.startTag);
+            workers.execute(execution);
+        }
+        // forget about the users that are not ahead of the virtual time anymore
+        if (queue.isEmpty()) {
+            finishTags.values().removeIf(tag -> tag <= virtualTime);
+        }
+    }
+
+    /** Releases the slot of an execution whose worker thread is done with it */
+    private synchronized void finished(ScheduledExecution execution) {
+        running--;
+        runningByUser.computeIfPresent(execution.user, (k, v) -> v > 1 ? v - 1 : null);
+        runningByProcess.computeIfPresent(execution.process, (k, v) -> v > 1 ? v - 1 : null);
+        dispatch();
+    }
+
+    /** Removes an execution cancelled before being started from the queue */
+    private synchronized void cancelled(ScheduledExecution execution) {
+        if (!execution.started) {
+            queue.remove(execution);
+            dispatch();
+        }
+    }
+
+    /** A queued or running execution */
+    class ScheduledExecution extends FutureTask<Map<String, Object>> {
+
+        final String executionId;
+
+        final String user;
+
+        final String process;
+
+        final Limits userLimits;
+
+        final Limits processLimits;
+
+        final double startTag;
+
+        final long sequence;
+
+        /** Guarded by the scheduler lock */
+        boolean started;
+
+        ScheduledExecution(
+                Callable<Map<String, Object>> callable,
+                String executionId,
+                String user,
+                String process,
+                Limits userLimits,
+                Limits processLimits,
+                double startTag,
+                long sequence) {
+            super(callable);
+            this.executionId = executionId;
+            this.user = user;
+            this.process = process;
+            this.userLimits = userLimits;
+            this.processLimits = processLimits;
+            this.startTag = startTag;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            // the slot is released only once the worker thread is free, a cancelled execution might still be running
+            try {
+                super.run();
+            } finally {
+                finished(this);
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                cancelled(this);
+            }
+        }
+    }
+}
@@ -7,6 +7,8 @@
 import net.opengis.wps10.InputReferenceType;
 import net.opengis.wps10.InputType;
 import net.opengis.wps10.MethodType;
+import org.geoserver.wfs.DefaultWebFeatureService;
+import org.geoserver.wfs.DefaultWebFeatureService20;
 import org.geoserver.wfs.WebFeatureService;
 import org.geoserver.wfs.WebFeatureService20;
 import org.geoserver.wfs.kvp.GetFeatureKvpRequestReader;
@@ -17,7 +19,9 @@
 import org.springframework.context.ApplicationContext;
 
 /**
- * Handles an internal reference to a local FeatureType by a WFS request
+ * Handles an internal reference to a local FeatureType by a WFS request. The features are not encoded, the process
+ * receives the lazy feature collection built by the GetFeature operation, with the request filters pushed down to the
+ * store, and without computing the feature counts a WFS response would need.
  *
  * @author Andrea Aime - GeoSolutions
  */
@@ -51,13 +55,18 @@ protected Object getValueInternal(ProgressListener listener) throws Exception {
         if (gft instanceof net.opengis.wfs.GetFeatureType type1) {
             WebFeatureService wfs = (WebFeatureService) context.getBean("wfsServiceTarget");
 
-            FeatureCollectionResponse featureCollectionType = wfs.getFeature(type1);
+            // the process is going to stream through the features, no need to count them
+            FeatureCollectionResponse featureCollectionType = wfs instanceof DefaultWebFeatureService dwfs
+                    ? dwfs.getFeature(type1, true)
+                    : wfs.getFeature(type1);
             // this will also deal with axis order issues
             return ((ComplexPPIO) ppio).decode(featureCollectionType.getAdaptee());
         } else if (gft instanceof net.opengis.wfs20.GetFeatureType type) {
             WebFeatureService20 wfs = (WebFeatureService20) context.getBean("wfsService20Target");
 
-            FeatureCollectionResponse featureCollectionType = wfs.getFeature(type);
+            FeatureCollectionResponse featureCollectionType = wfs instanceof DefaultWebFeatureService20 dwfs
+                    ? dwfs.getFeature(type, true)
+                    : wfs.getFeature(type);
             // this will also deal with axis order issues
             return ((ComplexPPIO) ppio).decode(featureCollectionType.getAdaptee());
         } else {
@@ -0,0 +1,33 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.executor;
+
+import java.util.Map;
+import org.geotools.api.feature.type.Name;
+
+/**
+ * Extension point estimating the cost of a process execution before it's started. The {@link DefaultProcessManager}
+ * uses the estimates to schedule the queued executions, a user submitting expensive executions gets a smaller share of
+ * the execution slots than one submitting cheap ones.
+ *
+ * <p>The cost is relative, 1 being the cost of a typical execution, which is also the cost assumed when no estimator
+ * can provide one. The estimate happens in the thread submitting the execution, implementations should only look at
+ * the inputs that are cheap to parse, such as literals, and leave the complex ones alone, as accessing them would force
+ * their parsing before the execution is started.
+ */
+public interface ProcessCostEstimator {
+
+    /** The cost of a typical execution, assumed when no estimate is available */
+    double DEFAULT_COST = 1;
+
+    /**
+     * Estimates the cost of the given process execution
+     *
+     * @param processName The name of the process
+     * @param inputs The process inputs
+     * @return The estimated cost, or a negative value if the estimator cannot estimate this execution
+     */
+    double estimateCost(Name processName, Map<String, Object> inputs);
+}
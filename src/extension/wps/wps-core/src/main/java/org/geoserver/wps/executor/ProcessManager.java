@@ -69,6 +69,27 @@ void submit(
             boolean background)
             throws ProcessException;
 
+    /**
+     * Same as {@link #submit(String, Name, Map, ProgressListener, boolean)}, but also provides the user and client
+     * address submitting the execution, so that the process manager can share its resources among them. Both have to be
+     * collected in the request thread, asynchronous executions are submitted from a separate thread, after the request
+     * has been completed and possibly recycled by the container.
+     *
+     * @param userName The name of the user submitting the execution, or null if not authenticated
+     * @param clientAddress The address of the client submitting the execution, or null if not known
+     */
+    default void submit(
+            String executionId,
+            Name processName,
+            Map<String, Object> inputs,
+            ProgressListener listener,
+            boolean background,
+            String userName,
+            String clientAddress)
+            throws ProcessException {
+        submit(executionId, processName, inputs, listener, background);
+    }
+
     /**
      * Gets the process output. Will block the caller for at most "timeout" if the process execution is not complete.
      * Once the output is retrieved the process will be marked as terminated and it won't be possible to get its outputs
@@ -81,4 +102,12 @@ void submit(
      * queue, if it's still running a best effort attempt to stop the process will be made.
      */
     void cancel(String executionId);
+
+    /**
+     * Returns the position of the execution in the queue of the executions waiting to start, starting from 1, or -1 if
+     * the execution is not queued, or the process manager does not track it
+     */
+    default int getQueuePosition(String executionId) {
+        return -1;
+    }
 }
@@ -0,0 +1,145 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.executor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.feature.type.Name;
+import org.geotools.util.logging.Logging;
+
+/**
+ * The weights and concurrency limits used by the {@link DefaultProcessManager} to schedule the process executions of
+ * the different users and processes. The configuration is read from the {@link #PROPERTY_FILE} file in the data
+ * directory, which contains entries like the following:
+ *
+ * <pre>
+ * # defaults for all users and processes
+ * user.*=1
+ * process.*=1
+ * # admin gets twice the share of the other users, with at most 8 executions running at the same time
+ * user.admin=2,8
+ * # at most 2 downloads running at the same time, across all users
+ * process.gs\:Download=1,2
+ * </pre>
+ *
+ * <p>Each value contains a weight, and optionally the maximum number of concurrently running executions, 0 meaning no
+ * limit. The weights are relative, a user with weight 2 gets twice the execution slots of a user with weight 1 when
+ * both have executions waiting, the weight of the process multiplies the one of the user. The limits apply separately
+ * to the synchronous and asynchronous executions. The colon in the process names must be escaped, as it's a key/value
+ * separator in property files. Unauthenticated users get the limits of the {@link #ANONYMOUS} user, applied to each
+ * client address separately.
+ */
+public class ProcessSchedulerConfiguration {
+
+    static final Logger LOGGER = Logging.getLogger(ProcessSchedulerConfiguration.class);
+
+    /** The name of the configuration file in the data directory */
+    public static final String PROPERTY_FILE = "wps-scheduler.properties";
+
+    /** The user name used for the executions of unauthenticated users */
+    public static final String ANONYMOUS = "anonymous";
+
+    static final String USER_PREFIX = "user.";
+
+    static final String PROCESS_PREFIX = "process.";
+
+    static final String DEFAULT_KEY = "*";
+
+    /**
+     * The scheduling limits of a user or process
+     *
+     * @param weight The relative weight, used to share the execution slots
+     * @param maxRunning The maximum number of concurrently running executions, 0 means no limit
+     */
+    public record Limits(double weight, int maxRunning) {
+
+        /** Returns true if the given number of running executions reached the limit */
+        boolean isReached(int running) {
+            return maxRunning > 0 && running >= maxRunning;
+        }
+    }
+
+    /** Same weight for everybody, no limits */
+    public static final Limits DEFAULT_LIMITS = new Limits(1, 0);
+
+    /** The configuration used when no file is available, all users and processes get the same share */
+    public static final ProcessSchedulerConfiguration DEFAULT =
+            new ProcessSchedulerConfiguration(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, Limits> users;
+
+    private final Map<String, Limits> processes;
+
+    ProcessSchedulerConfiguration(Map<String, Limits> users, Map<String, Limits> processes) {
+        this.users = users;
+        this.processes = processes;
+    }
+
+    /** Parses the configuration out of the given properties, skipping the invalid entries */
+    public static ProcessSchedulerConfiguration parse(Properties properties) {
+        if (properties == null || properties.isEmpty()) {
+            return DEFAULT;
+        }
+        Map<String, Limits> users = new HashMap<>();
+        Map<String, Limits> processes = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            Map<String, Limits> target;
+            String name;
+            if (key.startsWith(USER_PREFIX)) {
+                target = users;
+                name = key.substring(USER_PREFIX.length());
+            } else if (key.startsWith(PROCESS_PREFIX)) {
+                target = processes;
+                name = key.substring(PROCESS_PREFIX.length());
+            } else {
+                LOGGER.warning("Skipping unrecognized WPS scheduler configuration key: " + key);
+                continue;
+            }
+            Limits limits = parseLimits(key, properties.getProperty(key));
+            if (!name.isEmpty() && limits != null) {
+                target.put(name, limits);
+            }
+        }
+        return new ProcessSchedulerConfiguration(users, processes);
+    }
+
+    private static Limits parseLimits(String key, String value) {
+        String[] elements = value.split("\\s*,\\s*");
+        try {
+            double weight = Double.parseDouble(elements[0].trim());
+            int maxRunning = elements.length > 1 ? Integer.parseInt(elements[1].trim()) : 0;
+            if (weight > 0 && maxRunning >= 0 && elements.length <= 2) {
+                return new Limits(weight, maxRunning);
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.FINE, "Failed to parse WPS scheduler configuration value", e);
+        }
+        LOGGER.warning("Skipping invalid WPS scheduler configuration entry " + key + "=" + value
+                + ", expected a positive weight, optionally followed by a comma and a non negative max running count");
+        return null;
+    }
+
+    /** Returns the limits of the given user, or the default ones if the user is not configured */
+    public Limits getUserLimits(String userName) {
+        return getLimits(users, userName == null ? ANONYMOUS : userName);
+    }
+
+    /** Returns the limits of the given process, or the default ones if the process is not configured */
+    public Limits getProcessLimits(Name processName) {
+        return getLimits(processes, processName.getURI());
+    }
+
+    private static Limits getLimits(Map<String, Limits> limits, String name) {
+        Limits result = limits.get(name);
+        if (result == null) {
+            result = limits.getOrDefault(DEFAULT_KEY, DEFAULT_LIMITS);
+        }
+        return result;
+    }
+}
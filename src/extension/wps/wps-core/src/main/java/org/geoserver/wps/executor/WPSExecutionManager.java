@@ -265,6 +265,17 @@ ProcessManager getProcessManager(Name processName) {
         throw new WPSException("Could not find a ProcessManager able to run this process: " + processName);
     }
 
+    /**
+     * Returns the position of the execution in the queue of the executions waiting to start, starting from 1, or -1 if
+     * the execution is not queued on this node
+     */
+    public int getQueuePosition(ExecutionStatus status) {
+        if (status.getPhase() != ProcessState.QUEUED) {
+            return -1;
+        }
+        return getProcessManager(status.getProcessName()).getQueuePosition(status.getExecutionId());
+    }
+
     /** Returns the HTTP connection timeout for remote resource fetching */
     public int getConnectionTimeout() {
         return connectionTimeout;
@@ -344,6 +355,10 @@ private final class Executor implements Callable<ExecuteResponseType> {
 
         private long maxTotalTime;
 
+        private String userName;
+
+        private String clientAddress;
+
         private Executor(
                 ExecuteRequest request,
                 ProcessManager processManager,
@@ -362,6 +377,9 @@ private Executor(
             this.synchronous = synchronous;
             this.maxExecutionTime = maxExecutionTime;
             this.maxTotalTime = maxTotalTime;
+            // grab them while still in the request thread, the request is gone by the time an asynchronous one runs
+            this.userName = DefaultProcessManager.getUserName();
+            this.clientAddress = DefaultProcessManager.getClientAddress();
 
             // if we execute asynchronously we'll need to make sure all thread locals are
             // transferred (in particular, the executionId in WPSResourceManager)
@@ -446,7 +464,9 @@ private ExecuteResponseType execute() {
                         status.getProcessName(),
                         inputs,
                         executionListener,
-                        status.isAsynchronous());
+                        status.isAsynchronous(),
+                        userName,
+                        clientAddress);
 
                 // grab the output (and get blocked waiting for it)
                 notifier.checkDismissed();
@@ -576,11 +596,16 @@ public void cancel(String executionId) {
             throw new UnknownExecutionIdException(executionId);
         }
 
-        // if the process is running locally, clean it
-        if (status.getPhase() == ProcessState.RUNNING) {
-            ProcessListenerNotifier notifier = localProcesses.get(executionId);
+        // if the process is running, or queued locally, clean it
+        ProcessListenerNotifier notifier = localProcesses.get(executionId);
+        ProcessState phase = status.getPhase();
+        if (phase == ProcessState.RUNNING || phase == ProcessState.QUEUED && notifier != null) {
             if (notifier != null) {
                 notifier.dismiss();
+                // if it did not start yet, have the process manager drop it from its queue
+                if (phase == ProcessState.QUEUED) {
+                    getProcessManager(status.getProcessName()).cancel(executionId);
+                }
             } else {
                 status.setPhase(ProcessState.DISMISSING);
                 statusTracker.dismissing(new ProcessEvent(status, null, null));
@@ -56,9 +56,11 @@
 import org.geoserver.platform.ServiceException;
 import org.geoserver.platform.resource.Resource;
 import org.geoserver.test.RemoteOWSTestSupport;
+import org.geoserver.wps.executor.DefaultProcessManager;
 import org.geoserver.wps.executor.ExecutionStatus;
 import org.geoserver.wps.executor.ProcessState;
 import org.geoserver.wps.executor.ProcessStatusTracker;
+import org.geoserver.wps.executor.WPSExecutionManager;
 import org.geoserver.wps.resource.ProcessArtifactsStore;
 import org.geoserver.wps.resource.WPSResourceManager;
 import org.geotools.api.feature.simple.SimpleFeature;
@@ -1653,6 +1655,56 @@ public void testDismissDuringExecution() throws Exception {
         }
     }
 
+    @Test
+    public void testDismissQueued() throws Exception {
+        // a single asynchronous slot, so that the second execution gets queued behind the first one
+        DefaultProcessManager processManager =
+                GeoServerExtensions.bean(DefaultProcessManager.class, applicationContext);
+        processManager.setMaxAsynchronousProcesses(1);
+        try {
+            String statusLocation1 = submitMonkey("running");
+            MonkeyProcess.progress("running", 10f, true);
+            String statusLocation2 = submitMonkey("queued");
+            Map<String, Object> kvp = KvpUtils.parseQueryString(statusLocation2);
+            String executionId = (String) kvp.get("executionId");
+
+            // wait for it to be in the queue
+            ProcessStatusTracker statusTracker =
+                    GeoServerExtensions.bean(ProcessStatusTracker.class, applicationContext);
+            WPSExecutionManager executionManager =
+                    GeoServerExtensions.bean(WPSExecutionManager.class, applicationContext);
+            long end = System.currentTimeMillis() + 10000;
+            while (executionManager.getQueuePosition(statusTracker.getStatus(executionId)) != 1
+                    && System.currentTimeMillis() < end) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(1, executionManager.getQueuePosition(statusTracker.getStatus(executionId)));
+
+            // dismiss it
+            Document dom = getAsDOM("wps?service=WPS&version=1.0.0&request=Dismiss&executionId=" + executionId);
+            assertXpathExists("//wps:ProcessFailed", dom);
+
+            // it never started, so it must go away without waiting for any progress
+            ExecutionStatus status = statusTracker.getStatus(executionId);
+            end = System.currentTimeMillis() + 10000;
+            while (status != null && System.currentTimeMillis() < end) {
+                Thread.sleep(50);
+                status = statusTracker.getStatus(executionId);
+            }
+            Assert.assertNull(status);
+            dom = getAsDOM(statusLocation2);
+            checkOws11Exception(dom);
+
+            // the running one is not affected
+            MonkeyProcess.exit("running", collectionOfThings(), true);
+            dom = waitForProcessEnd(statusLocation1, 60);
+            assertXpathExists("//wps:ProcessSucceeded", dom);
+        } finally {
+            WPSInfo wps = getGeoServer().getService(WPSInfo.class);
+            processManager.setMaxAsynchronousProcesses(wps.getMaxAsynchronousProcesses());
+        }
+    }
+
     @Test
     public void testDismissAfterCompletion() throws Exception {
         // submit asynch request with no updates
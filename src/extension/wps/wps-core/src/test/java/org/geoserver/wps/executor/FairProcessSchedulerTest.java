@@ -0,0 +1,243 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.geoserver.wps.executor.ProcessSchedulerConfiguration.Limits;
+import org.geotools.api.feature.type.Name;
+import org.geotools.feature.NameImpl;
+import org.junit.After;
+import org.junit.Test;
+
+public class FairProcessSchedulerTest {
+
+    static final Name SLOW = new NameImpl("gs", "Slow");
+
+    static final Name FAST = new NameImpl("gs", "Fast");
+
+    private FairProcessScheduler scheduler;
+
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void shutdown() {
+        blocker.countDown();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFairShare() throws Exception {
+        scheduler = new FairProcessScheduler(1);
+        ProcessSchedulerConfiguration config = ProcessSchedulerConfiguration.DEFAULT;
+        submitBlocking("a0", "a", SLOW, config);
+        submit("a1", "a", FAST, 1, config);
+        submit("a2", "a", FAST, 1, config);
+        Future<Map<String, Object>> last = submit("a3", "a", FAST, 1, config);
+        submit("b1", "b", FAST, 1, config);
+
+        // the late comer overtakes the executions queued by the heavier user
+        assertEquals(1, scheduler.getQueuePosition("b1"));
+        assertEquals(2, scheduler.getQueuePosition("a1"));
+        assertEquals(4, scheduler.getQueuePosition("a3"));
+        assertEquals(-1, scheduler.getQueuePosition("a0"));
+
+        blocker.countDown();
+        last.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("a0", "b1", "a1", "a2", "a3"), executed);
+    }
+
+    @Test
+    public void testWeightsAndCosts() throws Exception {
+        scheduler = new FairProcessScheduler(1);
+        Properties properties = new Properties();
+        properties.put("user.a", "2");
+        ProcessSchedulerConfiguration config = ProcessSchedulerConfiguration.parse(properties);
+        submitBlocking("c0", "c", SLOW, config);
+        for (int i = 1; i <= 4; i++) {
+            submit("a" + i, "a", FAST, 1, config);
+        }
+        // the executions of b cost twice as much
+        submit("b1", "b", FAST, 2, config);
+        submit("b2", "b", FAST, 2, config);
+
+        // a has twice the weight of b, and its executions cost half as much
+        assertEquals(1, scheduler.getQueuePosition("a1"));
+        assertEquals(2, scheduler.getQueuePosition("b1"));
+        assertEquals(3, scheduler.getQueuePosition("a2"));
+        assertEquals(4, scheduler.getQueuePosition("a3"));
+        assertEquals(5, scheduler.getQueuePosition("a4"));
+        assertEquals(6, scheduler.getQueuePosition("b2"));
+    }
+
+    @Test
+    public void testConcurrencyLimits() throws Exception {
+        scheduler = new FairProcessScheduler(3);
+        Properties properties = new Properties();
+        properties.put("process.gs:Slow", "1,1");
+        properties.put("user.b", "1,1");
+        ProcessSchedulerConfiguration config = ProcessSchedulerConfiguration.parse(properties);
+        submitBlocking("a1", "a", SLOW, config);
+        submitBlocking("a2", "a", SLOW, config);
+        submitBlocking("b1", "b", FAST, config);
+        submitBlocking("b2", "b", FAST, config);
+        Future<Map<String, Object>> a3 = submit("a3", "a", FAST, 1, config);
+
+        // a2 waits for the process limit, b2 for the user one, a3 can run
+        a3.get(10, TimeUnit.SECONDS);
+        waitFor(() -> scheduler.getRunning() == 2);
+        assertEquals(1, scheduler.getQueuePosition("a2"));
+        assertEquals(2, scheduler.getQueuePosition("b2"));
+
+        blocker.countDown();
+        waitFor(() -> scheduler.getQueueSize() == 0 && scheduler.getRunning() == 0);
+        assertTrue(executed.containsAll(List.of("a1", "a2", "b1", "b2", "a3")));
+    }
+
+    @Test
+    public void testCancelQueued() throws Exception {
+        scheduler = new FairProcessScheduler(1);
+        ProcessSchedulerConfiguration config = ProcessSchedulerConfiguration.DEFAULT;
+        Future<Map<String, Object>> running = submitBlocking("a1", "a", SLOW, config);
+        Future<Map<String, Object>> queued = submit("a2", "a", FAST, 1, config);
+        Future<Map<String, Object>> last = submit("a3", "a", FAST, 1, config);
+        assertEquals(2, scheduler.getQueueSize());
+
+        // dismissing a queued execution does not need a thread
+        queued.cancel(true);
+        assertTrue(queued.isCancelled());
+        assertEquals(1, scheduler.getQueueSize());
+        assertEquals(-1, scheduler.getQueuePosition("a2"));
+        assertEquals(1, scheduler.getQueuePosition("a3"));
+
+        blocker.countDown();
+        running.get(10, TimeUnit.SECONDS);
+        last.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("a1", "a3"), executed);
+    }
+
+    @Test
+    public void testAnonymousClients() throws Exception {
+        scheduler = new FairProcessScheduler(1);
+        Properties properties = new Properties();
+        properties.put("user.anonymous", "1,1");
+        ProcessSchedulerConfiguration config = ProcessSchedulerConfiguration.parse(properties);
+        submitBlocking("a0", "a", SLOW, config);
+        submit("x1", null, "10.0.0.1", FAST, 1, config);
+        submit("x2", null, "10.0.0.1", FAST, 1, config);
+        Future<Map<String, Object>> last = submit("x3", null, "10.0.0.1", FAST, 1, config);
+        submit("y1", null, "10.0.0.2", FAST, 1, config);
+
+        // each anonymous client gets its own share
+        assertEquals(1, scheduler.getQueuePosition("x1"));
+        assertEquals(2, scheduler.getQueuePosition("y1"));
+        assertEquals(3, scheduler.getQueuePosition("x2"));
+
+        blocker.countDown();
+        last.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("a0", "x1", "y1", "x2", "x3"), executed);
+    }
+
+    @Test
+    public void testCancelRunning() throws Exception {
+        scheduler = new FairProcessScheduler(1);
+        ProcessSchedulerConfiguration config = ProcessSchedulerConfiguration.DEFAULT;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // an execution that keeps running even when interrupted
+        Future<Map<String, Object>> running = scheduler.submit("a1", "a", null, SLOW, 1, config, () -> {
+            started.countDown();
+            while (release.getCount() > 0) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // ignore, like a process not checking for cancellation would
+                }
+            }
+            return Collections.emptyMap();
+        });
+        Future<Map<String, Object>> queued = submit("b1", "b", FAST, 1, config);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // the slot is still taken until the worker thread is done
+        running.cancel(true);
+        Thread.sleep(100);
+        assertEquals(1, scheduler.getRunning());
+        assertEquals(1, scheduler.getQueuePosition("b1"));
+
+        release.countDown();
+        queued.get(10, TimeUnit.SECONDS);
+        waitFor(() -> scheduler.getRunning() == 0);
+        assertEquals(List.of("b1"), executed);
+    }
+
+    @Test
+    public void testConfiguration() throws Exception {
+        Properties properties = new Properties();
+        properties.put("user.*", "0.5");
+        properties.put("user.admin", "4, 8");
+        properties.put("process.gs:Slow", "1,2");
+        properties.put("user.broken", "-1");
+        properties.put("unknown.key", "1");
+        ProcessSchedulerConfiguration config = ProcessSchedulerConfiguration.parse(properties);
+
+        assertEquals(new Limits(4, 8), config.getUserLimits("admin"));
+        assertEquals(new Limits(0.5, 0), config.getUserLimits("broken"));
+        assertEquals(new Limits(0.5, 0), config.getUserLimits(null));
+        assertEquals(new Limits(1, 2), config.getProcessLimits(SLOW));
+        assertEquals(ProcessSchedulerConfiguration.DEFAULT_LIMITS, config.getProcessLimits(FAST));
+    }
+
+    private Future<Map<String, Object>> submit(
+            String id, String user, Name process, double cost, ProcessSchedulerConfiguration config) {
+        return submit(id, user, null, process, cost, config);
+    }
+
+    private Future<Map<String, Object>> submit(
+            String id,
+            String user,
+            String address,
+            Name process,
+            double cost,
+            ProcessSchedulerConfiguration config) {
+        return scheduler.submit(id, user, address, process, cost, config, () -> {
+            executed.add(id);
+            return Collections.emptyMap();
+        });
+    }
+
+    /** Submits an execution that stays running until the blocker is released */
+    private Future<Map<String, Object>> submitBlocking(
+            String id, String user, Name process, ProcessSchedulerConfiguration config) {
+        return scheduler.submit(id, user, null, process, 1, config, () -> {
+            executed.add(id);
+            blocker.await(10, TimeUnit.SECONDS);
+            return Collections.emptyMap();
+        });
+    }
+
+    /** The scheduler is notified of completions after the futures return, wait for it to catch up */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -70,6 +70,7 @@
 import org.geoserver.gwc.layer.GeoServerTileLayer;
 import org.geoserver.gwc.layer.GeoServerTileLayerInfo;
 import org.geoserver.gwc.layer.GeoServerTileLayerInfoImpl;
+import org.geoserver.gwc.wmts.WMTSCapabilitiesCache;
 import org.geoserver.ows.Dispatcher;
 import org.geoserver.ows.HttpErrorCodeException;
 import org.geoserver.ows.Request;
@@ -1497,6 +1498,7 @@ public Set<String> getTileLayersByFeatureType(final String namespaceURI, final S
     public synchronized void addGridSet(final GridSet gridSet) throws IllegalArgumentException, IOException {
         checkNotNull(gridSet);
         tld.addGridSet(gridSet);
+        invalidateCapabilities();
     }
 
     public synchronized void modifyGridSet(final String oldGridSetName, final GridSet newGridSet)
@@ -1583,6 +1585,7 @@ public synchronized void modifyGridSet(final String oldGridSetName, final GridSe
             if (lock != null) {
                 lock.release();
             }
+            invalidateCapabilities();
         }
     }
 
@@ -2014,6 +2017,15 @@ public synchronized void removeGridSets(final Set<String> gridsetIds) throws IOE
         for (String gridSetId : gridsetIds) {
             gridSetBroker.remove(gridSetId);
         }
+        invalidateCapabilities();
+    }
+
+    /** Drops the cached WMTS capabilities documents, gridset changes are not notified through the catalogs */
+    private void invalidateCapabilities() {
+        WMTSCapabilitiesCache cache = GeoServerExtensions.bean(WMTSCapabilitiesCache.class);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
     }
 
     /**
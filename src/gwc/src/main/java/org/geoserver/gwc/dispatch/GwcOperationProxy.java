@@ -5,7 +5,11 @@
  */
 package org.geoserver.gwc.dispatch;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import org.geoserver.gwc.wmts.WMTSCapabilitiesCache.CachedDocument;
 import org.geoserver.ows.Dispatcher;
 
 /**
@@ -22,6 +26,10 @@ public class GwcOperationProxy {
 
     private Map<String, String> responseHeaders;
 
+    private CachedDocument cachedDocument;
+
+    private boolean gzipped;
+
     public GwcOperationProxy(final String contentType, final Map<String, String> headers, final byte[] responseContent)
             throws Exception {
         this.contentType = contentType;
@@ -29,14 +37,49 @@ public GwcOperationProxy(final String contentType, final Map<String, String> hea
         this.responseHeaders = headers;
     }
 
+    /**
+     * Builds a response out of a cached, compressed document
+     *
+     * @param gzipped Whether the client accepts gzip, in which case the document is sent as stored, with a
+     *     {@code Content-Encoding: gzip} header
+     */
+    public GwcOperationProxy(final CachedDocument cachedDocument, boolean gzipped) {
+        this.contentType = cachedDocument.getContentType();
+        this.cachedDocument = cachedDocument;
+        this.gzipped = gzipped;
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (cachedDocument.getHeaders() != null) {
+            headers.putAll(cachedDocument.getHeaders());
+        }
+        // the length of the uncompressed document, if any, does not apply to the gzipped one
+        headers.keySet().removeIf(h -> h.equalsIgnoreCase("Content-Length"));
+        headers.put("Vary", "Accept-Encoding");
+        if (gzipped) {
+            headers.put("Content-Encoding", "gzip");
+        }
+        this.responseHeaders = headers;
+    }
+
     public String getMimeType() {
         return contentType;
     }
 
+    /** The response contents, or {@code null} if the response is backed by a cached document */
     public byte[] getContents() {
         return responseContent;
     }
 
+    /** Writes the response contents to the given output stream */
+    public void writeTo(OutputStream output) throws IOException {
+        if (cachedDocument != null && gzipped) {
+            cachedDocument.writeGzippedTo(output);
+        } else if (cachedDocument != null) {
+            cachedDocument.writeTo(output);
+        } else {
+            output.write(responseContent);
+        }
+    }
+
     public Map<String, String> getResponseHeaders() {
         return responseHeaders;
     }
@@ -52,8 +52,7 @@ public String[][] getHeaders(Object value, Operation operation) throws ServiceEx
     public void write(Object value, OutputStream output, Operation operation) throws IOException, ServiceException {
 
         GwcOperationProxy op = (GwcOperationProxy) value;
-        byte[] contents = op.getContents();
-        output.write(contents);
+        op.writeTo(output);
     }
 
     @Override
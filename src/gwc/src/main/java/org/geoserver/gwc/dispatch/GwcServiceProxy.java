@@ -15,11 +15,18 @@
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.config.ServiceInfo;
 import org.geoserver.config.impl.ServiceInfoImpl;
+import org.geoserver.gwc.wmts.WMTSCapabilitiesCache;
+import org.geoserver.gwc.wmts.WMTSCapabilitiesCache.CachedDocument;
 import org.geoserver.ows.DisabledServiceCheck;
 import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.LocalPublished;
+import org.geoserver.ows.LocalWorkspace;
 import org.geoserver.ows.Response;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geotools.util.Version;
 import org.geowebcache.GeoWebCacheDispatcher;
 import org.geowebcache.GeoWebCacheExtensions;
@@ -76,6 +83,27 @@ public GwcOperationProxy dispatch(HttpServletRequest rawRequest, HttpServletResp
 
         //        DispatcherController.BASE_URL.set(ResponseUtils.baseURL(rawRequest));
 
+        WMTSCapabilitiesCache capabilitiesCache = getCapabilitiesCache(rawRequest);
+        WMTSCapabilitiesCache.Key cacheKey = null;
+        long cacheGeneration = 0;
+        boolean gzip = false;
+        if (capabilitiesCache != null) {
+            WorkspaceInfo workspace = LocalWorkspace.get();
+            PublishedInfo published = LocalPublished.get();
+            cacheKey = WMTSCapabilitiesCache.key(
+                    workspace == null ? null : workspace.getName(),
+                    published == null ? null : published.prefixedName(),
+                    GwcServiceDispatcherCallback.GWC_ORIGINAL_BASEURL.get() + rawRequest.getPathInfo(),
+                    rawRequest.getParameterMap());
+            String acceptEncoding = rawRequest.getHeader("Accept-Encoding");
+            gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            CachedDocument cached = capabilitiesCache.get(cacheKey);
+            if (cached != null) {
+                return new GwcOperationProxy(cached, gzip);
+            }
+            cacheGeneration = capabilitiesCache.getGeneration();
+        }
+
         ResponseWrapper responseWrapper = new ResponseWrapper(rawRespose);
 
         gwcDispatcher.handleRequest(rawRequest, responseWrapper);
@@ -84,14 +112,36 @@ public GwcOperationProxy dispatch(HttpServletRequest rawRequest, HttpServletResp
         final Map<String, String> headers = responseWrapper.getHeaders();
         final byte[] bytes = responseWrapper.out.getBytes();
 
+        if (cacheKey != null && responseWrapper.status == HttpServletResponse.SC_OK) {
+            CachedDocument cached = capabilitiesCache.put(cacheKey, cacheGeneration, contentType, headers, bytes);
+            if (cached != null) {
+                return new GwcOperationProxy(cached, gzip);
+            }
+        }
+
         return new GwcOperationProxy(contentType, headers, bytes);
     }
 
+    /**
+     * Returns the WMTS capabilities cache if the request is a WMTS GetCapabilities one and caching is enabled,
+     * {@code null} otherwise
+     */
+    private WMTSCapabilitiesCache getCapabilitiesCache(HttpServletRequest rawRequest) {
+        String operation = GwcServiceDispatcherCallback.GWC_OPERATION.get();
+        String pathInfo = rawRequest.getPathInfo();
+        if (!"GetCapabilities".equalsIgnoreCase(operation) || pathInfo == null || !pathInfo.contains("/wmts")) {
+            return null;
+        }
+        WMTSCapabilitiesCache cache = GeoServerExtensions.bean(WMTSCapabilitiesCache.class);
+        return cache != null && cache.isEnabled() ? cache : null;
+    }
+
     /** */
     private static final class ResponseWrapper extends HttpServletResponseWrapper {
 
         final BufferedServletOutputStream out = new BufferedServletOutputStream();
         Map<String, String> headers = new LinkedHashMap<>();
+        int status = HttpServletResponse.SC_OK;
 
         private ResponseWrapper(HttpServletResponse response) {
             super(response);
@@ -107,6 +157,24 @@ public void setHeader(String name, String value) {
             headers.put(name, value);
         }
 
+        @Override
+        public void setStatus(int sc) {
+            this.status = sc;
+            super.setStatus(sc);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            this.status = sc;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            this.status = sc;
+            super.sendError(sc, msg);
+        }
+
         public Map<String, String> getHeaders() {
             return headers;
         }
@@ -916,6 +916,9 @@ private WebMap dispatchGetMap(final ConveyorTile tile, final MetaTile metaTile)
 
         Map<String, String> params = buildGetMap(tile, metaTile);
         WebMap map;
+        if (VectorTileRestyler.isRestylingApplicable(this, tile.getMimeType())) {
+            VectorTileRestyler.SOURCE_TILES.set(VectorTileRestyler.collectVectorTiles(this, tile, metaTile));
+        }
         try {
             HttpServletRequest actualRequest = tile.servletReq;
             Cookie[] cookies = actualRequest == null ? null : actualRequest.getCookies();
@@ -929,6 +932,7 @@ private WebMap dispatchGetMap(final ConveyorTile tile, final MetaTile metaTile)
             if (warnings != null) warnings.forEach(w -> HTTPWarningAppender.addWarning(w));
         } finally {
             WEB_MAP.remove();
+            VectorTileRestyler.SOURCE_TILES.remove();
         }
 
         return map;
@@ -225,6 +225,21 @@ public interface GeoServerTileLayerInfo extends Serializable, Cloneable {
      */
     void setInMemoryCached(boolean inMemoryCached);
 
+    /**
+     * Whether raster tiles are rendered out of the cached vector tiles of the layer, rather than by querying the
+     * layer's data source for each style
+     *
+     * @return true if raster tiles are rendered from cached vector tiles
+     */
+    boolean isVectorTileRestyling();
+
+    /**
+     * Sets whether raster tiles are rendered out of the cached vector tiles of the layer
+     *
+     * @param vectorTileRestyling whether raster tiles are rendered from cached vector tiles
+     */
+    void setVectorTileRestyling(boolean vectorTileRestyling);
+
     /**
      * Set of dimension warnings that would cause the layer to avoid caching the tlie
      *
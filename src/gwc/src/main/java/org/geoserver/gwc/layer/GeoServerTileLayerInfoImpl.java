@@ -56,6 +56,8 @@ public class GeoServerTileLayerInfoImpl implements Serializable, GeoServerTileLa
 
     private Boolean inMemoryCached;
 
+    private Boolean vectorTileRestyling;
+
     private String name;
 
     private String blobStoreId;
@@ -432,6 +434,17 @@ public void setInMemoryCached(boolean inMemoryCached) {
         this.inMemoryCached = inMemoryCached;
     }
 
+    @Override
+    public boolean isVectorTileRestyling() {
+        return vectorTileRestyling != null && vectorTileRestyling;
+    }
+
+    @Override
+    public void setVectorTileRestyling(boolean vectorTileRestyling) {
+        // keep the field null when disabled, so that it does not show up in the persisted configuration
+        this.vectorTileRestyling = vectorTileRestyling ? Boolean.TRUE : null;
+    }
+
     @Override
     public Set<DimensionWarning.WarningType> getCacheWarningSkips() {
         return cacheWarningSkips;
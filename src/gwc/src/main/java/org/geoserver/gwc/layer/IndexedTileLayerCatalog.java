@@ -0,0 +1,647 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.layer;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.thoughtworks.xstream.XStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.config.util.SecureXStream;
+import org.geoserver.ows.LocalWorkspace;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.platform.resource.Resources;
+import org.geoserver.util.DimensionWarning;
+import org.geotools.util.logging.Logging;
+import org.geowebcache.config.ContextualConfigurationProvider.Context;
+import org.geowebcache.config.XMLConfiguration;
+
+/**
+ * {@link TileLayerCatalog} storing all the tile layers in a single, append-only binary file, meant for deployments with
+ * tens of thousands of tile layers.
+ *
+ * <p>Each record in the store holds the layer id, the layer name and the deflated XML representation of the
+ * {@link GeoServerTileLayerInfo}. At {@link #initialize()} only the record headers are scanned to build the id and name
+ * indexes, payloads are parsed lazily on first access and kept in a small LRU cache (sized by the
+ * {@link #CACHE_SIZE_PROPERTY} system property). Saves and deletes append new records, the file is compacted once the
+ * stale records take more room than the live ones.
+ *
+ * <p>When the store file does not exist yet, the XML files found in the {@code gwc-layers} directory are imported into
+ * it, and renamed with a {@link #MIGRATED_EXTENSION} extension so that they are not picked up again, by this or by the
+ * XML based catalog. Unlike {@link DefaultTileLayerCatalog} this implementation does not watch the store for external
+ * changes, so it is not suitable for clustered setups sharing the data directory.
+ */
+public class IndexedTileLayerCatalog implements TileLayerCatalog {
+
+    private static final Logger LOGGER = Logging.getLogger(IndexedTileLayerCatalog.class);
+
+    /** System property used to configure the number of deserialized tile layers kept in memory */
+    public static final String CACHE_SIZE_PROPERTY = "GWC_TILE_LAYER_CATALOG_CACHE_SIZE";
+
+    static final String LAYERINFO_DIRECTORY = "gwc-layers";
+
+    static final String STORE_FILE_NAME = "tile-layer-catalog.db";
+
+    /** Extension added to the XML files imported into the store */
+    static final String MIGRATED_EXTENSION = ".migrated";
+
+    private static final int MAGIC = 0x4753544C; // GSTL
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_LENGTH = 8;
+
+    private static final byte RECORD_PUT = 1;
+
+    private static final byte RECORD_DELETE = 2;
+
+    /** Below this amount of stale bytes the store is never compacted */
+    private static final long MIN_COMPACTION_GARBAGE = 1024 * 1024;
+
+    /** Location of a tile layer payload inside the store */
+    private static final class Entry {
+        final String name;
+
+        final long offset;
+
+        final int length;
+
+        /** Full record size, used to keep track of the garbage left behind by updates and deletes */
+        final int recordLength;
+
+        Entry(String name, long offset, int length, int recordLength) {
+            this.name = name;
+            this.offset = offset;
+            this.length = length;
+            this.recordLength = recordLength;
+        }
+    }
+
+    private final Map<String, Entry> layersById = new ConcurrentHashMap<>();
+
+    /** View of layer ids by name */
+    private final Map<String, String> layersByName = new ConcurrentHashMap<>();
+
+    private final Cache<String, GeoServerTileLayerInfoImpl> infoCache;
+
+    /** Read lock for payload reads, write lock for appends and compaction */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final GeoServerResourceLoader resourceLoader;
+
+    private final XStream serializer;
+
+    private final List<TileLayerCatalogListener> listeners = new CopyOnWriteArrayList<>();
+
+    private FileChannel channel;
+
+    private long garbageBytes;
+
+    private long liveBytes;
+
+    private volatile boolean initialized;
+
+    public IndexedTileLayerCatalog(GeoServerResourceLoader resourceLoader, XMLConfiguration xmlPersisterFactory) {
+        this(resourceLoader, xmlPersisterFactory.getConfiguredXStreamWithContext(new SecureXStream(), Context.PERSIST));
+    }
+
+    IndexedTileLayerCatalog(GeoServerResourceLoader resourceLoader, XStream serializer) {
+        this.resourceLoader = resourceLoader;
+        this.serializer = serializer;
+        serializer.allowTypeHierarchy(GeoServerTileLayerInfo.class);
+        serializer.allowTypes(new Class[] {DimensionWarning.WarningType.class});
+        // have to use a string here because UnmodifiableSet is private
+        serializer.allowTypes(new String[] {"java.util.Collections$UnmodifiableSet"});
+        serializer.addDefaultImplementation(LinkedHashSet.class, Set.class);
+        serializer.alias("warning", DimensionWarning.WarningType.class);
+
+        int cacheSize = Integer.getInteger(CACHE_SIZE_PROPERTY, 1000);
+        this.infoCache = CacheBuilder.newBuilder()
+                .concurrencyLevel(10)
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    @Override
+    public void reset() {
+        lock.writeLock().lock();
+        try {
+            closeChannel();
+            layersById.clear();
+            layersByName.clear();
+            infoCache.invalidateAll();
+            garbageBytes = 0;
+            liveBytes = 0;
+            this.initialized = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void initialize() {
+        reset();
+        lock.writeLock().lock();
+        try {
+            Stopwatch sw = Stopwatch.createStarted();
+            File storeFile = getStoreFile();
+            boolean migrate = !storeFile.exists() || storeFile.length() == 0;
+            openChannel(storeFile);
+            if (migrate) {
+                importXmlLayers();
+            } else {
+                scanRecords();
+            }
+            LOGGER.config("Loaded %,d tile layer index entries from %s in %s"
+                    .formatted(layersById.size(), storeFile, sw.stop()));
+            this.initialized = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize the tile layer catalog", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private File getStoreFile() {
+        Resource base = resourceLoader.get(LAYERINFO_DIRECTORY);
+        return base.get(STORE_FILE_NAME).file();
+    }
+
+    private void openChannel(File storeFile) throws IOException {
+        channel = FileChannel.open(
+                storeFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            writeHeader(channel);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException(storeFile + " is not a tile layer catalog store");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported tile layer catalog store version: " + version);
+            }
+        }
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, HEADER_LENGTH - header.remaining());
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Error closing the tile layer catalog store", e);
+            }
+            channel = null;
+        }
+    }
+
+    /** Rebuilds the in memory indexes reading only the record headers, payloads are skipped */
+    private void scanRecords() throws IOException {
+        final long size = channel.size();
+        long position = HEADER_LENGTH;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        while (position < size) {
+            lengthBuffer.clear();
+            if (!tryReadFully(channel, lengthBuffer, position)) {
+                break;
+            }
+            lengthBuffer.flip();
+            final int headerLength = lengthBuffer.getInt();
+            if (headerLength <= 0 || position + 4 + headerLength > size) {
+                break;
+            }
+            ByteBuffer headerBuffer = ByteBuffer.allocate(headerLength);
+            readFully(channel, headerBuffer, position + 4);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(headerBuffer.array()));
+            byte type = in.readByte();
+            String id = in.readUTF();
+            long payloadOffset = position + 4 + headerLength;
+            int recordLength = 4 + headerLength;
+            if (type == RECORD_PUT) {
+                String name = in.readUTF();
+                int payloadLength = in.readInt();
+                if (payloadOffset + payloadLength > size) {
+                    break;
+                }
+                recordLength += payloadLength;
+                indexPut(id, new Entry(name, payloadOffset, payloadLength, recordLength));
+            } else if (type == RECORD_DELETE) {
+                indexDelete(id);
+                garbageBytes += recordLength;
+            } else {
+                throw new IOException("Unknown record type " + type + " at offset " + position);
+            }
+            position += recordLength;
+        }
+        if (position < size) {
+            LOGGER.warning("Truncating incomplete tile layer catalog record at offset " + position);
+            channel.truncate(position);
+        }
+    }
+
+    /** Imports the tile layers persisted by {@link DefaultTileLayerCatalog} into the store */
+    private void importXmlLayers() throws IOException {
+        Resource baseDir = resourceLoader.get(LAYERINFO_DIRECTORY);
+        List<Resource> xmlFiles = Resources.list(baseDir, new Resources.ExtensionFilter("XML"));
+        if (xmlFiles.isEmpty()) {
+            return;
+        }
+        LOGGER.info("Importing %,d tile layers from %s".formatted(xmlFiles.size(), baseDir.path()));
+        List<Resource> imported = new ArrayList<>();
+        for (Resource res : xmlFiles) {
+            GeoServerTileLayerInfoImpl info;
+            try (Reader reader =
+                    new InputStreamReader(new ByteArrayInputStream(res.getContents()), StandardCharsets.UTF_8)) {
+                info = (GeoServerTileLayerInfoImpl) serializer.fromXML(reader);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error depersisting tile layer information from file " + res.name(), e);
+                continue;
+            }
+            if (layersByName.containsKey(info.getName())) {
+                LOGGER.warning("Skipping tile layer " + info.getId() + ", name already in use: " + info.getName());
+                continue;
+            }
+            append(info);
+            imported.add(res);
+        }
+        channel.force(false);
+        // the layers are in the store now, move the XML files out of the way
+        for (Resource res : imported) {
+            if (!res.renameTo(baseDir.get(res.name() + MIGRATED_EXTENSION))) {
+                LOGGER.warning("Could not rename the imported tile layer file " + res.path());
+            }
+        }
+    }
+
+    private void indexPut(String id, Entry entry) {
+        Entry previous = layersById.put(id, entry);
+        if (previous != null) {
+            layersByName.remove(previous.name);
+            garbageBytes += previous.recordLength;
+            liveBytes -= previous.recordLength;
+        }
+        layersByName.put(entry.name, id);
+        liveBytes += entry.recordLength;
+    }
+
+    private Entry indexDelete(String id) {
+        Entry previous = layersById.remove(id);
+        if (previous != null) {
+            layersByName.remove(previous.name);
+            garbageBytes += previous.recordLength;
+            liveBytes -= previous.recordLength;
+        }
+        return previous;
+    }
+
+    @Override
+    public GeoServerTileLayerInfo getLayerById(final String id) {
+        checkInitialized();
+        GeoServerTileLayerInfoImpl info = loadInternal(id);
+        return info == null ? null : info.clone();
+    }
+
+    private GeoServerTileLayerInfoImpl loadInternal(final String id) {
+        GeoServerTileLayerInfoImpl info = infoCache.getIfPresent(id);
+        if (info != null) {
+            return info;
+        }
+        lock.readLock().lock();
+        try {
+            Entry entry = layersById.get(id);
+            if (entry == null) {
+                return null;
+            }
+            info = depersist(readPayload(entry));
+            infoCache.put(id, info);
+            return info;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error depersisting tile layer information for " + id, e);
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private byte[] readPayload(Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+        readFully(channel, buffer, entry.offset);
+        return buffer.array();
+    }
+
+    /**
+     * Precondition check all public methods should make before proceeding to ensure they've been called on an
+     * initialized state
+     *
+     * @throws IllegalStateException if this layer catalog has not been initialized yet
+     */
+    private void checkInitialized() {
+        Preconditions.checkState(this.initialized, "IndexedTileLayerCatalog is not initialized");
+    }
+
+    @Override
+    public GeoServerTileLayerInfo getLayerByName(String layerName) {
+        checkInitialized();
+        String id = getLayerId(layerName);
+        if (id == null) {
+            return null;
+        }
+        return getLayerById(id);
+    }
+
+    @Override
+    public Set<String> getLayerIds() {
+        checkInitialized();
+        return ImmutableSet.copyOf(layersById.keySet());
+    }
+
+    @Override
+    public boolean exists(String layerId) {
+        checkInitialized();
+        return layersById.containsKey(layerId);
+    }
+
+    @Override
+    public Set<String> getLayerNames() {
+        checkInitialized();
+        return ImmutableSet.copyOf(layersByName.keySet());
+    }
+
+    @Override
+    public GeoServerTileLayerInfo delete(final String tileLayerId) {
+        checkInitialized();
+        GeoServerTileLayerInfoImpl currValue;
+        lock.writeLock().lock();
+        try {
+            currValue = loadInternal(tileLayerId);
+            if (currValue == null) {
+                return null;
+            }
+            appendDelete(tileLayerId);
+            infoCache.invalidate(tileLayerId);
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error deleting tile layer " + tileLayerId, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        listeners.forEach(l -> l.onEvent(tileLayerId, TileLayerCatalogListener.Type.DELETE));
+        return currValue;
+    }
+
+    /**
+     * Called both when a new tile layer is created or when an existing one is modified on this service instance
+     *
+     * @return the previous value, or {@code null} if the tile layer didn't previously exist on this tile layer catalog
+     */
+    @Override
+    public GeoServerTileLayerInfo save(final GeoServerTileLayerInfo newValue) {
+        checkInitialized();
+        final String tileLayerId = newValue.getId();
+        Preconditions.checkNotNull(tileLayerId);
+
+        GeoServerTileLayerInfoImpl oldValue;
+        lock.writeLock().lock();
+        try {
+            oldValue = loadInternal(tileLayerId);
+            if (oldValue == null) {
+                final String duplicateNameId = layersByName.get(newValue.getName());
+                if (null != duplicateNameId) {
+                    throw new IllegalArgumentException("TileLayer with same name already exists: "
+                            + newValue.getName()
+                            + ": <"
+                            + duplicateNameId
+                            + ">");
+                }
+            }
+            append(newValue);
+            infoCache.invalidate(tileLayerId);
+            compactIfNeeded();
+        } catch (Exception e) {
+            throwIfUnchecked(e);
+            throw new RuntimeException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        final TileLayerCatalogListener.Type eventType =
+                oldValue == null ? TileLayerCatalogListener.Type.CREATE : TileLayerCatalogListener.Type.MODIFY;
+        listeners.forEach(l -> l.onEvent(tileLayerId, eventType));
+        return oldValue;
+    }
+
+    /** Appends a put record for the given layer, callers must hold the write lock */
+    private void append(GeoServerTileLayerInfo info) throws IOException {
+        final byte[] payload = persist(info);
+        // sanity check
+        depersist(payload);
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(headerBytes)) {
+            out.writeByte(RECORD_PUT);
+            out.writeUTF(info.getId());
+            out.writeUTF(info.getName());
+            out.writeInt(payload.length);
+        }
+        final long offset = appendRecord(headerBytes.toByteArray(), payload);
+        final int headerLength = 4 + headerBytes.size();
+        indexPut(
+                info.getId(),
+                new Entry(info.getName(), offset + headerLength, payload.length, headerLength + payload.length));
+    }
+
+    /** Appends a delete record for the given layer, callers must hold the write lock */
+    private void appendDelete(String tileLayerId) throws IOException {
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(headerBytes)) {
+            out.writeByte(RECORD_DELETE);
+            out.writeUTF(tileLayerId);
+        }
+        appendRecord(headerBytes.toByteArray(), new byte[0]);
+        indexDelete(tileLayerId);
+        garbageBytes += 4 + headerBytes.size();
+    }
+
+    /** @return the offset the record has been written at */
+    private long appendRecord(byte[] header, byte[] payload) throws IOException {
+        final long offset = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + header.length + payload.length);
+        buffer.putInt(header.length).put(header).put(payload).flip();
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return offset;
+    }
+
+    /**
+     * Rewrites the store keeping only the live records, once the stale ones take more room than the live ones. The
+     * compacted copy is written to a temporary file and atomically moved over the store, which stays open and in use
+     * until the move succeeds: a failed compaction is logged and leaves the current store untouched. Callers must hold
+     * the write lock.
+     */
+    private void compactIfNeeded() {
+        if (garbageBytes < MIN_COMPACTION_GARBAGE || garbageBytes < liveBytes) {
+            return;
+        }
+        Stopwatch sw = Stopwatch.createStarted();
+        final File storeFile = getStoreFile();
+        final File tmpFile = new File(storeFile.getParentFile(), storeFile.getName() + ".tmp");
+        Map<String, Entry> compacted = new HashMap<>();
+        FileChannel target = null;
+        try {
+            target = FileChannel.open(
+                    tmpFile.toPath(),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            writeHeader(target);
+            long position = HEADER_LENGTH;
+            for (Map.Entry<String, Entry> e : layersById.entrySet()) {
+                Entry entry = e.getValue();
+                long recordStart = entry.offset + entry.length - entry.recordLength;
+                ByteBuffer record = ByteBuffer.allocate(entry.recordLength);
+                readFully(channel, record, recordStart);
+                record.flip();
+                long recordPosition = position;
+                while (record.hasRemaining()) {
+                    position += target.write(record, position);
+                }
+                long payloadOffset = recordPosition + entry.recordLength - entry.length;
+                compacted.put(e.getKey(), new Entry(entry.name, payloadOffset, entry.length, entry.recordLength));
+            }
+            target.force(true);
+            // the open channel keeps pointing at the compacted file once moved
+            Files.move(
+                    tmpFile.toPath(),
+                    storeFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to compact the tile layer catalog store, will retry on next update", e);
+            if (target != null) {
+                try {
+                    target.close();
+                } catch (IOException ce) {
+                    LOGGER.log(Level.FINE, "Error closing the compacted tile layer catalog store", ce);
+                }
+            }
+            tmpFile.delete();
+            return;
+        }
+        closeChannel();
+        channel = target;
+        layersById.putAll(compacted);
+        garbageBytes = 0;
+        LOGGER.fine("Compacted tile layer catalog store in " + sw.stop());
+    }
+
+    private byte[] persist(GeoServerTileLayerInfo info) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new DeflaterOutputStream(bytes), StandardCharsets.UTF_8)) {
+            serializer.toXML(info, writer);
+        }
+        return bytes.toByteArray();
+    }
+
+    private GeoServerTileLayerInfoImpl depersist(byte[] payload) throws IOException {
+        try (Reader reader = new InputStreamReader(
+                new InflaterInputStream(new ByteArrayInputStream(payload)), StandardCharsets.UTF_8)) {
+            return (GeoServerTileLayerInfoImpl) serializer.fromXML(reader);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        if (!tryReadFully(channel, buffer, position)) {
+            throw new EOFException("Unexpected end of tile layer catalog store at offset " + position);
+        }
+    }
+
+    private static boolean tryReadFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                return false;
+            }
+            current += read;
+        }
+        return true;
+    }
+
+    @Override
+    public String getLayerId(String layerName) {
+        checkInitialized();
+        final WorkspaceInfo ws = LocalWorkspace.get();
+        if (ws != null && !layerName.startsWith(ws.getName() + ":")) {
+            layerName = ws.getName() + ":" + layerName;
+        }
+        return layersByName.get(layerName);
+    }
+
+    @Override
+    public String getLayerName(String layerId) {
+        checkInitialized();
+        Entry entry = layersById.get(layerId);
+        return entry == null ? null : entry.name;
+    }
+
+    @Override
+    public String getPersistenceLocation() {
+        return resourceLoader.get(LAYERINFO_DIRECTORY).get(STORE_FILE_NAME).path();
+    }
+
+    @Override
+    public void addListener(TileLayerCatalogListener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,44 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.layer;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geotools.util.logging.Logging;
+import org.geowebcache.config.XMLConfiguration;
+
+/**
+ * Creates the {@link TileLayerCatalog} used by GeoServer, based on the {@link #CATALOG_TYPE_PROPERTY} property:
+ *
+ * <ul>
+ *   <li>{@code xml} (default): {@link DefaultTileLayerCatalog}, one XML file per tile layer
+ *   <li>{@code indexed}: {@link IndexedTileLayerCatalog}, a single file store with lazy loading
+ * </ul>
+ */
+public class TileLayerCatalogFactory {
+
+    private static final Logger LOGGER = Logging.getLogger(TileLayerCatalogFactory.class);
+
+    /** Name of the system/environment/context property used to pick the tile layer catalog implementation */
+    public static final String CATALOG_TYPE_PROPERTY = "GWC_TILE_LAYER_CATALOG";
+
+    private TileLayerCatalogFactory() {}
+
+    public static TileLayerCatalog create(GeoServerResourceLoader resourceLoader, XMLConfiguration xmlPersisterFactory)
+            throws IOException {
+        String type = GeoServerExtensions.getProperty(CATALOG_TYPE_PROPERTY);
+        if ("indexed".equalsIgnoreCase(type)) {
+            LOGGER.config("Using the indexed tile layer catalog");
+            return new IndexedTileLayerCatalog(resourceLoader, xmlPersisterFactory);
+        }
+        if (type != null && !"xml".equalsIgnoreCase(type)) {
+            LOGGER.warning(
+                    "Unknown " + CATALOG_TYPE_PROPERTY + " value '" + type + "', using the XML tile layer catalog");
+        }
+        return new DefaultTileLayerCatalog(resourceLoader, xmlPersisterFactory);
+    }
+}
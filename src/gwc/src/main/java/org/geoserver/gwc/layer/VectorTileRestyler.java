@@ -0,0 +1,301 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.layer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import no.ecc.vectortile.VectorTileDecoder;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.wms.GetMapCallbackAdapter;
+import org.geoserver.wms.WMSMapContent;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.Layer;
+import org.geotools.util.Converters;
+import org.geotools.util.logging.Logging;
+import org.geowebcache.GeoWebCacheException;
+import org.geowebcache.conveyor.ConveyorTile;
+import org.geowebcache.grid.BoundingBox;
+import org.geowebcache.grid.GridSubset;
+import org.geowebcache.io.Resource;
+import org.geowebcache.layer.MetaTile;
+import org.geowebcache.mime.ApplicationMime;
+import org.geowebcache.mime.MimeType;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.AffineTransformation;
+import org.locationtech.jts.index.quadtree.Quadtree;
+
+/**
+ * Renders raster tiles of a {@link GeoServerTileLayer} out of its cached vector tiles, when
+ * {@link GeoServerTileLayerInfo#isVectorTileRestyling() vector tile restyling} is enabled.
+ *
+ * <p>Before dispatching the GetMap request for a raster meta-tile, {@link GeoServerTileLayer} calls
+ * {@link #collectVectorTiles} to fetch (and, if needed, seed) the Mapbox vector tiles covering the meta-tile, using the
+ * same parameters minus the style. Those are parked in a thread local, and once the GetMap request reaches the map
+ * content set up, this callback replaces the layer feature source with the features decoded from the vector tiles, so
+ * that any style can be rendered without hitting the data source.
+ *
+ * <p>The vector tiles are built with the default style of the layer, which hence needs to include all the features and
+ * attributes used by the other cached styles. Features crossing tile boundaries are merged back by feature id, or, for
+ * features without an id, by attributes and geometry, as their pieces overlap in the tile buffers. When the meta-tile
+ * has a gutter, the neighbouring tiles covering it are fetched as well.
+ */
+public class VectorTileRestyler extends GetMapCallbackAdapter {
+
+    static final Logger LOGGER = Logging.getLogger(VectorTileRestyler.class);
+
+    /** The vector tiles to be used in place of the layer data source by the GetMap running on the current thread */
+    static final ThreadLocal<SourceTiles> SOURCE_TILES = new ThreadLocal<>();
+
+    /** A set of decoded vector tiles covering a meta-tile, for a given layer */
+    static class SourceTiles {
+        final String layerName;
+
+        final List<BoundingBox> bounds = new ArrayList<>();
+
+        final List<byte[]> contents = new ArrayList<>();
+
+        SourceTiles(String layerName) {
+            this.layerName = layerName;
+        }
+
+        void add(BoundingBox tileBounds, byte[] tileContents) {
+            bounds.add(tileBounds);
+            contents.add(tileContents);
+        }
+    }
+
+    /**
+     * Checks whether the given tile should be rendered out of cached vector tiles, that is, if restyling is enabled,
+     * the requested format is not a vector one, the layer is a vector layer and it caches Mapbox vector tiles
+     */
+    static boolean isRestylingApplicable(GeoServerTileLayer layer, MimeType requested) {
+        if (!layer.getInfo().isVectorTileRestyling() || requested.isVector()) {
+            return false;
+        }
+        PublishedInfo published = layer.getPublishedInfo();
+        if (!(published instanceof LayerInfo li) || !(li.getResource() instanceof FeatureTypeInfo)) {
+            return false;
+        }
+        return layer.getMimeTypes().contains(ApplicationMime.mapboxVector);
+    }
+
+    /**
+     * Fetches the vector tiles covering the meta-tile, seeding the missing ones
+     *
+     * @return the tiles to be used as data source for the meta-tile rendering
+     */
+    static SourceTiles collectVectorTiles(GeoServerTileLayer layer, ConveyorTile tile, MetaTile metaTile)
+            throws GeoWebCacheException, IOException {
+        GridSubset gridSubset = layer.getGridSubset(tile.getGridSetId());
+
+        // the vector tiles are cached once for all styles
+        Map<String, String> parameters = new HashMap<>(tile.getFilteringParameters());
+        parameters.remove("STYLES");
+
+        // the gutter extends the rendering area into the neighbouring tiles
+        int gutter = layer.getInfo().getGutter();
+        int tileSize = Math.min(gridSubset.getTileWidth(), gridSubset.getTileHeight());
+        int rings = gutter > 0 ? (gutter + tileSize - 1) / tileSize : 0;
+
+        SourceTiles result = new SourceTiles(layer.getName());
+        for (long[] index : getSourcePositions(metaTile.getTilesGridPositions(), rings)) {
+            if (!gridSubset.covers(index)) {
+                continue;
+            }
+            ConveyorTile vectorTile = new ConveyorTile(
+                    tile.getStorageBroker(),
+                    layer.getName(),
+                    tile.getGridSetId(),
+                    index,
+                    ApplicationMime.mapboxVector,
+                    parameters,
+                    null,
+                    null);
+            vectorTile = layer.getTile(vectorTile);
+            Resource blob = vectorTile.getBlob();
+            if (blob == null) {
+                continue;
+            }
+            try (InputStream is = blob.getInputStream()) {
+                result.add(gridSubset.boundsFromIndex(index), is.readAllBytes());
+            }
+        }
+        return result;
+    }
+
+    /** Returns the positions of the meta-tile tiles, extended by the given number of rings of neighbouring tiles */
+    static List<long[]> getSourcePositions(long[][] metaTilePositions, int rings) {
+        List<long[]> result = new ArrayList<>();
+        if (metaTilePositions.length == 0) {
+            return result;
+        }
+        long minX = Long.MAX_VALUE;
+        long minY = Long.MAX_VALUE;
+        long maxX = Long.MIN_VALUE;
+        long maxY = Long.MIN_VALUE;
+        for (long[] position : metaTilePositions) {
+            minX = Math.min(minX, position[0]);
+            minY = Math.min(minY, position[1]);
+            maxX = Math.max(maxX, position[0]);
+            maxY = Math.max(maxY, position[1]);
+        }
+        long z = metaTilePositions[0][2];
+        for (long y = minY - rings; y <= maxY + rings; y++) {
+            for (long x = minX - rings; x <= maxX + rings; x++) {
+                if (x >= 0 && y >= 0) {
+                    result.add(new long[] {x, y, z});
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Layer beforeLayer(WMSMapContent mapContent, Layer layer) {
+        SourceTiles tiles = SOURCE_TILES.get();
+        if (tiles == null
+                || !(layer instanceof FeatureLayer featureLayer)
+                || !tiles.layerName.equals(layer.getTitle())) {
+            return layer;
+        }
+        try {
+            SimpleFeatureType schema = (SimpleFeatureType) featureLayer.getFeatureSource().getSchema();
+            CoordinateReferenceSystem crs = mapContent.getCoordinateReferenceSystem();
+            SimpleFeatureSource source = DataUtilities.source(decode(tiles, schema, crs));
+
+            FeatureLayer restyled = new FeatureLayer(source, featureLayer.getStyle(), featureLayer.getTitle());
+            restyled.setQuery(featureLayer.getQuery());
+            restyled.getUserData().putAll(featureLayer.getUserData());
+            return restyled;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to decode cached vector tiles, falling back on the layer data source", e);
+            return layer;
+        }
+    }
+
+    /** Decodes the vector tiles into features of the given schema, merging back features split across tiles */
+    static ListFeatureCollection decode(SourceTiles tiles, SimpleFeatureType schema, CoordinateReferenceSystem crs)
+            throws IOException {
+        SimpleFeatureType targetSchema = crs == null ? schema : SimpleFeatureTypeBuilder.retype(schema, crs);
+        String geometryName = targetSchema.getGeometryDescriptor().getLocalName();
+
+        Map<String, List<VectorTileDecoder.Feature>> featuresById = new LinkedHashMap<>();
+        Map<String, List<Geometry>> geometriesById = new HashMap<>();
+        VectorTileDecoder decoder = new VectorTileDecoder();
+        decoder.setAutoScale(false);
+        AnonymousFeatures anonymous = new AnonymousFeatures();
+        for (int i = 0; i < tiles.contents.size(); i++) {
+            BoundingBox bounds = tiles.bounds.get(i);
+            for (VectorTileDecoder.Feature feature : decoder.decode(tiles.contents.get(i))) {
+                Geometry geometry = toWorld(feature.getGeometry(), feature.getExtent(), bounds);
+                // features without id can only be matched by attributes and position, within a pixel
+                double pixel = Math.max(bounds.getWidth(), bounds.getHeight()) / feature.getExtent();
+                String id = feature.getId() >= 0
+                        ? String.valueOf(feature.getId())
+                        : anonymous.getId(i, feature.getAttributes(), geometry, pixel);
+                featuresById.computeIfAbsent(id, k -> new ArrayList<>()).add(feature);
+                geometriesById.computeIfAbsent(id, k -> new ArrayList<>()).add(geometry);
+            }
+        }
+
+        ListFeatureCollection result = new ListFeatureCollection(targetSchema);
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(targetSchema);
+        for (Map.Entry<String, List<VectorTileDecoder.Feature>> entry : featuresById.entrySet()) {
+            String id = entry.getKey();
+            Map<String, Object> attributes = entry.getValue().get(0).getAttributes();
+            for (AttributeDescriptor ad : targetSchema.getAttributeDescriptors()) {
+                String name = ad.getLocalName();
+                if (name.equals(geometryName)) {
+                    fb.set(name, merge(geometriesById.get(id)));
+                } else {
+                    fb.set(name, Converters.convert(attributes.get(name), ad.getType().getBinding()));
+                }
+            }
+            SimpleFeature feature = fb.buildFeature(targetSchema.getTypeName() + "." + id);
+            result.add(feature);
+        }
+        return result;
+    }
+
+    /** Maps a geometry from the vector tile coordinate space to the tile bounds */
+    private static Geometry toWorld(Geometry geometry, int extent, BoundingBox bounds) {
+        double scaleX = bounds.getWidth() / extent;
+        double scaleY = bounds.getHeight() / extent;
+        // tile coordinates have the origin in the upper left corner, with the y axis pointing down
+        AffineTransformation at = new AffineTransformation(
+                scaleX, 0, bounds.getMinX(), //
+                0, -scaleY, bounds.getMaxY());
+        return at.transform(geometry);
+    }
+
+    private static Geometry merge(List<Geometry> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        GeometryFactory factory = parts.get(0).getFactory();
+        // the pieces overlap in the tile buffers, union them back to avoid seams and painting the overlaps twice
+        return factory.buildGeometry(parts).union();
+    }
+
+    /**
+     * Matches the pieces of the features without id found in different tiles. The pieces of a feature crossing tile
+     * boundaries have the same attributes, and overlap in the tile buffers, while the features found in the same tile
+     * are always distinct.
+     */
+    private static class AnonymousFeatures {
+
+        private record Group(String id, Map<String, Object> attributes, Set<Integer> tiles) {}
+
+        private record Piece(Group group, Geometry geometry) {}
+
+        private final Quadtree index = new Quadtree();
+
+        private int count;
+
+        /** Returns the id of the feature the piece belongs to, matching the pieces found in the other tiles */
+        String getId(int tile, Map<String, Object> attributes, Geometry geometry, double tolerance) {
+            Envelope envelope = new Envelope(geometry.getEnvelopeInternal());
+            envelope.expandBy(tolerance);
+            Group group = null;
+            for (Object candidate : index.query(envelope)) {
+                Piece piece = (Piece) candidate;
+                if (!piece.group().tiles().contains(tile)
+                        && piece.group().attributes().equals(attributes)
+                        && piece.geometry().isWithinDistance(geometry, tolerance)) {
+                    group = piece.group();
+                    break;
+                }
+            }
+            if (group == null) {
+                group = new Group("anonymous." + count++, attributes, new HashSet<>());
+            }
+            group.tiles().add(tile);
+            index.insert(geometry.getEnvelopeInternal(), new Piece(group, geometry));
+            return group.id();
+        }
+    }
+}
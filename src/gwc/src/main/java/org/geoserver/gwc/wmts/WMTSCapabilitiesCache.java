@@ -0,0 +1,280 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.wmts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.config.ConfigurationListenerAdapter;
+import org.geoserver.config.GeoServer;
+import org.geoserver.config.GeoServerInfo;
+import org.geoserver.config.ServiceInfo;
+import org.geoserver.config.SettingsInfo;
+import org.geoserver.gwc.layer.TileLayerCatalog;
+import org.geotools.util.logging.Logging;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Keeps the WMTS capabilities documents produced by GWC, gzipped, so that clients repeatedly asking for the
+ * capabilities of services with thousands of tile layers do not cause the whole document to be rebuilt every time.
+ *
+ * <p>Documents are cached per workspace/layer virtual service, base URL, request parameters and user (as the security
+ * subsystem filters the layers each user can see). The whole cache is dropped on any change to the GeoServer catalog,
+ * configuration, tile layers or gridsets, and entries also expire after a configurable time as a safety net for
+ * changes that are not notified through any of those channels, like gridsets edited through the GWC REST API.
+ *
+ * <p>Invalidations bump a generation counter, documents built before an invalidation are not stored, as they might
+ * have been built out of the old configuration.
+ *
+ * <p>The cache size and time to live can be tuned with the {@link #MAX_ENTRIES_PROPERTY} and {@link #TTL_PROPERTY}
+ * system properties; setting the size to zero disables caching altogether.
+ */
+public class WMTSCapabilitiesCache {
+
+    private static final Logger LOGGER = Logging.getLogger(WMTSCapabilitiesCache.class);
+
+    /** Maximum number of capabilities documents kept in memory, defaults to 100 */
+    public static final String MAX_ENTRIES_PROPERTY = "GWC_WMTS_CAPABILITIES_CACHE_SIZE";
+
+    /** Time to live of the cached capabilities documents, in seconds, defaults to 600 */
+    public static final String TTL_PROPERTY = "GWC_WMTS_CAPABILITIES_CACHE_TTL";
+
+    /** Identifies a capabilities document */
+    public static final class Key {
+        final String workspace;
+
+        final String published;
+
+        final String baseURL;
+
+        final String parameters;
+
+        final String user;
+
+        Key(String workspace, String published, String baseURL, String parameters, String user) {
+            this.workspace = workspace;
+            this.published = published;
+            this.baseURL = baseURL;
+            this.parameters = parameters;
+            this.user = user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(workspace, key.workspace)
+                    && Objects.equals(published, key.published)
+                    && Objects.equals(baseURL, key.baseURL)
+                    && Objects.equals(parameters, key.parameters)
+                    && Objects.equals(user, key.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(workspace, published, baseURL, parameters, user);
+        }
+    }
+
+    /** A gzipped capabilities document, along with the response metadata produced by GWC */
+    public static final class CachedDocument {
+        private final String contentType;
+
+        private final Map<String, String> headers;
+
+        private final byte[] gzippedContents;
+
+        CachedDocument(String contentType, Map<String, String> headers, byte[] gzippedContents) {
+            this.contentType = contentType;
+            this.headers = headers;
+            this.gzippedContents = gzippedContents;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        /** Streams the uncompressed document to the given output */
+        public void writeTo(OutputStream output) throws IOException {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzippedContents))) {
+                in.transferTo(output);
+            }
+        }
+
+        /** Writes the document as stored, gzipped, to the given output */
+        public void writeGzippedTo(OutputStream output) throws IOException {
+            output.write(gzippedContents);
+        }
+    }
+
+    private final Cache<Key, CachedDocument> documents;
+
+    private final boolean enabled;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public WMTSCapabilitiesCache(GeoServer geoServer, TileLayerCatalog tileLayerCatalog) {
+        long maxEntries = Long.getLong(MAX_ENTRIES_PROPERTY, 100);
+        long ttl = Long.getLong(TTL_PROPERTY, 600);
+        this.enabled = maxEntries > 0;
+        this.documents = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maxEntries, 0))
+                .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                .build();
+
+        geoServer.getCatalog().addListener(new CatalogInvalidator());
+        geoServer.addListener(new ConfigurationInvalidator());
+        tileLayerCatalog.addListener((layerId, type) -> invalidateAll());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Builds the cache key for the current request and user */
+    public static Key key(String workspace, String published, String baseURL, Map<String, String[]> parameters) {
+        // normalize the parameters, names are case insensitive in OGC KVP requests
+        Map<String, String> normalized = new TreeMap<>();
+        parameters.forEach((k, v) -> normalized.put(k.toUpperCase(), String.join(",", Arrays.asList(v))));
+        String params = normalized.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining("&"));
+        return new Key(workspace, published, baseURL, params, currentUser());
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return null;
+        }
+        List<String> roles = auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.toList());
+        return auth.getName() + roles;
+    }
+
+    public CachedDocument get(Key key) {
+        return enabled ? documents.getIfPresent(key) : null;
+    }
+
+    /**
+     * Returns the current generation, to be read before building a document and then passed to
+     * {@link #put(Key, long, String, Map, byte[])}
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Compresses and caches the given capabilities document, unless the cache has been invalidated since the given
+     * generation
+     */
+    public CachedDocument put(
+            Key key, long generation, String contentType, Map<String, String> headers, byte[] contents) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(512, contents.length / 10));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(contents);
+        } catch (IOException e) {
+            // cannot really happen writing in memory
+            LOGGER.log(Level.WARNING, "Failed to compress the WMTS capabilities document", e);
+            return null;
+        }
+        CachedDocument document = new CachedDocument(contentType, headers, bytes.toByteArray());
+        if (enabled && generation == this.generation.get()) {
+            documents.put(key, document);
+            // an invalidation might have slipped in between the check and the put
+            if (generation != this.generation.get()) {
+                documents.invalidate(key);
+            }
+        }
+        return document;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        documents.invalidateAll();
+    }
+
+    private class CatalogInvalidator implements CatalogListener {
+
+        @Override
+        public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+            invalidateAll();
+        }
+
+        @Override
+        public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+            invalidateAll();
+        }
+
+        @Override
+        public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+            // wait for the post modify event
+        }
+
+        @Override
+        public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+            invalidateAll();
+        }
+
+        @Override
+        public void reloaded() {
+            invalidateAll();
+        }
+    }
+
+    private class ConfigurationInvalidator extends ConfigurationListenerAdapter {
+
+        @Override
+        public void handlePostGlobalChange(GeoServerInfo global) {
+            invalidateAll();
+        }
+
+        @Override
+        public void handleSettingsPostModified(SettingsInfo settings) {
+            invalidateAll();
+        }
+
+        @Override
+        public void handlePostServiceChange(ServiceInfo service) {
+            invalidateAll();
+        }
+
+        @Override
+        public void reloaded() {
+            invalidateAll();
+        }
+    }
+}
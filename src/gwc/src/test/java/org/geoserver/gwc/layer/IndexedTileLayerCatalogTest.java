@@ -0,0 +1,205 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.layer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import com.thoughtworks.xstream.XStream;
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.geoserver.catalog.impl.ModificationProxy;
+import org.geoserver.config.util.SecureXStream;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geowebcache.config.ContextualConfigurationProvider.Context;
+import org.geowebcache.config.XMLConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexedTileLayerCatalogTest {
+
+    public @Rule TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File baseDirectory;
+
+    private GeoServerResourceLoader resourceLoader;
+
+    private IndexedTileLayerCatalog catalog;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDirectory = tmpFolder.getRoot();
+        resourceLoader = new GeoServerResourceLoader(baseDirectory);
+        new File(baseDirectory, "gwc-layers").mkdir();
+
+        catalog = newCatalog();
+        catalog.initialize();
+    }
+
+    private IndexedTileLayerCatalog newCatalog() {
+        XStream xStream = XMLConfiguration.getConfiguredXStreamWithContext(new SecureXStream(), null, Context.PERSIST);
+        return new IndexedTileLayerCatalog(resourceLoader, xStream);
+    }
+
+    private GeoServerTileLayerInfo newInfo(String id, String name) {
+        GeoServerTileLayerInfo info = new GeoServerTileLayerInfoImpl();
+        info.setId(id);
+        info.setName(name);
+        info.getMimeFormats().add("image/png");
+        return info;
+    }
+
+    @Test
+    public void testGetLayerByIdAndName() {
+        GeoServerTileLayerInfo info = newInfo("id1", "name1");
+        assertNull(catalog.save(info));
+
+        assertEquals(info, ModificationProxy.unwrap(catalog.getLayerById("id1")));
+        assertEquals(info, ModificationProxy.unwrap(catalog.getLayerByName("name1")));
+        assertEquals("name1", catalog.getLayerName("id1"));
+        assertEquals("id1", catalog.getLayerId("name1"));
+        assertEquals(ImmutableSet.of("id1"), catalog.getLayerIds());
+        assertEquals(ImmutableSet.of("name1"), catalog.getLayerNames());
+    }
+
+    @Test
+    public void testUnknownLayer() {
+        assertNull(catalog.getLayerById("unknown"));
+        assertNull(catalog.getLayerName("unknown"));
+        assertNull(catalog.getLayerId("unknown"));
+    }
+
+    @Test
+    public void testSaveRename() {
+        catalog.save(newInfo("id1", "name1"));
+
+        GeoServerTileLayerInfo modified = catalog.getLayerById("id1");
+        modified.setName("name2");
+        modified.getMimeFormats().clear();
+        modified.getMimeFormats().add("image/gif");
+
+        GeoServerTileLayerInfo oldValue = catalog.save(modified);
+        assertEquals("name1", oldValue.getName());
+        assertNull(catalog.getLayerByName("name1"));
+        assertEquals(ImmutableSet.of("image/gif"), catalog.getLayerByName("name2").getMimeFormats());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSaveDuplicateName() {
+        catalog.save(newInfo("id1", "name1"));
+        catalog.save(newInfo("id2", "name1"));
+    }
+
+    @Test
+    public void testDelete() {
+        GeoServerTileLayerInfo info = newInfo("id1", "name1");
+        catalog.save(info);
+
+        assertEquals(info, ModificationProxy.unwrap(catalog.delete("id1")));
+        assertNull(catalog.getLayerById("id1"));
+        assertNull(catalog.getLayerByName("name1"));
+        assertFalse(catalog.exists("id1"));
+        assertNull(catalog.delete("id1"));
+    }
+
+    @Test
+    public void testReopen() {
+        catalog.save(newInfo("id1", "name1"));
+        catalog.save(newInfo("id2", "name2"));
+        GeoServerTileLayerInfo renamed = catalog.getLayerById("id2");
+        renamed.setName("name3");
+        catalog.save(renamed);
+        catalog.delete("id1");
+        catalog.reset();
+
+        IndexedTileLayerCatalog reopened = newCatalog();
+        reopened.initialize();
+        assertEquals(ImmutableSet.of("id2"), reopened.getLayerIds());
+        assertEquals(ImmutableSet.of("name3"), reopened.getLayerNames());
+        assertEquals("name3", reopened.getLayerById("id2").getName());
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        // enough updates to go over the compaction threshold
+        GeoServerTileLayerInfo info = newInfo("id1", "name1");
+        for (int i = 0; i < 200; i++) {
+            info.getMimeFormats().add("image/fake" + i);
+        }
+        File store = new File(baseDirectory, "gwc-layers/" + IndexedTileLayerCatalog.STORE_FILE_NAME);
+        long maxSize = 0;
+        for (int i = 0; i < 2000; i++) {
+            info.setName("name" + i);
+            catalog.save(info);
+            maxSize = Math.max(maxSize, store.length());
+        }
+        assertTrue(store.length() < maxSize);
+        assertEquals("name1999", catalog.getLayerById("id1").getName());
+
+        catalog.reset();
+        IndexedTileLayerCatalog reopened = newCatalog();
+        reopened.initialize();
+        assertEquals("name1999", reopened.getLayerById("id1").getName());
+    }
+
+    @Test
+    public void testImportXmlLayers() throws Exception {
+        catalog.reset();
+        new File(baseDirectory, "gwc-layers/" + IndexedTileLayerCatalog.STORE_FILE_NAME).delete();
+
+        XStream xStream = XMLConfiguration.getConfiguredXStreamWithContext(new SecureXStream(), null, Context.PERSIST);
+        GeoServerTileLayerInfo info = newInfo("id1", "name1");
+        try (Writer writer = Files.newBufferedWriter(
+                new File(baseDirectory, "gwc-layers/id1.xml").toPath(), StandardCharsets.UTF_8)) {
+            xStream.toXML(info, writer);
+        }
+
+        IndexedTileLayerCatalog imported = newCatalog();
+        imported.initialize();
+        GeoServerTileLayerInfo actual = imported.getLayerByName("name1");
+        assertNotNull(actual);
+        assertEquals(info, ModificationProxy.unwrap(actual));
+
+        // the imported file has been moved out of the way
+        assertFalse(new File(baseDirectory, "gwc-layers/id1.xml").exists());
+        assertTrue(new File(baseDirectory, "gwc-layers/id1.xml" + IndexedTileLayerCatalog.MIGRATED_EXTENSION).exists());
+    }
+
+    @Test
+    public void testFailedCompaction() throws Exception {
+        GeoServerTileLayerInfo info = newInfo("id1", "name1");
+        for (int i = 0; i < 200; i++) {
+            info.getMimeFormats().add("image/fake" + i);
+        }
+        // a directory in place of the temporary file makes the compaction fail
+        File tmp = new File(baseDirectory, "gwc-layers/" + IndexedTileLayerCatalog.STORE_FILE_NAME + ".tmp");
+        assertTrue(tmp.mkdir());
+        for (int i = 0; i < 2000; i++) {
+            info.setName("name" + i);
+            catalog.save(info);
+        }
+        assertEquals("name1999", catalog.getLayerById("id1").getName());
+
+        // once the obstacle is gone, the store compacts and stays usable
+        assertTrue(tmp.delete());
+        for (int i = 0; i < 2000; i++) {
+            info.setName("other" + i);
+            catalog.save(info);
+        }
+        assertEquals("other1999", catalog.getLayerById("id1").getName());
+        catalog.reset();
+        IndexedTileLayerCatalog reopened = newCatalog();
+        reopened.initialize();
+        assertEquals("other1999", reopened.getLayerById("id1").getName());
+    }
+}
@@ -0,0 +1,148 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.layer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import no.ecc.vectortile.VectorTileEncoder;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geowebcache.grid.BoundingBox;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.WKTReader;
+
+public class VectorTileRestylerTest {
+
+    @Test
+    public void testDecodeMergesSplitFeatures() throws Exception {
+        WKTReader reader = new WKTReader();
+        // a polygon covering x 5..15 and y 2..8 in world coordinates, split across two tiles
+        VectorTileEncoder left = new VectorTileEncoder(256, 8, false);
+        left.addFeature(
+                "layer",
+                Map.of("name", "poly", "value", 10),
+                reader.read("POLYGON((128 51, 384 51, 384 205, 128 205, 128 51))"),
+                1);
+        left.addFeature("layer", Map.of("name", "point", "value", 20), reader.read("POINT(64 64)"), 2);
+        VectorTileEncoder right = new VectorTileEncoder(256, 8, false);
+        right.addFeature(
+                "layer",
+                Map.of("name", "poly", "value", 10),
+                reader.read("POLYGON((-128 51, 128 51, 128 205, -128 205, -128 51))"),
+                1);
+
+        VectorTileRestyler.SourceTiles tiles = new VectorTileRestyler.SourceTiles("ws:layer");
+        tiles.add(new BoundingBox(0, 0, 10, 10), left.encode());
+        tiles.add(new BoundingBox(10, 0, 20, 10), right.encode());
+
+        SimpleFeatureType schema = DataUtilities.createType("layer", "geom:Geometry,name:String,value:Integer");
+        ListFeatureCollection features = VectorTileRestyler.decode(tiles, schema, DefaultGeographicCRS.WGS84);
+        assertEquals(2, features.size());
+        assertEquals(
+                DefaultGeographicCRS.WGS84,
+                features.getSchema().getGeometryDescriptor().getCoordinateReferenceSystem());
+
+        try (SimpleFeatureIterator it = features.features()) {
+            SimpleFeature polygon = it.next();
+            assertEquals("poly", polygon.getAttribute("name"));
+            assertEquals(Integer.valueOf(10), polygon.getAttribute("value"));
+            Geometry geometry = (Geometry) polygon.getDefaultGeometry();
+            assertTrue(geometry instanceof Polygon);
+            Envelope envelope = geometry.getEnvelopeInternal();
+            assertEquals(5, envelope.getMinX(), 0.1);
+            assertEquals(15, envelope.getMaxX(), 0.1);
+            assertEquals(2, envelope.getMinY(), 0.1);
+            assertEquals(8, envelope.getMaxY(), 0.1);
+
+            SimpleFeature point = it.next();
+            assertEquals("point", point.getAttribute("name"));
+            Geometry pointGeometry = (Geometry) point.getDefaultGeometry();
+            assertEquals(2.5, pointGeometry.getCoordinate().x, 0.1);
+            assertEquals(7.5, pointGeometry.getCoordinate().y, 0.1);
+        }
+    }
+
+    @Test
+    public void testDecodeFeaturesWithoutId() throws Exception {
+        WKTReader reader = new WKTReader();
+        // same as above, but without ids, along with a point on the tile boundary, found in the buffers of both tiles,
+        // and two points with the same attributes, one per tile
+        VectorTileEncoder left = new VectorTileEncoder(256, 8, false);
+        left.addFeature(
+                "layer",
+                Map.of("name", "poly", "value", 10),
+                reader.read("POLYGON((128 51, 384 51, 384 205, 128 205, 128 51))"));
+        left.addFeature("layer", Map.of("name", "point", "value", 20), reader.read("POINT(64 64)"));
+        left.addFeature("layer", Map.of("name", "edge", "value", 30), reader.read("POINT(260 128)"));
+        VectorTileEncoder right = new VectorTileEncoder(256, 8, false);
+        right.addFeature(
+                "layer",
+                Map.of("name", "poly", "value", 10),
+                reader.read("POLYGON((-128 51, 128 51, 128 205, -128 205, -128 51))"));
+        right.addFeature("layer", Map.of("name", "edge", "value", 30), reader.read("POINT(4 128)"));
+        right.addFeature("layer", Map.of("name", "point", "value", 20), reader.read("POINT(64 64)"));
+
+        VectorTileRestyler.SourceTiles tiles = new VectorTileRestyler.SourceTiles("ws:layer");
+        tiles.add(new BoundingBox(0, 0, 10, 10), left.encode());
+        tiles.add(new BoundingBox(10, 0, 20, 10), right.encode());
+
+        SimpleFeatureType schema = DataUtilities.createType("layer", "geom:Geometry,name:String,value:Integer");
+        ListFeatureCollection features = VectorTileRestyler.decode(tiles, schema, DefaultGeographicCRS.WGS84);
+        assertEquals(4, features.size());
+
+        try (SimpleFeatureIterator it = features.features()) {
+            // the polygon pieces are merged back
+            SimpleFeature polygon = it.next();
+            assertEquals("poly", polygon.getAttribute("name"));
+            Envelope envelope = ((Geometry) polygon.getDefaultGeometry()).getEnvelopeInternal();
+            assertEquals(5, envelope.getMinX(), 0.1);
+            assertEquals(15, envelope.getMaxX(), 0.1);
+
+            SimpleFeature point = it.next();
+            assertEquals("point", point.getAttribute("name"));
+            assertEquals(2.5, ((Geometry) point.getDefaultGeometry()).getCoordinate().x, 0.1);
+
+            // the point in both tiles is returned once, and painted once
+            SimpleFeature edge = it.next();
+            assertEquals("edge", edge.getAttribute("name"));
+            Geometry edgeGeometry = (Geometry) edge.getDefaultGeometry();
+            assertEquals(1, edgeGeometry.getNumPoints());
+            assertEquals(10.16, edgeGeometry.getCoordinate().x, 0.1);
+
+            // same attributes, but far away, a different feature
+            point = it.next();
+            assertEquals("point", point.getAttribute("name"));
+            assertEquals(12.5, ((Geometry) point.getDefaultGeometry()).getCoordinate().x, 0.1);
+        }
+    }
+
+    @Test
+    public void testSourcePositions() {
+        long[][] metaTile = {{2, 4, 5}, {3, 4, 5}, {2, 5, 5}, {3, 5, 5}};
+        List<long[]> positions = VectorTileRestyler.getSourcePositions(metaTile, 0);
+        assertEquals(4, positions.size());
+
+        // a ring of neighbours around the meta-tile
+        positions = VectorTileRestyler.getSourcePositions(metaTile, 1);
+        assertEquals(16, positions.size());
+        assertArrayEquals(new long[] {1, 3, 5}, positions.get(0));
+        assertArrayEquals(new long[] {4, 6, 5}, positions.get(15));
+
+        // no negative positions
+        positions = VectorTileRestyler.getSourcePositions(new long[][] {{0, 0, 3}}, 1);
+        assertEquals(4, positions.size());
+    }
+}
@@ -0,0 +1,132 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.wmts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.config.GeoServer;
+import org.geoserver.gwc.layer.TileLayerCatalog;
+import org.geoserver.gwc.layer.TileLayerCatalogListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class WMTSCapabilitiesCacheTest {
+
+    private static final String CAPABILITIES = "<Capabilities>" + "<Layer/>".repeat(1000) + "</Capabilities>";
+
+    private WMTSCapabilitiesCache cache;
+
+    private CatalogListener catalogListener;
+
+    private TileLayerCatalogListener tileLayerListener;
+
+    @Before
+    public void setUp() {
+        GeoServer geoServer = mock(GeoServer.class);
+        Catalog catalog = mock(Catalog.class);
+        when(geoServer.getCatalog()).thenReturn(catalog);
+        TileLayerCatalog tileLayerCatalog = mock(TileLayerCatalog.class);
+
+        cache = new WMTSCapabilitiesCache(geoServer, tileLayerCatalog);
+
+        ArgumentCaptor<CatalogListener> catalogCaptor = ArgumentCaptor.forClass(CatalogListener.class);
+        verify(catalog).addListener(catalogCaptor.capture());
+        catalogListener = catalogCaptor.getValue();
+        ArgumentCaptor<TileLayerCatalogListener> tileCaptor = ArgumentCaptor.forClass(TileLayerCatalogListener.class);
+        verify(tileLayerCatalog).addListener(tileCaptor.capture());
+        tileLayerListener = tileCaptor.getValue();
+        verify(geoServer).addListener(any());
+    }
+
+    private WMTSCapabilitiesCache.Key key(String workspace, String... kvp) {
+        Map<String, String[]> params = new HashMap<>();
+        for (int i = 0; i < kvp.length; i += 2) {
+            params.put(kvp[i], new String[] {kvp[i + 1]});
+        }
+        return WMTSCapabilitiesCache.key(workspace, null, "http://localhost/geoserver/gwc/service/wmts", params);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        WMTSCapabilitiesCache.Key key = key(null, "request", "GetCapabilities");
+        assertNull(cache.get(key));
+        byte[] contents = CAPABILITIES.getBytes(StandardCharsets.UTF_8);
+        cache.put(key, cache.getGeneration(), "text/xml", Collections.emptyMap(), contents);
+
+        WMTSCapabilitiesCache.CachedDocument cached = cache.get(key(null, "REQUEST", "GetCapabilities"));
+        assertNotNull(cached);
+        assertEquals("text/xml", cached.getContentType());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cached.writeTo(out);
+        assertEquals(CAPABILITIES, out.toString(StandardCharsets.UTF_8));
+
+        // the gzipped contents are sent as is
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        cached.writeGzippedTo(gzipped);
+        assertTrue(gzipped.size() < CAPABILITIES.length());
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()))) {
+            assertEquals(CAPABILITIES, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testStaleGeneration() {
+        WMTSCapabilitiesCache.Key key = key("ws");
+        byte[] contents = CAPABILITIES.getBytes(StandardCharsets.UTF_8);
+
+        // the document was being built while the configuration changed
+        long generation = cache.getGeneration();
+        cache.invalidateAll();
+        assertNotNull(cache.put(key, generation, "text/xml", Collections.emptyMap(), contents));
+        assertNull(cache.get(key));
+
+        cache.put(key, cache.getGeneration(), "text/xml", Collections.emptyMap(), contents);
+        assertNotNull(cache.get(key));
+    }
+
+    @Test
+    public void testKeys() {
+        assertEquals(key("ws"), key("ws"));
+        assertNotEquals(key("ws"), key(null));
+        assertNotEquals(key("ws", "tileMatrixSet", "a"), key("ws", "tileMatrixSet", "b"));
+    }
+
+    @Test
+    public void testInvalidation() {
+        WMTSCapabilitiesCache.Key key = key("ws");
+        byte[] contents = CAPABILITIES.getBytes(StandardCharsets.UTF_8);
+
+        cache.put(key, cache.getGeneration(), "text/xml", Collections.emptyMap(), contents);
+        tileLayerListener.onEvent("layer", TileLayerCatalogListener.Type.MODIFY);
+        assertNull(cache.get(key));
+
+        cache.put(key, cache.getGeneration(), "text/xml", Collections.emptyMap(), contents);
+        catalogListener.handlePostModifyEvent(null);
+        assertNull(cache.get(key));
+
+        cache.put(key, cache.getGeneration(), "text/xml", Collections.emptyMap(), contents);
+        catalogListener.reloaded();
+        assertNull(cache.get(key));
+    }
+}
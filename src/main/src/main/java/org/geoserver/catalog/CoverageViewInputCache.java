@@ -0,0 +1,311 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.awt.Image;
+import java.awt.image.DataBuffer;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.imagen.TiledImage;
+import org.eclipse.imagen.media.range.NoDataContainer;
+import org.geoserver.filters.GeoServerFilter;
+import org.geotools.api.parameter.GeneralParameterValue;
+import org.geotools.api.parameter.ParameterValue;
+import org.geotools.coverage.GridSampleDimension;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridCoverageFactory;
+import org.geotools.coverage.grid.GridGeometry2D;
+import org.geotools.coverage.grid.io.GridCoverage2DReader;
+
+/**
+ * Shares the decoded source coverages among the {@link CoverageViewReader} instances reading the same sources, e.g.,
+ * RGB, NDVI and false color views over the same multispectral store, so that each source is read once per area.
+ *
+ * <p>Sources are keyed by store reader, coverage name and read parameters (grid geometry, filters, dimensions and so
+ * on), and their pixels are loaded in memory, so that they are not affected by the disposal of the images built on
+ * top of them. The sources are shared for the duration of a request, and optionally across requests, for a short time.
+ * Within a request, a source is copied in memory only once a second view reads it, the sources read by a single view
+ * are returned as read. The behavior is controlled by the following system properties:
+ *
+ * <ul>
+ *   <li><code>org.geoserver.coverageView.inputCache</code>: enables sharing during a request, false by default
+ *   <li><code>org.geoserver.coverageView.inputCache.requestSize</code>: the max memory used by the sources shared
+ *       during a single request, 64MB by default
+ *   <li><code>org.geoserver.coverageView.inputCache.ttl</code>: time to live in milliseconds of the sources shared
+ *       across requests, 0 (the default) disables sharing across requests
+ *   <li><code>org.geoserver.coverageView.inputCache.size</code>: the max memory used by the sources shared across
+ *       requests, 128MB by default
+ *   <li><code>org.geoserver.coverageView.inputCache.maxEntrySize</code>: sources larger than this are never shared,
+ *       16MB by default
+ * </ul>
+ */
+public class CoverageViewInputCache implements GeoServerFilter {
+
+    static final boolean REQUEST_SCOPE =
+            Boolean.parseBoolean(System.getProperty("org.geoserver.coverageView.inputCache", "false"));
+
+    static final long REQUEST_SIZE =
+            Long.getLong("org.geoserver.coverageView.inputCache.requestSize", 64 * 1024 * 1024);
+
+    /** The max number of distinct sources tracked during a request, to tell which ones are read more than once */
+    static final int MAX_TRACKED_READS = 1024;
+
+    static final long SHARED_TTL = Long.getLong("org.geoserver.coverageView.inputCache.ttl", 0);
+
+    static final long SHARED_SIZE = Long.getLong("org.geoserver.coverageView.inputCache.size", 128 * 1024 * 1024);
+
+    static final long MAX_ENTRY_SIZE =
+            Long.getLong("org.geoserver.coverageView.inputCache.maxEntrySize", 16 * 1024 * 1024);
+
+    /** The sources read during the current request */
+    public static final ThreadLocal<RequestInputs> REQUEST_INPUTS = new ThreadLocal<>();
+
+    private static final Cache<InputKey, CachedInput> SHARED_INPUTS = SHARED_TTL > 0
+            ? CacheBuilder.newBuilder()
+                    .expireAfterWrite(SHARED_TTL, TimeUnit.MILLISECONDS)
+                    .maximumWeight(SHARED_SIZE)
+                    .<InputKey, CachedInput>weigher((k, v) -> (int) Math.min(Integer.MAX_VALUE, v.size()))
+                    .build()
+            : null;
+
+    /** The sources read during a request, can be shared among threads working on the same request */
+    public static final class RequestInputs {
+
+        private final Map<InputKey, CachedInput> inputs = new ConcurrentHashMap<>();
+
+        private final Set<InputKey> reads = ConcurrentHashMap.newKeySet();
+
+        private final AtomicLong memory = new AtomicLong();
+
+        private final long maxMemory;
+
+        public RequestInputs() {
+            this(REQUEST_SIZE);
+        }
+
+        RequestInputs(long maxMemory) {
+            this.maxMemory = maxMemory;
+        }
+
+        /** Returns the number of sources shared during the request */
+        public int size() {
+            return inputs.size();
+        }
+
+        /** Returns the memory used by the sources shared during the request */
+        public long getMemory() {
+            return memory.get();
+        }
+
+        /** Records the read of a source, returning true if it was already read during the request */
+        boolean isReadAgain(InputKey key) {
+            if (reads.size() >= MAX_TRACKED_READS) {
+                return reads.contains(key);
+            }
+            return !reads.add(key);
+        }
+
+        /** Reserves memory for a source, returns false if it would exceed the request limit */
+        boolean reserve(long size) {
+            if (memory.addAndGet(size) > maxMemory) {
+                memory.addAndGet(-size);
+                return false;
+            }
+            return true;
+        }
+
+        /** Adds a source, the memory has to be reserved already */
+        void put(InputKey key, CachedInput input) {
+            if (inputs.putIfAbsent(key, input) != null) {
+                // another thread shared the same source in the meantime
+                memory.addAndGet(-input.size());
+            }
+        }
+    }
+
+    record InputKey(GridCoverage2DReader reader, String coverageName, Map<String, Object> parameters) {
+
+        /** Builds the key, or returns null if the parameters cannot be compared */
+        static InputKey build(GridCoverage2DReader reader, String coverageName, GeneralParameterValue[] parameters) {
+            Map<String, Object> values = new HashMap<>();
+            if (parameters != null) {
+                for (GeneralParameterValue parameter : parameters) {
+                    if (!(parameter instanceof ParameterValue<?> pv)) {
+                        return null;
+                    }
+                    Object value = pv.getValue();
+                    if (value != null && value.getClass().isArray()) {
+                        value = Arrays.deepToString(new Object[] {value});
+                    }
+                    values.put(parameter.getDescriptor().getName().getCode(), value);
+                }
+            }
+            return new InputKey(reader, coverageName, values);
+        }
+    }
+
+    record CachedInput(
+            String name,
+            TiledImage image,
+            GridGeometry2D gridGeometry,
+            GridSampleDimension[] sampleDimensions,
+            Map<?, ?> properties,
+            long size) {
+
+        /** Returns the memory needed to load the pixels of the coverage */
+        static long sizeOf(GridCoverage2D coverage) {
+            RenderedImage source = coverage.getRenderedImage();
+            SampleModel sm = source.getSampleModel();
+            return (long) source.getWidth()
+                    * source.getHeight()
+                    * sm.getNumBands()
+                    * DataBuffer.getDataTypeSize(sm.getDataType())
+                    / 8;
+        }
+
+        /** Loads the pixels of the coverage in memory */
+        static CachedInput load(GridCoverage2D coverage, long size) {
+            RenderedImage source = coverage.getRenderedImage();
+            SampleModel sm = source.getSampleModel();
+            TiledImage image = new TiledImage(
+                    source.getMinX(),
+                    source.getMinY(),
+                    source.getWidth(),
+                    source.getHeight(),
+                    source.getTileGridXOffset(),
+                    source.getTileGridYOffset(),
+                    sm,
+                    source.getColorModel());
+            image.set(source);
+            for (String property : new String[] {"ROI", NoDataContainer.GC_NODATA}) {
+                Object value = source.getProperty(property);
+                if (value != null && value != Image.UndefinedProperty) {
+                    image.setProperty(property, value);
+                }
+            }
+            Map<?, ?> properties = coverage.getProperties() != null ? new HashMap<>(coverage.getProperties()) : null;
+            return new CachedInput(
+                    coverage.getName().toString(),
+                    image,
+                    coverage.getGridGeometry(),
+                    coverage.getSampleDimensions(),
+                    properties,
+                    size);
+        }
+
+        GridCoverage2D toCoverage(GridCoverageFactory factory) {
+            Map<?, ?> copy = properties != null ? new HashMap<>(properties) : null;
+            return factory.create(name, image, gridGeometry, sampleDimensions.clone(), null, copy);
+        }
+    }
+
+    /** Returns the sources read during the current request, or null if there is no request scope */
+    public static RequestInputs getRequestInputs() {
+        return REQUEST_INPUTS.get();
+    }
+
+    /**
+     * Reads a view source, or returns the one read by a previous view with the same parameters
+     *
+     * @param requestInputs the sources read during the current request, can be null
+     * @param storeReader the store reader, shared by the views on the same store
+     * @param coverageName the source coverage name
+     * @param reader the reader of the source coverage
+     * @param parameters the read parameters
+     * @param factory the factory used to build the returned coverage
+     */
+    public static GridCoverage2D read(
+            RequestInputs requestInputs,
+            GridCoverage2DReader storeReader,
+            String coverageName,
+            GridCoverage2DReader reader,
+            GeneralParameterValue[] parameters,
+            GridCoverageFactory factory)
+            throws IOException {
+        if (requestInputs == null && SHARED_INPUTS == null) {
+            return reader.read(parameters);
+        }
+        InputKey key = InputKey.build(storeReader, coverageName, parameters);
+        if (key == null) {
+            return reader.read(parameters);
+        }
+
+        CachedInput cached = requestInputs != null ? requestInputs.inputs.get(key) : null;
+        if (cached == null && SHARED_INPUTS != null) {
+            cached = SHARED_INPUTS.getIfPresent(key);
+            if (cached != null && requestInputs != null && requestInputs.reserve(cached.size())) {
+                requestInputs.put(key, cached);
+            }
+        }
+        if (cached != null) {
+            return cached.toCoverage(factory);
+        }
+
+        GridCoverage2D coverage = reader.read(parameters);
+        if (coverage == null) {
+            return null;
+        }
+        // copying the pixels is worth it only if another view reads the same source, or if the source is shared
+        // across requests
+        boolean requestShared = requestInputs != null && requestInputs.isReadAgain(key);
+        if (!requestShared && SHARED_INPUTS == null) {
+            return coverage;
+        }
+        long size = CachedInput.sizeOf(coverage);
+        if (size > MAX_ENTRY_SIZE) {
+            return coverage;
+        }
+        requestShared = requestShared && requestInputs.reserve(size);
+        if (!requestShared && SHARED_INPUTS == null) {
+            return coverage;
+        }
+        cached = CachedInput.load(coverage, size);
+        // the pixels are in memory now, release the readers resources
+        coverage.dispose(true);
+        if (requestShared) {
+            requestInputs.put(key, cached);
+        }
+        if (SHARED_INPUTS != null) {
+            SHARED_INPUTS.put(key, cached);
+        }
+        return cached.toCoverage(factory);
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {}
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!REQUEST_SCOPE || REQUEST_INPUTS.get() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            REQUEST_INPUTS.set(new RequestInputs());
+            chain.doFilter(request, response);
+        } finally {
+            REQUEST_INPUTS.remove();
+        }
+    }
+
+    @Override
+    public void destroy() {}
+}
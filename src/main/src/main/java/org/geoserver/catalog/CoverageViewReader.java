@@ -525,6 +525,8 @@ private ViewInputs getInputAlphaNonNullCoverages(
         } else {
             filteredParameters = null;
         }
+        // sources shared with the other views read during the same request
+        CoverageViewInputCache.RequestInputs requestInputs = CoverageViewInputCache.getRequestInputs();
         CoverageViewComposer composer = new CoverageViewComposer(fillMissingBands, handler, coverageFactory);
         for (int bIdx : selectedBandIndices) {
             CoverageBand band = bands.get(bIdx);
@@ -552,7 +554,7 @@ private ViewInputs getInputAlphaNonNullCoverages(
             if (!multiThreadedLoading || EXECUTOR == null) {
                 for (String coverageName : composer.getCoverageNames()) {
                     GridCoverage2DReader reader = composer.getReader(coverageName);
-                    GridCoverage2D coverage = reader.read(filteredParameters);
+                    GridCoverage2D coverage = readInput(requestInputs, coverageName, reader, filteredParameters);
                     if (!composer.shouldProcessCoverage(coverageName, reader, coverage)) {
                         return null;
                     }
@@ -566,7 +568,7 @@ private ViewInputs getInputAlphaNonNullCoverages(
                 for (String coverageName : composer.getCoverageNames()) {
                     Future<ParallelLoadingResult> future = EXECUTOR.submit(() -> {
                         GridCoverage2DReader reader = composer.getReader(coverageName);
-                        GridCoverage2D coverage = reader.read(filteredParameters);
+                        GridCoverage2D coverage = readInput(requestInputs, coverageName, reader, filteredParameters);
                         return new ParallelLoadingResult(coverageName, reader, coverage);
                     });
                     futures.add(future);
@@ -591,6 +593,16 @@ private ViewInputs getInputAlphaNonNullCoverages(
         return composer.prepareViewInputs(bands);
     }
 
+    /** Reads a source coverage, or reuses the one read by another view with the same parameters */
+    private GridCoverage2D readInput(
+            CoverageViewInputCache.RequestInputs requestInputs,
+            String coverageName,
+            GridCoverage2DReader reader,
+            GeneralParameterValue[] parameters)
+            throws IOException {
+        return CoverageViewInputCache.read(requestInputs, delegate, coverageName, reader, parameters, coverageFactory);
+    }
+
     static class ParallelLoadingResult {
         String coverageName;
         GridCoverage2DReader reader;
@@ -21,6 +21,16 @@ static enum PngEncoderType {
         PNGJ
     }
 
+    /** Where the tile cache keeps the tiles */
+    static enum TileCacheType {
+        /** On the Java heap, sized by the memory capacity */
+        HEAP,
+        /** In direct memory, outside of the Java heap, sized by the off-heap capacity */
+        OFF_HEAP,
+        /** In a memory mapped scratch file, sized by the off-heap capacity */
+        MAPPED
+    }
+
     /** Flag controlling image interpolation. */
     boolean getAllowInterpolation();
 
@@ -51,6 +61,16 @@ static enum PngEncoderType {
 
     void setMemoryThreshold(double memoryThreshold);
 
+    /** Where the tile cache keeps the tiles. */
+    TileCacheType getTileCacheType();
+
+    void setTileCacheType(TileCacheType type);
+
+    /** The capacity of the off-heap and memory mapped tile caches, in megabytes. */
+    int getOffHeapCapacity();
+
+    void setOffHeapCapacity(int offHeapCapacity);
+
     PngEncoderType getPngEncoderType();
 
     void setPngEncoderType(PngEncoderType type);
@@ -40,6 +40,11 @@ public class ImageProcessingInfoImpl implements Serializable, ImageProcessingInf
 
     PngEncoderType pngEncoderType = PngEncoderType.PNGJ;
 
+    TileCacheType tileCacheType = TileCacheType.HEAP;
+
+    public static final int DEFAULT_OffHeapCapacity = 1024;
+    Integer offHeapCapacity = DEFAULT_OffHeapCapacity;
+
     /** @uml.property name="allowInterpolation" */
     @Override
     public boolean getAllowInterpolation() {
@@ -161,6 +166,8 @@ public int hashCode() {
         result = prime * result + tileThreads;
         result = prime * result + getPngEncoderType().hashCode();
         result = prime * result + getPngEncoderType().hashCode();
+        result = prime * result + getTileCacheType().hashCode();
+        result = prime * result + getOffHeapCapacity();
         return result;
     }
 
@@ -178,6 +185,8 @@ public boolean equals(Object obj) {
         if (tilePriority != other.tilePriority) return false;
         if (tileThreads != other.tileThreads) return false;
         if (getPngEncoderType() != other.getPngEncoderType()) return false;
+        if (getTileCacheType() != other.getTileCacheType()) return false;
+        if (getOffHeapCapacity() != other.getOffHeapCapacity()) return false;
         return true;
     }
 
@@ -203,4 +212,24 @@ public PngEncoderType getPngEncoderType() {
     public void setPngEncoderType(PngEncoderType pngEncoderType) {
         this.pngEncoderType = pngEncoderType;
     }
+
+    @Override
+    public TileCacheType getTileCacheType() {
+        return tileCacheType == null ? TileCacheType.HEAP : tileCacheType;
+    }
+
+    @Override
+    public void setTileCacheType(TileCacheType tileCacheType) {
+        this.tileCacheType = tileCacheType;
+    }
+
+    @Override
+    public int getOffHeapCapacity() {
+        return offHeapCapacity == null ? DEFAULT_OffHeapCapacity : offHeapCapacity;
+    }
+
+    @Override
+    public void setOffHeapCapacity(int offHeapCapacity) {
+        this.offHeapCapacity = offHeapCapacity;
+    }
 }
@@ -443,6 +443,10 @@ protected void init(XStream xs) {
                 impl(ImageProcessingInfo.class),
                 "pngEncoderType",
                 new EnumWithDefaultConverter(ImageProcessingInfo.PngEncoderType.JDK));
+        xs.registerLocalConverter(
+                impl(ImageProcessingInfo.class),
+                "tileCacheType",
+                new EnumWithDefaultConverter(ImageProcessingInfo.TileCacheType.HEAP));
 
         // CoverageDimensionInfo
         xs.registerLocalConverter(impl(CoverageDimensionInfo.class), "range", new NumberRangeConverter());
@@ -0,0 +1,222 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.feature;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.io.output.StringBuilderWriter;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geotools.feature.FeatureIterator;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Pipelined encoder for large feature outputs (CSV, GeoJSON, ...). The calling thread reads the features from the
+ * iterator in batches, the batches are encoded to text in parallel on an application wide thread pool, and the
+ * encoded batches are handed back to the calling thread, in their original order, to be written out.
+ *
+ * <p>At most twice as many batches as threads are in flight at any time for a given output, so memory usage stays
+ * bounded regardless of the output size. The encoders run with the request thread locals (dispatcher request,
+ * authentication, local workspace, ...) transferred, but must not share any mutable state (e.g., number formats)
+ * between batches.
+ *
+ * <p>Pipelining is disabled by default, it's enabled by setting the {@link #THREADS_PROPERTY} property to a number of
+ * threads greater than one (the pool is sized on first use). The number of features per batch can be set with the
+ * {@link #BATCH_SIZE_PROPERTY} property.
+ */
+public class PipelinedFeatureEncoder {
+
+    static final Logger LOGGER = Logging.getLogger(PipelinedFeatureEncoder.class);
+
+    /** Number of threads used to encode features, pipelined encoding is disabled if missing or less than 2 */
+    public static final String THREADS_PROPERTY = "GEOSERVER_FEATURE_ENCODING_THREADS";
+
+    /** Number of features encoded by each task, defaults to {@link #DEFAULT_BATCH_SIZE} */
+    public static final String BATCH_SIZE_PROPERTY = "GEOSERVER_FEATURE_ENCODING_BATCH_SIZE";
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static volatile ThreadPoolExecutor POOL;
+
+    /** Encodes a batch of features, running in a pool thread */
+    @FunctionalInterface
+    public interface BatchEncoder<F, R> {
+
+        /**
+         * Encodes the features on the writer
+         *
+         * @return information gathered while encoding (e.g., the geometry CRS), handed to the {@link BatchWriter}
+         *     along with the encoded text
+         */
+        R encode(List<F> features, Writer writer) throws IOException;
+    }
+
+    /** Writes out an encoded batch, running in the calling thread, in batch order */
+    @FunctionalInterface
+    public interface BatchWriter<R> {
+        void write(String encoded, R result) throws IOException;
+    }
+
+    private PipelinedFeatureEncoder() {}
+
+    /** Returns true if outputs should be encoded with the pipeline, false if they should be encoded sequentially */
+    public static boolean isEnabled() {
+        return getThreads() > 1;
+    }
+
+    static int getThreads() {
+        return getIntProperty(THREADS_PROPERTY, 1);
+    }
+
+    static int getBatchSize() {
+        return Math.max(getIntProperty(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE), 1);
+    }
+
+    private static int getIntProperty(String name, int defaultValue) {
+        String value = GeoServerExtensions.getProperty(name);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.WARNING, "Invalid value for " + name + ": " + value, e);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static ThreadPoolExecutor getPool() {
+        if (POOL == null) {
+            synchronized (PipelinedFeatureEncoder.class) {
+                if (POOL == null) {
+                    int threads = Math.max(getThreads(), 1);
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                            threads,
+                            threads,
+                            60L,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(),
+                            new EncoderThreadFactory());
+                    pool.allowCoreThreadTimeOut(true);
+                    POOL = pool;
+                }
+            }
+        }
+        return POOL;
+    }
+
+    /**
+     * Encodes all the features returned by the iterator, using the application wide pool. The iterator is not closed.
+     *
+     * @param features the features to encode
+     * @param encoder encodes a batch of features, in a pool thread
+     * @param writer writes out the encoded batches, in the calling thread and in order
+     */
+    public static <F, R> void encode(
+            FeatureIterator<? extends F> features, BatchEncoder<F, R> encoder, BatchWriter<R> writer)
+            throws IOException {
+        ThreadPoolExecutor pool = getPool();
+        encode(features, encoder, writer, pool, getBatchSize(), pool.getMaximumPoolSize() * 2);
+    }
+
+    static <F, R> void encode(
+            FeatureIterator<? extends F> features,
+            BatchEncoder<F, R> encoder,
+            BatchWriter<R> writer,
+            ExecutorService executor,
+            int batchSize,
+            int maxInFlight)
+            throws IOException {
+        Deque<Future<EncodedBatch<R>>> inFlight = new ArrayDeque<>();
+        try {
+            List<F> batch = new ArrayList<>(batchSize);
+            while (features.hasNext()) {
+                batch.add(features.next());
+                if (batch.size() >= batchSize) {
+                    inFlight.add(submit(executor, encoder, batch));
+                    batch = new ArrayList<>(batchSize);
+                    // write out what's ready, and wait for the oldest batch if too many are pending
+                    while (!inFlight.isEmpty() && (inFlight.size() >= maxInFlight || inFlight.peekFirst().isDone())) {
+                        write(inFlight.removeFirst(), writer);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                inFlight.add(submit(executor, encoder, batch));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.removeFirst(), writer);
+            }
+        } finally {
+            // in case of failure, don't waste time on batches that won't be written
+            for (Future<EncodedBatch<R>> future : inFlight) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static <F, R> Future<EncodedBatch<R>> submit(
+            ExecutorService executor, BatchEncoder<F, R> encoder, List<F> batch) {
+        ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+        return executor.submit(() -> {
+            transfer.apply();
+            try {
+                StringBuilderWriter text = new StringBuilderWriter();
+                R result = encoder.encode(batch, text);
+                return new EncodedBatch<>(text.toString(), result);
+            } finally {
+                transfer.cleanup();
+            }
+        });
+    }
+
+    private static <R> void write(Future<EncodedBatch<R>> future, BatchWriter<R> writer) throws IOException {
+        EncodedBatch<R> batch;
+        try {
+            batch = future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException exception) {
+                throw exception;
+            } else if (cause instanceof RuntimeException exception) {
+                throw exception;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("Failed to encode features", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding features");
+        }
+        writer.write(batch.text, batch.result);
+    }
+
+    private record EncodedBatch<R>(String text, R result) {}
+
+    private static class EncoderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "gs-feature-encoder-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -70,7 +70,8 @@ protected ServletOutputStream getStream() throws IOException {
         //            logger.warning("Mime type was not set before first write!");
         //        }
 
-        if (type != null && isCompressible(type)) {
+        // the response might come already encoded, e.g., a cached gzipped document
+        if (type != null && isCompressible(type) && !myResponse.containsHeader("Content-Encoding")) {
             logger.log(Level.FINE, "Compressing output for mimetype: {0}", type);
             myResponse.addHeader("Content-Encoding", "gzip");
             myStream = new GZIPResponseStream(myResponse);
@@ -29,15 +29,24 @@
  * A tile cache implementation based on ConcurrentTileCacheMultiMap, which integrates with the OGC request lifecycle
  * ensuring that tiles are properly disposed of at the end of the request.
  *
- * <p>In addition, it provides improved logging.
+ * <p>In addition, it provides improved logging, and collects per operation {@link TileCacheStatistics} (evictions are
+ * not tracked, as they happen inside the base class).
  */
-public class GeoServerTileCache extends ConcurrentTileCacheMultiMap implements DispatcherCallback {
+public class GeoServerTileCache extends ConcurrentTileCacheMultiMap
+        implements DispatcherCallback, TileCacheStatisticsProvider {
 
     static final Logger LOGGER = Logging.getLogger(GeoServerTileCache.class);
 
     final Cache<Request, Set<RenderedImage>> images =
             CacheBuilder.newBuilder().weakKeys().build();
 
+    final TileCacheStatistics statistics = new TileCacheStatistics(false);
+
+    @Override
+    public TileCacheStatistics getStatistics() {
+        return statistics;
+    }
+
     @Override
     public void add(RenderedImage owner, int tileX, int tileY, Raster data) {
         recordImage(owner);
@@ -45,6 +54,7 @@ public void add(RenderedImage owner, int tileX, int tileY, Raster data) {
             LOGGER.fine(
                     "Adding tile (%d,%d) for image %s[%d]".formatted(tileX, tileY, owner.getClass(), owner.hashCode()));
         }
+        statistics.added(owner, 0);
         super.add(owner, tileX, tileY, data);
     }
 
@@ -55,6 +65,7 @@ public void add(RenderedImage owner, int tileX, int tileY, Raster data, Object t
             LOGGER.fine(
                     "Adding tile (%d,%d) for image %s[%d]".formatted(tileX, tileY, owner.getClass(), owner.hashCode()));
         }
+        statistics.added(owner, 0);
         super.add(owner, tileX, tileY, data, tileCacheMetric);
     }
 
@@ -74,7 +85,9 @@ public Raster getTile(RenderedImage owner, int tileX, int tileY) {
             LOGGER.fine("Getting tile (%d,%d) for image %s[%d]"
                     .formatted(tileX, tileY, owner.getClass(), owner.hashCode()));
         }
-        return super.getTile(owner, tileX, tileY);
+        Raster tile = super.getTile(owner, tileX, tileY);
+        statistics.lookup(owner, tile != null);
+        return tile;
     }
 
     @Override
@@ -13,6 +13,7 @@
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.GeoServerInitializer;
 import org.geoserver.config.ImageProcessingInfo;
+import org.geoserver.config.ImageProcessingInfo.TileCacheType;
 
 /**
  * Initializes ImageN functionality from configuration.
@@ -23,8 +24,14 @@ public class ImageNInitializer implements GeoServerInitializer {
 
     private final GeoServerTileCache tileCache;
 
-    public ImageNInitializer(GeoServerTileCache tileCache) {
+    private final OffHeapTileCache offHeapTileCache;
+
+    /** The ImageN tile cache replaced by the off heap one, restored when going back to heap storage */
+    private TileCache heapTileCache;
+
+    public ImageNInitializer(GeoServerTileCache tileCache, OffHeapTileCache offHeapTileCache) {
         this.tileCache = tileCache;
+        this.offHeapTileCache = offHeapTileCache;
     }
 
     @Override
@@ -56,10 +63,26 @@ void initJAI(ImageProcessingInfo imageProcessing) {
         imageN.setRenderingHint(ImageN.KEY_CACHED_TILE_RECYCLING_ENABLED, imageProcessing.isRecycling());
 
         // force the tile cache to be the one provided by GeoServer
+        TileCacheType type = imageProcessing.getTileCacheType();
         TileCache oldTileCache = imageProcessing.getTileCache();
-        if (oldTileCache != tileCache) {
-            imageProcessing.setTileCache(tileCache);
-            oldTileCache.flush();
+        if (type == TileCacheType.HEAP) {
+            if (oldTileCache != tileCache) {
+                imageProcessing.setTileCache(tileCache);
+                oldTileCache.flush();
+            }
+            // restore the heap cache replaced by the off heap one, and release the off heap storage
+            if (oldTileCache == offHeapTileCache && heapTileCache != null) {
+                imageN.setTileCache(heapTileCache);
+            }
+            offHeapTileCache.configure(false, 0);
+        } else {
+            if (oldTileCache != offHeapTileCache) {
+                heapTileCache = oldTileCache;
+                imageN.setTileCache(offHeapTileCache);
+                oldTileCache.flush();
+            }
+            long capacity = imageProcessing.getOffHeapCapacity() * 1024L * 1024L;
+            offHeapTileCache.configure(type == TileCacheType.MAPPED, capacity);
         }
 
         // tile factory and recycler
@@ -80,9 +103,11 @@ void initJAI(ImageProcessingInfo imageProcessing) {
         TileCache jaiCache = imageN.getTileCache();
         imageProcessing.setTileCache(jaiCache);
 
-        long jaiMemory = (long)
-                (imageProcessing.getMemoryCapacity() * Runtime.getRuntime().maxMemory());
-        jaiCache.setMemoryCapacity(jaiMemory);
+        if (jaiCache != offHeapTileCache) {
+            long jaiMemory = (long)
+                    (imageProcessing.getMemoryCapacity() * Runtime.getRuntime().maxMemory());
+            jaiCache.setMemoryCapacity(jaiMemory);
+        }
 
         // Setting up Cache Threshold
         jaiCache.setMemoryThreshold((float) imageProcessing.getMemoryThreshold());
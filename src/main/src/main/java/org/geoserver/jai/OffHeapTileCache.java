@@ -0,0 +1,871 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.eclipse.imagen.TileCache;
+import org.eclipse.imagen.media.util.CacheDiagnostics;
+import org.geoserver.ows.AbstractDispatcherCallback;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * A tile cache keeping the tile pixels outside of the Java heap, either in direct memory, or in a memory mapped scratch
+ * file. This allows to cache many more tiles than the heap based cache without increasing the garbage collection
+ * pressure, at the cost of a copy of the pixels every time a tile is added or retrieved.
+ *
+ * <p>The storage is split in fixed size blocks, each tile uses as many blocks as needed to store its pixels, while the
+ * tile structure (sample model, bounds) is kept on the heap. When the storage is full, the least recently used tiles
+ * are evicted until the memory used goes below the memory threshold. Like {@link GeoServerTileCache}, the tiles of the
+ * images created during an OGC request are removed at the end of the request.
+ *
+ * <p>Lookups and additions do not take any cache wide lock: each tile is reference counted, so that its blocks are
+ * reused only once it has been removed from the cache and no copy from them is in progress. The least recently used
+ * order is approximated with a clock sweep over the tiles, which does not need to sort them.
+ *
+ * <p>The scratch files are created in the <code>org.geoserver.jai.tilecache.scratchDirectory</code> directory, or in
+ * the system temporary directory if the property is not set.
+ */
+public class OffHeapTileCache extends AbstractDispatcherCallback
+        implements TileCache, CacheDiagnostics, TileCacheStatisticsProvider, DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(OffHeapTileCache.class);
+
+    static final String SCRATCH_DIRECTORY = System.getProperty(
+            "org.geoserver.jai.tilecache.scratchDirectory", System.getProperty("java.io.tmpdir"));
+
+    private final Map<TileKey, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<OwnerKey, OwnerTiles> owners = new ConcurrentHashMap<>();
+
+    /** The entries in insertion order, swept by the eviction clock hand. May contain removed entries */
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+
+    /** Number of removed entries still sitting in the clock queue */
+    private final AtomicInteger staleEntries = new AtomicInteger();
+
+    /** Serializes the evictions and the clock queue cleanups, lookups and additions do not take it */
+    private final Object evictionLock = new Object();
+
+    private final TileCacheStatistics statistics = new TileCacheStatistics(true);
+
+    private final AtomicLong memoryUsed = new AtomicLong();
+
+    final Cache<Request, Set<RenderedImage>> images =
+            CacheBuilder.newBuilder().weakKeys().build();
+
+    private volatile BlockStore store;
+
+    private volatile boolean mapped;
+
+    private volatile long memoryCapacity;
+
+    private volatile float memoryThreshold = 0.75f;
+
+    private Comparator<?> tileComparator;
+
+    /**
+     * Sets up the storage, flushing the current contents if the storage type or capacity changed
+     *
+     * @param mapped true to use a memory mapped scratch file, false to use direct memory
+     * @param capacity the storage capacity, in bytes. Zero releases the storage, disabling the cache
+     */
+    public synchronized void configure(boolean mapped, long capacity) {
+        if (this.mapped == mapped && this.memoryCapacity == capacity && (store != null || capacity <= 0)) {
+            return;
+        }
+        // detach the storage first, the additions in progress will notice and drop their tiles
+        BlockStore previous = store;
+        store = null;
+        clear(false);
+        if (previous != null) {
+            previous.retire();
+        }
+        this.mapped = mapped;
+        this.memoryCapacity = Math.max(0, capacity);
+        if (memoryCapacity >= BlockStore.BLOCK_SIZE) {
+            try {
+                store = new BlockStore(memoryCapacity, mapped ? new File(SCRATCH_DIRECTORY).toPath() : null);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Could not create the tile cache scratch file, tile caching disabled", e);
+            }
+        }
+    }
+
+    /** Returns true if the tiles are stored in a memory mapped scratch file */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    @Override
+    public TileCacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void add(RenderedImage owner, int tileX, int tileY, Raster data) {
+        add(owner, tileX, tileY, data, null);
+    }
+
+    @Override
+    public void add(RenderedImage owner, int tileX, int tileY, Raster data, Object tileCacheMetric) {
+        if (owner == null || data == null) {
+            return;
+        }
+        DataBuffer buffer = data.getDataBuffer();
+        Object[] banks = getBanks(buffer);
+        if (banks == null) {
+            LOGGER.fine(() -> "Skipping tile with unsupported data buffer " + buffer.getClass());
+            return;
+        }
+        int[] lengths = new int[banks.length];
+        long bytes = 0;
+        for (int b = 0; b < banks.length; b++) {
+            lengths[b] = java.lang.reflect.Array.getLength(banks[b]);
+            bytes += (long) lengths[b] * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        }
+        long blockCount = (bytes + BlockStore.BLOCK_SIZE - 1) / BlockStore.BLOCK_SIZE;
+
+        // reserve the storage, the blocks of the evicted tiles still being read are given back a bit later, in that
+        // case the tile is just not cached
+        BlockStore target = store;
+        if (target == null || blockCount > target.getBlockCount()) {
+            return;
+        }
+        if (target.getFreeBlocks() < blockCount) {
+            long needed = blockCount * BlockStore.BLOCK_SIZE;
+            evict(Math.min((long) (memoryCapacity * memoryThreshold), memoryCapacity - needed));
+        }
+        int[] blocks = target.allocate((int) blockCount);
+        if (blocks == null) {
+            return;
+        }
+
+        // copy the pixels, the blocks are not visible to other threads yet. Errors too (e.g., failing to allocate the
+        // direct memory of a chunk) must give back the blocks, or they would be lost until the cache is reconfigured
+        try {
+            copy(target, blocks, buffer.getDataType(), banks, true);
+        } catch (Throwable e) {
+            target.release(blocks);
+            throw e;
+        }
+
+        // use the same owner key for all the tiles, so that they can be cleaned up even after
+        // the owner has been garbage collected
+        OwnerTiles tiles = owners.computeIfAbsent(new OwnerKey(owner), OwnerTiles::new);
+        TileKey key = new TileKey(tiles.owner(), tileX, tileY);
+        String operation = TileCacheStatistics.getOperation(owner);
+        Entry entry = new Entry(key, operation, data, lengths, bytes, blocks, target);
+        memoryUsed.addAndGet(entry.getMemory());
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            discard(previous, false);
+        }
+        clock.offer(entry);
+        owners.compute(tiles.owner(), (k, t) -> {
+            OwnerTiles result = t != null ? t : tiles;
+            result.keys().add(key);
+            return result;
+        });
+        statistics.added(owner, bytes);
+        if (store != target && entries.remove(key, entry)) {
+            // the storage has been reconfigured in the meantime
+            discard(entry, false);
+            return;
+        }
+        purgeClock();
+        recordImage(owner);
+    }
+
+    @Override
+    public void addTiles(RenderedImage owner, Point[] tileIndices, Raster[] tiles, Object tileCacheMetric) {
+        for (int i = 0; i < tileIndices.length; i++) {
+            add(owner, tileIndices[i].x, tileIndices[i].y, tiles[i], tileCacheMetric);
+        }
+    }
+
+    @Override
+    public Raster getTile(RenderedImage owner, int tileX, int tileY) {
+        if (owner == null) {
+            return null;
+        }
+        // the reference keeps the blocks from being reused while copying, even if the tile gets removed meanwhile
+        Entry entry = entries.get(new TileKey(new OwnerKey(owner), tileX, tileY));
+        if (entry == null || !entry.retain()) {
+            statistics.lookup(owner, false);
+            return null;
+        }
+        try {
+            statistics.lookup(owner, true);
+            entry.referenced = true;
+            return read(entry);
+        } finally {
+            entry.release();
+        }
+    }
+
+    @Override
+    public Raster[] getTiles(RenderedImage owner) {
+        OwnerTiles tiles = owner != null ? owners.get(new OwnerKey(owner)) : null;
+        if (tiles == null) {
+            return null;
+        }
+        List<Raster> result = new ArrayList<>();
+        for (TileKey key : tiles.keys()) {
+            Raster tile = getTile(owner, key.tileX(), key.tileY());
+            if (tile != null) {
+                result.add(tile);
+            }
+        }
+        return result.isEmpty() ? null : result.toArray(new Raster[result.size()]);
+    }
+
+    @Override
+    public Raster[] getTiles(RenderedImage owner, Point[] tileIndices) {
+        Raster[] result = new Raster[tileIndices.length];
+        for (int i = 0; i < tileIndices.length; i++) {
+            result[i] = getTile(owner, tileIndices[i].x, tileIndices[i].y);
+        }
+        return result;
+    }
+
+    @Override
+    public void remove(RenderedImage owner, int tileX, int tileY) {
+        if (owner == null) {
+            return;
+        }
+        Entry entry = entries.remove(new TileKey(new OwnerKey(owner), tileX, tileY));
+        if (entry != null) {
+            discard(entry, false);
+        }
+    }
+
+    @Override
+    public void removeTiles(RenderedImage owner) {
+        if (owner == null) {
+            return;
+        }
+        OwnerTiles tiles = owners.remove(new OwnerKey(owner));
+        if (tiles != null) {
+            for (TileKey key : tiles.keys()) {
+                Entry entry = entries.remove(key);
+                if (entry != null) {
+                    discard(entry, false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        clear(false);
+    }
+
+    @Override
+    public void memoryControl() {
+        evict((long) (memoryCapacity * memoryThreshold));
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setTileCapacity(int tileCapacity) {
+        // not supported, the capacity is expressed in bytes
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public int getTileCapacity() {
+        return 0;
+    }
+
+    @Override
+    public void setMemoryCapacity(long memoryCapacity) {
+        if (memoryCapacity < 0) {
+            throw new IllegalArgumentException("Memory capacity must be non negative");
+        }
+        configure(mapped, memoryCapacity);
+    }
+
+    @Override
+    public long getMemoryCapacity() {
+        return memoryCapacity;
+    }
+
+    @Override
+    public void setMemoryThreshold(float memoryThreshold) {
+        if (memoryThreshold < 0 || memoryThreshold > 1) {
+            throw new IllegalArgumentException("Memory threshold must be between 0 and 1");
+        }
+        this.memoryThreshold = memoryThreshold;
+        memoryControl();
+    }
+
+    @Override
+    public float getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /** The comparator is stored, but not used, the tiles are always evicted in least recently used order */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void setTileComparator(Comparator comparator) {
+        this.tileComparator = comparator;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Comparator getTileComparator() {
+        return tileComparator;
+    }
+
+    // ------------------------- CacheDiagnostics methods -------------------------
+
+    /** Diagnostics are always enabled */
+    @Override
+    public void enableDiagnostics() {
+        // always enabled
+    }
+
+    /** Diagnostics are always enabled */
+    @Override
+    public void disableDiagnostics() {
+        // always enabled
+    }
+
+    @Override
+    public long getCacheTileCount() {
+        return entries.size();
+    }
+
+    @Override
+    public long getCacheMemoryUsed() {
+        return memoryUsed.get();
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return statistics.getHits();
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return statistics.getMisses();
+    }
+
+    @Override
+    public void resetCounts() {
+        statistics.reset();
+    }
+
+    // ------------------------- Request and lifecycle management -------------------------
+
+    private void recordImage(RenderedImage owner) {
+        Request request = Dispatcher.REQUEST.get();
+        if (request == null) return;
+
+        Set<RenderedImage> images = this.images.asMap().computeIfAbsent(request, r -> ConcurrentHashMap.newKeySet());
+        images.add(owner);
+    }
+
+    @Override
+    public void finished(Request request) {
+        Set<RenderedImage> images = this.images.getIfPresent(request);
+        if (images != null) {
+            for (RenderedImage image : images) {
+                removeTiles(image);
+            }
+        }
+        this.images.invalidate(request);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        configure(mapped, 0);
+    }
+
+    // ------------------------- Internals -------------------------
+
+    private void clear(boolean evicted) {
+        for (Entry entry : entries.values()) {
+            if (entries.remove(entry.key, entry)) {
+                discard(entry, evicted);
+            }
+        }
+        owners.clear();
+        purgeClock();
+    }
+
+    /**
+     * Evicts the least recently used tiles until the memory used is at most the target. Uses the clock (second chance)
+     * approximation: the entries are swept in insertion order, the ones read since the last sweep are spared once
+     */
+    private void evict(long target) {
+        synchronized (evictionLock) {
+            // the entries read meanwhile might be spared again, bound the sweep
+            long spared = 0;
+            long maxSpared = entries.size();
+            Entry entry;
+            while (memoryUsed.get() > target && (entry = clock.poll()) != null) {
+                if (entry.removed) {
+                    staleEntries.decrementAndGet();
+                } else if (entry.referenced && spared++ < maxSpared) {
+                    entry.referenced = false;
+                    clock.offer(entry);
+                } else if (entries.remove(entry.key, entry)) {
+                    discard(entry, true);
+                    // it's not in the clock queue anymore
+                    staleEntries.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /** Drops the removed entries from the clock queue, once they outnumber the cached ones */
+    private void purgeClock() {
+        if (staleEntries.get() > entries.size()) {
+            synchronized (evictionLock) {
+                if (staleEntries.get() > entries.size()) {
+                    staleEntries.set(0);
+                    clock.removeIf(e -> e.removed);
+                }
+            }
+        }
+    }
+
+    /** Releases an entry that has just been removed from the cache, by the caller */
+    private void discard(Entry entry, boolean evicted) {
+        entry.removed = true;
+        staleEntries.incrementAndGet();
+        memoryUsed.addAndGet(-entry.getMemory());
+        owners.computeIfPresent(entry.key.owner(), (k, tiles) -> {
+            // the key might be used by a newer tile, replacing this one
+            if (!entries.containsKey(entry.key)) {
+                tiles.keys().remove(entry.key);
+            }
+            return tiles.keys().isEmpty() ? null : tiles;
+        });
+        statistics.removed(entry.operation, entry.bytes, evicted);
+        entry.release();
+    }
+
+    // ------------------------- Pixel transfer -------------------------
+
+    /** Returns the arrays backing the data buffer banks, or null if the data buffer is not supported */
+    static Object[] getBanks(DataBuffer buffer) {
+        Object[] banks = new Object[buffer.getNumBanks()];
+        for (int b = 0; b < banks.length; b++) {
+            if (buffer instanceof DataBufferByte db) {
+                banks[b] = db.getData(b);
+            } else if (buffer instanceof DataBufferUShort db) {
+                banks[b] = db.getData(b);
+            } else if (buffer instanceof DataBufferShort db) {
+                banks[b] = db.getData(b);
+            } else if (buffer instanceof DataBufferInt db) {
+                banks[b] = db.getData(b);
+            } else if (buffer instanceof DataBufferFloat db) {
+                banks[b] = db.getData(b);
+            } else if (buffer instanceof DataBufferDouble db) {
+                banks[b] = db.getData(b);
+            } else {
+                return null;
+            }
+        }
+        return banks;
+    }
+
+    private static Raster read(Entry entry) {
+        int[] lengths = entry.bankLengths;
+        int size = entry.size;
+        int[] offsets = entry.offsets;
+        DataBuffer buffer =
+                switch (entry.dataType) {
+                    case DataBuffer.TYPE_BYTE -> {
+                        byte[][] data = new byte[lengths.length][];
+                        Arrays.setAll(data, b -> new byte[lengths[b]]);
+                        yield new DataBufferByte(data, size, offsets);
+                    }
+                    case DataBuffer.TYPE_USHORT -> {
+                        short[][] data = new short[lengths.length][];
+                        Arrays.setAll(data, b -> new short[lengths[b]]);
+                        yield new DataBufferUShort(data, size, offsets);
+                    }
+                    case DataBuffer.TYPE_SHORT -> {
+                        short[][] data = new short[lengths.length][];
+                        Arrays.setAll(data, b -> new short[lengths[b]]);
+                        yield new DataBufferShort(data, size, offsets);
+                    }
+                    case DataBuffer.TYPE_INT -> {
+                        int[][] data = new int[lengths.length][];
+                        Arrays.setAll(data, b -> new int[lengths[b]]);
+                        yield new DataBufferInt(data, size, offsets);
+                    }
+                    case DataBuffer.TYPE_FLOAT -> {
+                        float[][] data = new float[lengths.length][];
+                        Arrays.setAll(data, b -> new float[lengths[b]]);
+                        yield new DataBufferFloat(data, size, offsets);
+                    }
+                    case DataBuffer.TYPE_DOUBLE -> {
+                        double[][] data = new double[lengths.length][];
+                        Arrays.setAll(data, b -> new double[lengths[b]]);
+                        yield new DataBufferDouble(data, size, offsets);
+                    }
+                    default -> throw new IllegalStateException("Unexpected data type " + entry.dataType);
+                };
+        copy(entry.store, entry.blocks, entry.dataType, getBanks(buffer), false);
+
+        // the sample model might be the one of a parent raster, rebuild it, and then get the child
+        WritableRaster raster = Raster.createWritableRaster(entry.sampleModel, buffer, entry.translate);
+        Rectangle bounds = entry.bounds;
+        if (!raster.getBounds().equals(bounds)) {
+            raster = raster.createWritableChild(
+                    bounds.x, bounds.y, bounds.width, bounds.height, bounds.x, bounds.y, null);
+        }
+        return raster;
+    }
+
+    /** Copies the banks to the blocks if write is true, or the other way around otherwise */
+    private static void copy(BlockStore store, int[] blocks, int dataType, Object[] banks, boolean write) {
+        int elementSize = DataBuffer.getDataTypeSize(dataType) / 8;
+        int perBlock = BlockStore.BLOCK_SIZE / elementSize;
+        long position = 0;
+        for (Object bank : banks) {
+            int length = java.lang.reflect.Array.getLength(bank);
+            int done = 0;
+            while (done < length) {
+                int offset = (int) (position % perBlock);
+                int count = Math.min(perBlock - offset, length - done);
+                ByteBuffer block = store.getBlock(blocks[(int) (position / perBlock)]);
+                copy(block, dataType, bank, offset, done, count, write);
+                done += count;
+                position += count;
+            }
+        }
+    }
+
+    private static void copy(
+            ByteBuffer block, int dataType, Object bank, int offset, int start, int count, boolean write) {
+        switch (dataType) {
+            case DataBuffer.TYPE_BYTE -> {
+                block.position(offset);
+                if (write) block.put((byte[]) bank, start, count);
+                else block.get((byte[]) bank, start, count);
+            }
+            case DataBuffer.TYPE_USHORT, DataBuffer.TYPE_SHORT -> {
+                ShortBuffer buffer = block.asShortBuffer().position(offset);
+                if (write) buffer.put((short[]) bank, start, count);
+                else buffer.get((short[]) bank, start, count);
+            }
+            case DataBuffer.TYPE_INT -> {
+                IntBuffer buffer = block.asIntBuffer().position(offset);
+                if (write) buffer.put((int[]) bank, start, count);
+                else buffer.get((int[]) bank, start, count);
+            }
+            case DataBuffer.TYPE_FLOAT -> {
+                FloatBuffer buffer = block.asFloatBuffer().position(offset);
+                if (write) buffer.put((float[]) bank, start, count);
+                else buffer.get((float[]) bank, start, count);
+            }
+            case DataBuffer.TYPE_DOUBLE -> {
+                DoubleBuffer buffer = block.asDoubleBuffer().position(offset);
+                if (write) buffer.put((double[]) bank, start, count);
+                else buffer.get((double[]) bank, start, count);
+            }
+            default -> throw new IllegalStateException("Unexpected data type " + dataType);
+        }
+    }
+
+    // ------------------------- Support classes -------------------------
+
+    /** Identifies an image by identity, without preventing it from being garbage collected */
+    static final class OwnerKey extends WeakReference<RenderedImage> {
+
+        private final int hash;
+
+        OwnerKey(RenderedImage owner) {
+            super(owner);
+            this.hash = System.identityHashCode(owner);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof OwnerKey other) || hash != other.hash) return false;
+            RenderedImage owner = get();
+            return owner != null && owner == other.get();
+        }
+    }
+
+    record TileKey(OwnerKey owner, int tileX, int tileY) {}
+
+    /** The tiles of an owner, along with the key shared by all of them */
+    record OwnerTiles(OwnerKey owner, Set<TileKey> keys) {
+
+        OwnerTiles(OwnerKey owner) {
+            this(owner, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /** The heap side of a cached tile, with the structure of the raster, and the blocks holding its pixels */
+    static final class Entry {
+
+        final TileKey key;
+
+        final String operation;
+
+        final SampleModel sampleModel;
+
+        final Rectangle bounds;
+
+        final Point translate;
+
+        final int dataType;
+
+        final int[] bankLengths;
+
+        final int size;
+
+        final int[] offsets;
+
+        final long bytes;
+
+        final int[] blocks;
+
+        final BlockStore store;
+
+        /** The cache holds one reference, each lookup in progress another one */
+        final AtomicInteger references = new AtomicInteger(1);
+
+        /** Set when the tile is read, cleared by the eviction sweep */
+        volatile boolean referenced;
+
+        /** Set when the tile is no longer in the cache */
+        volatile boolean removed;
+
+        Entry(
+                TileKey key,
+                String operation,
+                Raster raster,
+                int[] bankLengths,
+                long bytes,
+                int[] blocks,
+                BlockStore store) {
+            this.key = key;
+            this.operation = operation;
+            this.sampleModel = raster.getSampleModel();
+            this.bounds = raster.getBounds();
+            this.translate = new Point(raster.getSampleModelTranslateX(), raster.getSampleModelTranslateY());
+            DataBuffer buffer = raster.getDataBuffer();
+            this.dataType = buffer.getDataType();
+            this.bankLengths = bankLengths;
+            this.size = buffer.getSize();
+            this.offsets = buffer.getOffsets();
+            this.bytes = bytes;
+            this.blocks = blocks;
+            this.store = store;
+        }
+
+        /** The memory used by the blocks */
+        long getMemory() {
+            return (long) blocks.length * BlockStore.BLOCK_SIZE;
+        }
+
+        /** Takes a reference, unless the blocks have already been given back */
+        boolean retain() {
+            int count;
+            do {
+                count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        /** Drops a reference, giving back the blocks when it's the last one */
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                store.release(blocks);
+            }
+        }
+    }
+
+    /** Fixed size blocks carved out of direct memory, or out of a memory mapped scratch file */
+    static final class BlockStore implements Closeable {
+
+        static final int BLOCK_SIZE = 64 * 1024;
+
+        /** The chunks are allocated on first use, 16MB each, so that a large capacity is not reserved upfront */
+        static final int BLOCKS_PER_CHUNK = 256;
+
+        private final ByteBuffer[] chunks;
+
+        private final int blockCount;
+
+        private final int[] free;
+
+        private int freeCount;
+
+        private final FileChannel channel;
+
+        /** Set when the store is no longer used by the cache, it gets closed once all its blocks are given back */
+        private boolean retired;
+
+        BlockStore(long capacity, Path scratchDirectory) throws IOException {
+            if (scratchDirectory != null) {
+                Files.createDirectories(scratchDirectory);
+                // the file grows as the chunks get used, make sure it can reach the full capacity
+                long usable = Files.getFileStore(scratchDirectory).getUsableSpace();
+                if (usable < capacity) {
+                    throw new IOException("The tile cache scratch directory " + scratchDirectory + " has only "
+                            + usable
+                            + " bytes available, less than the configured capacity of "
+                            + capacity
+                            + " bytes");
+                }
+            }
+            this.blockCount = (int) Math.min(Integer.MAX_VALUE, capacity / BLOCK_SIZE);
+            this.chunks = new ByteBuffer[(blockCount + BLOCKS_PER_CHUNK - 1) / BLOCKS_PER_CHUNK];
+            this.free = new int[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                free[i] = blockCount - 1 - i;
+            }
+            this.freeCount = blockCount;
+            if (scratchDirectory != null) {
+                Path file = Files.createTempFile(scratchDirectory, "tilecache", ".bin");
+                this.channel = FileChannel.open(
+                        file,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+            } else {
+                this.channel = null;
+            }
+        }
+
+        int getBlockCount() {
+            return blockCount;
+        }
+
+        synchronized int getFreeBlocks() {
+            return freeCount;
+        }
+
+        /** Allocates the given number of blocks, or returns null if there are not enough free blocks */
+        synchronized int[] allocate(int count) {
+            if (retired || count > freeCount) {
+                return null;
+            }
+            int[] result = new int[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = free[--freeCount];
+            }
+            return result;
+        }
+
+        synchronized void release(int[] blocks) {
+            for (int block : blocks) {
+                free[freeCount++] = block;
+            }
+            if (retired && freeCount == blockCount) {
+                close();
+            }
+        }
+
+        /** Stops allocating blocks, and closes the store as soon as the ones still in use are given back */
+        synchronized void retire() {
+            retired = true;
+            if (freeCount == blockCount) {
+                close();
+            }
+        }
+
+        /** Returns a view of the given block, in native byte order */
+        ByteBuffer getBlock(int block) {
+            ByteBuffer chunk = getChunk(block / BLOCKS_PER_CHUNK);
+            return chunk.slice((block % BLOCKS_PER_CHUNK) * BLOCK_SIZE, BLOCK_SIZE)
+                    .order(ByteOrder.nativeOrder());
+        }
+
+        private synchronized ByteBuffer getChunk(int index) {
+            ByteBuffer chunk = chunks[index];
+            if (chunk == null) {
+                int blocks = Math.min(BLOCKS_PER_CHUNK, blockCount - index * BLOCKS_PER_CHUNK);
+                int size = blocks * BLOCK_SIZE;
+                if (channel != null) {
+                    long position = (long) index * BLOCKS_PER_CHUNK * BLOCK_SIZE;
+                    try {
+                        chunk = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to map the tile cache scratch file", e);
+                    }
+                } else {
+                    chunk = ByteBuffer.allocateDirect(size);
+                }
+                chunks[index] = chunk;
+            }
+            return chunk;
+        }
+
+        @Override
+        public synchronized void close() {
+            Arrays.fill(chunks, null);
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Failed to close the tile cache scratch file", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+import java.awt.image.RenderedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the tile cache usage statistics, broken down by the operation owning the tiles. The operation is identified
+ * by the class of the image owning the tiles, e.g., "WarpBilinear" for the tiles of a
+ * <code>WarpBilinearOpImage</code>.
+ */
+public class TileCacheStatistics {
+
+    /** The statistics of a single operation */
+    public static class OperationStatistics {
+
+        private final String operation;
+
+        final LongAdder hits = new LongAdder();
+
+        final LongAdder misses = new LongAdder();
+
+        final LongAdder additions = new LongAdder();
+
+        final LongAdder evictions = new LongAdder();
+
+        final AtomicLong tiles = new AtomicLong();
+
+        final AtomicLong memory = new AtomicLong();
+
+        OperationStatistics(String operation) {
+            this.operation = operation;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        /** Number of times a tile was found in the cache */
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /** Number of times a tile was looked up, but not found in the cache */
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        /** Number of tiles added to the cache */
+        public long getAdditions() {
+            return additions.sum();
+        }
+
+        /** Number of tiles removed to make room for other tiles */
+        public long getEvictions() {
+            return evictions.sum();
+        }
+
+        /** Number of tiles currently in the cache, if tracked by the cache, 0 otherwise */
+        public long getTiles() {
+            return tiles.get();
+        }
+
+        /** Memory used by the tiles currently in the cache, if tracked by the cache, 0 otherwise */
+        public long getMemory() {
+            return memory.get();
+        }
+    }
+
+    private final Map<String, OperationStatistics> operations = new ConcurrentHashMap<>();
+
+    private final boolean residencyTracked;
+
+    /**
+     * @param residencyTracked true if the cache reports tile removals, allowing to track the number of tiles and
+     *     memory used by each operation, and the evictions
+     */
+    public TileCacheStatistics(boolean residencyTracked) {
+        this.residencyTracked = residencyTracked;
+    }
+
+    /** Returns true if tile removals, evictions and memory usage are tracked */
+    public boolean isResidencyTracked() {
+        return residencyTracked;
+    }
+
+    /** Records a tile lookup */
+    public void lookup(RenderedImage owner, boolean hit) {
+        OperationStatistics stats = getStatistics(owner);
+        if (hit) {
+            stats.hits.increment();
+        } else {
+            stats.misses.increment();
+        }
+    }
+
+    /** Records the addition of a tile of the given size */
+    public void added(RenderedImage owner, long size) {
+        OperationStatistics stats = getStatistics(owner);
+        stats.additions.increment();
+        if (residencyTracked) {
+            stats.tiles.incrementAndGet();
+            stats.memory.addAndGet(size);
+        }
+    }
+
+    /** Records the removal of a tile of the given size */
+    public void removed(String operation, long size, boolean evicted) {
+        OperationStatistics stats = operations.computeIfAbsent(operation, OperationStatistics::new);
+        if (evicted) {
+            stats.evictions.increment();
+        }
+        stats.tiles.decrementAndGet();
+        stats.memory.addAndGet(-size);
+    }
+
+    /** Returns the statistics of all operations, sorted by decreasing memory usage, then by number of additions */
+    public List<OperationStatistics> getOperations() {
+        List<OperationStatistics> result = new ArrayList<>(operations.values());
+        result.sort(Comparator.comparingLong(OperationStatistics::getMemory)
+                .thenComparingLong(OperationStatistics::getAdditions)
+                .reversed());
+        return result;
+    }
+
+    public long getHits() {
+        return operations.values().stream().mapToLong(OperationStatistics::getHits).sum();
+    }
+
+    public long getMisses() {
+        return operations.values().stream()
+                .mapToLong(OperationStatistics::getMisses)
+                .sum();
+    }
+
+    public long getEvictions() {
+        return operations.values().stream()
+                .mapToLong(OperationStatistics::getEvictions)
+                .sum();
+    }
+
+    /** Clears the counters. Tiles and memory used are kept, as they refer to the current cache contents */
+    public void reset() {
+        operations.values().removeIf(s -> s.getTiles() <= 0);
+        for (OperationStatistics stats : operations.values()) {
+            stats.hits.reset();
+            stats.misses.reset();
+            stats.additions.reset();
+            stats.evictions.reset();
+        }
+    }
+
+    private OperationStatistics getStatistics(RenderedImage owner) {
+        return operations.computeIfAbsent(getOperation(owner), OperationStatistics::new);
+    }
+
+    /** Returns the name of the operation owning the tiles */
+    public static String getOperation(RenderedImage owner) {
+        if (owner == null) {
+            return "Unknown";
+        }
+        String name = owner.getClass().getSimpleName();
+        if (name.isEmpty()) {
+            name = owner.getClass().getName();
+        }
+        if (name.endsWith("OpImage") && name.length() > "OpImage".length()) {
+            name = name.substring(0, name.length() - "OpImage".length());
+        }
+        return name;
+    }
+}
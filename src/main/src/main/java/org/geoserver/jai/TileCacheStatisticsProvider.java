@@ -0,0 +1,12 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+/** A tile cache collecting per operation {@link TileCacheStatistics} */
+public interface TileCacheStatisticsProvider {
+
+    /** Returns the statistics collected so far */
+    TileCacheStatistics getStatistics();
+}
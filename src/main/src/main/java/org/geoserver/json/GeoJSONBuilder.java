@@ -11,6 +11,7 @@
 import java.util.Map;
 import net.sf.json.JSONException;
 import net.sf.json.util.JSONBuilder;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geotools.referencing.CRS;
 import org.geotools.util.Converters;
 import org.locationtech.jts.geom.CoordinateSequence;
@@ -32,14 +33,26 @@
  */
 public class GeoJSONBuilder extends JSONBuilder {
 
+    /**
+     * Name of the property that disables the {@link OrdinateFormatter} fast path, making ordinates go through
+     * {@link Double#toString(double)} instead. The output is the same either way.
+     */
+    public static final String LEGACY_ORDINATES_PROPERTY = "GEOSERVER_GEOJSON_LEGACY_ORDINATES";
+
     private CRS.AxisOrder axisOrder = CRS.AxisOrder.EAST_NORTH;
 
     private int numDecimals = 6;
 
     private boolean encodeMeasures = false;
 
+    /** Formats ordinates without going through {@link Double#toString(double)}, {@code null} if disabled */
+    private final OrdinateFormatter ordinateFormatter;
+
     public GeoJSONBuilder(Writer w) {
         super(w);
+        // checked on each builder, so that the flag can be toggled without a restart
+        boolean legacy = Boolean.parseBoolean(GeoServerExtensions.getProperty(LEGACY_ORDINATES_PROPERTY));
+        this.ordinateFormatter = legacy ? null : new OrdinateFormatter();
     }
 
     /**
@@ -220,7 +233,12 @@ private void encodeOrdinate(double value) {
     }
 
     private void roundedValue(double value) {
-        super.value(RoundingUtil.round(value, numDecimals));
+        if (ordinateFormatter != null && ordinateFormatter.format(value, numDecimals)) {
+            // written as is by json-lib, being a JSONString
+            super.value(ordinateFormatter);
+        } else {
+            super.value(RoundingUtil.round(value, numDecimals));
+        }
     }
 
     /**
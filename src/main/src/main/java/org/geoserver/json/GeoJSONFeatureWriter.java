@@ -19,6 +19,7 @@
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import net.sf.json.JSONException;
+import net.sf.json.JSONString;
 import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.catalog.ResourceInfo;
@@ -27,6 +28,7 @@
 import org.geoserver.config.SettingsInfo;
 import org.geoserver.data.TypeInfoCollectionWrapper;
 import org.geoserver.data.util.TemporalUtils;
+import org.geoserver.feature.PipelinedFeatureEncoder;
 import org.geoserver.ows.Dispatcher;
 import org.geoserver.ows.Request;
 import org.geoserver.platform.GeoServerExtensions;
@@ -389,111 +391,171 @@ protected FeaturesInfo encodeSimpleFeatures(
             GeoJSONBuilder jsonWriter, List<FeatureCollection<T, F>> resultsList, boolean featureBounding) {
         String id_option = getIdOption();
 
-        CoordinateReferenceSystem crs = null;
-        boolean hasGeom = false;
-        long featureCount = 0;
+        EncodingState state = new EncodingState();
         for (FeatureCollection collection : resultsList) {
             try (FeatureIterator iterator = collection.features()) {
-                SimpleFeatureType fType;
-                List<AttributeDescriptor> types;
-                // encode each simple feature
-                while (iterator.hasNext()) {
-                    // get next simple feature
-                    SimpleFeature simpleFeature = (SimpleFeature) iterator.next();
-                    featureCount++;
-                    // start writing the JSON feature object
-                    jsonWriter.object();
-                    jsonWriter.key("type").value("Feature");
-                    fType = simpleFeature.getFeatureType();
-                    types = fType.getAttributeDescriptors();
-                    // write the simple feature id
-                    if (id_option == null) {
-                        // no specific attribute nominated, use the simple feature id
-                        jsonWriter.key("id").value(simpleFeature.getID());
-                    } else if (!id_option.isEmpty()) {
-                        // a specific attribute was nominated to be used as id
-                        Object value = simpleFeature.getAttribute(id_option);
-                        jsonWriter.key("id").value(value);
+                if (PipelinedFeatureEncoder.isEnabled()) {
+                    encodeSimpleFeaturesPipelined(jsonWriter, resultsList, iterator, id_option, featureBounding, state);
+                } else {
+                    // encode each simple feature
+                    while (iterator.hasNext()) {
+                        SimpleFeature simpleFeature = (SimpleFeature) iterator.next();
+                        encodeSimpleFeature(jsonWriter, simpleFeature, id_option, featureBounding, state);
                     }
-                    // set that axis order that should be used to write geometries
-                    GeometryDescriptor defaultGeomType = fType.getGeometryDescriptor();
-                    if (defaultGeomType != null) {
-                        CoordinateReferenceSystem featureCrs = defaultGeomType.getCoordinateReferenceSystem();
-                        jsonWriter.setAxisOrder(CRS.getAxisOrder(featureCrs));
-                        if (crs == null) {
-                            crs = featureCrs;
+                }
+            }
+        }
+        return new FeaturesInfo(state.crs, state.hasGeom, state.featureCount);
+    }
+
+    /**
+     * Encodes the features in batches, in parallel, see {@link PipelinedFeatureEncoder}. Each batch is encoded with its
+     * own {@link GeoJSONBuilder}, and then appended to the features array as raw JSON.
+     */
+    private void encodeSimpleFeaturesPipelined(
+            GeoJSONBuilder jsonWriter,
+            List<FeatureCollection<T, F>> resultsList,
+            FeatureIterator<?> iterator,
+            String id_option,
+            boolean featureBounding,
+            EncodingState state) {
+        try {
+            PipelinedFeatureEncoder.<Object, EncodingState>encode(
+                    iterator,
+                    (features, writer) -> {
+                        EncodingState batchState = new EncodingState();
+                        GeoJSONBuilder batchWriter = getGeoJSONBuilder(resultsList, writer);
+                        batchWriter.array();
+                        for (Object feature : features) {
+                            SimpleFeature simpleFeature = (SimpleFeature) feature;
+                            encodeSimpleFeature(batchWriter, simpleFeature, id_option, featureBounding, batchState);
                         }
+                        batchWriter.endArray();
+                        return batchState;
+                    },
+                    (encoded, batchState) -> {
+                        // strip the array brackets, json-lib writes JSONString values as they are
+                        String features = encoded.substring(1, encoded.length() - 1);
+                        jsonWriter.value((JSONString) () -> features);
+                        state.merge(batchState);
+                    });
+        } catch (IOException e) {
+            throw new ServiceException("Failed to encode features", e);
+        }
+    }
+
+    /** Encodes a single simple feature, updating the encoding state */
+    private void encodeSimpleFeature(
+            GeoJSONBuilder jsonWriter,
+            SimpleFeature simpleFeature,
+            String id_option,
+            boolean featureBounding,
+            EncodingState state) {
+        state.featureCount++;
+        // start writing the JSON feature object
+        jsonWriter.object();
+        jsonWriter.key("type").value("Feature");
+        SimpleFeatureType fType = simpleFeature.getFeatureType();
+        List<AttributeDescriptor> types = fType.getAttributeDescriptors();
+        // write the simple feature id
+        if (id_option == null) {
+            // no specific attribute nominated, use the simple feature id
+            jsonWriter.key("id").value(simpleFeature.getID());
+        } else if (!id_option.isEmpty()) {
+            // a specific attribute was nominated to be used as id
+            Object value = simpleFeature.getAttribute(id_option);
+            jsonWriter.key("id").value(value);
+        }
+        // set that axis order that should be used to write geometries
+        GeometryDescriptor defaultGeomType = fType.getGeometryDescriptor();
+        if (defaultGeomType != null) {
+            CoordinateReferenceSystem featureCrs = defaultGeomType.getCoordinateReferenceSystem();
+            jsonWriter.setAxisOrder(CRS.getAxisOrder(featureCrs));
+            if (state.crs == null) {
+                state.crs = featureCrs;
+            }
+        } else {
+            // If we don't know, assume EAST_NORTH so that no swapping occurs
+            jsonWriter.setAxisOrder(CRS.AxisOrder.EAST_NORTH);
+        }
+        // start writing the simple feature geometry JSON object
+        Geometry aGeom = (Geometry) simpleFeature.getDefaultGeometry();
+        state.hasGeom |= aGeom != null;
+        if (aGeom != null || writeNullGeometries()) {
+            writeGeometry(jsonWriter, defaultGeomType, aGeom);
+        }
+        // start writing feature properties JSON object
+        jsonWriter.key("properties");
+        jsonWriter.object();
+        for (int j = 0; j < types.size(); j++) {
+            Object value = simpleFeature.getAttribute(j);
+            AttributeDescriptor ad = types.get(j);
+            if (id_option != null && id_option.equals(ad.getLocalName())) {
+                continue; // skip this value as it is used as the id
+            }
+            if (ad instanceof GeometryDescriptor) {
+                // This is an area of the spec where they
+                // decided to 'let convention evolve',
+                // that is how to handle multiple
+                // geometries. My take is to print the
+                // geometry here if it's not the default.
+                // If it's the default that you already
+                // printed above, so you don't need it here.
+                if (!ad.equals(defaultGeomType)) {
+                    if (value == null) {
+                        jsonWriter.key(ad.getLocalName());
+                        jsonWriter.value(null);
                     } else {
-                        // If we don't know, assume EAST_NORTH so that no swapping occurs
-                        jsonWriter.setAxisOrder(CRS.AxisOrder.EAST_NORTH);
+                        // if it was the default geometry, it has been written above
+                        // already
+                        jsonWriter.key(ad.getLocalName());
+                        jsonWriter.writeGeom((Geometry) value);
                     }
-                    // start writing the simple feature geometry JSON object
-                    Geometry aGeom = (Geometry) simpleFeature.getDefaultGeometry();
-                    hasGeom |= aGeom != null;
-                    if (aGeom != null || writeNullGeometries()) {
-                        writeGeometry(jsonWriter, defaultGeomType, aGeom);
-                    }
-                    // start writing feature properties JSON object
-                    jsonWriter.key("properties");
-                    jsonWriter.object();
-                    for (int j = 0; j < types.size(); j++) {
-                        Object value = simpleFeature.getAttribute(j);
-                        AttributeDescriptor ad = types.get(j);
-                        if (id_option != null && id_option.equals(ad.getLocalName())) {
-                            continue; // skip this value as it is used as the id
-                        }
-                        if (ad instanceof GeometryDescriptor) {
-                            // This is an area of the spec where they
-                            // decided to 'let convention evolve',
-                            // that is how to handle multiple
-                            // geometries. My take is to print the
-                            // geometry here if it's not the default.
-                            // If it's the default that you already
-                            // printed above, so you don't need it here.
-                            if (!ad.equals(defaultGeomType)) {
-                                if (value == null) {
-                                    jsonWriter.key(ad.getLocalName());
-                                    jsonWriter.value(null);
-                                } else {
-                                    // if it was the default geometry, it has been written above
-                                    // already
-                                    jsonWriter.key(ad.getLocalName());
-                                    jsonWriter.writeGeom((Geometry) value);
-                                }
-                            }
-                        } else if (Date.class.isAssignableFrom(ad.getType().getBinding())
-                                && TemporalUtils.isDateTimeFormatEnabled()) {
-                            // Temporal types print handling
-                            jsonWriter.key(ad.getLocalName());
-                            jsonWriter.value(TemporalUtils.printDate((Date) value));
-                        } else {
-                            jsonWriter.key(ad.getLocalName());
-                            if (isNaN(value)) {
-                                jsonWriter.value(null);
-                            } else if (isPositiveInfinity(value)) {
-                                jsonWriter.value("Infinity");
-                            } else if (isNegativeInfinity(value)) {
-                                jsonWriter.value("-Infinity");
-                            } else {
-                                jsonWriter.value(value);
-                            }
-                        }
-                    }
-                    jsonWriter.endObject(); // end the properties
+                }
+            } else if (Date.class.isAssignableFrom(ad.getType().getBinding())
+                    && TemporalUtils.isDateTimeFormatEnabled()) {
+                // Temporal types print handling
+                jsonWriter.key(ad.getLocalName());
+                jsonWriter.value(TemporalUtils.printDate((Date) value));
+            } else {
+                jsonWriter.key(ad.getLocalName());
+                if (isNaN(value)) {
+                    jsonWriter.value(null);
+                } else if (isPositiveInfinity(value)) {
+                    jsonWriter.value("Infinity");
+                } else if (isNegativeInfinity(value)) {
+                    jsonWriter.value("-Infinity");
+                } else {
+                    jsonWriter.value(value);
+                }
+            }
+        }
+        jsonWriter.endObject(); // end the properties
 
-                    // Bounding box for feature in properties
-                    ReferencedEnvelope refenv = ReferencedEnvelope.reference(simpleFeature.getBounds());
-                    if (featureBounding && !refenv.isEmpty()) {
-                        jsonWriter.writeBoundingBox(refenv);
-                    }
+        // Bounding box for feature in properties
+        ReferencedEnvelope refenv = ReferencedEnvelope.reference(simpleFeature.getBounds());
+        if (featureBounding && !refenv.isEmpty()) {
+            jsonWriter.writeBoundingBox(refenv);
+        }
 
-                    writeExtraFeatureProperties(simpleFeature, jsonWriter);
+        writeExtraFeatureProperties(simpleFeature, jsonWriter);
 
-                    jsonWriter.endObject(); // end the feature
-                }
+        jsonWriter.endObject(); // end the feature
+    }
+
+    /** Information gathered while encoding simple features */
+    private static class EncodingState {
+        CoordinateReferenceSystem crs;
+        boolean hasGeom;
+        long featureCount;
+
+        void merge(EncodingState other) {
+            if (crs == null) {
+                crs = other.crs;
             }
+            hasGeom |= other.hasGeom;
+            featureCount += other.featureCount;
         }
-        return new FeaturesInfo(crs, hasGeom, featureCount);
     }
 
     private boolean isNegativeInfinity(Object value) {
@@ -0,0 +1,110 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.json;
+
+import net.sf.json.JSONString;
+
+/**
+ * Formats rounded ordinates straight into a reusable character buffer, producing the same output as writing
+ * {@link RoundingUtil#round(double, int)} through json-lib (that is, {@link Double#toString(double)} with trailing
+ * zeros stripped), without going through boxing, {@link Double#toString(double)} and the substring based zero
+ * stripping.
+ *
+ * <p>The fast path works on the scaled long value and is used only when the output is guaranteed to match, that is, for
+ * up to 8 decimals, rounded values that have at most 15 significant digits, and magnitudes that {@link Double#toString}
+ * would not render in scientific notation. In all other cases {@link #format(double, int)} returns {@code false} and
+ * the caller is expected to use the regular code path.
+ *
+ * <p>Instances are not thread safe, each {@link GeoJSONBuilder} uses its own.
+ */
+public class OrdinateFormatter implements JSONString {
+
+    private static final long[] POW10 = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L};
+
+    private static final double[] SCALE = {1d, 10d, 100d, 1000d, 10000d, 100000d, 1000000d, 10000000d, 100000000d};
+
+    /** Scaled values at or above this threshold might have more than 15 significant digits */
+    private static final double MAX_SCALED = 1e15;
+
+    private final char[] buffer = new char[32];
+
+    private int length;
+
+    /**
+     * Formats the value rounded to the given number of decimals
+     *
+     * @return {@code true} if the value has been formatted, {@code false} if the fast path does not apply
+     */
+    public boolean format(double value, int numDecimals) {
+        if (numDecimals < 0 || numDecimals >= SCALE.length || Double.isNaN(value) || Double.isInfinite(value)) {
+            return false;
+        }
+        final double scale = SCALE[numDecimals];
+        // RoundingUtil returns the value as is when it does not have enough precision
+        if (Math.ulp(value) * scale > 1d) {
+            return false;
+        }
+        final double scaled = Math.floor(value * scale + 0.5);
+        if (Math.abs(scaled) >= MAX_SCALED) {
+            return false;
+        }
+        final double rounded = Math.abs(scaled / scale);
+        // Double.toString switches to scientific notation outside of [10^-3, 10^7)
+        if (rounded != 0 && (rounded < 1e-3 || rounded >= 1e7)) {
+            return false;
+        }
+
+        long digits = (long) scaled;
+        length = 0;
+        if (digits < 0) {
+            buffer[length++] = '-';
+            digits = -digits;
+        }
+        final long divisor = POW10[numDecimals];
+        writeDigits(digits / divisor);
+        long fraction = digits % divisor;
+        if (fraction != 0) {
+            // strip the trailing zeros, and write the remaining fraction digits zero padded
+            int fractionDigits = numDecimals;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                fractionDigits--;
+            }
+            buffer[length++] = '.';
+            int end = length + fractionDigits;
+            for (int i = end - 1; i >= length; i--) {
+                buffer[i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            length = end;
+        }
+        return true;
+    }
+
+    private void writeDigits(long value) {
+        int start = length;
+        do {
+            buffer[length++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // digits have been written in reverse order
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            char c = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = c;
+        }
+    }
+
+    /** Returns the last formatted value */
+    @Override
+    public String toJSONString() {
+        return new String(buffer, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return toJSONString();
+    }
+}
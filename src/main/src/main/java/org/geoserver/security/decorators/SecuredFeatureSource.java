@@ -136,6 +136,20 @@ private FeatureCollection<T, F> decoratesForClipping(
         return collection;
     }
 
+    /**
+     * Returns the filter limiting the features that can be read from this source, for code that needs to access the
+     * data bypassing it (e.g., to estimate counts straight from the database), or null if the limits cannot be
+     * expressed as a filter, as when the geometries are clipped
+     */
+    public Filter getReadFilter() {
+        if (policy.getLimits() instanceof VectorAccessLimits vectorLimits
+                && vectorLimits.getClipVectorFilter() != null) {
+            return null;
+        }
+        Filter filter = getReadQuery().getFilter();
+        return filter != null ? filter : Filter.INCLUDE;
+    }
+
     protected Query getReadQuery() {
         if (policy.getAccessLevel() == AccessLevel.HIDDEN || policy.getAccessLevel() == AccessLevel.METADATA) {
             return new Query(null, Filter.EXCLUDE);
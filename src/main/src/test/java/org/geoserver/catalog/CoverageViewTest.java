@@ -365,6 +365,42 @@ public void testNDVI2Jiffle() throws Exception {
         assertNdvi("NDVI2");
     }
 
+    @Test
+    public void testSharedInputsInRequest() throws Exception {
+        CoverageViewInputCache.RequestInputs inputs = new CoverageViewInputCache.RequestInputs();
+        CoverageViewInputCache.REQUEST_INPUTS.set(inputs);
+        try {
+            assertNdvi(NDVI_VIEW);
+            // B04 and B08 have been read by a single view, no need to copy them
+            assertEquals(0, inputs.size());
+            // the second view reads them too, they get shared
+            assertNdvi(NDVI_VIEW2);
+            assertEquals(2, inputs.size());
+            // and reused, even if the images of the other views have been disposed
+            assertNdvi(NDVI_VIEW);
+            assertEquals(2, inputs.size());
+        } finally {
+            CoverageViewInputCache.REQUEST_INPUTS.remove();
+        }
+    }
+
+    @Test
+    public void testSharedInputsLimit() throws Exception {
+        // not enough memory to share a single source
+        CoverageViewInputCache.RequestInputs inputs = new CoverageViewInputCache.RequestInputs(1);
+        CoverageViewInputCache.REQUEST_INPUTS.set(inputs);
+        try {
+            assertNdvi(NDVI_VIEW);
+            assertNdvi(NDVI_VIEW2);
+            assertNdvi(NDVI_VIEW);
+            // the sources have been read directly every time
+            assertEquals(0, inputs.size());
+            assertEquals(0, inputs.getMemory());
+        } finally {
+            CoverageViewInputCache.REQUEST_INPUTS.remove();
+        }
+    }
+
     private void assertNdvi(String viewName) throws Exception {
         GridCoverage2D solidCoverage = null;
         GridCoverage b04Coverage = null;
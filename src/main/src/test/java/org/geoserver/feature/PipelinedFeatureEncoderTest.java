@@ -0,0 +1,150 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.feature;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PipelinedFeatureEncoderTest {
+
+    ExecutorService executor;
+
+    SimpleFeatureCollection features;
+
+    @Before
+    public void setup() throws Exception {
+        executor = Executors.newFixedThreadPool(4);
+        SimpleFeatureType type = DataUtilities.createType("test", "id:int");
+        List<SimpleFeature> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(SimpleFeatureBuilder.build(type, new Object[] {i}, "test." + i));
+        }
+        features = DataUtilities.collection(list);
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testOrderPreserved() throws Exception {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            expected.append(i).append(";");
+        }
+
+        StringBuilder output = new StringBuilder();
+        AtomicInteger counted = new AtomicInteger();
+        try (SimpleFeatureIterator it = features.features()) {
+            PipelinedFeatureEncoder.<SimpleFeature, Integer>encode(
+                    it,
+                    (batch, writer) -> {
+                        // make batches complete out of order
+                        sleep(ThreadLocalRandom.current().nextInt(5));
+                        for (SimpleFeature f : batch) {
+                            writer.write(f.getAttribute("id") + ";");
+                        }
+                        return batch.size();
+                    },
+                    (encoded, count) -> {
+                        output.append(encoded);
+                        counted.addAndGet(count);
+                    },
+                    executor,
+                    7,
+                    3);
+        }
+        assertEquals(expected.toString(), output.toString());
+        assertEquals(100, counted.get());
+    }
+
+    @Test
+    public void testBoundedInFlight() throws Exception {
+        AtomicInteger pending = new AtomicInteger();
+        AtomicInteger maxPending = new AtomicInteger();
+        try (SimpleFeatureIterator it = features.features()) {
+            PipelinedFeatureEncoder.<SimpleFeature, Void>encode(
+                    new SimpleFeatureIterator() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public SimpleFeature next() {
+                            // one feature per batch, so features read and not written are in flight
+                            maxPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+                            return it.next();
+                        }
+
+                        @Override
+                        public void close() {
+                            it.close();
+                        }
+                    },
+                    (batch, writer) -> {
+                        sleep(1);
+                        return null;
+                    },
+                    (encoded, result) -> pending.decrementAndGet(),
+                    executor,
+                    1,
+                    3);
+        }
+        assertEquals(0, pending.get());
+        assertTrue(maxPending.get() <= 3);
+    }
+
+    @Test
+    public void testEncodingFailure() throws Exception {
+        AtomicInteger written = new AtomicInteger();
+        try (SimpleFeatureIterator it = features.features()) {
+            IOException e = assertThrows(
+                    IOException.class,
+                    () -> PipelinedFeatureEncoder.<SimpleFeature, Void>encode(
+                            it,
+                            (batch, writer) -> {
+                                if (batch.get(0).getID().equals("test.50")) {
+                                    throw new IOException("Failed on purpose");
+                                }
+                                return null;
+                            },
+                            (encoded, result) -> written.incrementAndGet(),
+                            executor,
+                            10,
+                            2));
+            assertEquals("Failed on purpose", e.getMessage());
+        }
+        // the batches before the failing one have been written
+        assertEquals(5, written.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -5,6 +5,7 @@
 package org.geoserver.filters;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -13,7 +14,9 @@
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 import org.springframework.mock.web.DelegatingServletOutputStream;
@@ -176,6 +179,39 @@ public void doFilter(ServletRequest request, ServletResponse response)
         assertEquals("1000", response.getHeader("Content-Length"));
     }
 
+    @Test
+    public void testAlreadyEncoded() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "http://www.geoserver.org");
+        request.addHeader("accept-encoding", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setContentType("text/plain");
+
+        // run the filter
+        GZIPFilter filter = new GZIPFilter();
+
+        MockServletContext context = new MockServletContext();
+        MockFilterConfig config = new MockFilterConfig(context);
+        config.addInitParameter("compressed-types", "text/plain");
+        filter.init(config);
+
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            @SuppressWarnings("PMD.CloseResource")
+            public void doFilter(ServletRequest request, ServletResponse response)
+                    throws IOException, ServletException {
+                // the contents are already gzipped, must not be compressed again
+                ((HttpServletResponse) response).addHeader("Content-Encoding", "gzip");
+                AlternativesResponseStream alternatives = (AlternativesResponseStream) response.getOutputStream();
+                ServletOutputStream stream = alternatives.getStream();
+                assertThat(stream, CoreMatchers.not(CoreMatchers.instanceOf(GZIPResponseStream.class)));
+                stream.write(1);
+            }
+        };
+        filter.doFilter(request, response, chain);
+        assertEquals(List.of("gzip"), response.getHeaders("Content-Encoding"));
+        assertArrayEquals(new byte[] {1}, response.getContentAsByteArray());
+    }
+
     @Test
     public void testFlushAfterClose() throws ServletException, IOException {
         // prepare request, response, and chain
@@ -0,0 +1,66 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.imagen.ImageN;
+import org.eclipse.imagen.TileCache;
+import org.geoserver.config.ImageProcessingInfo.TileCacheType;
+import org.geoserver.config.impl.ImageProcessingInfoImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ImageNInitializerTest {
+
+    private final GeoServerTileCache tileCache = new GeoServerTileCache();
+
+    private final OffHeapTileCache offHeapTileCache = new OffHeapTileCache();
+
+    private TileCache original;
+
+    @Before
+    public void saveTileCache() {
+        original = ImageN.getDefaultInstance().getTileCache();
+    }
+
+    @After
+    public void restoreTileCache() throws Exception {
+        ImageN.getDefaultInstance().setTileCache(original);
+        offHeapTileCache.destroy();
+    }
+
+    @Test
+    public void testHeapTileCache() {
+        ImageProcessingInfoImpl imageProcessing = new ImageProcessingInfoImpl();
+        imageProcessing.setMemoryCapacity(0.25);
+        new ImageNInitializer(tileCache, offHeapTileCache).initJAI(imageProcessing);
+
+        // heap storage keeps the ImageN cache, with the configured capacity
+        assertSame(original, ImageN.getDefaultInstance().getTileCache());
+        assertSame(original, imageProcessing.getTileCache());
+        assertEquals((long) (0.25 * Runtime.getRuntime().maxMemory()), original.getMemoryCapacity());
+    }
+
+    @Test
+    public void testSwitchStorage() {
+        ImageProcessingInfoImpl imageProcessing = new ImageProcessingInfoImpl();
+        ImageNInitializer initializer = new ImageNInitializer(tileCache, offHeapTileCache);
+        imageProcessing.setTileCacheType(TileCacheType.OFF_HEAP);
+        imageProcessing.setOffHeapCapacity(4);
+        initializer.initJAI(imageProcessing);
+        assertSame(offHeapTileCache, ImageN.getDefaultInstance().getTileCache());
+        assertEquals(4 * 1024 * 1024, offHeapTileCache.getMemoryCapacity());
+
+        // the replaced ImageN cache is restored
+        imageProcessing.setTileCacheType(TileCacheType.HEAP);
+        initializer.initJAI(imageProcessing);
+        assertSame(original, ImageN.getDefaultInstance().getTileCache());
+        // the off heap storage has been released
+        assertEquals(0, offHeapTileCache.getMemoryCapacity());
+    }
+}
@@ -0,0 +1,216 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Point;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.geoserver.jai.TileCacheStatistics.OperationStatistics;
+import org.junit.After;
+import org.junit.Test;
+
+public class OffHeapTileCacheTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private final OffHeapTileCache cache = new OffHeapTileCache();
+
+    @After
+    public void release() throws Exception {
+        cache.destroy();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        cache.configure(false, 4 * MB);
+        assertRoundTrip(DataBuffer.TYPE_BYTE, 3);
+        assertRoundTrip(DataBuffer.TYPE_USHORT, 1);
+        assertRoundTrip(DataBuffer.TYPE_SHORT, 2);
+        assertRoundTrip(DataBuffer.TYPE_INT, 1);
+        assertRoundTrip(DataBuffer.TYPE_FLOAT, 2);
+        assertRoundTrip(DataBuffer.TYPE_DOUBLE, 1);
+    }
+
+    @Test
+    public void testMappedRoundTrip() {
+        cache.configure(true, 4 * MB);
+        assertTrue(cache.isMapped());
+        assertRoundTrip(DataBuffer.TYPE_BYTE, 4);
+        assertRoundTrip(DataBuffer.TYPE_FLOAT, 1);
+    }
+
+    @Test
+    public void testChildRaster() {
+        cache.configure(false, 4 * MB);
+        RenderedImage owner = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        WritableRaster parent = buildRaster(DataBuffer.TYPE_BYTE, 1, 0, 0);
+        Raster child = parent.createChild(32, 64, 100, 50, 32, 64, null);
+
+        cache.add(owner, 1, 2, child);
+        assertRasterEquals(child, cache.getTile(owner, 1, 2));
+    }
+
+    @Test
+    public void testEviction() {
+        // room for 16 tiles of 256x256 bytes
+        cache.configure(false, 1 * MB);
+        cache.setMemoryThreshold(0.5f);
+        RenderedImage owner = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        for (int i = 0; i < 16; i++) {
+            cache.add(owner, i, 0, buildRaster(DataBuffer.TYPE_BYTE, 1, i * 256, 0));
+        }
+        assertEquals(16, cache.getCacheTileCount());
+        // touch the first tile, so that it's the most recently used
+        assertNotNull(cache.getTile(owner, 0, 0));
+
+        // one more tile, evicts the least recently used ones down to the threshold
+        cache.add(owner, 16, 0, buildRaster(DataBuffer.TYPE_BYTE, 1, 16 * 256, 0));
+        assertTrue(cache.getCacheMemoryUsed() <= 1 * MB);
+        assertEquals(9, cache.getCacheTileCount());
+        assertNotNull(cache.getTile(owner, 0, 0));
+        assertNotNull(cache.getTile(owner, 16, 0));
+        assertNull(cache.getTile(owner, 1, 0));
+
+        OperationStatistics stats = cache.getStatistics().getOperations().get(0);
+        assertEquals("BufferedImage", stats.getOperation());
+        assertEquals(17, stats.getAdditions());
+        assertEquals(8, stats.getEvictions());
+        assertEquals(9, stats.getTiles());
+        assertEquals(9 * 256 * 256, stats.getMemory());
+        assertEquals(3, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        // room for 16 tiles, while the threads add many more, evicting each other's tiles
+        cache.configure(false, 1 * MB);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    RenderedImage owner = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+                    for (int i = 0; i < 50; i++) {
+                        WritableRaster raster = buildRaster(DataBuffer.TYPE_BYTE, 1, i * 256, 0);
+                        cache.add(owner, i, 0, raster);
+                        for (int j = Math.max(0, i - 4); j <= i; j++) {
+                            Raster cached = cache.getTile(owner, j, 0);
+                            if (cached != null) {
+                                assertEquals(j * 256, cached.getMinX());
+                                assertEquals(10, cached.getSample(j * 256 + 1, 1, 0));
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.getCacheMemoryUsed() <= 1 * MB);
+
+        // all the blocks have been given back
+        cache.flush();
+        assertEquals(0, cache.getCacheMemoryUsed());
+        RenderedImage owner = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        for (int i = 0; i < 16; i++) {
+            cache.add(owner, i, 0, buildRaster(DataBuffer.TYPE_BYTE, 1, i * 256, 0));
+        }
+        assertEquals(16, cache.getCacheTileCount());
+    }
+
+    @Test
+    public void testRemoveTiles() {
+        cache.configure(false, 4 * MB);
+        RenderedImage owner1 = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        RenderedImage owner2 = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        cache.add(owner1, 0, 0, buildRaster(DataBuffer.TYPE_BYTE, 1, 0, 0));
+        cache.add(owner1, 1, 0, buildRaster(DataBuffer.TYPE_BYTE, 1, 256, 0));
+        cache.add(owner2, 0, 0, buildRaster(DataBuffer.TYPE_BYTE, 1, 0, 0));
+        assertEquals(2, cache.getTiles(owner1).length);
+
+        cache.removeTiles(owner1);
+        assertNull(cache.getTiles(owner1));
+        assertNull(cache.getTile(owner1, 0, 0));
+        assertNotNull(cache.getTile(owner2, 0, 0));
+        assertEquals(256 * 256, cache.getCacheMemoryUsed());
+
+        cache.flush();
+        assertEquals(0, cache.getCacheTileCount());
+        assertEquals(0, cache.getCacheMemoryUsed());
+    }
+
+    @Test
+    public void testDisabled() {
+        RenderedImage owner = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        cache.add(owner, 0, 0, buildRaster(DataBuffer.TYPE_BYTE, 1, 0, 0));
+        assertNull(cache.getTile(owner, 0, 0));
+        assertEquals(0, cache.getCacheTileCount());
+    }
+
+    @Test
+    public void testMappedCapacityCheck() throws Exception {
+        long usable = Files.getFileStore(Path.of(OffHeapTileCache.SCRATCH_DIRECTORY)).getUsableSpace();
+        // the scratch file could not grow to the configured capacity, caching is disabled
+        cache.configure(true, usable + 1024 * MB);
+        RenderedImage owner = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        cache.add(owner, 0, 0, buildRaster(DataBuffer.TYPE_BYTE, 1, 0, 0));
+        assertNull(cache.getTile(owner, 0, 0));
+        assertEquals(0, cache.getCacheTileCount());
+    }
+
+    private void assertRoundTrip(int dataType, int bands) {
+        RenderedImage owner = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        WritableRaster raster = buildRaster(dataType, bands, 256, 512);
+        cache.add(owner, 1, 2, raster);
+        Raster cached = cache.getTile(owner, 1, 2);
+        assertEquals(dataType, cached.getDataBuffer().getDataType());
+        assertRasterEquals(raster, cached);
+    }
+
+    private WritableRaster buildRaster(int dataType, int bands, int x, int y) {
+        WritableRaster raster =
+                Raster.createWritableRaster(new BandedSampleModel(dataType, 256, 256, bands), new Point(x, y));
+        for (int b = 0; b < bands; b++) {
+            for (int j = 0; j < 256; j++) {
+                for (int i = 0; i < 256; i++) {
+                    raster.setSample(x + i, y + j, b, (i * 7 + j * 3 + b) % 128);
+                }
+            }
+        }
+        return raster;
+    }
+
+    private void assertRasterEquals(Raster expected, Raster actual) {
+        assertEquals(expected.getBounds(), actual.getBounds());
+        assertEquals(expected.getNumBands(), actual.getNumBands());
+        double[] expectedPixels = expected.getPixels(
+                expected.getMinX(), expected.getMinY(), expected.getWidth(), expected.getHeight(), (double[]) null);
+        double[] actualPixels = actual.getPixels(
+                actual.getMinX(), actual.getMinY(), actual.getWidth(), actual.getHeight(), (double[]) null);
+        assertArrayEquals(expectedPixels, actualPixels, 0d);
+    }
+}
@@ -0,0 +1,91 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import net.sf.json.util.JSONUtils;
+import org.junit.Test;
+
+public class OrdinateFormatterTest {
+
+    private final OrdinateFormatter formatter = new OrdinateFormatter();
+
+    /** The output json-lib would produce for the rounded value */
+    private static String expected(double value, int numDecimals) {
+        return JSONUtils.numberToString(RoundingUtil.round(value, numDecimals));
+    }
+
+    private void assertSameOutput(double value, int numDecimals) {
+        if (formatter.format(value, numDecimals)) {
+            assertEquals(
+                    "Formatting " + value + " with " + numDecimals + " decimals",
+                    expected(value, numDecimals),
+                    formatter.toJSONString());
+        }
+    }
+
+    @Test
+    public void testSimpleValues() {
+        assertTrue(formatter.format(1, 6));
+        assertEquals("1", formatter.toJSONString());
+        assertTrue(formatter.format(-1.5, 6));
+        assertEquals("-1.5", formatter.toJSONString());
+        assertTrue(formatter.format(0, 6));
+        assertEquals("0", formatter.toJSONString());
+        assertTrue(formatter.format(-0.0, 6));
+        assertEquals("0", formatter.toJSONString());
+        assertTrue(formatter.format(12.3456789, 4));
+        assertEquals("12.3457", formatter.toJSONString());
+        assertTrue(formatter.format(-12.3456789, 4));
+        assertEquals("-12.3457", formatter.toJSONString());
+        assertTrue(formatter.format(10.0203, 3));
+        assertEquals("10.02", formatter.toJSONString());
+        assertTrue(formatter.format(0.0012, 4));
+        assertEquals("0.0012", formatter.toJSONString());
+        assertTrue(formatter.format(123.7, 0));
+        assertEquals("124", formatter.toJSONString());
+    }
+
+    @Test
+    public void testFallbacks() {
+        // scientific notation in Double.toString
+        assertFalse(formatter.format(0.0001, 6));
+        assertFalse(formatter.format(12345678.5, 2));
+        // not supported
+        assertFalse(formatter.format(1.5, 9));
+        assertFalse(formatter.format(Double.NaN, 6));
+        assertFalse(formatter.format(Double.POSITIVE_INFINITY, 6));
+    }
+
+    @Test
+    public void testEdgeCases() {
+        double[] values = {
+            0.0005, 0.00049, 0.001, -0.001, 0.0009999, 9999999.4, 9999999.5, 0.5, -0.5, 1.5, 2.5, 0.1, 0.2, 0.3,
+            1e-7, 180, -180, 90, -90, 1234567.891, 0.125, 0.375, 4.35, 2.675, 1.005
+        };
+        for (int decimals = 0; decimals <= 8; decimals++) {
+            for (double v : values) {
+                assertSameOutput(v, decimals);
+                assertSameOutput(-v, decimals);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomValues() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500_000; i++) {
+            int decimals = random.nextInt(9);
+            // spread the magnitudes between geographic and projected coordinates
+            double magnitude = Math.pow(10, random.nextInt(9) - 2);
+            double value = (random.nextDouble() * 2 - 1) * magnitude;
+            assertSameOutput(value, decimals);
+        }
+    }
+}
@@ -5,7 +5,9 @@
 package org.geoserver.security.decorators;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.lang.reflect.Field;
 import org.geoserver.catalog.FeatureTypeInfo;
@@ -17,8 +19,12 @@
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.filter.Filter;
+import org.geotools.filter.text.ecql.ECQL;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.io.WKTReader;
 import org.mockito.Mockito;
 import org.springframework.util.ReflectionUtils;
 
@@ -94,4 +100,23 @@ public void testCloneAccessLimits() throws Exception {
         // check the policy is a clone of the original one, instead of a plain VectorAccessLimits
         assertThat(fsPolicy.getLimits(), CoreMatchers.instanceOf(TestVectorAccessLimits.class));
     }
+
+    @Test
+    public void testReadFilter() throws Exception {
+        SimpleFeatureSource fs = Mockito.mock(SimpleFeatureSource.class);
+        Filter filter = ECQL.toFilter("id > 10");
+        VectorAccessLimits limits = new VectorAccessLimits(CatalogMode.HIDE, null, filter, null, null);
+        SecuredSimpleFeatureSource secured = new SecuredSimpleFeatureSource(fs, WrapperPolicy.readOnlyHide(limits));
+        assertEquals(filter, secured.getReadFilter());
+
+        // no limits, all features can be read
+        secured = new SecuredSimpleFeatureSource(fs, WrapperPolicy.readOnlyHide(null));
+        assertEquals(Filter.INCLUDE, secured.getReadFilter());
+
+        // clipping cannot be expressed as a filter
+        MultiPolygon clip = (MultiPolygon) new WKTReader().read("MULTIPOLYGON(((0 0, 0 1, 1 1, 1 0, 0 0)))");
+        limits = new VectorAccessLimits(CatalogMode.HIDE, null, filter, null, null, clip);
+        secured = new SecuredSimpleFeatureSource(fs, WrapperPolicy.readOnlyHide(limits));
+        assertNull(secured.getReadFilter());
+    }
 }
@@ -102,4 +102,35 @@ default int getDefaultDeflateCompressionLevel() {
     default void setDefaultDeflateCompressionLevel(int defaultDeflateCompressionLevel) {
         // if not implemented nothing is done
     }
+
+    /**
+     * Returns true if GeoTIFF output should be written by the tiled, streaming Cloud Optimized GeoTIFF encoder, when the
+     * coverage and the requested options are supported by it, instead of the ImageIO TIFF writer.
+     *
+     * <p>Default to <code>false</code>.
+     */
+    default boolean isStreamingGeoTiffEncoding() {
+        return false;
+    }
+
+    /** Enables/disables the streaming GeoTIFF encoder. See {@link #isStreamingGeoTiffEncoding()} */
+    default void setStreamingGeoTiffEncoding(boolean streamingGeoTiffEncoding) {
+        // if not implemented nothing is done
+    }
+
+    /**
+     * Returns true if WCS 2.0 GetCoverage requests combining reprojection and scaling should compute the target grid
+     * up front, reading at the resolution the output needs and resampling onto it in a single step, instead of reading
+     * at native resolution, reprojecting and then scaling.
+     *
+     * <p>Default to <code>false</code>.
+     */
+    default boolean isCoverageReadPlanning() {
+        return false;
+    }
+
+    /** Enables/disables the coverage read planning. See {@link #isCoverageReadPlanning()} */
+    default void setCoverageReadPlanning(boolean coverageReadPlanning) {
+        // if not implemented nothing is done
+    }
 }
@@ -40,6 +40,10 @@ public class WCSInfoImpl extends ServiceInfoImpl implements WCSInfo {
 
     Integer maxRequestedDimensionValues;
 
+    Boolean streamingGeoTiffEncoding;
+
+    Boolean coverageReadPlanning;
+
     public WCSInfoImpl() {}
 
     @Override
@@ -134,6 +138,8 @@ public int hashCode() {
         result = prime * result + ((maxRequestedDimensionValues == null) ? 0 : maxRequestedDimensionValues.hashCode());
         result = prime * result
                 + ((defaultDeflateCompressionLevel == null) ? 0 : defaultDeflateCompressionLevel.hashCode());
+        result = prime * result + ((streamingGeoTiffEncoding == null) ? 0 : streamingGeoTiffEncoding.hashCode());
+        result = prime * result + ((coverageReadPlanning == null) ? 0 : coverageReadPlanning.hashCode());
         return result;
     }
 
@@ -160,6 +166,12 @@ public boolean equals(Object obj) {
         if (defaultDeflateCompressionLevel == null) {
             if (other.defaultDeflateCompressionLevel != null) return false;
         } else if (!defaultDeflateCompressionLevel.equals(other.defaultDeflateCompressionLevel)) return false;
+        if (streamingGeoTiffEncoding == null) {
+            if (other.streamingGeoTiffEncoding != null) return false;
+        } else if (!streamingGeoTiffEncoding.equals(other.streamingGeoTiffEncoding)) return false;
+        if (coverageReadPlanning == null) {
+            if (other.coverageReadPlanning != null) return false;
+        } else if (!coverageReadPlanning.equals(other.coverageReadPlanning)) return false;
 
         return true;
     }
@@ -187,4 +199,24 @@ public int getDefaultDeflateCompressionLevel() {
                 ? DEFAULT_DEFLATE_COMPRESSION_LEVEL
                 : defaultDeflateCompressionLevel;
     }
+
+    @Override
+    public boolean isStreamingGeoTiffEncoding() {
+        return Boolean.TRUE.equals(streamingGeoTiffEncoding);
+    }
+
+    @Override
+    public void setStreamingGeoTiffEncoding(boolean streamingGeoTiffEncoding) {
+        this.streamingGeoTiffEncoding = streamingGeoTiffEncoding;
+    }
+
+    @Override
+    public boolean isCoverageReadPlanning() {
+        return Boolean.TRUE.equals(coverageReadPlanning);
+    }
+
+    @Override
+    public void setCoverageReadPlanning(boolean coverageReadPlanning) {
+        this.coverageReadPlanning = coverageReadPlanning;
+    }
 }
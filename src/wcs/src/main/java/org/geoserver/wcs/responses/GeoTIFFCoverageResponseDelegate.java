@@ -98,8 +98,12 @@ public void encode(
         Utilities.ensureNonNull("encodingParameters", encodingParameters);
 
         GeoTiffWriterHelper writerHelper = new GeoTiffWriterHelper(sourceCoverage);
+        WCSInfo wcs = geoserver.getService(WCSInfo.class);
+        boolean streaming = wcs.isStreamingGeoTiffEncoding();
+        writerHelper.setStreamingEncoding(streaming);
+
         // compression
-        handleCompression(encodingParameters, writerHelper);
+        handleCompression(encodingParameters, writerHelper, streaming);
 
         // tiling
         handleTiling(encodingParameters, sourceCoverage, writerHelper);
@@ -107,7 +111,7 @@ public void encode(
         // interleaving
         handleInterleaving(encodingParameters, sourceCoverage, writerHelper);
 
-        if (geoserver.getService(WCSInfo.class).isLatLon()) {
+        if (wcs.isLatLon()) {
             final ParameterValueGroup gp = writerHelper.getGeotoolsWriteParams();
             gp.parameter(GeoTiffFormat.RETAIN_AXES_ORDER.getName().toString()).setValue(true);
         }
@@ -264,11 +268,15 @@ private void handleTiling(
      *   <li>Huffman is supported only for 1 bit images
      * </ol>
      *
+     * <p>The streaming encoder also supports the Floating Point predictor, and the use of predictors with Deflate.
+     *
      * @param encodingParameters a {@link Map} of {@link String} keys with {@link String} values to hold the encoding
      *     parameters.
+     * @param streaming true if the streaming encoder is enabled
      * @throws WcsException in case there are invalid or unsupported options.
      */
-    private void handleCompression(Map<String, String> encodingParameters, GeoTiffWriterHelper helper)
+    private void handleCompression(
+            Map<String, String> encodingParameters, GeoTiffWriterHelper helper, boolean streaming)
             throws WcsException {
         // compression
         if (encodingParameters.containsKey(COMPRESSION)) {
@@ -282,25 +290,12 @@ private void handleCompression(Map<String, String> encodingParameters, GeoTiffWr
                     wp.setCompressionType("LZW");
 
                     // look for a predictor
-                    String predictorS = encodingParameters.get("predictor");
-                    if (predictorS != null) {
-                        if (predictorS.equals("Horizontal")) {
-                            wp.setTIFFCompressor(
-                                    new TIFFLZWCompressor(BaselineTIFFTagSet.PREDICTOR_HORIZONTAL_DIFFERENCING));
-                        } else if (predictorS.equals("Floatingpoint")) {
-                            // NOT SUPPORTED YET
-                            throw new OWS20Exception(
-                                    "Floating Point predictor is not supported",
-                                    ows20Code(WcsExceptionCode.PredictorNotSupported),
-                                    predictorS);
-                        } else if (!predictorS.equals("None")) {
-                            // invalid predictor
-                            throw new OWS20Exception(
-                                    "Invalid Predictor provided",
-                                    ows20Code(WcsExceptionCode.PredictorInvalid),
-                                    predictorS);
-                        }
+                    int predictor = parsePredictor(encodingParameters.get("predictor"), streaming);
+                    if (predictor == StreamingGeoTiffEncoder.PREDICTOR_HORIZONTAL) {
+                        wp.setTIFFCompressor(
+                                new TIFFLZWCompressor(BaselineTIFFTagSet.PREDICTOR_HORIZONTAL_DIFFERENCING));
                     }
+                    helper.setPredictor(predictor);
                 } else if (compressionS.equals("JPEG")) {
                     wp.setCompressionMode(GeoTiffWriteParams.MODE_EXPLICIT);
                     wp.setCompressionType("JPEG");
@@ -348,6 +343,10 @@ private void handleCompression(Map<String, String> encodingParameters, GeoTiffWr
                             wp.setCompressionQuality((deflateLevel - 1) * 0.125f);
                         }
                     }
+                    // only the streaming encoder supports predictors with Deflate
+                    if (streaming) {
+                        helper.setPredictor(parsePredictor(encodingParameters.get("predictor"), true));
+                    }
                 } else if (compressionS.equals("Huffman")) {
                     wp.setCompressionMode(GeoTiffWriteParams.MODE_EXPLICIT);
                     wp.setCompressionType("CCITT RLE");
@@ -362,6 +361,32 @@ private void handleCompression(Map<String, String> encodingParameters, GeoTiffWr
         }
     }
 
+    /**
+     * Parses the predictor encoding parameter into a TIFF predictor code
+     *
+     * @param predictorS the predictor parameter value, may be null
+     * @param floatingPointSupported true if the Floating Point predictor is supported
+     * @throws WcsException in case the predictor is invalid or unsupported
+     */
+    private int parsePredictor(String predictorS, boolean floatingPointSupported) throws WcsException {
+        if (predictorS == null || predictorS.equals("None")) {
+            return StreamingGeoTiffEncoder.PREDICTOR_NONE;
+        } else if (predictorS.equals("Horizontal")) {
+            return StreamingGeoTiffEncoder.PREDICTOR_HORIZONTAL;
+        } else if (predictorS.equals("Floatingpoint")) {
+            if (floatingPointSupported) {
+                return StreamingGeoTiffEncoder.PREDICTOR_FLOATING_POINT;
+            }
+            throw new OWS20Exception(
+                    "Floating Point predictor is not supported",
+                    ows20Code(WcsExceptionCode.PredictorNotSupported),
+                    predictorS);
+        }
+        // invalid predictor
+        throw new OWS20Exception(
+                "Invalid Predictor provided", ows20Code(WcsExceptionCode.PredictorInvalid), predictorS);
+    }
+
     @Override
     public String getConformanceClass(String format) {
         return "http://www.opengis.net/spec/GMLCOV_geotiff-coverages/1.0/conf/geotiff-coverage";
@@ -50,6 +50,10 @@ public class GeoTiffWriterHelper {
 
     private ParameterValueGroup geotoolsWriteParams;
 
+    private boolean streamingEncoding;
+
+    private int predictor = StreamingGeoTiffEncoder.PREDICTOR_NONE;
+
     public GeoTiffWriterHelper(GridCoverage2D coverage) throws IOException {
         this.coverage = coverage;
 
@@ -138,9 +142,28 @@ public void disableSourceCopyOptimization() {
         this.sourceFile = null;
     }
 
+    /**
+     * Enables the streaming Cloud Optimized GeoTIFF encoder, used instead of the ImageIO TIFF writer when the coverage
+     * and the compression settings are supported by it
+     */
+    public void setStreamingEncoding(boolean streamingEncoding) {
+        this.streamingEncoding = streamingEncoding;
+    }
+
+    /**
+     * Sets the TIFF predictor used by the streaming encoder, see {@link StreamingGeoTiffEncoder#setPredictor(int)}. The
+     * ImageIO writer predictor is configured in the write parameters instead.
+     */
+    public void setPredictor(int predictor) {
+        this.predictor = predictor;
+    }
+
     public void write(OutputStream stream) throws IOException {
+        StreamingGeoTiffEncoder streamingEncoder;
         if (sourceFile != null) {
             FileUtils.copyFile(sourceFile, stream);
+        } else if ((streamingEncoder = getStreamingEncoder()) != null) {
+            streamingEncoder.encode(stream);
         } else {
             CoordinateReferenceSystem crs = coverage.getCoordinateReferenceSystem();
             boolean unreferenced = crs == null || crs instanceof EngineeringCRS;
@@ -187,6 +210,46 @@ public void write(OutputStream stream) throws IOException {
         }
     }
 
+    /**
+     * Returns a streaming encoder configured after the write parameters, or null if streaming is disabled or the
+     * coverage and write parameters are not supported by it
+     */
+    private StreamingGeoTiffEncoder getStreamingEncoder() {
+        if (!streamingEncoding || !StreamingGeoTiffEncoder.canEncode(coverage)) {
+            return null;
+        }
+        Object retainAxesOrder = geotoolsWriteParams
+                .parameter(GeoTiffFormat.RETAIN_AXES_ORDER.getName().toString())
+                .getValue();
+        if (Boolean.TRUE.equals(retainAxesOrder)) {
+            return null;
+        }
+
+        StreamingGeoTiffEncoder encoder = new StreamingGeoTiffEncoder(coverage);
+        if (imageIoWriteParams.getCompressionMode() == GeoToolsWriteParams.MODE_EXPLICIT) {
+            String type = imageIoWriteParams.getCompressionType();
+            if ("LZW".equals(type)) {
+                encoder.setCompression(StreamingGeoTiffEncoder.Compression.LZW);
+            } else if ("Deflate".equals(type)) {
+                encoder.setCompression(StreamingGeoTiffEncoder.Compression.DEFLATE);
+                // inverse of the level to quality mapping used by the ImageIO writer
+                encoder.setDeflateLevel(Math.round(1 + 8 * imageIoWriteParams.getCompressionQuality()));
+            } else {
+                return null;
+            }
+        }
+        if (imageIoWriteParams.getTilingMode() == GeoToolsWriteParams.MODE_EXPLICIT) {
+            int tileWidth = imageIoWriteParams.getTileWidth();
+            int tileHeight = imageIoWriteParams.getTileHeight();
+            // large untiled sources would result in huge tiles, keep the encoder default in that case
+            if (tileWidth <= 2048 && tileHeight <= 2048) {
+                encoder.setTileSize(tileWidth, tileHeight);
+            }
+        }
+        encoder.setPredictor(predictor);
+        return encoder;
+    }
+
     /** Returns true if the coverage has not been processed in any way since it has been read */
     private boolean isUnprocessed(GridCoverage2D coverage) {
         RenderedImage ri = coverage.getRenderedImage();
@@ -0,0 +1,928 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs.responses;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.color.ColorSpace;
+import java.awt.geom.AffineTransform;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.eclipse.imagen.media.range.NoDataContainer;
+import org.geotools.api.metadata.spatial.PixelOrientation;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.referencing.crs.EngineeringCRS;
+import org.geotools.api.referencing.operation.MathTransform2D;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.io.imageio.geotiff.GeoTiffIIOMetadataEncoder;
+import org.geotools.coverage.util.CoverageUtilities;
+import org.geotools.gce.geotiff.CRS2GeoTiffMetadataAdapter;
+import org.geotools.referencing.CRS;
+import org.geotools.util.logging.Logging;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Writes a coverage as a tiled Cloud Optimized GeoTIFF, with overviews, pulling the image one tile at a time instead of
+ * handing the whole image to the ImageIO TIFF writer.
+ *
+ * <p>Tiles are read and compressed in parallel on a shared thread pool, with a fixed number of tiles in flight for each
+ * request, and appended to a spool that stays in memory up to {@link #MEMORY_THRESHOLD} bytes and then moves to a
+ * temporary file. The full resolution image is read only once: the overviews are built by nearest neighbour
+ * decimation of the tiles being written, each overview keeping one row of tiles in memory, and spooling its compressed
+ * tiles separately. Once all tiles are compressed their offsets are known, so the header and all the IFDs can be
+ * written at the beginning of the output, followed by the tile data (smallest overview first), as the COG layout
+ * requires. The spools only hold compressed data, the memory used by the uncompressed image is bounded by the tiles in
+ * flight and the overview rows.
+ *
+ * <p>Only pixel interleaved output of byte, short, int, float and double samples is supported, with no compression,
+ * LZW or Deflate, optionally with the horizontal or floating point predictor. Use {@link #canEncode(GridCoverage2D)}
+ * to check if a coverage can be handled.
+ */
+public class StreamingGeoTiffEncoder {
+
+    static final Logger LOGGER = Logging.getLogger(StreamingGeoTiffEncoder.class);
+
+    /** The compression types supported by the encoder, with their TIFF codes */
+    public enum Compression {
+        NONE(1),
+        LZW(5),
+        DEFLATE(8);
+
+        final int code;
+
+        Compression(int code) {
+            this.code = code;
+        }
+    }
+
+    public static final int PREDICTOR_NONE = 1;
+
+    public static final int PREDICTOR_HORIZONTAL = 2;
+
+    public static final int PREDICTOR_FLOATING_POINT = 3;
+
+    /** Number of threads used to read and compress tiles, shared by all requests */
+    static final int THREADS = Integer.getInteger(
+            "org.geoserver.wcs.geotiff.encoderThreads", Runtime.getRuntime().availableProcessors());
+
+    /** Max number of tiles read and compressed at the same time, for a single request */
+    static final int TILES_IN_FLIGHT = Integer.getInteger("org.geoserver.wcs.geotiff.tilesInFlight", THREADS * 2);
+
+    /** Size of the compressed data kept in memory, before moving it to a temporary file */
+    static final int MEMORY_THRESHOLD =
+            Integer.getInteger("org.geoserver.wcs.geotiff.memoryThreshold", 16 * 1024 * 1024);
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            THREADS,
+            new ThreadFactoryBuilder()
+                    .setNameFormat("GeoTiffEncoder-%d")
+                    .setDaemon(true)
+                    .build());
+
+    // TIFF field types
+    static final int ASCII = 2;
+    static final int SHORT = 3;
+    static final int LONG = 4;
+    static final int DOUBLE = 12;
+    static final int LONG8 = 16;
+
+    // TIFF tags
+    static final int NEW_SUBFILE_TYPE = 254;
+    static final int IMAGE_WIDTH = 256;
+    static final int IMAGE_LENGTH = 257;
+    static final int BITS_PER_SAMPLE = 258;
+    static final int COMPRESSION = 259;
+    static final int PHOTOMETRIC_INTERPRETATION = 262;
+    static final int SAMPLES_PER_PIXEL = 277;
+    static final int PLANAR_CONFIGURATION = 284;
+    static final int PREDICTOR = 317;
+    static final int COLOR_MAP = 320;
+    static final int TILE_WIDTH = 322;
+    static final int TILE_LENGTH = 323;
+    static final int TILE_OFFSETS = 324;
+    static final int TILE_BYTE_COUNTS = 325;
+    static final int EXTRA_SAMPLES = 338;
+    static final int SAMPLE_FORMAT = 339;
+    static final int MODEL_PIXEL_SCALE = 33550;
+    static final int MODEL_TIEPOINT = 33922;
+    static final int MODEL_TRANSFORMATION = 34264;
+    static final int GEO_KEY_DIRECTORY = 34735;
+    static final int GEO_DOUBLE_PARAMS = 34736;
+    static final int GEO_ASCII_PARAMS = 34737;
+    static final int GDAL_NODATA = 42113;
+
+    static final int PHOTOMETRIC_MIN_IS_BLACK = 1;
+    static final int PHOTOMETRIC_RGB = 2;
+    static final int PHOTOMETRIC_PALETTE = 3;
+
+    static final int GT_RASTER_TYPE_GEO_KEY = 1025;
+    static final int RASTER_PIXEL_IS_AREA = 1;
+
+    private final GridCoverage2D coverage;
+
+    private final RenderedImage image;
+
+    private final int dataType;
+
+    private final int bands;
+
+    private final int bytesPerSample;
+
+    private int tileWidth = 256;
+
+    private int tileHeight = 256;
+
+    private Compression compression = Compression.NONE;
+
+    private int predictor = PREDICTOR_NONE;
+
+    private int deflateLevel = Deflater.DEFAULT_COMPRESSION;
+
+    private boolean overviews = true;
+
+    public StreamingGeoTiffEncoder(GridCoverage2D coverage) {
+        this.coverage = coverage;
+        this.image = coverage.getRenderedImage();
+        SampleModel sampleModel = image.getSampleModel();
+        this.dataType = sampleModel.getDataType();
+        this.bands = sampleModel.getNumBands();
+        this.bytesPerSample = DataBuffer.getDataTypeSize(dataType) / 8;
+    }
+
+    /**
+     * Returns true if the coverage can be written by this encoder: it must be georeferenced in a east/north oriented
+     * CRS, with an affine grid to world transformation, and its image must have one sample per data element
+     */
+    public static boolean canEncode(GridCoverage2D coverage) {
+        CoordinateReferenceSystem crs = coverage.getCoordinateReferenceSystem2D();
+        if (crs == null || crs instanceof EngineeringCRS || CRS.getAxisOrder(crs) == CRS.AxisOrder.NORTH_EAST) {
+            return false;
+        }
+        MathTransform2D gridToWorld = coverage.getGridGeometry().getGridToCRS2D(PixelOrientation.UPPER_LEFT);
+        if (!(gridToWorld instanceof AffineTransform)) {
+            return false;
+        }
+        SampleModel sampleModel = coverage.getRenderedImage().getSampleModel();
+        int dataType = sampleModel.getDataType();
+        if (getSampleFormat(dataType) < 0) {
+            return false;
+        }
+        for (int size : sampleModel.getSampleSize()) {
+            if (size != DataBuffer.getDataTypeSize(dataType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Sets the tile size, rounded up to a multiple of 16 as the TIFF specification requires */
+    public void setTileSize(int tileWidth, int tileHeight) {
+        this.tileWidth = (tileWidth + 15) / 16 * 16;
+        this.tileHeight = (tileHeight + 15) / 16 * 16;
+    }
+
+    public void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Sets the predictor. The horizontal one applies only to integer data, the floating point one only to floating
+     * point data, in other cases no predictor will be used
+     */
+    public void setPredictor(int predictor) {
+        this.predictor = predictor;
+    }
+
+    /** Sets the Deflate compression level, between 1 and 9 */
+    public void setDeflateLevel(int deflateLevel) {
+        this.deflateLevel = deflateLevel;
+    }
+
+    /** Enables/disables the generation of overviews, enabled by default */
+    public void setOverviews(boolean overviews) {
+        this.overviews = overviews;
+    }
+
+    public void encode(OutputStream output) throws IOException {
+        if (compression == Compression.NONE || !isPredictorApplicable()) {
+            predictor = PREDICTOR_NONE;
+        }
+        List<Dimension> sizes = getLevelSizes();
+        List<Overview> overviews = new ArrayList<>();
+        DeferredFileOutputStream spool = spool(MEMORY_THRESHOLD);
+        try {
+            for (int i = 1; i < sizes.size(); i++) {
+                // smaller levels, smaller spools, the in memory total stays close to the threshold
+                overviews.add(new Overview(sizes.get(i), spool(MEMORY_THRESHOLD >> (2 * i))));
+            }
+            for (int i = 0; i < overviews.size() - 1; i++) {
+                overviews.get(i).next = overviews.get(i + 1);
+            }
+
+            // the full resolution tiles are read once, and decimated in the overviews while being written out
+            int tiles = getTilesAcross(image.getWidth()) * getTilesDown(image.getHeight());
+            long[] offsets = new long[tiles];
+            long[] byteCounts = new long[tiles];
+            long length;
+            try (spool) {
+                length = writeTiles(spool, offsets, byteCounts, overviews.isEmpty() ? null : overviews.get(0));
+                for (Overview overview : overviews) {
+                    overview.finish();
+                }
+            }
+
+            // tile data goes from the smallest overview to the full resolution image
+            long[][] levelOffsets = new long[sizes.size()][];
+            long[][] levelByteCounts = new long[sizes.size()][];
+            levelOffsets[0] = offsets;
+            levelByteCounts[0] = byteCounts;
+            long[] bases = new long[sizes.size()];
+            long position = 0;
+            for (int i = overviews.size(); i > 0; i--) {
+                Overview overview = overviews.get(i - 1);
+                levelOffsets[i] = overview.offsets;
+                levelByteCounts[i] = overview.byteCounts;
+                bases[i] = position;
+                position += overview.position;
+            }
+            bases[0] = position;
+            position += length;
+
+            // with the tile sizes known, the header and the IFDs can be laid out
+            List<Field> geoFields = getGeoFields();
+            List<List<Field>> ifds = getIFDs(sizes, levelOffsets, levelByteCounts, geoFields, false);
+            int headerSize = getHeaderSize(ifds, false);
+            boolean bigTiff = headerSize + position > 0xFFFFFFFFL;
+            if (bigTiff) {
+                ifds = getIFDs(sizes, levelOffsets, levelByteCounts, geoFields, true);
+                headerSize = getHeaderSize(ifds, true);
+            }
+            for (int l = 0; l < levelOffsets.length; l++) {
+                for (int i = 0; i < levelOffsets[l].length; i++) {
+                    levelOffsets[l][i] += headerSize + bases[l];
+                }
+            }
+            output.write(writeHeader(ifds, headerSize, bigTiff));
+            for (int i = overviews.size() - 1; i >= 0; i--) {
+                overviews.get(i).spool.writeTo(output);
+            }
+            spool.writeTo(output);
+        } finally {
+            release(spool);
+            for (Overview overview : overviews) {
+                release(overview.spool);
+            }
+        }
+    }
+
+    private static DeferredFileOutputStream spool(int threshold) throws IOException {
+        return DeferredFileOutputStream.builder()
+                .setThreshold(threshold)
+                .setPrefix("geotiff")
+                .setSuffix(".tmp")
+                .get();
+    }
+
+    private static void release(DeferredFileOutputStream spool) throws IOException {
+        spool.close();
+        if (!spool.isInMemory()) {
+            FileUtils.deleteQuietly(spool.getFile());
+        }
+    }
+
+    private boolean isPredictorApplicable() {
+        boolean floating = dataType == DataBuffer.TYPE_FLOAT || dataType == DataBuffer.TYPE_DOUBLE;
+        return (predictor == PREDICTOR_HORIZONTAL && !floating) || (predictor == PREDICTOR_FLOATING_POINT && floating);
+    }
+
+    /**
+     * Returns the size of the full resolution image followed by the ones of the overviews, each half the size of the
+     * previous one, rounding up
+     */
+    private List<Dimension> getLevelSizes() {
+        List<Dimension> sizes = new ArrayList<>();
+        Dimension size = new Dimension(image.getWidth(), image.getHeight());
+        sizes.add(size);
+        while (overviews && (size.width > tileWidth || size.height > tileHeight)) {
+            size = new Dimension((size.width + 1) / 2, (size.height + 1) / 2);
+            sizes.add(size);
+        }
+        return sizes;
+    }
+
+    private int getTilesAcross(int width) {
+        return (width + tileWidth - 1) / tileWidth;
+    }
+
+    private int getTilesDown(int height) {
+        return (height + tileHeight - 1) / tileHeight;
+    }
+
+    /**
+     * Reads and compresses the tiles of the full resolution image, appending them to the output, in order, and hands
+     * them over to the first overview, if any. Returns the output position after the last tile.
+     */
+    private long writeTiles(OutputStream output, long[] offsets, long[] byteCounts, Overview overview)
+            throws IOException {
+        Rectangle bounds = new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight());
+        int tilesAcross = getTilesAcross(image.getWidth());
+        Deque<Future<Tile>> inFlight = new ArrayDeque<>();
+        long position = 0;
+        int written = 0;
+        try {
+            for (int i = 0; i < offsets.length; i++) {
+                Rectangle tile = new Rectangle(
+                                bounds.x + (i % tilesAcross) * tileWidth,
+                                bounds.y + (i / tilesAcross) * tileHeight,
+                                tileWidth,
+                                tileHeight)
+                        .intersection(bounds);
+                inFlight.add(EXECUTOR.submit(() -> {
+                    Raster raster = image.getData(tile);
+                    return new Tile(encodeTile(raster), overview != null ? raster : null);
+                }));
+                // wait for the oldest tile when too many are in flight, and for all of them at the end
+                while (inFlight.size() >= TILES_IN_FLIGHT || (i == offsets.length - 1 && !inFlight.isEmpty())) {
+                    Tile data = getTile(inFlight.poll());
+                    offsets[written] = position;
+                    byteCounts[written++] = data.data().length;
+                    output.write(data.data());
+                    position += data.data().length;
+                    if (overview != null) {
+                        Raster raster = data.raster();
+                        overview.add(raster, raster.getMinX() - bounds.x, raster.getMinY() - bounds.y);
+                    }
+                }
+            }
+        } finally {
+            // in case of failure, don't keep on computing tiles nobody is going to use
+            for (Future<Tile> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+        return position;
+    }
+
+    /** A compressed tile, along with its pixels, if needed to build the overviews */
+    private record Tile(byte[] data, Raster raster) {}
+
+    /**
+     * An overview level. Receives the pixels of the previous level in row order, and keeps only the even rows and
+     * columns, filling a strip one tile high. Once a strip is full its tiles are compressed and spooled, and the strip
+     * is handed over to the next overview. This way the full resolution image is read only once, and each level is
+     * computed only once, using at most a strip of memory for each level.
+     */
+    private class Overview {
+
+        final int width;
+
+        final int height;
+
+        final int tilesAcross;
+
+        final long[] offsets;
+
+        final long[] byteCounts;
+
+        final DeferredFileOutputStream spool;
+
+        final WritableRaster strip;
+
+        Overview next;
+
+        /** The tile row held in the strip */
+        int stripRow;
+
+        int written;
+
+        long position;
+
+        Overview(Dimension size, DeferredFileOutputStream spool) {
+            this.width = size.width;
+            this.height = size.height;
+            this.tilesAcross = getTilesAcross(width);
+            int tiles = tilesAcross * getTilesDown(height);
+            this.offsets = new long[tiles];
+            this.byteCounts = new long[tiles];
+            this.spool = spool;
+            SampleModel sampleModel = image.getSampleModel().createCompatibleSampleModel(width, tileHeight);
+            this.strip = Raster.createWritableRaster(sampleModel, null);
+        }
+
+        /**
+         * Decimates the pixels of the source raster, whose first pixel is at x, y in the previous level. Sources have
+         * to be provided in row order.
+         */
+        void add(Raster source, int x, int y) throws IOException {
+            int first = (x + 1) / 2;
+            int count = (x + source.getWidth() + 1) / 2 - first;
+            if (count <= 0) {
+                return;
+            }
+            int dy = source.getMinY() - y;
+            boolean floating = dataType == DataBuffer.TYPE_FLOAT || dataType == DataBuffer.TYPE_DOUBLE;
+            double[] doubles = floating ? new double[source.getWidth() * bands] : null;
+            int[] ints = floating ? null : new int[source.getWidth() * bands];
+            for (int sy = y + (y & 1); sy < y + source.getHeight(); sy += 2) {
+                int row = sy / 2 - stripRow * tileHeight;
+                if (row >= tileHeight) {
+                    flush();
+                    row -= tileHeight;
+                }
+                // move the even columns to the start of the row
+                int offset = 2 * first - x;
+                if (floating) {
+                    source.getPixels(source.getMinX(), sy + dy, source.getWidth(), 1, doubles);
+                    for (int i = 0; i < count; i++) {
+                        System.arraycopy(doubles, (offset + 2 * i) * bands, doubles, i * bands, bands);
+                    }
+                    strip.setPixels(first, row, count, 1, doubles);
+                } else {
+                    source.getPixels(source.getMinX(), sy + dy, source.getWidth(), 1, ints);
+                    for (int i = 0; i < count; i++) {
+                        System.arraycopy(ints, (offset + 2 * i) * bands, ints, i * bands, bands);
+                    }
+                    strip.setPixels(first, row, count, 1, ints);
+                }
+            }
+        }
+
+        /** Compresses and spools the tiles of the strip, and hands it over to the next overview */
+        void flush() throws IOException {
+            int rows = Math.min(tileHeight, height - stripRow * tileHeight);
+            Deque<Future<byte[]>> tiles = new ArrayDeque<>();
+            try {
+                for (int i = 0; i < tilesAcross; i++) {
+                    int tileX = i * tileWidth;
+                    Raster tile = strip.createChild(
+                            tileX, 0, Math.min(tileWidth, width - tileX), rows, tileX, 0, null);
+                    tiles.add(EXECUTOR.submit(() -> encodeTile(tile)));
+                }
+                if (next != null) {
+                    next.add(strip.createChild(0, 0, width, rows, 0, 0, null), 0, stripRow * tileHeight);
+                }
+                while (!tiles.isEmpty()) {
+                    byte[] data = getTile(tiles.poll());
+                    offsets[written] = position;
+                    byteCounts[written++] = data.length;
+                    spool.write(data);
+                    position += data.length;
+                }
+            } finally {
+                for (Future<byte[]> future : tiles) {
+                    future.cancel(true);
+                }
+            }
+            stripRow++;
+        }
+
+        /** Flushes the last strip, once all the pixels of the previous level have been added, and closes the spool */
+        void finish() throws IOException {
+            if (written < offsets.length) {
+                flush();
+            }
+            spool.close();
+        }
+    }
+
+    private static <T> T getTile(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding the GeoTIFF tiles", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to encode a GeoTIFF tile", cause);
+        }
+    }
+
+    private byte[] encodeTile(Raster raster) {
+        byte[] data = getTileBytes(raster);
+        switch (compression) {
+            case LZW:
+                return new TiffLZWEncoder().encode(data);
+            case DEFLATE:
+                Deflater deflater = new Deflater(deflateLevel);
+                try {
+                    deflater.setInput(data);
+                    deflater.finish();
+                    ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 2 + 64);
+                    byte[] buffer = new byte[8192];
+                    while (!deflater.finished()) {
+                        int count = deflater.deflate(buffer);
+                        bos.write(buffer, 0, count);
+                    }
+                    return bos.toByteArray();
+                } finally {
+                    deflater.end();
+                }
+            default:
+                return data;
+        }
+    }
+
+    /**
+     * Returns the samples of the raster, pixel interleaved and little endian, padded with zeroes to the full tile size,
+     * with the predictor applied
+     */
+    byte[] getTileBytes(Raster raster) {
+        int rowSamples = tileWidth * bands;
+        int rowBytes = rowSamples * bytesPerSample;
+        int width = raster.getWidth();
+        ByteBuffer buffer = ByteBuffer.allocate(rowBytes * tileHeight).order(ByteOrder.LITTLE_ENDIAN);
+        if (dataType == DataBuffer.TYPE_FLOAT || dataType == DataBuffer.TYPE_DOUBLE) {
+            double[] row = new double[rowSamples];
+            byte[] planes = new byte[rowBytes];
+            for (int r = 0; r < raster.getHeight(); r++) {
+                raster.getPixels(raster.getMinX(), raster.getMinY() + r, width, 1, row);
+                Arrays.fill(row, width * bands, rowSamples, 0);
+                if (predictor == PREDICTOR_FLOATING_POINT) {
+                    // split the values in byte planes, most significant first, then difference the bytes
+                    for (int i = 0; i < rowSamples; i++) {
+                        long bits = dataType == DataBuffer.TYPE_FLOAT
+                                ? Float.floatToRawIntBits((float) row[i])
+                                : Double.doubleToRawLongBits(row[i]);
+                        for (int b = 0; b < bytesPerSample; b++) {
+                            planes[b * rowSamples + i] = (byte) (bits >>> (8 * (bytesPerSample - 1 - b)));
+                        }
+                    }
+                    for (int i = rowBytes - 1; i >= bands; i--) {
+                        planes[i] -= planes[i - bands];
+                    }
+                    buffer.put(planes);
+                } else if (dataType == DataBuffer.TYPE_FLOAT) {
+                    for (double value : row) {
+                        buffer.putFloat((float) value);
+                    }
+                } else {
+                    for (double value : row) {
+                        buffer.putDouble(value);
+                    }
+                }
+            }
+        } else {
+            int[] row = new int[rowSamples];
+            for (int r = 0; r < raster.getHeight(); r++) {
+                raster.getPixels(raster.getMinX(), raster.getMinY() + r, width, 1, row);
+                Arrays.fill(row, width * bands, rowSamples, 0);
+                if (predictor == PREDICTOR_HORIZONTAL) {
+                    for (int i = rowSamples - 1; i >= bands; i--) {
+                        row[i] -= row[i - bands];
+                    }
+                }
+                for (int value : row) {
+                    if (bytesPerSample == 1) {
+                        buffer.put((byte) value);
+                    } else if (bytesPerSample == 2) {
+                        buffer.putShort((short) value);
+                    } else {
+                        buffer.putInt(value);
+                    }
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    private List<List<Field>> getIFDs(
+            List<Dimension> levels,
+            long[][] offsets,
+            long[][] byteCounts,
+            List<Field> geoFields,
+            boolean bigTiff) {
+        int bits = bytesPerSample * 8;
+        int photometric = PHOTOMETRIC_MIN_IS_BLACK;
+        long[] colorMap = null;
+        long[] extraSamples = null;
+        ColorModel cm = image.getColorModel();
+        if (cm instanceof IndexColorModel icm && bands == 1 && dataType == DataBuffer.TYPE_BYTE) {
+            photometric = PHOTOMETRIC_PALETTE;
+            colorMap = new long[3 * 256];
+            for (int i = 0; i < icm.getMapSize(); i++) {
+                colorMap[i] = icm.getRed(i) * 257;
+                colorMap[256 + i] = icm.getGreen(i) * 257;
+                colorMap[512 + i] = icm.getBlue(i) * 257;
+            }
+        } else {
+            int colorBands = 1;
+            if (cm != null
+                    && !(cm instanceof IndexColorModel)
+                    && cm.getColorSpace().getType() == ColorSpace.TYPE_RGB
+                    && bands >= 3) {
+                photometric = PHOTOMETRIC_RGB;
+                colorBands = 3;
+            }
+            if (bands > colorBands) {
+                extraSamples = new long[bands - colorBands];
+                if (cm != null && cm.hasAlpha()) {
+                    // associated or unassociated alpha
+                    extraSamples[0] = cm.isAlphaPremultiplied() ? 1 : 2;
+                }
+            }
+        }
+        String noData = getNoData();
+
+        List<List<Field>> ifds = new ArrayList<>();
+        for (int i = 0; i < levels.size(); i++) {
+            Dimension level = levels.get(i);
+            List<Field> fields = new ArrayList<>();
+            fields.add(new Field(NEW_SUBFILE_TYPE, LONG, i == 0 ? 0 : 1));
+            fields.add(new Field(IMAGE_WIDTH, LONG, level.width));
+            fields.add(new Field(IMAGE_LENGTH, LONG, level.height));
+            fields.add(new Field(BITS_PER_SAMPLE, SHORT, filled(bands, bits)));
+            fields.add(new Field(COMPRESSION, SHORT, compression.code));
+            fields.add(new Field(PHOTOMETRIC_INTERPRETATION, SHORT, photometric));
+            fields.add(new Field(SAMPLES_PER_PIXEL, SHORT, bands));
+            fields.add(new Field(PLANAR_CONFIGURATION, SHORT, 1));
+            if (predictor != PREDICTOR_NONE) {
+                fields.add(new Field(PREDICTOR, SHORT, predictor));
+            }
+            if (colorMap != null) {
+                fields.add(new Field(COLOR_MAP, SHORT, colorMap));
+            }
+            fields.add(new Field(TILE_WIDTH, LONG, tileWidth));
+            fields.add(new Field(TILE_LENGTH, LONG, tileHeight));
+            fields.add(new Field(TILE_OFFSETS, bigTiff ? LONG8 : LONG, offsets[i]));
+            fields.add(new Field(TILE_BYTE_COUNTS, bigTiff ? LONG8 : LONG, byteCounts[i]));
+            if (extraSamples != null) {
+                fields.add(new Field(EXTRA_SAMPLES, SHORT, extraSamples));
+            }
+            fields.add(new Field(SAMPLE_FORMAT, SHORT, filled(bands, getSampleFormat(dataType))));
+            if (i == 0) {
+                fields.addAll(geoFields);
+            }
+            if (noData != null) {
+                fields.add(new Field(GDAL_NODATA, noData));
+            }
+            fields.sort(Comparator.comparingInt(Field::tag));
+            ifds.add(fields);
+        }
+        return ifds;
+    }
+
+    private static long[] filled(int count, long value) {
+        long[] result = new long[count];
+        Arrays.fill(result, value);
+        return result;
+    }
+
+    /** Returns the TIFF sample format for the given data type, or -1 if not supported */
+    static int getSampleFormat(int dataType) {
+        switch (dataType) {
+            case DataBuffer.TYPE_BYTE:
+            case DataBuffer.TYPE_USHORT:
+                return 1;
+            case DataBuffer.TYPE_SHORT:
+            case DataBuffer.TYPE_INT:
+                return 2;
+            case DataBuffer.TYPE_FLOAT:
+            case DataBuffer.TYPE_DOUBLE:
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    private String getNoData() {
+        NoDataContainer noData = CoverageUtilities.getNoDataProperty(coverage);
+        if (noData == null) {
+            return null;
+        }
+        double value = noData.getAsSingleValue();
+        if (Double.isNaN(value)) {
+            return "nan";
+        } else if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    /** Returns the georeferencing fields, the grid to world transformation and the GeoKeys describing the CRS */
+    private List<Field> getGeoFields() throws IOException {
+        List<Field> fields = new ArrayList<>();
+        AffineTransform gridToWorld = new AffineTransform(
+                (AffineTransform) coverage.getGridGeometry().getGridToCRS2D(PixelOrientation.UPPER_LEFT));
+        // the first TIFF pixel is the first pixel of the image, which might not be at 0,0
+        gridToWorld.translate(image.getMinX(), image.getMinY());
+        if (gridToWorld.getShearX() == 0 && gridToWorld.getShearY() == 0 && gridToWorld.getScaleY() < 0) {
+            double[] scale = {gridToWorld.getScaleX(), -gridToWorld.getScaleY(), 0};
+            double[] tiePoint = {0, 0, 0, gridToWorld.getTranslateX(), gridToWorld.getTranslateY(), 0};
+            fields.add(new Field(MODEL_PIXEL_SCALE, scale));
+            fields.add(new Field(MODEL_TIEPOINT, tiePoint));
+        } else {
+            fields.add(new Field(MODEL_TRANSFORMATION, new double[] {
+                gridToWorld.getScaleX(), gridToWorld.getShearX(), 0, gridToWorld.getTranslateX(),
+                gridToWorld.getShearY(), gridToWorld.getScaleY(), 0, gridToWorld.getTranslateY(),
+                0, 0, 0, 0,
+                0, 0, 0, 1
+            }));
+        }
+
+        // let GeoTools figure out the GeoKeys, and grab them from the TIFF native metadata tree
+        GeoTiffIIOMetadataEncoder metadata = new CRS2GeoTiffMetadataAdapter(coverage.getCoordinateReferenceSystem2D())
+                .parseCoordinateReferenceSystem();
+        metadata.addGeoShortParam(GT_RASTER_TYPE_GEO_KEY, RASTER_PIXEL_IS_AREA);
+        Element root = metadata.createRootTree();
+        NodeList tiffFields = root.getElementsByTagName("TIFFField");
+        for (int i = 0; i < tiffFields.getLength(); i++) {
+            Element field = (Element) tiffFields.item(i);
+            int number = Integer.parseInt(field.getAttribute("number"));
+            if (number == GEO_KEY_DIRECTORY) {
+                List<String> values = getValues(field, "TIFFShort");
+                fields.add(new Field(number, SHORT, values.stream().mapToLong(Long::parseLong).toArray()));
+            } else if (number == GEO_DOUBLE_PARAMS) {
+                List<String> values = getValues(field, "TIFFDouble");
+                fields.add(new Field(number, values.stream().mapToDouble(Double::parseDouble).toArray()));
+            } else if (number == GEO_ASCII_PARAMS) {
+                fields.add(new Field(number, String.join("\0", getValues(field, "TIFFAscii"))));
+            }
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("GeoTIFF georeferencing fields: " + fields);
+        }
+        return fields;
+    }
+
+    private static List<String> getValues(Element field, String elementName) {
+        NodeList nodes = field.getElementsByTagName(elementName);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            values.add(((Element) nodes.item(i)).getAttribute("value"));
+        }
+        return values;
+    }
+
+    private static int getHeaderSize(List<List<Field>> ifds, boolean bigTiff) {
+        int size = bigTiff ? 16 : 8;
+        for (List<Field> ifd : ifds) {
+            size += getIFDSize(ifd, bigTiff);
+        }
+        return size;
+    }
+
+    /** Returns the size of the IFD, including the values that do not fit in the entries */
+    private static int getIFDSize(List<Field> fields, boolean bigTiff) {
+        int inline = bigTiff ? 8 : 4;
+        int size = (bigTiff ? 16 : 6) + fields.size() * (bigTiff ? 20 : 12);
+        for (Field field : fields) {
+            int fieldSize = field.size();
+            if (fieldSize > inline) {
+                size += fieldSize + (fieldSize & 1);
+            }
+        }
+        return size;
+    }
+
+    /** Writes the TIFF header and the IFDs, each one followed by its values */
+    private static byte[] writeHeader(List<List<Field>> ifds, int headerSize, boolean bigTiff) {
+        ByteBuffer buffer = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) 'I').put((byte) 'I');
+        if (bigTiff) {
+            buffer.putShort((short) 43).putShort((short) 8).putShort((short) 0).putLong(16);
+        } else {
+            buffer.putShort((short) 42).putInt(8);
+        }
+        int inline = bigTiff ? 8 : 4;
+        for (int i = 0; i < ifds.size(); i++) {
+            List<Field> fields = ifds.get(i);
+            int ifdStart = buffer.position();
+            int extra = ifdStart + (bigTiff ? 16 : 6) + fields.size() * (bigTiff ? 20 : 12);
+            if (bigTiff) {
+                buffer.putLong(fields.size());
+            } else {
+                buffer.putShort((short) fields.size());
+            }
+            for (Field field : fields) {
+                buffer.putShort((short) field.tag());
+                buffer.putShort((short) field.type());
+                putOffset(buffer, field.count(), bigTiff);
+                int size = field.size();
+                if (size <= inline) {
+                    int position = buffer.position();
+                    field.putValues(buffer, position);
+                    buffer.position(position + inline);
+                } else {
+                    putOffset(buffer, extra, bigTiff);
+                    field.putValues(buffer, extra);
+                    extra += size + (size & 1);
+                }
+            }
+            long next = i < ifds.size() - 1 ? extra : 0;
+            putOffset(buffer, next, bigTiff);
+            buffer.position(extra);
+        }
+        return buffer.array();
+    }
+
+    private static void putOffset(ByteBuffer buffer, long value, boolean bigTiff) {
+        if (bigTiff) {
+            buffer.putLong(value);
+        } else {
+            buffer.putInt((int) value);
+        }
+    }
+
+    /** A TIFF field, with its values */
+    record Field(int tag, int type, Object values) {
+
+        Field(int tag, int type, long value) {
+            this(tag, type, new long[] {value});
+        }
+
+        Field(int tag, double[] values) {
+            this(tag, DOUBLE, values);
+        }
+
+        Field(int tag, String value) {
+            this(tag, ASCII, (value + "\0").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        int count() {
+            if (values instanceof long[] longs) {
+                return longs.length;
+            } else if (values instanceof double[] doubles) {
+                return doubles.length;
+            }
+            return ((byte[]) values).length;
+        }
+
+        int size() {
+            switch (type) {
+                case SHORT:
+                    return count() * 2;
+                case LONG:
+                    return count() * 4;
+                case DOUBLE:
+                case LONG8:
+                    return count() * 8;
+                default:
+                    return count();
+            }
+        }
+
+        void putValues(ByteBuffer buffer, int position) {
+            if (values instanceof double[] doubles) {
+                for (int i = 0; i < doubles.length; i++) {
+                    buffer.putDouble(position + i * 8, doubles[i]);
+                }
+            } else if (values instanceof byte[] bytes) {
+                buffer.put(position, bytes);
+            } else {
+                long[] longs = (long[]) values;
+                for (int i = 0; i < longs.length; i++) {
+                    switch (type) {
+                        case SHORT -> buffer.putShort(position + i * 2, (short) longs[i]);
+                        case LONG -> buffer.putInt(position + i * 4, (int) longs[i]);
+                        default -> buffer.putLong(position + i * 8, longs[i]);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            String value = values instanceof long[] longs
+                    ? Arrays.toString(longs)
+                    : values instanceof double[] doubles
+                            ? Arrays.toString(doubles)
+                            : new String((byte[]) values, StandardCharsets.US_ASCII);
+            return tag + "=" + value;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs.responses;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * LZW encoder following the TIFF 6.0 flavor of the algorithm (MSB first bit packing, "early change" of the code
+ * width), mirroring the libtiff implementation so that the output can be read by any TIFF reader.
+ */
+class TiffLZWEncoder {
+
+    static final int CLEAR = 256;
+
+    static final int EOI = 257;
+
+    static final int FIRST_CODE = 258;
+
+    static final int MIN_BITS = 9;
+
+    static final int MAX_CODE = 4095;
+
+    /** Open addressing hash table size, twice the max number of entries to keep probing short */
+    private static final int HASH_SIZE = 8192;
+
+    private final int[] keys = new int[HASH_SIZE];
+
+    private final short[] codes = new short[HASH_SIZE];
+
+    private ByteArrayOutputStream out;
+
+    private int bitBuffer;
+
+    private int bitCount;
+
+    /** Compresses the given bytes into a single TIFF LZW strip/tile */
+    public byte[] encode(byte[] data) {
+        out = new ByteArrayOutputStream(data.length / 2 + 16);
+        bitBuffer = 0;
+        bitCount = 0;
+        int bits = MIN_BITS;
+        int maxCode = (1 << bits) - 1;
+        int nextCode = FIRST_CODE;
+        Arrays.fill(keys, -1);
+
+        write(CLEAR, bits);
+        if (data.length > 0) {
+            int prefix = data[0] & 0xFF;
+            for (int i = 1; i < data.length; i++) {
+                int c = data[i] & 0xFF;
+                int key = (prefix << 8) | c;
+                int slot = find(key);
+                if (keys[slot] == key) {
+                    prefix = codes[slot];
+                    continue;
+                }
+                write(prefix, bits);
+                keys[slot] = key;
+                codes[slot] = (short) nextCode++;
+                prefix = c;
+                if (nextCode == MAX_CODE - 1) {
+                    // table full, start over
+                    write(CLEAR, bits);
+                    Arrays.fill(keys, -1);
+                    nextCode = FIRST_CODE;
+                    bits = MIN_BITS;
+                    maxCode = (1 << bits) - 1;
+                } else if (nextCode > maxCode) {
+                    bits++;
+                    maxCode = (1 << bits) - 1;
+                }
+            }
+            // the decoder adds a table entry for the last code too, and might switch width before EOI
+            write(prefix, bits);
+            nextCode++;
+            if (nextCode == MAX_CODE - 1) {
+                write(CLEAR, bits);
+                bits = MIN_BITS;
+            } else if (nextCode > maxCode) {
+                bits++;
+            }
+        }
+        write(EOI, bits);
+        if (bitCount > 0) {
+            out.write((bitBuffer << (8 - bitCount)) & 0xFF);
+        }
+        return out.toByteArray();
+    }
+
+    private int find(int key) {
+        int slot = (key * 0x9E3779B1) >>> 19;
+        while (keys[slot] != -1 && keys[slot] != key) {
+            slot = (slot + 1) & (HASH_SIZE - 1);
+        }
+        return slot;
+    }
+
+    private void write(int code, int bits) {
+        bitBuffer = (bitBuffer << bits) | code;
+        bitCount += bits;
+        while (bitCount >= 8) {
+            out.write((bitBuffer >>> (bitCount - 8)) & 0xFF);
+            bitCount -= 8;
+        }
+        bitBuffer &= (1 << bitCount) - 1;
+    }
+}
@@ -0,0 +1,169 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0;
+
+import java.awt.geom.AffineTransform;
+import java.io.IOException;
+import net.opengis.wcs20.ScalingType;
+import org.eclipse.imagen.Interpolation;
+import org.geotools.api.coverage.processing.Operation;
+import org.geotools.api.parameter.ParameterValueGroup;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.referencing.datum.PixelInCell;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridEnvelope2D;
+import org.geotools.coverage.grid.GridGeometry2D;
+import org.geotools.coverage.grid.io.GridCoverage2DReader;
+import org.geotools.coverage.processing.CoverageProcessor;
+import org.geotools.geometry.GeneralBounds;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.renderer.crs.ProjectionHandler;
+import org.geotools.renderer.crs.ProjectionHandlerFinder;
+import org.geotools.util.factory.Hints;
+
+/**
+ * Read plan for a GetCoverage request that needs both reprojection and scaling.
+ *
+ * <p>Without a plan the coverage is read at native resolution, reprojected, and only then scaled, which can mean
+ * reading a lot more data than the output needs. The plan works out the final target grid up front, from the subset,
+ * the output CRS and the scaling, and derives from it the read grid geometry in the reader CRS, at the resolution the
+ * output actually needs, so that the reader can pick an overview or subsample. Reprojection and scaling are then
+ * performed by a single resample onto the target grid.
+ *
+ * <p>The target grid matches the one the step by step processing would produce: the native pixels of the subset,
+ * scaled, over the subset envelope reprojected in the output CRS.
+ */
+class CoverageReadPlan {
+
+    /** Number of read pixels added on each side of the read area, to feed interpolation at the borders */
+    static final int GUTTER = 10;
+
+    private final GridGeometry2D readGridGeometry;
+
+    private final GridGeometry2D targetGridGeometry;
+
+    CoverageReadPlan(GridGeometry2D readGridGeometry, GridGeometry2D targetGridGeometry) {
+        this.readGridGeometry = readGridGeometry;
+        this.targetGridGeometry = targetGridGeometry;
+    }
+
+    /**
+     * Plans the read of the given request, returns <code>null</code> if the request cannot be planned and has to go
+     * through the step by step processing (no reprojection or no scaling, scaling to an extent, dateline crossing or
+     * split reads, non affine or rotated grids)
+     */
+    static CoverageReadPlan plan(GridCoverage2DReader reader, GridCoverageRequest request, ScalingType scaling)
+            throws IOException, FactoryException, TransformException {
+        ScalingPolicy policy = ScalingPolicy.getPolicy(scaling);
+        if (policy == ScalingPolicy.DoNothing || policy == ScalingPolicy.ScaleToExtent) {
+            return null;
+        }
+        WCSEnvelope subset = request.getSpatialSubset();
+        if (subset == null || subset.isCrossingDateline()) {
+            return null;
+        }
+
+        // is there an actual reprojection?
+        CoordinateReferenceSystem readerCRS = reader.getCoordinateReferenceSystem();
+        CoordinateReferenceSystem outputCRS = request.getOutputCRS();
+        if (outputCRS == null
+                || CRS.equalsIgnoreMetadata(outputCRS, readerCRS)
+                || CRS.findMathTransform(readerCRS, outputCRS, true).isIdentity()) {
+            return null;
+        }
+
+        // we need a plain scale and translate grid to world
+        MathTransform gridToWorld = reader.getOriginalGridToWorld(PixelInCell.CELL_CORNER);
+        if (!(gridToWorld instanceof AffineTransform)) {
+            return null;
+        }
+        AffineTransform at = (AffineTransform) gridToWorld;
+        if (at.getShearX() != 0 || at.getShearY() != 0) {
+            return null;
+        }
+
+        // the projection handler might split the read in multiple areas
+        ProjectionHandler handler = ProjectionHandlerFinder.getHandler(new ReferencedEnvelope(subset), readerCRS, true);
+        if (handler != null && handler.getQueryEnvelopes().size() != 1) {
+            return null;
+        }
+
+        // the subset in the reader CRS, and the number of native pixels covering it
+        GeneralBounds sourceArea = new GeneralBounds(subset);
+        if (!CRS.equalsIgnoreMetadata(subset.getCoordinateReferenceSystem(), readerCRS)) {
+            sourceArea = CRS.transform(subset, readerCRS);
+        }
+        double nativeResX = Math.abs(at.getScaleX());
+        double nativeResY = Math.abs(at.getScaleY());
+        double nativeWidth = sourceArea.getSpan(0) / nativeResX;
+        double nativeHeight = sourceArea.getSpan(1) / nativeResY;
+        if (!(nativeWidth >= 1) || !(nativeHeight >= 1)) {
+            return null;
+        }
+
+        // the target grid
+        int width, height;
+        if (policy == ScalingPolicy.ScaleToSize) {
+            int[] size = ScalingPolicy.getTargetSize(scaling);
+            width = size[0];
+            height = size[1];
+        } else {
+            double[] factors = ScalingPolicy.getScaleFactors(scaling);
+            width = Math.max(1, (int) Math.round(Math.round(nativeWidth) * factors[0]));
+            height = Math.max(1, (int) Math.round(Math.round(nativeHeight) * factors[1]));
+        }
+        GeneralBounds targetEnvelope = CRS.transform(sourceArea, outputCRS);
+        targetEnvelope.setCoordinateReferenceSystem(outputCRS);
+        GridGeometry2D targetGG = new GridGeometry2D(new GridEnvelope2D(0, 0, width, height), targetEnvelope);
+
+        // the read resolution, never finer than the native one. Use the same subsampling on both axes,
+        // the most conservative one, as reprojection might not preserve the axes ratio
+        double subsampling = Math.max(1, Math.min(nativeWidth / width, nativeHeight / height));
+        double readResX = nativeResX * subsampling;
+        double readResY = nativeResY * subsampling;
+        GeneralBounds readEnvelope = new GeneralBounds(sourceArea);
+        readEnvelope.setRange(
+                0, sourceArea.getMinimum(0) - GUTTER * readResX, sourceArea.getMaximum(0) + GUTTER * readResX);
+        readEnvelope.setRange(
+                1, sourceArea.getMinimum(1) - GUTTER * readResY, sourceArea.getMaximum(1) + GUTTER * readResY);
+        readEnvelope.setCoordinateReferenceSystem(readerCRS);
+        readEnvelope.intersect(reader.getOriginalEnvelope());
+        if (readEnvelope.isEmpty()) {
+            return null;
+        }
+        int readWidth = Math.max(1, (int) Math.round(readEnvelope.getSpan(0) / readResX));
+        int readHeight = Math.max(1, (int) Math.round(readEnvelope.getSpan(1) / readResY));
+        GridGeometry2D readGG = new GridGeometry2D(new GridEnvelope2D(0, 0, readWidth, readHeight), readEnvelope);
+
+        return new CoverageReadPlan(readGG, targetGG);
+    }
+
+    /** The grid geometry to be used for the read, in the reader CRS */
+    public GridGeometry2D getReadGridGeometry() {
+        return readGridGeometry;
+    }
+
+    /** The final grid geometry, in the output CRS */
+    public GridGeometry2D getTargetGridGeometry() {
+        return targetGridGeometry;
+    }
+
+    /** Reprojects, crops and scales the coverage read following this plan onto the target grid, in one step */
+    public GridCoverage2D resample(GridCoverage2D coverage, Interpolation interpolation, Hints hints) {
+        final CoverageProcessor processor =
+                hints == null ? CoverageProcessor.getInstance() : CoverageProcessor.getInstance(hints);
+        final Operation operation = processor.getOperation("Resample");
+        final ParameterValueGroup parameters = operation.getParameters();
+        parameters.parameter("Source").setValue(coverage);
+        parameters.parameter("CoordinateReferenceSystem").setValue(targetGridGeometry.getCoordinateReferenceSystem());
+        parameters.parameter("GridGeometry").setValue(targetGridGeometry);
+        parameters.parameter("InterpolationType").setValue(interpolation);
+        return (GridCoverage2D) processor.doOperation(parameters);
+    }
+}
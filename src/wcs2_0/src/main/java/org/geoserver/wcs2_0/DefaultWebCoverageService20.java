@@ -10,6 +10,7 @@
 
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.logging.Logger;
 import net.opengis.wcs20.DescribeCoverageType;
@@ -19,11 +20,22 @@
 import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.config.GeoServer;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.HttpErrorCodeException;
+import org.geoserver.ows.Request;
+import org.geoserver.ows.Response;
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.OWS20Exception;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.Service;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.security.GeoServerSecurityManager;
+import org.geoserver.wcs.CoverageCleanerCallback;
 import org.geoserver.wcs.WCSInfo;
 import org.geoserver.wcs.responses.CoverageResponseDelegateFinder;
+import org.geoserver.wcs2_0.async.AsyncCoverageJob;
+import org.geoserver.wcs2_0.async.AsyncCoverageManager;
+import org.geoserver.wcs2_0.async.CoverageJobType;
 import org.geoserver.wcs2_0.exception.WCS20Exception;
 import org.geoserver.wcs2_0.response.MIMETypeMapper;
 import org.geoserver.wcs2_0.response.WCS20DescribeCoverageTransformer;
@@ -34,6 +46,9 @@
 import org.geotools.api.coverage.grid.GridCoverage;
 import org.geotools.util.logging.Logging;
 import org.geotools.xml.transform.TransformerBase;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 /**
  * Default implementation of the Web Coverage Service 2.0
@@ -136,6 +151,12 @@ public WCS20DescribeCoverageTransformer describeCoverage(DescribeCoverageType re
 
     @Override
     public GridCoverage getCoverage(GetCoverageType request) {
+        checkGetCoverage(request);
+
+        return new GetCoverage(getServiceInfo(), catalog, envelopeAxesMapper, mimeMapper).run(request);
+    }
+
+    private void checkGetCoverage(GetCoverageType request) {
         checkService(request.getService());
         checkVersion(request.getVersion());
 
@@ -145,8 +166,116 @@ public GridCoverage getCoverage(GetCoverageType request) {
                     WCS20Exception.WCS20ExceptionCode.EmptyCoverageIdList,
                     "coverageId");
         }
+    }
 
-        return new GetCoverage(getServiceInfo(), catalog, envelopeAxesMapper, mimeMapper).run(request);
+    @Override
+    public AsyncCoverageJob getCoverageAsync(GetCoverageType request) {
+        checkGetCoverage(request);
+        String coverageId = request.getCoverageId();
+        if (NCNameResourceCodec.getCoverage(catalog, coverageId) == null) {
+            throw new WCS20Exception(
+                    "Could not find coverage " + coverageId,
+                    WCS20Exception.WCS20ExceptionCode.NoSuchCoverage,
+                    "coverageId");
+        }
+
+        // the operation the result is going to be encoded for
+        Request dispatcherRequest = Dispatcher.REQUEST.get();
+        Service service = dispatcherRequest != null && dispatcherRequest.getOperation() != null
+                ? dispatcherRequest.getOperation().getService()
+                : null;
+        Operation operation = new Operation("GetCoverage", service, null, new Object[] {request});
+
+        return getAsyncManager().submit(getJobOwner(dispatcherRequest), (job, output) -> {
+            GridCoverage coverage = getCoverage(request);
+            try {
+                Response response = findCoverageResponse(coverage, operation);
+                job.setOutput(
+                        response.getMimeType(coverage, operation),
+                        response.getAttachmentFileName(coverage, operation));
+                response.write(coverage, output, operation);
+            } finally {
+                CoverageCleanerCallback.disposeCoverage(coverage);
+            }
+        });
+    }
+
+    /** Looks up the response encoding the coverage, the same way the dispatcher would */
+    private Response findCoverageResponse(GridCoverage coverage, Operation operation) {
+        return GeoServerExtensions.extensions(Response.class).stream()
+                .filter(r -> r.getBinding().isAssignableFrom(coverage.getClass()) && r.canHandle(operation))
+                .min(Comparator.comparing(
+                        Response::getBinding, (c1, c2) -> c1.equals(c2) ? 0 : c1.isAssignableFrom(c2) ? 1 : -1))
+                .orElseThrow(() -> new ServiceException("Could not find a response for " + coverage.getClass()));
+    }
+
+    private String getJobOwner(Request request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && !(authentication instanceof AnonymousAuthenticationToken)
+                && authentication.isAuthenticated()
+                && authentication.getName() != null) {
+            return authentication.getName();
+        }
+        if (request != null && request.getHttpRequest() != null) {
+            return request.getHttpRequest().getRemoteAddr();
+        }
+        return "anonymous";
+    }
+
+    @Override
+    public AsyncCoverageJob getCoverageStatus(CoverageJobType request) {
+        checkService(request.getService());
+        checkVersion(request.getVersion());
+
+        return getJob(request);
+    }
+
+    @Override
+    public AsyncCoverageJob getCoverageResult(CoverageJobType request) {
+        checkService(request.getService());
+        checkVersion(request.getVersion());
+
+        AsyncCoverageJob job = getJob(request);
+        if (job.getStatus() == AsyncCoverageJob.Status.FAILED) {
+            throw new WCS20Exception("The GetCoverage job " + job.getId() + " failed: " + job.getMessage());
+        } else if (job.getStatus() != AsyncCoverageJob.Status.SUCCEEDED) {
+            throw new HttpErrorCodeException(409, "The GetCoverage job " + job.getId() + " is not completed yet");
+        }
+        return job;
+    }
+
+    private AsyncCoverageJob getJob(CoverageJobType request) {
+        if (request.getJobId() == null || request.getJobId().isEmpty()) {
+            throw new OWS20Exception(
+                    "Required parameter jobId missing", OWS20Exception.OWSExceptionCode.MissingParameterValue, "jobId");
+        }
+        AsyncCoverageJob job = getAsyncManager().getJob(request.getJobId());
+        // the jobs of others are reported as unknown, not to disclose their existence
+        if (job == null || !isJobAccessible(job)) {
+            throw new OWS20Exception(
+                    "Unknown or expired GetCoverage job " + request.getJobId(),
+                    OWS20Exception.OWSExceptionCode.InvalidParameterValue,
+                    "jobId");
+        }
+        return job;
+    }
+
+    /** Only the owner of the job, or an administrator, can access its status and result */
+    private boolean isJobAccessible(AsyncCoverageJob job) {
+        if (job.getOwner().equals(getJobOwner(Dispatcher.REQUEST.get()))) {
+            return true;
+        }
+        GeoServerSecurityManager securityManager = GeoServerExtensions.bean(GeoServerSecurityManager.class);
+        return securityManager != null && securityManager.checkAuthenticationForAdminRole();
+    }
+
+    private AsyncCoverageManager getAsyncManager() {
+        AsyncCoverageManager manager = GeoServerExtensions.bean(AsyncCoverageManager.class);
+        if (manager == null) {
+            throw new ServiceException("Asynchronous GetCoverage is not available");
+        }
+        return manager;
     }
 
     @Override
@@ -382,8 +382,11 @@ private GridCoverage2D setupCoverage(
         // we specify to work in streaming fashion
         // TODO elevation
         ScalingType scaling = extractScaling(extensions);
+        // when enabled, work out the target grid up front, to read no more than what the output needs
+        CoverageReadPlan plan =
+                wcs.isCoverageReadPlanning() ? CoverageReadPlan.plan(reader, gridCoverageRequest, scaling) : null;
         List<GridCoverage2D> coverages = readCoverage(
-                helper, gridCoverageRequest, reader, hints, incrementalInputSize, scaling, preAppliedScale);
+                helper, gridCoverageRequest, reader, hints, incrementalInputSize, scaling, preAppliedScale, plan);
         GridSampleDimension[] sampleDimensions = collectDimensions(coverages);
         if (coverages == null || coverages.isEmpty()) {
             throwFailedReadException(
@@ -398,40 +401,46 @@ private GridCoverage2D setupCoverage(
             coverages.set(i, rangeSubsetted);
         }
 
-        //
-        // subsetting, is not really an extension
-        //
-        List<GridCoverage2D> temp = new ArrayList<>();
-        for (GridCoverage2D gridCoverage2D : coverages) {
-            List<GridCoverage2D> subsetted =
-                    handleSubsettingExtension(gridCoverage2D, gridCoverageRequest.getSpatialSubset());
-            temp.addAll(subsetted);
-        }
-        coverages = temp;
+        GridCoverage2D coverage;
+        if (plan != null) {
+            // subsetting, reprojection and scaling in a single resample onto the planned grid
+            coverage = plan.resample(coverages.get(0), gridCoverageRequest.getSpatialInterpolation(), hints);
+        } else {
+            //
+            // subsetting, is not really an extension
+            //
+            List<GridCoverage2D> temp = new ArrayList<>();
+            for (GridCoverage2D gridCoverage2D : coverages) {
+                List<GridCoverage2D> subsetted =
+                        handleSubsettingExtension(gridCoverage2D, gridCoverageRequest.getSpatialSubset());
+                temp.addAll(subsetted);
+            }
+            coverages = temp;
 
-        //
-        // reprojection
-        //
-        // reproject the output coverage to an eventual outputCrs
-        for (int i = 0; i < coverages.size(); i++) {
-            GridCoverage2D reprojected = handleReprojection(
-                    coverages.get(i),
-                    gridCoverageRequest.getOutputCRS(),
-                    gridCoverageRequest.getSpatialInterpolation(),
-                    hints);
-            coverages.set(i, reprojected);
-        }
+            //
+            // reprojection
+            //
+            // reproject the output coverage to an eventual outputCrs
+            for (int i = 0; i < coverages.size(); i++) {
+                GridCoverage2D reprojected = handleReprojection(
+                        coverages.get(i),
+                        gridCoverageRequest.getOutputCRS(),
+                        gridCoverageRequest.getSpatialInterpolation(),
+                        hints);
+                coverages.set(i, reprojected);
+            }
 
-        // after reprojection we can re-unite the coverages into one
-        GridCoverage2D coverage = mosaicCoverages(coverages, hints);
+            // after reprojection we can re-unite the coverages into one
+            coverage = mosaicCoverages(coverages, hints);
 
-        //
-        // scaling extension
-        //
-        // scaling is done in raster space with eventual interpolation
-        GridCoverage2D scaled =
-                handleScaling(coverage, scaling, gridCoverageRequest.getSpatialInterpolation(), preAppliedScale, hints);
-        coverage = scaled;
+            //
+            // scaling extension
+            //
+            // scaling is done in raster space with eventual interpolation
+            GridCoverage2D scaled = handleScaling(
+                    coverage, scaling, gridCoverageRequest.getSpatialInterpolation(), preAppliedScale, hints);
+            coverage = scaled;
+        }
 
         //
         // axes swap management
@@ -939,7 +948,8 @@ private List<GridCoverage2D> readCoverage(
             Hints hints,
             ImageSizeRecorder incrementalInputSize,
             final ScalingType scaling,
-            final double[] preAppliedScale)
+            final double[] preAppliedScale,
+            final CoverageReadPlan plan)
             throws Exception {
 
         CoverageInfo cinfo = helper.getCoverageInfo();
@@ -996,7 +1006,8 @@ private List<GridCoverage2D> readCoverage(
                         readEnvelope,
                         requestedEnvelope,
                         scaling,
-                        preAppliedScale);
+                        preAppliedScale,
+                        plan);
                 if (cov == null) {
                     continue;
                 }
@@ -1070,7 +1081,8 @@ private GridCoverage2D readCoverage(
             Bounds subset,
             WCSEnvelope requestedEnvelope,
             ScalingType scaling,
-            double[] preAppliedScale)
+            double[] preAppliedScale,
+            CoverageReadPlan plan)
             throws TransformException, IOException, NoninvertibleTransformException {
         if (!CRS.equalsIgnoreMetadata(subset.getCoordinateReferenceSystem(), coverageCRS)) {
             subset = CRS.transform(subset, coverageCRS);
@@ -1171,7 +1183,10 @@ private GridCoverage2D readCoverage(
         // kk, now build a good GG to read the smallest available area for the following operations
         //
         // hints
-        if (sameCRS) {
+        if (plan != null) {
+            // the plan already accounts for reprojection, scaling and gutter
+            readGG = plan.getReadGridGeometry();
+        } else if (sameCRS) {
             // we should not be reprojecting
             // let's create a subsetting GG2D (Taking overviews and requested scaling into account)
             MathTransform transform = getMathTransform(
@@ -1230,7 +1245,11 @@ private GridCoverage2D readCoverage(
             // but they do so with deferred loading. We need to understand if deferred loading
             // is used, and if so, crop before checking the input limits, otherwise,
             // check the input limits before cropping
-            if (WCSUtils.isDeferredLoaded(coverage)) {
+            if (plan != null) {
+                // keep the gutter, the final resample will take care of cropping
+                checkInputLimits(incrementalInputSize, coverage);
+                return coverage;
+            } else if (WCSUtils.isDeferredLoaded(coverage)) {
                 // crop to the requested area before checking limits
                 coverage = cropCoverage(coverage, subset);
                 checkInputLimits(incrementalInputSize, coverage);
@@ -10,6 +10,8 @@
 import net.opengis.wcs20.GetCapabilitiesType;
 import net.opengis.wcs20.GetCoverageType;
 import org.geoserver.wcs.WCSInfo;
+import org.geoserver.wcs2_0.async.AsyncCoverageJob;
+import org.geoserver.wcs2_0.async.CoverageJobType;
 import org.geoserver.wcs2_0.response.WCS20DescribeCoverageTransformer;
 import org.geotools.api.coverage.grid.GridCoverage;
 import org.geotools.xml.transform.TransformerBase;
@@ -44,4 +46,16 @@ public interface WebCoverageService20 {
 
     /** GetCoverage operation. */
     GridCoverage getCoverage(GetCoverageType request);
+
+    /**
+     * Asynchronous GetCoverage operation, validates the request and queues it for execution, the result is spooled on
+     * disk once computed
+     */
+    AsyncCoverageJob getCoverageAsync(GetCoverageType request);
+
+    /** Returns the status of an asynchronous GetCoverage */
+    AsyncCoverageJob getCoverageStatus(CoverageJobType request);
+
+    /** Returns a completed asynchronous GetCoverage, whose result can be downloaded */
+    AsyncCoverageJob getCoverageResult(CoverageJobType request);
 }
@@ -0,0 +1,132 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.async;
+
+import org.geoserver.platform.resource.Resource;
+
+/**
+ * An asynchronous GetCoverage execution, tracking its status and, once completed, the spooled result
+ *
+ * @see AsyncCoverageManager
+ */
+public class AsyncCoverageJob {
+
+    /** The job status */
+    public enum Status {
+        ACCEPTED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED;
+
+        /** Returns true if the job is not going to change status anymore */
+        public boolean isCompleted() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    private final String id;
+
+    private final String owner;
+
+    private final long creationTime = System.currentTimeMillis();
+
+    private volatile Status status = Status.ACCEPTED;
+
+    private volatile long completionTime;
+
+    private volatile String mimeType;
+
+    private volatile String fileName;
+
+    private volatile String message;
+
+    /** The bytes spooled so far, only written by the thread running the job */
+    private volatile long resultSize;
+
+    private final Resource result;
+
+    AsyncCoverageJob(String id, String owner, Resource result) {
+        this.id = id;
+        this.owner = owner;
+        this.result = result;
+    }
+
+    /** The job identifier */
+    public String getId() {
+        return id;
+    }
+
+    /** The user, or remote address, that submitted the job */
+    public String getOwner() {
+        return owner;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /** The completion time, or 0 if the job is not completed yet */
+    public long getCompletionTime() {
+        return completionTime;
+    }
+
+    /** The mime type of the result, available once the encoding started */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /** The suggested file name of the result, available once the encoding started */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /** The error message, if the job failed */
+    public String getMessage() {
+        return message;
+    }
+
+    /** The spooled result, available only if the job succeeded */
+    public Resource getResult() {
+        return status == Status.SUCCEEDED ? result : null;
+    }
+
+    void setRunning() {
+        this.status = Status.RUNNING;
+    }
+
+    /** Sets the mime type and file name of the result, called by the job task before encoding it */
+    public void setOutput(String mimeType, String fileName) {
+        this.mimeType = mimeType;
+        this.fileName = fileName;
+    }
+
+    void setSucceeded() {
+        this.completionTime = System.currentTimeMillis();
+        this.status = Status.SUCCEEDED;
+    }
+
+    void setFailed(String message) {
+        this.message = message;
+        this.completionTime = System.currentTimeMillis();
+        this.status = Status.FAILED;
+    }
+
+    long getResultSize() {
+        return resultSize;
+    }
+
+    void addResultSize(long bytes) {
+        this.resultSize += bytes;
+    }
+
+    /** The resource the result is spooled to, regardless of the job status */
+    Resource getResource() {
+        return result;
+    }
+}
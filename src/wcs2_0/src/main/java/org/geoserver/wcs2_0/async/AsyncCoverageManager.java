@@ -0,0 +1,252 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.async;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.ows.HttpErrorCodeException;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Runs the asynchronous GetCoverage requests and spools their results in the <code>temp/wcs-async</code> folder of the
+ * data directory, where they are kept until they expire.
+ *
+ * <p>Jobs run in a bounded pool, with a bounded queue. Queued jobs are prioritized so that the jobs of owners having
+ * fewer active jobs go first, then in submission order, so that a single client cannot starve the others by submitting
+ * many requests. The behavior is controlled by the following system properties:
+ *
+ * <ul>
+ *   <li><code>org.geoserver.wcs.async.threads</code>: the number of jobs running in parallel, 2 by default
+ *   <li><code>org.geoserver.wcs.async.maxQueued</code>: the max number of jobs waiting to run, 100 by default
+ *   <li><code>org.geoserver.wcs.async.resultExpiration</code>: the number of seconds a job and its result are kept
+ *       after completion, 3600 by default
+ *   <li><code>org.geoserver.wcs.async.maxSpoolSize</code>: the max disk space used by the spooled results, in
+ *       megabytes, 1024 by default. Jobs whose result would exceed it fail, and no new jobs are accepted while the
+ *       spool is full
+ * </ul>
+ */
+public class AsyncCoverageManager implements DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(AsyncCoverageManager.class);
+
+    static final int THREADS = Integer.getInteger("org.geoserver.wcs.async.threads", 2);
+
+    static final int MAX_QUEUED = Integer.getInteger("org.geoserver.wcs.async.maxQueued", 100);
+
+    static final long RESULT_EXPIRATION =
+            TimeUnit.SECONDS.toMillis(Long.getLong("org.geoserver.wcs.async.resultExpiration", 3600));
+
+    static final long MAX_SPOOL_SIZE = Long.getLong("org.geoserver.wcs.async.maxSpoolSize", 1024) * 1024 * 1024;
+
+    /** Computes the result of a job */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * Computes and encodes the result. Implementations should call {@link AsyncCoverageJob#setOutput(String,
+         * String)} before writing to the output.
+         */
+        void run(AsyncCoverageJob job, OutputStream output) throws Exception;
+    }
+
+    private final Resource directory;
+
+    private final Map<String, AsyncCoverageJob> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** Permits for the jobs waiting to run, released when a job starts */
+    private final Semaphore queueSlots = new Semaphore(MAX_QUEUED);
+
+    /** The bytes currently used by the spooled results */
+    private final AtomicLong spooled = new AtomicLong();
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService cleaner;
+
+    public AsyncCoverageManager(GeoServerResourceLoader loader) {
+        this.directory = loader.get("temp/wcs-async");
+        // results left over by a previous run cannot be reached anymore
+        directory.delete();
+        this.executor = new ThreadPoolExecutor(
+                THREADS,
+                THREADS,
+                0,
+                TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                threadFactory("WCSAsync-%d"));
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(threadFactory("WCSAsyncCleaner-%d"));
+        cleaner.scheduleWithFixedDelay(this::cleanExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    private static ThreadFactory threadFactory(String nameFormat) {
+        return new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build();
+    }
+
+    /**
+     * Queues a new job
+     *
+     * @param owner the user, or remote address, submitting the job
+     * @param task computes the job result
+     * @return the job, in {@link AsyncCoverageJob.Status#ACCEPTED} status
+     */
+    public AsyncCoverageJob submit(String owner, Task task) {
+        if (spooled.get() >= MAX_SPOOL_SIZE) {
+            throw new HttpErrorCodeException(
+                    503, "The asynchronous GetCoverage results are using all the spool space, please retry later");
+        }
+        if (!queueSlots.tryAcquire()) {
+            throw new HttpErrorCodeException(
+                    503, "Too many asynchronous GetCoverage requests are queued, please retry later");
+        }
+        String id = UUID.randomUUID().toString();
+        AsyncCoverageJob job = new AsyncCoverageJob(id, owner, directory.get(id));
+        long active = jobs.values().stream()
+                .filter(j -> owner.equals(j.getOwner()) && !j.getStatus().isCompleted())
+                .count();
+        jobs.put(id, job);
+        try {
+            executor.execute(
+                    new QueuedJob(job, task, new ThreadLocalsTransfer(), active, sequence.getAndIncrement()));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            queueSlots.release();
+            throw e;
+        }
+        return job;
+    }
+
+    /** Returns the job with the given identifier, or null if not found, or expired */
+    public AsyncCoverageJob getJob(String id) {
+        return id == null ? null : jobs.get(id);
+    }
+
+    /** Removes the jobs completed for longer than the expiration time, along with their results */
+    void cleanExpired() {
+        long limit = System.currentTimeMillis() - RESULT_EXPIRATION;
+        for (AsyncCoverageJob job : jobs.values()) {
+            if (job.getStatus().isCompleted() && job.getCompletionTime() < limit) {
+                jobs.remove(job.getId());
+                deleteResult(job);
+            }
+        }
+    }
+
+    /** Deletes the spooled result of the job, returning its space to the spool */
+    private void deleteResult(AsyncCoverageJob job) {
+        job.getResource().delete();
+        spooled.addAndGet(-job.getResultSize());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private class QueuedJob implements Runnable, Comparable<QueuedJob> {
+
+        private final AsyncCoverageJob job;
+
+        private final Task task;
+
+        private final ThreadLocalsTransfer transfer;
+
+        private final long ownerActiveJobs;
+
+        private final long sequence;
+
+        QueuedJob(AsyncCoverageJob job, Task task, ThreadLocalsTransfer transfer, long ownerActiveJobs, long seq) {
+            this.job = job;
+            this.task = task;
+            this.transfer = transfer;
+            this.ownerActiveJobs = ownerActiveJobs;
+            this.sequence = seq;
+        }
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            int result = Long.compare(ownerActiveJobs, other.ownerActiveJobs);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public void run() {
+            queueSlots.release();
+            transfer.apply();
+            try {
+                job.setRunning();
+                try (OutputStream output = new SpoolOutputStream(job, job.getResource().out())) {
+                    task.run(job, output);
+                }
+                job.setSucceeded();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Asynchronous GetCoverage " + job.getId() + " failed", e);
+                deleteResult(job);
+                job.setFailed(e.getMessage() != null ? e.getMessage() : e.toString());
+            } catch (Error e) {
+                deleteResult(job);
+                job.setFailed(e.toString());
+                throw e;
+            } finally {
+                transfer.cleanup();
+            }
+        }
+    }
+
+    /** Accounts the bytes written by a job against the spool size limit */
+    private class SpoolOutputStream extends FilterOutputStream {
+
+        private final AsyncCoverageJob job;
+
+        SpoolOutputStream(AsyncCoverageJob job, OutputStream out) {
+            super(out);
+            this.job = job;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            reserve(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            reserve(len);
+            out.write(b, off, len);
+        }
+
+        private void reserve(long bytes) throws IOException {
+            if (spooled.addAndGet(bytes) > MAX_SPOOL_SIZE) {
+                spooled.addAndGet(-bytes);
+                throw new IOException("The asynchronous GetCoverage results exceed the spool size limit of "
+                        + MAX_SPOOL_SIZE
+                        + " bytes");
+            }
+            job.addResultSize(bytes);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.async;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import net.opengis.wcs20.GetCoverageType;
+import org.geoserver.ows.AbstractDispatcherCallback;
+import org.geoserver.ows.Request;
+import org.geoserver.platform.Operation;
+import org.geoserver.wcs2_0.WebCoverageService20;
+
+/**
+ * Switches the WCS 2.0 GetCoverage requests carrying a <code>Prefer: respond-async</code> header (RFC 7240) to the
+ * asynchronous execution, which returns the job status document instead of the coverage.
+ */
+public class AsyncGetCoverageCallback extends AbstractDispatcherCallback {
+
+    static final String PREFER_HEADER = "Prefer";
+
+    static final String RESPOND_ASYNC = "respond-async";
+
+    static final Method GET_COVERAGE_ASYNC;
+
+    static {
+        try {
+            GET_COVERAGE_ASYNC = WebCoverageService20.class.getMethod("getCoverageAsync", GetCoverageType.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public Operation operationDispatched(Request request, Operation operation) {
+        if (!"GetCoverage".equalsIgnoreCase(operation.getId())
+                || operation.getParameters() == null
+                || operation.getParameters().length != 1
+                || !(operation.getParameters()[0] instanceof GetCoverageType)
+                || !isAsyncPreferred(request.getHttpRequest())) {
+            return operation;
+        }
+        return new Operation(operation.getId(), operation.getService(), GET_COVERAGE_ASYNC, operation.getParameters());
+    }
+
+    /** Returns true if the request has a <code>respond-async</code> preference */
+    static boolean isAsyncPreferred(HttpServletRequest request) {
+        if (request == null) {
+            return false;
+        }
+        for (String header : Collections.list(request.getHeaders(PREFER_HEADER))) {
+            for (String preference : header.split(",")) {
+                // preferences can have parameters, e.g. "respond-async; wait=10"
+                String token = preference.split(";")[0].trim();
+                if (RESPOND_ASYNC.equalsIgnoreCase(token)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.async;
+
+/** The GetCoverageStatus and GetCoverageResult requests, referring to an asynchronous GetCoverage job */
+public class CoverageJobType {
+
+    String service;
+
+    String version;
+
+    String jobId;
+
+    public String getService() {
+        return service;
+    }
+
+    public void setService(String service) {
+        this.service = service;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    @Override
+    public String toString() {
+        return "CoverageJob [service=" + service + ", version=" + version + ", jobId=" + jobId + "]";
+    }
+}
@@ -0,0 +1,16 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.kvp;
+
+import org.geoserver.ows.KvpRequestReader;
+import org.geoserver.wcs2_0.async.CoverageJobType;
+
+/** Parses the GetCoverageStatus and GetCoverageResult requests for asynchronous GetCoverage jobs */
+public class WCS20CoverageJobRequestReader extends KvpRequestReader {
+
+    public WCS20CoverageJobRequestReader() {
+        super(CoverageJobType.class);
+    }
+}
@@ -0,0 +1,115 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.geoserver.ows.Response;
+import org.geoserver.ows.URLMangler.URLType;
+import org.geoserver.ows.util.ResponseUtils;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.wcs2_0.async.AsyncCoverageJob;
+
+/**
+ * Encodes the status of an asynchronous GetCoverage job, in response to a GetCoverage with a
+ * <code>Prefer: respond-async</code> header, or to a GetCoverageStatus request. The GetCoverage response uses the 202
+ * status code, and points to the job status with the <code>Location</code> header.
+ */
+public class AsyncCoverageJobResponse extends Response {
+
+    static final String WCSGS_NAMESPACE = "http://www.geoserver.org/wcsgs/2.0";
+
+    public AsyncCoverageJobResponse() {
+        super(AsyncCoverageJob.class);
+    }
+
+    @Override
+    public boolean canHandle(Operation operation) {
+        String id = operation.getId();
+        return "GetCoverage".equalsIgnoreCase(id) || "GetCoverageStatus".equalsIgnoreCase(id);
+    }
+
+    @Override
+    public String getMimeType(Object value, Operation operation) throws ServiceException {
+        return "text/xml";
+    }
+
+    @Override
+    public String[][] getHeaders(Object value, Operation operation) throws ServiceException {
+        Request request = Dispatcher.REQUEST.get();
+        if (!"GetCoverage".equalsIgnoreCase(operation.getId()) || request == null) {
+            return null;
+        }
+        AsyncCoverageJob job = (AsyncCoverageJob) value;
+        request.getHttpResponse().setStatus(202);
+        return new String[][] {
+            {"Location", buildJobURL(request, "GetCoverageStatus", job)}, {"Preference-Applied", "respond-async"}
+        };
+    }
+
+    @Override
+    public void write(Object value, OutputStream output, Operation operation) throws IOException, ServiceException {
+        AsyncCoverageJob job = (AsyncCoverageJob) value;
+        Request request = Dispatcher.REQUEST.get();
+        try {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(output, "UTF-8");
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.setPrefix("wcsgs", WCSGS_NAMESPACE);
+            writer.writeStartElement(WCSGS_NAMESPACE, "CoverageJob");
+            writer.writeNamespace("wcsgs", WCSGS_NAMESPACE);
+            writer.writeAttribute("jobId", job.getId());
+            writer.writeAttribute("status", job.getStatus().name());
+            writer.writeAttribute("created", Instant.ofEpochMilli(job.getCreationTime()).toString());
+            if (job.getStatus().isCompleted()) {
+                writer.writeAttribute("completed", Instant.ofEpochMilli(job.getCompletionTime()).toString());
+            }
+            if (request != null) {
+                writeElement(writer, "StatusLocation", buildJobURL(request, "GetCoverageStatus", job));
+                if (job.getStatus() == AsyncCoverageJob.Status.SUCCEEDED) {
+                    writer.writeStartElement(WCSGS_NAMESPACE, "ResultLocation");
+                    if (job.getMimeType() != null) {
+                        writer.writeAttribute("mimeType", job.getMimeType());
+                    }
+                    writer.writeCharacters(buildJobURL(request, "GetCoverageResult", job));
+                    writer.writeEndElement();
+                }
+            }
+            if (job.getMessage() != null) {
+                writeElement(writer, "Message", job.getMessage());
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to encode the GetCoverage job status", e);
+        }
+    }
+
+    private void writeElement(XMLStreamWriter writer, String name, String text) throws XMLStreamException {
+        writer.writeStartElement(WCSGS_NAMESPACE, name);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+    }
+
+    private String buildJobURL(Request request, String operation, AsyncCoverageJob job) {
+        Map<String, String> kvp = new LinkedHashMap<>();
+        kvp.put("service", "WCS");
+        kvp.put("version", "2.0.1");
+        kvp.put("request", operation);
+        kvp.put("jobId", job.getId());
+        String baseURL = ResponseUtils.baseURL(request.getHttpRequest());
+        return ResponseUtils.buildURL(baseURL, "ows", kvp, URLType.SERVICE);
+    }
+}
@@ -0,0 +1,129 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.io.IOUtils;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.geoserver.ows.Response;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.wcs2_0.async.AsyncCoverageJob;
+
+/**
+ * Returns the spooled result of an asynchronous GetCoverage job. A single byte range can be requested with the
+ * <code>Range</code> header, allowing to resume large downloads; other range requests get the full result.
+ */
+public class AsyncCoverageResultResponse extends Response {
+
+    static final Pattern BYTE_RANGE = Pattern.compile("^\\s*bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$");
+
+    public AsyncCoverageResultResponse() {
+        super(AsyncCoverageJob.class);
+    }
+
+    @Override
+    public boolean canHandle(Operation operation) {
+        return "GetCoverageResult".equalsIgnoreCase(operation.getId());
+    }
+
+    @Override
+    public String getMimeType(Object value, Operation operation) throws ServiceException {
+        String mimeType = ((AsyncCoverageJob) value).getMimeType();
+        return mimeType != null ? mimeType : "application/octet-stream";
+    }
+
+    @Override
+    public String getPreferredDisposition(Object value, Operation operation) {
+        return DISPOSITION_ATTACH;
+    }
+
+    @Override
+    public String getAttachmentFileName(Object value, Operation operation) {
+        AsyncCoverageJob job = (AsyncCoverageJob) value;
+        return job.getFileName() != null ? job.getFileName() : job.getId();
+    }
+
+    @Override
+    public String[][] getHeaders(Object value, Operation operation) throws ServiceException {
+        Resource result = getResult(value);
+        long length = result.length();
+        List<String[]> headers = new ArrayList<>();
+        headers.add(new String[] {"Accept-Ranges", "bytes"});
+        Request request = Dispatcher.REQUEST.get();
+        long[] range = request != null ? getRange(request, length) : null;
+        if (range != null) {
+            request.getHttpResponse().setStatus(206);
+            headers.add(new String[] {"Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + length});
+        }
+        return headers.toArray(new String[headers.size()][]);
+    }
+
+    @Override
+    public void write(Object value, OutputStream output, Operation operation) throws IOException, ServiceException {
+        Resource result = getResult(value);
+        Request request = Dispatcher.REQUEST.get();
+        long[] range = request != null ? getRange(request, result.length()) : null;
+        try (InputStream input = result.in()) {
+            if (range != null) {
+                IOUtils.copyLarge(input, output, range[0], range[1] - range[0] + 1);
+            } else {
+                IOUtils.copy(input, output);
+            }
+        }
+    }
+
+    private Resource getResult(Object value) {
+        AsyncCoverageJob job = (AsyncCoverageJob) value;
+        Resource result = job.getResult();
+        if (result == null) {
+            throw new ServiceException("The result of GetCoverage job " + job.getId() + " is not available");
+        }
+        return result;
+    }
+
+    /**
+     * Parses the single byte range requested by the client, returning the first and last byte positions (inclusive),
+     * or null if no valid range was requested
+     */
+    static long[] getRange(Request request, long length) {
+        String header = request.getHttpRequest() != null ? request.getHttpRequest().getHeader("Range") : null;
+        if (header == null || length == 0) {
+            return null;
+        }
+        Matcher matcher = BYTE_RANGE.matcher(header);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // suffix range, the last n bytes
+                if (last.isEmpty()) {
+                    return null;
+                }
+                start = Math.max(0, length - Long.parseLong(last));
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            return start <= end && start < length ? new long[] {start, end} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.response;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.geotools.coverage.grid.GridCoverage2D;
+
+/**
+ * Loads the granules of a {@link GranuleStack} in parallel, handing the results back in the granule order, so that
+ * encoders can process a slice while the next ones are being read.
+ *
+ * <p>The granules of a stack are usually backed by deferred loaded images, the actual reads happen when the pixels are
+ * accessed. The loader applies a function, typically pulling the pixels of the granule, on a pool shared by all
+ * requests, keeping at most a fixed number of granules in flight: the next granule is scheduled only when a result is
+ * consumed, so memory usage does not depend on the size of the stack.
+ *
+ * @param <T> the type of the loaded slices
+ */
+public class ParallelGranuleLoader<T> implements AutoCloseable {
+
+    /** Number of threads loading granules, shared by all requests */
+    static final int THREADS = Integer.getInteger(
+            "org.geoserver.wcs.granuleLoaderThreads", Runtime.getRuntime().availableProcessors());
+
+    /** Max number of granules being loaded, or loaded and waiting to be consumed, for a single request */
+    public static final int GRANULES_IN_FLIGHT = Integer.getInteger("org.geoserver.wcs.granulesInFlight", THREADS);
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            THREADS,
+            new ThreadFactoryBuilder()
+                    .setNameFormat("GranuleLoader-%d")
+                    .setDaemon(true)
+                    .build());
+
+    private final List<GridCoverage2D> granules;
+
+    private final Function<GridCoverage2D, T> loader;
+
+    private final int maxInFlight;
+
+    private final Deque<Future<T>> inFlight = new ArrayDeque<>();
+
+    private int submitted;
+
+    private int consumed;
+
+    /**
+     * Builds a loader using the default number of granules in flight
+     *
+     * @param granules the granules to be loaded, usually {@link GranuleStack#getGranules()}
+     * @param loader the function loading a single granule
+     */
+    public ParallelGranuleLoader(List<GridCoverage2D> granules, Function<GridCoverage2D, T> loader) {
+        this(granules, loader, GRANULES_IN_FLIGHT);
+    }
+
+    /**
+     * Builds a loader
+     *
+     * @param granules the granules to be loaded, usually {@link GranuleStack#getGranules()}
+     * @param loader the function loading a single granule
+     * @param maxInFlight the max number of granules loaded ahead of the consumer
+     */
+    public ParallelGranuleLoader(List<GridCoverage2D> granules, Function<GridCoverage2D, T> loader, int maxInFlight) {
+        this.granules = granules;
+        this.loader = loader;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        while (submitted < granules.size() && inFlight.size() < this.maxInFlight) {
+            submitNext();
+        }
+    }
+
+    private void submitNext() {
+        GridCoverage2D granule = granules.get(submitted++);
+        inFlight.add(EXECUTOR.submit(() -> loader.apply(granule)));
+    }
+
+    /** Returns true if there are more granules to be consumed */
+    public boolean hasNext() {
+        return consumed < granules.size();
+    }
+
+    /**
+     * Returns the slice loaded from the next granule, in the same order as the granules list, waiting for it to be
+     * loaded if needed
+     */
+    public T next() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("All the " + granules.size() + " granules have been consumed already");
+        }
+        Future<T> future = inFlight.poll();
+        consumed++;
+        T result = get(future);
+        if (submitted < granules.size()) {
+            submitNext();
+        }
+        return result;
+    }
+
+    private T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading the granules", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("Failed to load a granule", cause);
+        }
+    }
+
+    /** Stops loading granules nobody is going to consume, in case of early exit */
+    @Override
+    public void close() {
+        for (Future<T> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+}
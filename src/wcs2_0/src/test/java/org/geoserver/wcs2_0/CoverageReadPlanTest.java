@@ -0,0 +1,167 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import net.opengis.wcs20.ScaleByFactorType;
+import net.opengis.wcs20.ScalingType;
+import net.opengis.wcs20.Wcs20Factory;
+import org.apache.commons.io.FileUtils;
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.wcs.WCSInfo;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.referencing.datum.PixelInCell;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridEnvelope2D;
+import org.geotools.coverage.grid.GridGeometry2D;
+import org.geotools.coverage.grid.io.GridCoverage2DReader;
+import org.geotools.gce.geotiff.GeoTiffReader;
+import org.geotools.geometry.GeneralBounds;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.operation.transform.AffineTransform2D;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Checks the planned reads of {@link GetCoverage} requests combining reprojection and scaling */
+public class CoverageReadPlanTest extends WCSTestSupport {
+
+    @After
+    public void disablePlanning() {
+        setPlanning(false);
+    }
+
+    @Test
+    public void testPlanReadsAtOutputResolution() throws Exception {
+        GridCoverage2DReader reader = getBlueMarbleReader();
+        CoordinateReferenceSystem webMercator = CRS.decode("EPSG:3857", true);
+        CoverageReadPlan plan = CoverageReadPlan.plan(reader, getRequest(reader, webMercator), getScaleFactor(0.25));
+        assertNotNull(plan);
+
+        // the target grid has a quarter of the native pixels, over the reprojected envelope
+        GridGeometry2D target = plan.getTargetGridGeometry();
+        assertTrue(CRS.equalsIgnoreMetadata(webMercator, target.getCoordinateReferenceSystem()));
+        int nativeWidth = reader.getOriginalGridRange().getSpan(0);
+        int nativeHeight = reader.getOriginalGridRange().getSpan(1);
+        assertEquals(Math.round(nativeWidth * 0.25), target.getGridRange2D().width);
+        assertEquals(Math.round(nativeHeight * 0.25), target.getGridRange2D().height);
+
+        // the read happens in the native CRS, at a quarter of the native resolution
+        GridGeometry2D read = plan.getReadGridGeometry();
+        CoordinateReferenceSystem readerCRS = reader.getCoordinateReferenceSystem();
+        assertTrue(CRS.equalsIgnoreMetadata(readerCRS, read.getCoordinateReferenceSystem()));
+        AffineTransform2D nativeG2W = (AffineTransform2D) reader.getOriginalGridToWorld(PixelInCell.CELL_CORNER);
+        AffineTransform2D readG2W = (AffineTransform2D) read.getGridToCRS2D(PixelInCell.CELL_CORNER);
+        assertEquals(4, readG2W.getScaleX() / nativeG2W.getScaleX(), 0.05);
+        assertEquals(4, readG2W.getScaleY() / nativeG2W.getScaleY(), 0.05);
+        assertTrue(read.getGridRange2D().width <= nativeWidth / 4 + 1);
+    }
+
+    @Test
+    public void testNoPlan() throws Exception {
+        GridCoverage2DReader reader = getBlueMarbleReader();
+        // no reprojection
+        GridCoverageRequest request = getRequest(reader, reader.getCoordinateReferenceSystem());
+        assertNull(CoverageReadPlan.plan(reader, request, getScaleFactor(0.5)));
+        // no scaling
+        request = getRequest(reader, CRS.decode("EPSG:3857", true));
+        assertNull(CoverageReadPlan.plan(reader, request, null));
+    }
+
+    @Test
+    public void testReprojectAndScaleByFactor() throws Exception {
+        assertSameGrid("&SCALEFACTOR=0.5", 0);
+    }
+
+    @Test
+    public void testReprojectAndScaleToSize() throws Exception {
+        assertSameGrid("&SCALESIZE=http://www.opengis.net/def/axis/OGC/1/i(360),"
+                + "http://www.opengis.net/def/axis/OGC/1/j(180)", 0);
+    }
+
+    @Test
+    public void testReprojectSubsetAndScale() throws Exception {
+        // the step by step processing snaps the subset to the native pixels, the plan does not
+        assertSameGrid(
+                "&SUBSET=http://www.opengis.net/def/axis/OGC/0/Long(146.8,147.6)"
+                        + "&SUBSET=http://www.opengis.net/def/axis/OGC/0/Lat(-44.2,-43.4)&SCALEFACTOR=0.5",
+                1);
+    }
+
+    /**
+     * Checks the planned output has the same CRS, envelope and size of the step by step one, within the given number
+     * of pixels
+     */
+    private void assertSameGrid(String parameters, int pixelTolerance) throws Exception {
+        String path = "wcs?request=GetCoverage&service=WCS&version=2.0.1&coverageId=wcs__BlueMarble"
+                + "&Format=image/tiff&OUTPUTCRS=http://www.opengis.net/def/crs/EPSG/0/3857"
+                + parameters;
+        setPlanning(false);
+        File expectedFile = getTiff(path);
+        setPlanning(true);
+        File actualFile = getTiff(path);
+
+        GeoTiffReader expectedReader = new GeoTiffReader(expectedFile);
+        GeoTiffReader actualReader = new GeoTiffReader(actualFile);
+        try {
+            GridCoverage2D expected = expectedReader.read();
+            GridCoverage2D actual = actualReader.read();
+            scheduleForCleaning(expected);
+            scheduleForCleaning(actual);
+
+            assertTrue(CRS.equalsIgnoreMetadata(
+                    expected.getCoordinateReferenceSystem(), actual.getCoordinateReferenceSystem()));
+            GridEnvelope2D expectedRange = expected.getGridGeometry().getGridRange2D();
+            GridEnvelope2D actualRange = actual.getGridGeometry().getGridRange2D();
+            assertEquals(expectedRange.width, actualRange.width, pixelTolerance);
+            assertEquals(expectedRange.height, actualRange.height, pixelTolerance);
+            double tolerance = getScale(expected) * (pixelTolerance + 0.1);
+            GeneralBounds expectedEnvelope = new GeneralBounds(expected.getEnvelope());
+            assertTrue(expectedEnvelope.equals(actual.getEnvelope(), tolerance, false));
+        } finally {
+            expectedReader.dispose();
+            actualReader.dispose();
+        }
+    }
+
+    private File getTiff(String path) throws Exception {
+        MockHttpServletResponse response = getAsServletResponse(path);
+        assertEquals("image/tiff", response.getContentType());
+        File file = File.createTempFile("plan", ".tiff", new File("./target"));
+        FileUtils.writeByteArrayToFile(file, getBinary(response));
+        return file;
+    }
+
+    private GridCoverage2DReader getBlueMarbleReader() throws Exception {
+        CoverageInfo ci = getCatalog().getCoverageByName("BlueMarble");
+        return (GridCoverage2DReader) ci.getGridCoverageReader(null, null);
+    }
+
+    private GridCoverageRequest getRequest(GridCoverage2DReader reader, CoordinateReferenceSystem outputCRS) {
+        GridCoverageRequest request = new GridCoverageRequest();
+        request.setSpatialSubset(new WCSEnvelope(reader.getOriginalEnvelope()));
+        request.setOutputCRS(outputCRS);
+        return request;
+    }
+
+    private ScalingType getScaleFactor(double factor) {
+        ScalingType scaling = Wcs20Factory.eINSTANCE.createScalingType();
+        ScaleByFactorType scaleByFactor = Wcs20Factory.eINSTANCE.createScaleByFactorType();
+        scaleByFactor.setScaleFactor(factor);
+        scaling.setScaleByFactor(scaleByFactor);
+        return scaling;
+    }
+
+    private void setPlanning(boolean planning) {
+        WCSInfo wcs = getWCS();
+        wcs.setCoverageReadPlanning(planning);
+        getGeoServer().save(wcs);
+    }
+}
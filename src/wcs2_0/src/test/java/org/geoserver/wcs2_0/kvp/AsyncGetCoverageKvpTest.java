@@ -0,0 +1,145 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.kvp;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import org.geoserver.wcs2_0.async.AsyncCoverageJob;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class AsyncGetCoverageKvpTest extends WCSKVPTestSupport {
+
+    static final String GET_COVERAGE =
+            "wcs?request=GetCoverage&service=WCS&version=2.0.1&coverageId=wcs__BlueMarble&format=image/tiff";
+
+    @Test
+    public void testAsyncGetCoverage() throws Exception {
+        MockHttpServletRequest request = createRequest(GET_COVERAGE);
+        request.setMethod("GET");
+        request.addHeader("Prefer", "respond-async");
+        MockHttpServletResponse response = dispatch(request);
+
+        assertEquals(202, response.getStatus());
+        assertEquals("respond-async", response.getHeader("Preference-Applied"));
+        assertThat(response.getHeader("Location"), containsString("request=GetCoverageStatus"));
+        Document dom = dom(new ByteArrayInputStream(response.getContentAsByteArray()));
+        String jobId = dom.getDocumentElement().getAttribute("jobId");
+        assertNotNull(jobId);
+
+        Element job = waitForJob(jobId);
+        assertEquals(AsyncCoverageJob.Status.SUCCEEDED.name(), job.getAttribute("status"));
+        assertEquals(1, job.getElementsByTagNameNS("*", "ResultLocation").getLength());
+
+        // the full result
+        MockHttpServletResponse result = getAsServletResponse(
+                "wcs?request=GetCoverageResult&service=WCS&version=2.0.1&jobId=" + jobId);
+        assertEquals(200, result.getStatus());
+        assertEquals("image/tiff", result.getContentType());
+        assertEquals("bytes", result.getHeader("Accept-Ranges"));
+        byte[] full = result.getContentAsByteArray();
+        MockHttpServletResponse sync = getAsServletResponse(GET_COVERAGE);
+        assertArrayEquals(sync.getContentAsByteArray(), full);
+
+        // a range of it
+        MockHttpServletRequest rangeRequest =
+                createRequest("wcs?request=GetCoverageResult&service=WCS&version=2.0.1&jobId=" + jobId);
+        rangeRequest.setMethod("GET");
+        rangeRequest.addHeader("Range", "bytes=10-109");
+        MockHttpServletResponse range = dispatch(rangeRequest);
+        assertEquals(206, range.getStatus());
+        assertEquals("bytes 10-109/" + full.length, range.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(full, 10, 110), range.getContentAsByteArray());
+    }
+
+    @Test
+    public void testAsyncNotExistent() throws Exception {
+        MockHttpServletRequest request = createRequest(
+                "wcs?request=GetCoverage&service=WCS&version=2.0.1&coverageId=NotThere&format=image/tiff");
+        request.setMethod("GET");
+        request.addHeader("Prefer", "respond-async");
+        MockHttpServletResponse response = dispatch(request);
+
+        // validated before the job is queued
+        checkOws20Exception(response, 404, "NoSuchCoverage", "coverageId");
+    }
+
+    @Test
+    public void testUnknownJob() throws Exception {
+        MockHttpServletResponse response =
+                getAsServletResponse("wcs?request=GetCoverageStatus&service=WCS&version=2.0.1&jobId=abcd");
+        checkOws20Exception(response, 400, "InvalidParameterValue", "jobId");
+    }
+
+    @Test
+    public void testJobOwner() throws Exception {
+        MockHttpServletRequest request = createRequest(GET_COVERAGE);
+        request.setMethod("GET");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("Prefer", "respond-async");
+        MockHttpServletResponse response = dispatch(request);
+        assertEquals(202, response.getStatus());
+        Document dom = dom(new ByteArrayInputStream(response.getContentAsByteArray()));
+        String jobId = dom.getDocumentElement().getAttribute("jobId");
+        String status = "wcs?request=GetCoverageStatus&service=WCS&version=2.0.1&jobId=" + jobId;
+        String result = "wcs?request=GetCoverageResult&service=WCS&version=2.0.1&jobId=" + jobId;
+
+        // another anonymous client cannot see the job
+        checkOws20Exception(dispatchFrom(status, "10.0.0.2"), 400, "InvalidParameterValue", "jobId");
+        checkOws20Exception(dispatchFrom(result, "10.0.0.2"), 400, "InvalidParameterValue", "jobId");
+
+        // the owner can
+        Element job = waitForJob(jobId, "10.0.0.1");
+        assertEquals(AsyncCoverageJob.Status.SUCCEEDED.name(), job.getAttribute("status"));
+        assertEquals(200, dispatchFrom(result, "10.0.0.1").getStatus());
+
+        // and so does the administrator, from anywhere
+        login("admin", "geoserver", "ROLE_ADMINISTRATOR");
+        try {
+            assertEquals(200, dispatchFrom(result, "10.0.0.2").getStatus());
+        } finally {
+            logout();
+        }
+    }
+
+    private MockHttpServletResponse dispatchFrom(String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = createRequest(path);
+        request.setMethod("GET");
+        request.setRemoteAddr(remoteAddress);
+        return dispatch(request);
+    }
+
+    private Element waitForJob(String jobId, String remoteAddress) throws Exception {
+        long limit = System.currentTimeMillis() + 60000;
+        while (System.currentTimeMillis() < limit) {
+            MockHttpServletResponse response = dispatchFrom(
+                    "wcs?request=GetCoverageStatus&service=WCS&version=2.0.1&jobId=" + jobId, remoteAddress);
+            Element job = dom(new ByteArrayInputStream(response.getContentAsByteArray())).getDocumentElement();
+            assertEquals("CoverageJob", job.getLocalName());
+            if (!job.getAttribute("status").equals(AsyncCoverageJob.Status.ACCEPTED.name())
+                    && !job.getAttribute("status").equals(AsyncCoverageJob.Status.RUNNING.name())) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        fail("The GetCoverage job did not complete in time");
+        return null;
+    }
+
+    private Element waitForJob(String jobId) throws Exception {
+        // the address of the requests created by the test support
+        return waitForJob(jobId, "127.0.0.1");
+    }
+}
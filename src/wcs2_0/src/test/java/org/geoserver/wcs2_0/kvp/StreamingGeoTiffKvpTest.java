@@ -0,0 +1,200 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.kvp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.geosolutions.imageio.plugins.tiff.BaselineTIFFTagSet;
+import it.geosolutions.imageioimpl.plugins.tiff.TIFFImageMetadata;
+import it.geosolutions.imageioimpl.plugins.tiff.TIFFImageReader;
+import it.geosolutions.imageioimpl.plugins.tiff.TIFFImageReaderSpi;
+import java.awt.image.Raster;
+import java.io.File;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.FileImageInputStream;
+import javax.xml.namespace.QName;
+import org.apache.commons.io.FileUtils;
+import org.geoserver.data.test.MockData;
+import org.geoserver.data.test.SystemTestData;
+import org.geoserver.wcs.WCSInfo;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.gce.geotiff.GeoTiffReader;
+import org.geotools.geometry.GeneralBounds;
+import org.geotools.referencing.CRS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Checks the output of the streaming Cloud Optimized GeoTIFF encoder */
+public class StreamingGeoTiffKvpTest extends WCSKVPTestSupport {
+
+    private static final QName RAIN = new QName(MockData.SF_URI, "rain", MockData.SF_PREFIX);
+
+    @Override
+    protected void onSetUp(SystemTestData testData) throws Exception {
+        super.onSetUp(testData);
+        testData.addRasterLayer(RAIN, "rain.zip", "asc", getCatalog());
+    }
+
+    @Before
+    public void enableStreaming() {
+        setStreaming(true);
+    }
+
+    @After
+    public void disableStreaming() {
+        setStreaming(false);
+    }
+
+    private void setStreaming(boolean streaming) {
+        WCSInfo wcs = getWCS();
+        wcs.setStreamingGeoTiffEncoding(streaming);
+        getGeoServer().save(wcs);
+    }
+
+    @Test
+    public void testDeflateHorizontalPredictor() throws Exception {
+        File file = getCoverageFile("wcs__BlueMarble", "&compression=Deflate&predictor=Horizontal"
+                + "&tiling=true&tilewidth=128&tileheight=128");
+        TIFFImageReader reader = getTiffReader(file);
+        try {
+            IIOMetadataNode root = getNativeMetadata(reader, 0);
+            assertEquals("8", getTiffValue(root, BaselineTIFFTagSet.TAG_COMPRESSION));
+            assertEquals("2", getTiffValue(root, BaselineTIFFTagSet.TAG_PREDICTOR));
+            assertEquals("128", getTiffValue(root, BaselineTIFFTagSet.TAG_TILE_WIDTH));
+            assertEquals("128", getTiffValue(root, BaselineTIFFTagSet.TAG_TILE_LENGTH));
+
+            // overviews follow the full resolution image, each half the size of the previous one, and pick every
+            // other pixel of it
+            int images = reader.getNumImages(true);
+            assertTrue(images > 1);
+            for (int i = 1; i < images; i++) {
+                assertEquals("1", getTiffValue(getNativeMetadata(reader, i), BaselineTIFFTagSet.TAG_NEW_SUBFILE_TYPE));
+                assertEquals((reader.getWidth(i - 1) + 1) / 2, reader.getWidth(i));
+                assertEquals((reader.getHeight(i - 1) + 1) / 2, reader.getHeight(i));
+                Raster previous = reader.read(i - 1).getData();
+                Raster overview = reader.read(i).getData();
+                for (int y = 0; y < overview.getHeight(); y++) {
+                    for (int x = 0; x < overview.getWidth(); x++) {
+                        assertArrayEquals(
+                                previous.getPixel(2 * x, 2 * y, (int[]) null), overview.getPixel(x, y, (int[]) null));
+                    }
+                }
+            }
+        } finally {
+            reader.dispose();
+        }
+
+        assertSameCoverage("BlueMarble", file);
+    }
+
+    @Test
+    public void testLZW() throws Exception {
+        File file = getCoverageFile("wcs__BlueMarble", "&compression=LZW");
+        TIFFImageReader reader = getTiffReader(file);
+        try {
+            assertEquals("5", getTiffValue(getNativeMetadata(reader, 0), BaselineTIFFTagSet.TAG_COMPRESSION));
+        } finally {
+            reader.dispose();
+        }
+
+        assertSameCoverage("BlueMarble", file);
+    }
+
+    @Test
+    public void testFloatingPointPredictor() throws Exception {
+        // not supported by the ImageIO writer, but supported by the streaming encoder
+        File file = getCoverageFile("sf__rain", "&compression=LZW&predictor=Floatingpoint");
+        TIFFImageReader reader = getTiffReader(file);
+        try {
+            IIOMetadataNode root = getNativeMetadata(reader, 0);
+            assertEquals("5", getTiffValue(root, BaselineTIFFTagSet.TAG_COMPRESSION));
+            assertEquals("3", getTiffValue(root, BaselineTIFFTagSet.TAG_PREDICTOR));
+        } finally {
+            reader.dispose();
+        }
+
+        assertSameCoverage("rain", file);
+    }
+
+    @Test
+    public void testUnsupportedCompressionFallback() throws Exception {
+        // JPEG is left to the ImageIO writer
+        File file = getCoverageFile("wcs__BlueMarble", "&compression=JPEG");
+        TIFFImageReader reader = getTiffReader(file);
+        try {
+            assertEquals("7", getTiffValue(getNativeMetadata(reader, 0), BaselineTIFFTagSet.TAG_COMPRESSION));
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private File getCoverageFile(String coverageId, String parameters) throws Exception {
+        MockHttpServletResponse response = getAsServletResponse(
+                "wcs?request=GetCoverage&service=WCS&version=2.0.1&coverageId=" + coverageId + parameters);
+        assertEquals("image/tiff", response.getContentType());
+        File file = File.createTempFile("streaming", ".tiff", new File("./target"));
+        FileUtils.writeByteArrayToFile(file, getBinary(response));
+        return file;
+    }
+
+    private TIFFImageReader getTiffReader(File file) throws Exception {
+        TIFFImageReader reader = (TIFFImageReader) new TIFFImageReaderSpi().createReaderInstance();
+        reader.setInput(new FileImageInputStream(file));
+        return reader;
+    }
+
+    private IIOMetadataNode getNativeMetadata(TIFFImageReader reader, int imageIndex) throws Exception {
+        return (IIOMetadataNode)
+                reader.getImageMetadata(imageIndex).getAsTree(TIFFImageMetadata.nativeMetadataFormatName);
+    }
+
+    private String getTiffValue(IIOMetadataNode root, int tag) {
+        IIOMetadataNode field = getTiffField(root, tag);
+        return field.getFirstChild().getFirstChild().getAttributes().getNamedItem("value").getNodeValue();
+    }
+
+    /** Checks the GeoTIFF has the same georeferencing and pixels as the original coverage */
+    private void assertSameCoverage(String coverageName, File file) throws Exception {
+        GeoTiffReader readerTarget = new GeoTiffReader(file);
+        GridCoverage2D targetCoverage = null, sourceCoverage = null;
+        try {
+            targetCoverage = readerTarget.read();
+            sourceCoverage = (GridCoverage2D) getCatalog()
+                    .getCoverageByName(coverageName)
+                    .getGridCoverageReader(null, null)
+                    .read();
+
+            assertEquals(
+                    sourceCoverage.getGridGeometry().getGridRange(),
+                    targetCoverage.getGridGeometry().getGridRange());
+            assertTrue(CRS.equalsIgnoreMetadata(
+                    sourceCoverage.getCoordinateReferenceSystem(), targetCoverage.getCoordinateReferenceSystem()));
+            GeneralBounds sourceEnvelope = new GeneralBounds(sourceCoverage.getEnvelope());
+            assertTrue(sourceEnvelope.equals(targetCoverage.getEnvelope(), 1e-9, true));
+
+            Raster expected = sourceCoverage.getRenderedImage().getData();
+            Raster actual = targetCoverage.getRenderedImage().getData();
+            assertEquals(expected.getNumBands(), actual.getNumBands());
+            double[] expectedPixel = null, actualPixel = null;
+            for (int y = 0; y < expected.getHeight(); y++) {
+                for (int x = 0; x < expected.getWidth(); x++) {
+                    expectedPixel = expected.getPixel(expected.getMinX() + x, expected.getMinY() + y, expectedPixel);
+                    actualPixel = actual.getPixel(actual.getMinX() + x, actual.getMinY() + y, actualPixel);
+                    for (int b = 0; b < expectedPixel.length; b++) {
+                        assertEquals(expectedPixel[b], actualPixel[b], 0d);
+                    }
+                }
+            }
+        } finally {
+            readerTarget.dispose();
+            scheduleForCleaning(targetCoverage);
+            scheduleForCleaning(sourceCoverage);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridCoverageFactory;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Test;
+
+public class ParallelGranuleLoaderTest {
+
+    private static final int GRANULES = 50;
+
+    @Test
+    public void testOrderAndBackPressure() throws Exception {
+        List<GridCoverage2D> granules = buildGranules();
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        int maxInFlight = 3;
+        try (ParallelGranuleLoader<Float> loader = new ParallelGranuleLoader<>(
+                granules,
+                c -> {
+                    maxAhead.accumulateAndGet(loaded.incrementAndGet() - consumed.get(), Math::max);
+                    return getValue(c);
+                },
+                maxInFlight)) {
+            for (int i = 0; i < GRANULES; i++) {
+                assertTrue(loader.hasNext());
+                assertEquals(i, loader.next(), 0f);
+                consumed.incrementAndGet();
+            }
+            assertFalse(loader.hasNext());
+        }
+        assertEquals(GRANULES, loaded.get());
+        // the granule being loaded is scheduled only after the consumer picked the previous results
+        assertTrue(maxAhead.get() <= maxInFlight + 1);
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        List<GridCoverage2D> granules = buildGranules();
+        try (ParallelGranuleLoader<Float> loader = new ParallelGranuleLoader<>(granules, c -> {
+            if (getValue(c) == 5) {
+                throw new IllegalStateException("Cannot read granule 5");
+            }
+            return getValue(c);
+        })) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, loader.next(), 0f);
+            }
+            IllegalStateException e = assertThrows(IllegalStateException.class, loader::next);
+            assertEquals("Cannot read granule 5", e.getMessage());
+        }
+    }
+
+    private List<GridCoverage2D> buildGranules() {
+        GridCoverageFactory factory = new GridCoverageFactory();
+        ReferencedEnvelope envelope = new ReferencedEnvelope(0, 1, 0, 1, DefaultGeographicCRS.WGS84);
+        List<GridCoverage2D> granules = new ArrayList<>();
+        for (int i = 0; i < GRANULES; i++) {
+            granules.add(factory.create("granule" + i, new float[][] {{i}}, envelope));
+        }
+        return granules;
+    }
+
+    private float getValue(GridCoverage2D coverage) {
+        return coverage.getRenderedImage().getData().getSampleFloat(0, 0, 0);
+    }
+}
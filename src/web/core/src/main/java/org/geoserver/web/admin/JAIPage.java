@@ -23,6 +23,7 @@
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.ImageProcessingInfo;
 import org.geoserver.config.ImageProcessingInfo.PngEncoderType;
+import org.geoserver.config.ImageProcessingInfo.TileCacheType;
 import org.geoserver.web.GeoserverAjaxSubmitLink;
 import org.geoserver.web.wicket.ParamResourceModel;
 import org.geoserver.web.wicket.PercentageTextField;
@@ -64,6 +65,10 @@ public JAIPage() {
         tilePriority.add(RangeValidator.minimum(0));
         form.add(tilePriority);
         form.add(new CheckBox("recycling"));
+        addTileCacheTypeEditor(form);
+        TextField<Integer> offHeapCapacity = new TextField<>("offHeapCapacity");
+        offHeapCapacity.add(RangeValidator.minimum(0));
+        form.add(offHeapCapacity);
         addPngEncoderEditor(form);
 
         Button submit = new Button("submit") {
@@ -120,6 +125,25 @@ protected void onSubmitInternal(AjaxRequestTarget target) {
         };
     }
 
+    private void addTileCacheTypeEditor(Form<ImageProcessingInfo> form) {
+        List<TileCacheType> types = Arrays.asList(TileCacheType.values());
+        DropDownChoice<TileCacheType> editor = new DropDownChoice<>("tileCacheType", types, new ChoiceRenderer<>() {
+            @Serial
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Object getDisplayValue(TileCacheType type) {
+                return new ParamResourceModel("tileCacheType." + type.name(), JAIPage.this).getString();
+            }
+
+            @Override
+            public String getIdValue(TileCacheType type, int index) {
+                return type.name();
+            }
+        });
+        form.add(editor);
+    }
+
     private void addPngEncoderEditor(Form<ImageProcessingInfo> form) {
         // get the list of available encoders
         List<PngEncoderType> encoders = new ArrayList<>(Arrays.asList(ImageProcessingInfo.PngEncoderType.values()));
@@ -7,7 +7,9 @@
 import java.awt.GraphicsEnvironment;
 import java.io.Serial;
 import java.text.NumberFormat;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -16,7 +18,10 @@
 import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.html.link.BookmarkablePageLink;
 import org.apache.wicket.markup.html.link.Link;
+import org.apache.wicket.markup.html.list.ListItem;
+import org.apache.wicket.markup.html.list.ListView;
 import org.apache.wicket.markup.html.panel.Panel;
+import org.apache.wicket.model.LoadableDetachableModel;
 import org.apache.wicket.model.StringResourceModel;
 import org.eclipse.imagen.ImageN;
 import org.eclipse.imagen.TileCache;
@@ -31,6 +36,9 @@
 import org.geoserver.config.GeoServerDataDirectory;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.ImageProcessingInfo;
+import org.geoserver.jai.TileCacheStatistics;
+import org.geoserver.jai.TileCacheStatistics.OperationStatistics;
+import org.geoserver.jai.TileCacheStatisticsProvider;
 import org.geoserver.web.util.MapModel;
 import org.geoserver.web.wicket.ParamResourceModel;
 import org.geotools.api.data.DataAccess;
@@ -66,6 +74,10 @@ public class StatusPanel extends Panel {
 
     private static final String KEY_JAI_MEM_THRESHOLD = "jai_mem_threshold";
 
+    private static final String KEY_JAI_TILE_CACHE_TYPE = "jai_tile_cache_type";
+
+    private static final String KEY_JAI_TILE_CACHE_COUNTS = "jai_tile_cache_counts";
+
     private static final String KEY_JAI_TILE_THREADS = "jai_tile_threads";
 
     private static final String KEY_JAI_TILE_THREAD_PRIORITY = "jai_tile_thread_priority";
@@ -106,6 +118,28 @@ public void initUI() {
         add(new Label("jai.memory.available", new MapModel<>(values, KEY_JAI_MAX_MEM)));
         add(new Label("jai.memory.used", new MapModel<>(values, KEY_JAI_MEM_USAGE)));
         add(new Label("jai.memory.threshold", new MapModel<>(values, KEY_JAI_MEM_THRESHOLD)));
+        add(new Label("jai.tile.cache.type", new MapModel<>(values, KEY_JAI_TILE_CACHE_TYPE)));
+        add(new Label("jai.tile.cache.counts", new MapModel<>(values, KEY_JAI_TILE_CACHE_COUNTS)));
+        add(new ListView<>("jai.tile.cache.operations", new TileCacheOperationsModel()) {
+            @Serial
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void populateItem(ListItem<OperationStatistics> item) {
+                OperationStatistics stats = item.getModelObject();
+                item.add(new Label(
+                        "operation",
+                        new ParamResourceModel(
+                                "StatusPage.jaiTileCacheOperation",
+                                StatusPanel.this,
+                                stats.getOperation(),
+                                stats.getTiles(),
+                                formatMemory(stats.getMemory()),
+                                stats.getHits(),
+                                stats.getMisses(),
+                                stats.getEvictions())));
+            }
+        });
         add(new Label(
                 "jai.tile.threads",
                 new StringResourceModel("values.threads", this)
@@ -237,6 +271,24 @@ private void updateModel() {
             values.put(KEY_JAI_MEM_USAGE, "-");
         }
         values.put(KEY_JAI_MEM_THRESHOLD, Integer.toString((int) (100.0f * jaiCache.getMemoryThreshold())) + "%");
+        values.put(
+                KEY_JAI_TILE_CACHE_TYPE,
+                new ParamResourceModel("JAIPage.tileCacheType." + ImageProcessingInfo.getTileCacheType(), this)
+                        .getString());
+        if (jaiCache instanceof TileCacheStatisticsProvider provider) {
+            TileCacheStatistics statistics = provider.getStatistics();
+            values.put(
+                    KEY_JAI_TILE_CACHE_COUNTS,
+                    new ParamResourceModel(
+                                    "StatusPage.jaiTileCacheCounts",
+                                    this,
+                                    statistics.getHits(),
+                                    statistics.getMisses(),
+                                    statistics.getEvictions())
+                            .getString());
+        } else {
+            values.put(KEY_JAI_TILE_CACHE_COUNTS, "-");
+        }
         values.put(KEY_JAI_TILE_THREADS, imagen.getTileScheduler().getParallelism());
         values.put(
                 KEY_JAI_TILE_THREAD_PRIORITY,
@@ -252,6 +304,22 @@ private void updateModel() {
         values.put(KEY_JAVA_RENDERER, checkRenderer());
     }
 
+    /** Lists the per operation statistics of the tile cache, if available */
+    private class TileCacheOperationsModel extends LoadableDetachableModel<List<OperationStatistics>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected List<OperationStatistics> load() {
+            TileCache jaiCache =
+                    parent.getGeoServer().getGlobal().getImageProcessing().getTileCache();
+            if (jaiCache instanceof TileCacheStatisticsProvider provider) {
+                return provider.getStatistics().getOperations();
+            }
+            return Collections.emptyList();
+        }
+    }
+
     /** Retrieves the GeoServer data directory */
     private String getDataDirectory() {
         GeoServerDataDirectory dd = parent.getGeoServerApplication().getBeanOfType(GeoServerDataDirectory.class);
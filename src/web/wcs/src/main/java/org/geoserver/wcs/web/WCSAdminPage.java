@@ -50,6 +50,7 @@ protected void build(IModel info, Form form) {
         form.add(new DropDownChoice<>(
                 "overviewPolicy", Arrays.asList(OverviewPolicy.values()), new OverviewPolicyRenderer()));
         form.add(new CheckBox("subsamplingEnabled"));
+        form.add(new CheckBox("coverageReadPlanning"));
 
         // limited srs list
         TextArea<List<String>> srsList =
@@ -66,6 +67,7 @@ protected void build(IModel info, Form form) {
         TextField<Integer> defaultDeflateCompressionLevel = new TextField<>("defaultDeflateCompressionLevel");
         defaultDeflateCompressionLevel.add(RangeValidator.range(1, 9));
         form.add(defaultDeflateCompressionLevel);
+        form.add(new CheckBox("streamingGeoTiffEncoding"));
         // max dimension values
         TextField<Integer> maxRequestedDimensionValues = new TextField<>("maxRequestedDimensionValues");
         maxRequestedDimensionValues.add(RangeValidator.minimum(0));
@@ -140,6 +140,7 @@ protected Object load() {
                 "gml32", gml32Model, "application/gml+xml; version=3.2", "text/xml; subtype=gml/3.2", "text/xml"));
 
         form.add(new CheckBox("canonicalSchemaLocation"));
+        form.add(new CheckBox("streamingGMLEncoding"));
 
         // Encode response with one featureMembers element or multiple featureMember elements
         RadioGroup eo = new RadioGroup<>("encodeFeatureMember");
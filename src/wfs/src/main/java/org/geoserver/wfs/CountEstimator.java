@@ -0,0 +1,27 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import java.io.IOException;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.api.data.Query;
+
+/**
+ * Extension point estimating the number of features matched by a query, used to fill numberMatched for the feature
+ * types configured with the {@link WFSInfo.CountPolicy#ESTIMATED} count policy. Implementations are looked up in the
+ * application context, and tried in order until one returns an estimate.
+ */
+public interface CountEstimator {
+
+    /**
+     * Estimates the number of features matched by the query
+     *
+     * @param info the feature type
+     * @param query the query, using the feature type published names, and already including the filter of the data
+     *     security limits applying to the current user, if any
+     * @return the estimated count, or a negative number if this estimator cannot handle the feature type or query
+     */
+    long estimate(FeatureTypeInfo info, Query query) throws IOException;
+}
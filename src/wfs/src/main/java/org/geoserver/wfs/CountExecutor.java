@@ -6,12 +6,24 @@
 package org.geoserver.wfs;
 
 import java.io.IOException;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.security.decorators.SecuredFeatureSource;
+import org.geoserver.wfs.WFSInfo.CountPolicy;
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.Query;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.filter.visitor.SimplifyingFilterVisitor;
+import org.geotools.util.decorate.Wrapper;
 
 /**
  * A class executing a feature count, but also able to return a pre-computed one. Used as an accessory to compute the
- * numberMatched attribute for WFS 2.0, and running the actual counts only when strictly necessary
+ * numberMatched attribute for WFS 2.0, and running the actual counts only when strictly necessary.
+ *
+ * <p>When the feature type and service configuration are provided, the count follows the configured
+ * {@link CountPolicy}, possibly returning a cached or estimated count.
  *
  * @author Andrea Aime - GeoSolutions
  */
@@ -19,17 +31,31 @@ class CountExecutor {
 
     private static final int COUNT_UNSET = -1;
 
+    private static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
     FeatureSource source;
 
     Query query;
 
+    FeatureTypeInfo info;
+
+    WFSInfo wfs;
+
     int providedCount = COUNT_UNSET;
 
+    volatile boolean estimated;
+
     public CountExecutor(FeatureSource source, Query query) {
         this.source = source;
         this.query = query;
     }
 
+    public CountExecutor(FeatureSource source, Query query, FeatureTypeInfo info, WFSInfo wfs) {
+        this(source, query);
+        this.info = info;
+        this.wfs = wfs;
+    }
+
     public CountExecutor(int providedCount) {
         this.providedCount = providedCount;
     }
@@ -37,14 +63,68 @@ public CountExecutor(int providedCount) {
     public int getCount() throws IOException {
         if (isCountSet()) {
             return providedCount;
-        } else {
-            // make sure we get a count by getting a feature colleciton
-            // FeatureSource.getCount(...) can return -1
-            return source.getFeatures(query).size();
         }
+
+        CountPolicy policy = info != null ? CountPolicy.get(wfs, info) : CountPolicy.EXACT;
+        FeatureCountCache cache =
+                policy != CountPolicy.EXACT ? GeoServerExtensions.bean(FeatureCountCache.class) : null;
+        if (policy == CountPolicy.ESTIMATED) {
+            long estimate = cache != null ? cache.getCount(wfs, info, query, true, this::estimate) : estimate();
+            if (estimate >= 0) {
+                estimated = true;
+                return (int) Math.min(estimate, Integer.MAX_VALUE);
+            }
+        }
+        if (cache != null) {
+            return (int) cache.getCount(wfs, info, query, false, this::countExactly);
+        }
+        return countExactly();
+    }
+
+    private int countExactly() throws IOException {
+        // make sure we get a count by getting a feature colleciton
+        // FeatureSource.getCount(...) can return -1
+        return source.getFeatures(query).size();
+    }
+
+    private long estimate() throws IOException {
+        // estimators go straight to the store, add the data security limits the source would apply
+        Query estimateQuery = query;
+        SecuredFeatureSource<?, ?> secured = getSecuredSource();
+        if (secured != null) {
+            Filter readFilter = secured.getReadFilter();
+            if (readFilter == null) {
+                return -1;
+            } else if (readFilter != Filter.INCLUDE) {
+                estimateQuery = new Query(query);
+                Filter filter = query.getFilter() != null ? query.getFilter() : Filter.INCLUDE;
+                estimateQuery.setFilter(SimplifyingFilterVisitor.simplify(FF.and(filter, readFilter)));
+            }
+        }
+        for (CountEstimator estimator : GeoServerExtensions.extensions(CountEstimator.class)) {
+            long estimate = estimator.estimate(info, estimateQuery);
+            if (estimate >= 0) {
+                return estimate;
+            }
+        }
+        return -1;
+    }
+
+    private SecuredFeatureSource<?, ?> getSecuredSource() {
+        if (source instanceof SecuredFeatureSource<?, ?> secured) {
+            return secured;
+        } else if (source instanceof Wrapper wrapper && wrapper.isWrapperFor(SecuredFeatureSource.class)) {
+            return wrapper.unwrap(SecuredFeatureSource.class);
+        }
+        return null;
     }
 
     public boolean isCountSet() {
         return providedCount != COUNT_UNSET;
     }
+
+    /** Returns true if the count returned by {@link #getCount()} was an estimate */
+    public boolean isEstimated() {
+        return estimated;
+    }
 }
@@ -95,8 +95,22 @@ public FeatureTypeInfo[] describeFeatureType(DescribeFeatureTypeType request) th
      */
     @Override
     public FeatureCollectionResponse getFeature(GetFeatureType request) throws WFSException {
+        return getFeature(request, false);
+    }
+
+    /**
+     * WFS GetFeature operation, optionally in streaming mode, for internal callers that are going to iterate over the
+     * results only once (see {@link GetFeature#setStreaming(boolean)}).
+     *
+     * @param request The get feature request.
+     * @param streaming Whether to skip the feature counts
+     * @return A feature collection type instance.
+     * @throws WFSException Any service exceptions.
+     */
+    public FeatureCollectionResponse getFeature(GetFeatureType request, boolean streaming) throws WFSException {
         GetFeature getFeature = new GetFeature(getServiceInfo(), catalog);
         getFeature.setFilterFactory(filterFactory);
+        getFeature.setStreaming(streaming);
 
         return getFeature.run(new GetFeatureRequest.WFS11(request));
     }
@@ -99,9 +99,18 @@ public FeatureTypeInfo[] describeFeatureType(DescribeFeatureTypeType request) th
 
     @Override
     public FeatureCollectionResponse getFeature(GetFeatureType request) throws WFSException {
+        return getFeature(request, false);
+    }
+
+    /**
+     * GetFeature, optionally in streaming mode, for internal callers that are going to iterate over the results only
+     * once (see {@link GetFeature#setStreaming(boolean)})
+     */
+    public FeatureCollectionResponse getFeature(GetFeatureType request, boolean streaming) throws WFSException {
         GetFeature gf = new GetFeature(getServiceInfo(), getCatalog());
         gf.setFilterFactory(filterFactory);
         gf.setStoredQueryProvider(getStoredQueryProvider());
+        gf.setStreaming(streaming);
 
         return gf.run(new GetFeatureRequest.WFS20(request));
     }
@@ -0,0 +1,220 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import javax.xml.namespace.QName;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.wfs.request.TransactionElement;
+import org.geoserver.wfs.request.TransactionRequest;
+import org.geoserver.wfs.request.TransactionResponse;
+import org.geotools.api.data.Query;
+import org.geotools.util.factory.Hints;
+import org.geotools.util.logging.Logging;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Caches the feature counts used to fill numberMatched in GetFeature responses, for the feature types using the
+ * {@link WFSInfo.CountPolicy#CACHED} or {@link WFSInfo.CountPolicy#ESTIMATED} count policies, so that paging through a
+ * result does not run a full count on every page.
+ *
+ * <p>Counts are keyed by feature type, filter, SQL view parameters and user (as the security subsystem can
+ * limit the features each user can see). They expire after the {@link WFSInfo#getCountCacheTimeToLive()} time, and are
+ * dropped when a WFS transaction modifies the feature type, or the catalog configuration changes. Changes made to the
+ * data outside of GeoServer are only picked up when the counts expire.
+ *
+ * <p>The maximum number of cached counts can be set with the {@link #MAX_ENTRIES_PROPERTY} system property.
+ */
+public class FeatureCountCache implements TransactionCallback {
+
+    static final Logger LOGGER = Logging.getLogger(FeatureCountCache.class);
+
+    /** Maximum number of feature counts kept in memory, defaults to 10000 */
+    public static final String MAX_ENTRIES_PROPERTY = "GEOSERVER_WFS_COUNT_CACHE_SIZE";
+
+    /** Default time to live of the cached counts, in seconds */
+    public static final int DEFAULT_TIME_TO_LIVE = 60;
+
+    /** A count, along with the time it was computed */
+    static final class CachedCount {
+        final long count;
+
+        final long timestamp;
+
+        CachedCount(long count, long timestamp) {
+            this.count = count;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /** Computes a count, exact or estimated */
+    @FunctionalInterface
+    interface CountSupplier {
+        long getCount() throws IOException;
+    }
+
+    private final Cache<List<Object>, CachedCount> counts;
+
+    public FeatureCountCache(Catalog catalog) {
+        this.counts = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(Long.getLong(MAX_ENTRIES_PROPERTY, 10000), 0))
+                .build();
+        catalog.addListener(new CatalogInvalidator());
+    }
+
+    /**
+     * Returns the cached count for the given feature type and query, computing it with the supplier if missing or
+     * expired
+     *
+     * @param wfs the service configuration, providing the time to live
+     * @param info the feature type being counted
+     * @param query the count query
+     * @param estimated whether the counts provided by the supplier are estimates
+     * @param supplier computes the count on cache miss, a negative value means the count is not available, and does
+     *     not get cached
+     */
+    long getCount(WFSInfo wfs, FeatureTypeInfo info, Query query, boolean estimated, CountSupplier supplier)
+            throws IOException {
+        List<Object> key = key(info, query, estimated);
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.getIfPresent(key);
+        if (cached != null && now - cached.timestamp <= getTimeToLive(wfs)) {
+            return cached.count;
+        }
+
+        long count = supplier.getCount();
+        if (count >= 0) {
+            counts.put(key, new CachedCount(count, now));
+        }
+        return count;
+    }
+
+    private static long getTimeToLive(WFSInfo wfs) {
+        Integer ttl = wfs != null ? wfs.getCountCacheTimeToLive() : null;
+        return TimeUnit.SECONDS.toMillis(ttl != null ? ttl : DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Builds the cache key. The type name comes first, it's used to invalidate the counts of a given type, and its
+     * local part is used on its own, as transactions may refer to types with no namespace. The filter is used as is,
+     * its textual encodings can lose details (e.g., case sensitivity, or literal types), mixing up different counts.
+     */
+    static List<Object> key(FeatureTypeInfo info, Query query, boolean estimated) {
+        String namespace = info.getNamespace() != null ? info.getNamespace().getURI() : null;
+        return Arrays.asList(
+                info.getName(), namespace, query.getFilter(), viewParams(query), estimated, user());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String viewParams(Query query) {
+        Object params = query.getHints() != null ? query.getHints().get(Hints.VIRTUAL_TABLE_PARAMETERS) : null;
+        if (params instanceof Map) {
+            return new TreeMap<>((Map<String, String>) params).toString();
+        }
+        return null;
+    }
+
+    private static String user() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return null;
+        }
+        List<String> roles = auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.toList());
+        return auth.getName() + roles;
+    }
+
+    /** Drops the counts of the given type, or all of them if {@code null} */
+    public void invalidate(QName typeName) {
+        if (typeName == null || typeName.getLocalPart() == null) {
+            invalidateAll();
+            return;
+        }
+        // match on the local part, the namespace might be missing, better to drop a few counts too many
+        String localPart = typeName.getLocalPart();
+        int colon = localPart.indexOf(':');
+        String name = colon >= 0 ? localPart.substring(colon + 1) : localPart;
+        counts.asMap().keySet().removeIf(k -> name.equals(k.get(0)));
+    }
+
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+
+    @Override
+    public void dataStoreChange(TransactionEvent event) throws WFSException {
+        invalidate(event.getLayerName());
+    }
+
+    @Override
+    public TransactionRequest beforeTransaction(TransactionRequest request) throws WFSException {
+        return request;
+    }
+
+    @Override
+    public void beforeCommit(TransactionRequest request) throws WFSException {
+        // nothing to do
+    }
+
+    @Override
+    public void afterTransaction(TransactionRequest request, TransactionResponse result, boolean committed) {
+        if (!committed) {
+            return;
+        }
+        // counts computed while the transaction was in progress saw the old data, drop them again
+        for (TransactionElement element : request.getElements()) {
+            invalidate(element.getTypeName());
+        }
+    }
+
+    /** The feature type configuration (e.g., its CQL filter) affects the counts */
+    private class CatalogInvalidator implements CatalogListener {
+
+        @Override
+        public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+            // no counts for new resources
+        }
+
+        @Override
+        public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+            invalidateAll();
+        }
+
+        @Override
+        public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+            // wait for the post modify event
+        }
+
+        @Override
+        public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+            invalidateAll();
+        }
+
+        @Override
+        public void reloaded() {
+            invalidateAll();
+        }
+    }
+}
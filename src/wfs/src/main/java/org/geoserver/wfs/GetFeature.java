@@ -17,6 +17,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -52,6 +54,7 @@
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.Join;
 import org.geotools.api.feature.Feature;
+import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.feature.type.AttributeDescriptor;
 import org.geotools.api.feature.type.FeatureType;
@@ -99,7 +102,9 @@
 import org.geotools.api.referencing.FactoryException;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.data.wfs.WFSDataStoreFactory;
 import org.geotools.feature.FeatureCollection;
 import org.geotools.feature.NameImpl;
@@ -187,6 +192,9 @@ public class GetFeature {
         joinFilterCapabilities.addType(Not.class);
     }
 
+    /** Vendor parameter carrying the keyset paging cursor, see {@link KeysetCursor} */
+    public static final String CURSOR_PARAMETER = "CURSOR";
+
     /** The catalog */
     protected Catalog catalog;
 
@@ -199,6 +207,9 @@ public class GetFeature {
     /** stored query provider */
     StoredQueryProvider storedQueryProvider;
 
+    /** when true, the results are meant to be streamed through, the counts are not computed */
+    boolean streaming;
+
     /** Creates the WFS 1.0/1.1 GetFeature operation. */
     public GetFeature(WFSInfo wfs, Catalog catalog) {
         this.wfs = wfs;
@@ -230,6 +241,20 @@ public void setStoredQueryProvider(StoredQueryProvider storedQueryProvider) {
         this.storedQueryProvider = storedQueryProvider;
     }
 
+    /**
+     * Sets the streaming mode. In streaming mode the results of a single query request are handed over without
+     * computing their size, nor the total number of matched features, as the caller is only going to iterate over them
+     * once (e.g., a WPS process getting its input from an internal WFS request). Without these counts the numbers of
+     * returned and matched features are unknown, and no paging links are generated.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSException {
         List<Query> queries = request.getQueries();
 
@@ -327,173 +352,75 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
         // and we are asked to perform a global limit on the results returned
         boolean calculateSize = !(("1.0".equals(request.getVersion()) || "1.0.0".equals(request.getVersion()))
                 && (queries.size() == 1 || maxFeatures == Integer.MAX_VALUE));
+        // optimization: a single query being streamed through does not need any count, the
+        // global limit on the results is already part of the query
+        boolean skipCounts = streaming && queries.size() == 1 && !request.isResultTypeHits();
+        if (skipCounts) {
+            calculateSize = false;
+        }
 
         List<FeatureCollection<? extends FeatureType, ? extends Feature>> results = new ArrayList<>();
         final List<CountExecutor> totalCountExecutors = new ArrayList<>();
+
+        // the source opening and validation of each query does not depend on the others, run them in parallel
+        // when there are multiple queries. With no offset, each query can also be fetched and counted up front, using
+        // its own limit, the result is used as long as the features returned by the previous queries do not lower it
+        boolean parallel = queries.size() > 1 && ParallelQueryExecutor.isParallel();
+        boolean prefetch = parallel && calculateSize && totalOffset <= 0;
+        List<Callable<PreparedQuery>> preparations = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i++) {
+            Query query = queries.get(i);
+            Map<String, String> viewParam = viewParams != null ? viewParams.get(i) : null;
+            int globalMaxFeatures = maxFeatures;
+            int startOffset = totalOffset;
+            preparations.add(() -> {
+                PreparedQuery prepared = prepareQuery(request, query);
+                if (prefetch) {
+                    int queryMaxFeatures = queryMaxFeatures(globalMaxFeatures, 0, prepared.metas);
+                    runQuery(request, prepared, startOffset, queryMaxFeatures, viewParam);
+                    prepared.size = prepared.features.size();
+                }
+                return prepared;
+            });
+        }
+        List<Future<PreparedQuery>> prepared =
+                parallel ? ParallelQueryExecutor.submitAll(preparations) : new ArrayList<>();
+        PreparedQuery keysetQuery = null;
+        String nextCursor = null;
         try {
             for (int i = 0; (i < queries.size()) && ((i == 0) || (count < maxFeatures)); i++) {
 
                 Query query = queries.get(i);
                 try {
-                    // alias sanity check
-                    validateQueryAliases(request, query);
-
-                    List<FeatureTypeInfo> metas = new ArrayList<>();
-                    for (QName typeName : query.getTypeNames()) {
-                        metas.add(featureTypeInfo(typeName, request));
-                    }
-
-                    // first is the primary feature type
-                    FeatureTypeInfo meta = metas.get(0);
-
-                    // parse the requested property names and distribute among requested types
-                    List<List<String>> reqPropertyNames = parsePropertyNames(query, metas);
-
-                    NamespaceSupport ns = getNamespaceSupport();
-
-                    // set up joins (if specified)
-                    List<Join> joins = null;
-                    String primaryAlias = null;
-                    QName primaryTypeName = query.getTypeNames().get(0);
-                    FeatureTypeInfo primaryMeta = metas.get(0);
-
-                    // make sure filters are sane
-                    //
-                    // Validation of filters on non-simple feature types is not yet supported.
-                    // FIXME: Support validation of filters on non-simple feature types:
-                    // need to consider xpath properties and how to configure namespace prefixes in
-                    // GeoTools app-schema FeaturePropertyAccessorFactory.
-                    Filter filter = query.getFilter();
-
-                    if (filter == null && metas.size() > 1) {
-                        throw new WFSException(request, "Join query must specify a filter");
-                    }
-
-                    if (filter != null) {
-                        if (meta.getFeatureType() instanceof SimpleFeatureType) {
-                            if (metas.size() > 1) {
-                                // sanitize aliases, they must not conflict with feature type names
-                                // nor with their attributes
-                                query = AliasedQuery.fixAliases(metas, query);
-                                // the filter might have been rewritten
-                                filter = query.getFilter();
-
-                                // the join extracting visitor cannot handle negated filters,
-                                // the simplifier handles most common case removing the negation,
-                                // e.g., not(a < 10) -> a >= 10
-                                filter = SimplifyingFilterVisitor.simplify(filter);
-
-                                // join, need to separate the joining filter from other filters
-                                JoinExtractingVisitor extractor = new JoinExtractingVisitor(metas, query.getAliases());
-                                extractor.setQueriedTypes(query.getTypeNames());
-                                filter.accept(extractor, null);
-
-                                primaryAlias = extractor.getPrimaryAlias();
-                                primaryMeta = extractor.getPrimaryFeatureType();
-                                metas = extractor.getFeatureTypes();
-                                primaryTypeName =
-                                        new QName(primaryMeta.getNamespace().getURI(), primaryMeta.getName());
-                                joins = extractor.getJoins();
-                                if (joins.size() != metas.size() - 1) {
-                                    throw new WFSException(
-                                            request,
-                                            String.format(
-                                                    "Query specified %d types but %d " + "join filters were found",
-                                                    metas.size(),
-                                                    extractor.getJoins().size()));
-                                }
-
-                                // validate the filter for each join, as well as the join filter
-                                for (int j = 1; j < metas.size(); j++) {
-                                    Join join = joins.get(j - 1);
-                                    validateJoin(request, query, filter, join, metas.get(j));
-                                }
-
-                                filter = extractor.getPrimaryFilter();
-                                if (filter != null) {
-                                    validateFilter(filter, query, primaryMeta, request);
-                                }
-                            } else {
-                                validateFilter(filter, query, meta, request);
-                            }
-                        } else {
-                            BBOXNamespaceSettingVisitor filterVisitor = new BBOXNamespaceSettingVisitor(ns);
-                            filter.accept(filterVisitor, null);
-                        }
-                    }
-
-                    List<List<PropertyName>> propNames = new ArrayList<>();
-                    List<List<PropertyName>> allPropNames = new ArrayList<>();
-                    collectPropertyNames(request, metas, meta, reqPropertyNames, ns, propNames, allPropNames);
-
-                    // validate sortby if present
-                    List<SortBy> sortBy = query.getSortBy();
-                    if (sortBy != null && !sortBy.isEmpty() && meta.getFeatureType() instanceof SimpleFeatureType) {
-                        validateSortBy(sortBy, meta, request);
-                    }
-
-                    // load primary feature source
-                    Hints hints = null;
-                    if (joins != null) {
-                        hints = new Hints(ResourcePool.JOINS, joins);
-                    }
-
-                    // for remote reprojection in case of WFS-NG datastore ONLY
-                    if (meta.getStore().getConnectionParameters().get(WFSDataStoreFactory.USEDEFAULTSRS.key) != null
-                            && meta.getMetadata().get(FeatureTypeInfo.OTHER_SRS) != null) {
-                        // if wfs-ng datastore is NOT set to use default srs
-                        // then find request SRS in OTHER_SRS list
-                        if (!Boolean.valueOf(meta.getStore()
-                                        .getConnectionParameters()
-                                        .get(WFSDataStoreFactory.USEDEFAULTSRS.key)
-                                        .toString())
-                                && query.getSrsName() != null) {
-                            hints = setWFSCascadingReprojection(query, meta, hints);
+                    // without parallelism, prepare queries only when needed, in the request thread
+                    PreparedQuery pq = await(
+                            parallel
+                                    ? prepared.get(i)
+                                    : ParallelQueryExecutor.submitAll(List.of(preparations.get(i)))
+                                            .get(0));
+                    query = pq.query;
+                    if (queries.size() == 1) {
+                        setupKeysetPaging(request, pq, offset);
+                        if (pq.keysetSort != null) {
+                            keysetQuery = pq;
                         }
                     }
-
-                    FeatureSource<? extends FeatureType, ? extends Feature> source =
-                            primaryMeta.getFeatureSource(null, hints);
+                    List<FeatureTypeInfo> metas = pq.metas;
+                    FeatureTypeInfo meta = pq.meta;
+                    FeatureTypeInfo primaryMeta = pq.primaryMeta;
+                    FeatureSource<? extends FeatureType, ? extends Feature> source = pq.source;
+                    Filter filter = pq.filter;
 
                     // handle local maximum
-                    int queryMaxFeatures = maxFeatures - count;
-                    int metaMaxFeatures = maxFeatures(metas);
-                    if (metaMaxFeatures > 0 && metaMaxFeatures < queryMaxFeatures) {
-                        queryMaxFeatures = metaMaxFeatures;
-                    }
+                    int queryMaxFeatures = queryMaxFeatures(maxFeatures, count, metas);
                     Map<String, String> viewParam = viewParams != null ? viewParams.get(i) : null;
-                    org.geotools.api.data.Query gtQuery = toDataQuery(
-                            query,
-                            filter,
-                            offset,
-                            queryMaxFeatures,
-                            source,
-                            request,
-                            allPropNames.get(0),
-                            viewParam,
-                            joins,
-                            primaryTypeName,
-                            primaryAlias);
-
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.fine("Query is " + query + "\n To gt2: " + gtQuery);
+                    // a prefetched query is still valid if the global limit did not actually constrain it
+                    boolean prefetched = pq.features != null
+                            && (pq.queryMaxFeatures == queryMaxFeatures || pq.size < queryMaxFeatures);
+                    if (!prefetched) {
+                        runQuery(request, pq, offset, queryMaxFeatures, viewParam);
                     }
-
-                    // allow extensions to alter the query being run
-                    GetFeatureContext context = new GetFeatureContext(request, meta, source, gtQuery);
-                    List<GetFeatureCallback> callbacks = GeoServerExtensions.extensions(GetFeatureCallback.class);
-                    if (!callbacks.isEmpty()) {
-                        for (GetFeatureCallback callback : callbacks) {
-                            callback.beforeQuerying(context);
-                        }
-                        if (gtQuery != context.getQuery() && LOGGER.isLoggable(Level.FINE)) {
-                            LOGGER.fine("Query after GetFeatureCallback changes: " + source);
-                        }
-                        gtQuery = context.getQuery();
-                    }
-
-                    FeatureCollection<? extends FeatureType, ? extends Feature> features =
-                            getFeatures(request, source, gtQuery);
+                    FeatureCollection<? extends FeatureType, ? extends Feature> features = pq.features;
 
                     // For complex features, we need the targetCrs and version in scenario where we
                     // have
@@ -518,7 +445,12 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
 
                     int size = 0;
                     if (calculateSize) {
-                        size = features.size();
+                        size = prefetched ? pq.size : features.size();
+                    }
+
+                    // the next cursor is needed only for a full page, the other ones are not read in memory
+                    if (pq.keysetSort != null && calculateSize && size >= queryMaxFeatures) {
+                        features = readKeysetPage(pq, queryMaxFeatures);
                     }
 
                     // update the count
@@ -527,7 +459,8 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                     // collect queries required to return numberMatched/totalSize
                     // check maxFeatures and offset, if they are unset we can use the size we
                     // calculated above
-                    isNumberMatchedSkipped = meta.getSkipNumberMatched() && !request.isResultTypeHits();
+                    isNumberMatchedSkipped =
+                            skipCounts || (meta.getSkipNumberMatched() && !request.isResultTypeHits());
                     if (!isNumberMatchedSkipped) {
                         if (calculateSize
                                 && (queryMaxFeatures == Integer.MAX_VALUE || size < queryMaxFeatures)
@@ -541,18 +474,23 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                                     Integer.MAX_VALUE,
                                     source,
                                     request,
-                                    allPropNames.get(0),
+                                    pq.allPropNames.get(0),
                                     viewParam,
-                                    joins,
-                                    primaryTypeName,
-                                    primaryAlias);
-                            totalCountExecutors.add(new CountExecutor(source, qTotal));
+                                    pq.joins,
+                                    pq.primaryTypeName,
+                                    pq.primaryAlias);
+                            // the count policy applies to simple queries, join counts are always exact
+                            totalCountExecutors.add(
+                                    pq.joins == null || pq.joins.isEmpty()
+                                            ? new CountExecutor(source, qTotal, meta, wfs)
+                                            : new CountExecutor(source, qTotal));
                         }
                     }
 
                     // if offset is present we need to check the size of this returned feature
                     // collection and adjust the offset for the next feature collection accordingly
-                    if (offset > 0) {
+                    // (not needed when seeking with a cursor, there is a single query)
+                    if (offset > 0 && pq.keysetFilter == null) {
                         if (size > 0) {
                             // features returned, offset can be set to zero
                             offset = 0;
@@ -566,11 +504,11 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                                     queryMaxFeatures,
                                     source,
                                     request,
-                                    allPropNames.get(0),
+                                    pq.allPropNames.get(0),
                                     viewParam,
-                                    joins,
-                                    primaryTypeName,
-                                    primaryAlias);
+                                    pq.joins,
+                                    pq.primaryTypeName,
+                                    pq.primaryAlias);
 
                             // int size2 = getFeatures(request, source, q2).size();
                             int size2 = source.getCount(q2);
@@ -584,10 +522,10 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                     // we may need to shave off geometries we did load only to make bounds
                     // computation happy
                     // TODO: support non-SimpleFeature geometry shaving
-                    List<PropertyName> metaPropNames = propNames.get(0);
+                    List<PropertyName> metaPropNames = pq.propNames.get(0);
                     if (features.getSchema() instanceof SimpleFeatureType
                             && metaPropNames != null
-                            && metaPropNames.size() < allPropNames.get(0).size()) {
+                            && metaPropNames.size() < pq.allPropNames.get(0).size()) {
                         features = retypeToRequestedProperties(features, metaPropNames);
                     }
 
@@ -607,14 +545,373 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                     throw e;
                 }
             }
+            // the queries past the maxFeatures cutoff are not needed, skip the preparations not started yet
+            ParallelQueryExecutor.cancel(prepared);
+
+            // a full page has been returned, figure out where the next one starts
+            if (keysetQuery != null && count > 0 && maxFeatures <= count) {
+                nextCursor = buildNextCursor(keysetQuery);
+            }
 
             totalCount = updateTotalCount(
                     maxFeatures, isNumberMatchedSkipped, count, totalOffset, calculateSize, totalCountExecutors);
         } catch (IOException | SchemaException e) {
             throw new WFSException(request, "Error occurred getting features", e, request.getHandle());
+        } finally {
+            // on failure, the pending preparations are not needed either
+            ParallelQueryExecutor.cancel(prepared);
+        }
+
+        FeatureCollectionResponse result = buildResults(
+                request,
+                totalOffset,
+                maxFeatures,
+                skipCounts ? -1 : count,
+                totalCount,
+                results,
+                lockId,
+                getFeatureById,
+                nextCursor);
+        result.setLazyTotalNumberOfFeaturesEstimated(
+                () -> totalCountExecutors.stream().anyMatch(CountExecutor::isEstimated));
+        return result;
+    }
+
+    /** The parts of a query execution that do not depend on the results of the other queries in the request */
+    private static class PreparedQuery {
+        Query query;
+
+        List<FeatureTypeInfo> metas;
+
+        FeatureTypeInfo meta;
+
+        FeatureTypeInfo primaryMeta;
+
+        QName primaryTypeName;
+
+        String primaryAlias;
+
+        List<Join> joins;
+
+        Filter filter;
+
+        List<List<PropertyName>> propNames = new ArrayList<>();
+
+        List<List<PropertyName>> allPropNames = new ArrayList<>();
+
+        FeatureSource<? extends FeatureType, ? extends Feature> source;
+
+        int queryMaxFeatures;
+
+        FeatureCollection<? extends FeatureType, ? extends Feature> features;
+
+        int size;
+
+        /** The sort used for keyset paging, if applicable */
+        List<SortBy> keysetSort;
+
+        /** The filter selecting the features after the cursor position, if a cursor was provided */
+        Filter keysetFilter;
+
+        /** The last feature of the page, when keyset paging */
+        SimpleFeature keysetLast;
+    }
+
+    /**
+     * Validates the query, sets up joins and property names, and opens the primary feature source. Can be run in a
+     * separate thread, the outcome does not depend on the other queries in the request.
+     */
+    private PreparedQuery prepareQuery(GetFeatureRequest request, Query query) throws IOException {
+        // alias sanity check
+        validateQueryAliases(request, query);
+
+        List<FeatureTypeInfo> metas = new ArrayList<>();
+        for (QName typeName : query.getTypeNames()) {
+            metas.add(featureTypeInfo(typeName, request));
         }
 
-        return buildResults(request, totalOffset, maxFeatures, count, totalCount, results, lockId, getFeatureById);
+        // first is the primary feature type
+        FeatureTypeInfo meta = metas.get(0);
+
+        // parse the requested property names and distribute among requested types
+        List<List<String>> reqPropertyNames = parsePropertyNames(query, metas);
+
+        NamespaceSupport ns = getNamespaceSupport();
+
+        // set up joins (if specified)
+        List<Join> joins = null;
+        String primaryAlias = null;
+        QName primaryTypeName = query.getTypeNames().get(0);
+        FeatureTypeInfo primaryMeta = metas.get(0);
+
+        // make sure filters are sane
+        //
+        // Validation of filters on non-simple feature types is not yet supported.
+        // FIXME: Support validation of filters on non-simple feature types:
+        // need to consider xpath properties and how to configure namespace prefixes in
+        // GeoTools app-schema FeaturePropertyAccessorFactory.
+        Filter filter = query.getFilter();
+
+        if (filter == null && metas.size() > 1) {
+            throw new WFSException(request, "Join query must specify a filter");
+        }
+
+        if (filter != null) {
+            if (meta.getFeatureType() instanceof SimpleFeatureType) {
+                if (metas.size() > 1) {
+                    // sanitize aliases, they must not conflict with feature type names
+                    // nor with their attributes
+                    query = AliasedQuery.fixAliases(metas, query);
+                    // the filter might have been rewritten
+                    filter = query.getFilter();
+
+                    // the join extracting visitor cannot handle negated filters,
+                    // the simplifier handles most common case removing the negation,
+                    // e.g., not(a < 10) -> a >= 10
+                    filter = SimplifyingFilterVisitor.simplify(filter);
+
+                    // join, need to separate the joining filter from other filters
+                    JoinExtractingVisitor extractor = new JoinExtractingVisitor(metas, query.getAliases());
+                    extractor.setQueriedTypes(query.getTypeNames());
+                    filter.accept(extractor, null);
+
+                    primaryAlias = extractor.getPrimaryAlias();
+                    primaryMeta = extractor.getPrimaryFeatureType();
+                    metas = extractor.getFeatureTypes();
+                    primaryTypeName = new QName(primaryMeta.getNamespace().getURI(), primaryMeta.getName());
+                    joins = extractor.getJoins();
+                    if (joins.size() != metas.size() - 1) {
+                        throw new WFSException(
+                                request,
+                                String.format(
+                                        "Query specified %d types but %d " + "join filters were found",
+                                        metas.size(),
+                                        extractor.getJoins().size()));
+                    }
+
+                    // validate the filter for each join, as well as the join filter
+                    for (int j = 1; j < metas.size(); j++) {
+                        Join join = joins.get(j - 1);
+                        validateJoin(request, query, filter, join, metas.get(j));
+                    }
+
+                    filter = extractor.getPrimaryFilter();
+                    if (filter != null) {
+                        validateFilter(filter, query, primaryMeta, request);
+                    }
+                } else {
+                    validateFilter(filter, query, meta, request);
+                }
+            } else {
+                BBOXNamespaceSettingVisitor filterVisitor = new BBOXNamespaceSettingVisitor(ns);
+                filter.accept(filterVisitor, null);
+            }
+        }
+
+        PreparedQuery result = new PreparedQuery();
+        collectPropertyNames(request, metas, meta, reqPropertyNames, ns, result.propNames, result.allPropNames);
+
+        // validate sortby if present
+        List<SortBy> sortBy = query.getSortBy();
+        if (sortBy != null && !sortBy.isEmpty() && meta.getFeatureType() instanceof SimpleFeatureType) {
+            validateSortBy(sortBy, meta, request);
+        }
+
+        // load primary feature source
+        Hints hints = null;
+        if (joins != null) {
+            hints = new Hints(ResourcePool.JOINS, joins);
+        }
+
+        // for remote reprojection in case of WFS-NG datastore ONLY
+        if (meta.getStore().getConnectionParameters().get(WFSDataStoreFactory.USEDEFAULTSRS.key) != null
+                && meta.getMetadata().get(FeatureTypeInfo.OTHER_SRS) != null) {
+            // if wfs-ng datastore is NOT set to use default srs
+            // then find request SRS in OTHER_SRS list
+            if (!Boolean.valueOf(meta.getStore()
+                            .getConnectionParameters()
+                            .get(WFSDataStoreFactory.USEDEFAULTSRS.key)
+                            .toString())
+                    && query.getSrsName() != null) {
+                hints = setWFSCascadingReprojection(query, meta, hints);
+            }
+        }
+
+        result.source = primaryMeta.getFeatureSource(null, hints);
+        result.query = query;
+        result.metas = metas;
+        result.meta = meta;
+        result.primaryMeta = primaryMeta;
+        result.primaryTypeName = primaryTypeName;
+        result.primaryAlias = primaryAlias;
+        result.joins = joins;
+        result.filter = filter;
+        return result;
+    }
+
+    /** Computes the max features for a query, given the features already returned by the previous ones */
+    private int queryMaxFeatures(int maxFeatures, int count, List<FeatureTypeInfo> metas) {
+        // no global limit stays no limit, whatever the previous queries returned
+        int queryMaxFeatures = maxFeatures == Integer.MAX_VALUE ? maxFeatures : maxFeatures - count;
+        int metaMaxFeatures = maxFeatures(metas);
+        if (metaMaxFeatures > 0 && metaMaxFeatures < queryMaxFeatures) {
+            queryMaxFeatures = metaMaxFeatures;
+        }
+        return queryMaxFeatures;
+    }
+
+    /**
+     * Builds the GeoTools query for the given offset and max features, lets the {@link GetFeatureCallback} alter it,
+     * and sets up the resulting feature collection in the prepared query
+     */
+    private void runQuery(
+            GetFeatureRequest request,
+            PreparedQuery pq,
+            int offset,
+            int queryMaxFeatures,
+            Map<String, String> viewParam)
+            throws IOException {
+        org.geotools.api.data.Query gtQuery = toDataQuery(
+                pq.query,
+                pq.filter,
+                offset,
+                queryMaxFeatures,
+                pq.source,
+                request,
+                pq.allPropNames.get(0),
+                viewParam,
+                pq.joins,
+                pq.primaryTypeName,
+                pq.primaryAlias);
+
+        if (pq.keysetSort != null) {
+            // unique sort, and seek past the cursor position instead of using an offset
+            gtQuery.setSortBy(pq.keysetSort.toArray(new SortBy[pq.keysetSort.size()]));
+            if (pq.keysetFilter != null) {
+                gtQuery.setFilter(KeysetCursor.FF.and(gtQuery.getFilter(), pq.keysetFilter));
+                gtQuery.setStartIndex(null);
+            }
+        }
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Query is " + pq.query + "\n To gt2: " + gtQuery);
+        }
+
+        // allow extensions to alter the query being run
+        GetFeatureContext context = new GetFeatureContext(request, pq.meta, pq.source, gtQuery);
+        List<GetFeatureCallback> callbacks = GeoServerExtensions.extensions(GetFeatureCallback.class);
+        if (!callbacks.isEmpty()) {
+            for (GetFeatureCallback callback : callbacks) {
+                callback.beforeQuerying(context);
+            }
+            if (gtQuery != context.getQuery() && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Query after GetFeatureCallback changes: " + pq.source);
+            }
+            gtQuery = context.getQuery();
+        }
+
+        pq.queryMaxFeatures = queryMaxFeatures;
+        pq.features = getFeatures(request, pq.source, gtQuery);
+    }
+
+    /**
+     * Sets up keyset paging for the query, if the request is paged and the feature type has a unique key to sort on.
+     * When a cursor is provided, the query will seek past it, instead of skipping features.
+     */
+    private void setupKeysetPaging(GetFeatureRequest request, PreparedQuery pq, int offset) {
+        String token = getCursor(request);
+        List<SortBy> keysetSort = null;
+        if (pq.metas.size() == 1
+                && pq.source.getSchema() instanceof SimpleFeatureType schema
+                && !request.isResultTypeHits()
+                && !request.isLockRequest()
+                && !streaming
+                && request.getVersion() != null
+                && request.getVersion().startsWith("2")
+                && (offset >= 0 || token != null)) {
+            keysetSort = KeysetCursor.getKeysetSort(pq.meta, schema, pq.query.getSortBy());
+            if (keysetSort != null && token != null) {
+                try {
+                    KeysetCursor cursor = KeysetCursor.decode(token);
+                    if (!cursor.matches(pq.meta.prefixedName(), keysetSort)) {
+                        throw new IllegalArgumentException("The cursor does not match the requested type and sort");
+                    }
+                    pq.keysetFilter = cursor.toFilter(schema);
+                } catch (IllegalArgumentException e) {
+                    throw new WFSException(
+                            e.getMessage(), e, ServiceException.INVALID_PARAMETER_VALUE, CURSOR_PARAMETER);
+                }
+            }
+        }
+        if (keysetSort != null && pq.allPropNames.get(0) != null) {
+            // the key of the last feature is needed for the next cursor, the extra properties get shaved off later
+            List<PropertyName> properties = new ArrayList<>(pq.allPropNames.get(0));
+            for (SortBy sb : keysetSort) {
+                String name = sb.getPropertyName().getPropertyName();
+                if (properties.stream().noneMatch(p -> name.equals(stripPrefix(p.getPropertyName())))) {
+                    properties.add(KeysetCursor.FF.property(name));
+                }
+            }
+            pq.allPropNames.set(0, properties);
+        }
+        if (keysetSort == null && token != null) {
+            throw new WFSException(
+                    "Cursor based paging is not available for this request",
+                    ServiceException.INVALID_PARAMETER_VALUE,
+                    CURSOR_PARAMETER);
+        }
+        pq.keysetSort = keysetSort;
+    }
+
+    /**
+     * Returns the keyset paging cursor provided by the client, if any. The default implementation looks for the
+     * {@link #CURSOR_PARAMETER} vendor parameter in the request.
+     */
+    protected String getCursor(GetFeatureRequest request) {
+        Request req = Dispatcher.REQUEST.get();
+        if (req == null || req.getRawKvp() == null) {
+            return null;
+        }
+        for (Map.Entry<String, Object> entry : req.getRawKvp().entrySet()) {
+            if (CURSOR_PARAMETER.equalsIgnoreCase(entry.getKey()) && entry.getValue() instanceof String value) {
+                return value.isBlank() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    private static String stripPrefix(String name) {
+        int colon = name.indexOf(':');
+        return colon >= 0 ? name.substring(colon + 1) : name;
+    }
+
+    /**
+     * Reads a full page in memory, keeping track of its last feature: the next cursor is needed before the features
+     * are encoded, reading the page once is cheaper than looking up its last feature with a separate query. Pages
+     * larger than {@link KeysetCursor#MAX_PAGE_SIZE} are left alone, and get no cursor.
+     */
+    private FeatureCollection<? extends FeatureType, ? extends Feature> readKeysetPage(
+            PreparedQuery pq, int queryMaxFeatures) {
+        if (queryMaxFeatures > KeysetCursor.MAX_PAGE_SIZE || !(pq.features instanceof SimpleFeatureCollection fc)) {
+            return pq.features;
+        }
+        List<SimpleFeature> page = new ArrayList<>();
+        try (SimpleFeatureIterator it = fc.features()) {
+            while (it.hasNext()) {
+                page.add(it.next());
+            }
+        }
+        pq.keysetLast = page.isEmpty() ? null : page.get(page.size() - 1);
+        return new ListFeatureCollection(fc.getSchema(), page);
+    }
+
+    /** Builds the cursor pointing past the last feature of the current page */
+    private String buildNextCursor(PreparedQuery pq) {
+        if (pq.keysetLast == null) {
+            return null;
+        }
+        KeysetCursor cursor = KeysetCursor.after(pq.meta.prefixedName(), pq.keysetSort, pq.keysetLast);
+        return cursor != null ? cursor.encode() : null;
     }
 
     private void validateJoin(GetFeatureRequest request, Query query, Filter filter, Join join, FeatureTypeInfo meta)
@@ -858,21 +1155,46 @@ private boolean isPreComputed(List<CountExecutor> totalCountExecutors) {
     }
 
     private long getTotalCount(List<CountExecutor> totalCountExecutors) throws IOException {
+        // the counts are independent, run the ones not already known in parallel
         long totalCount = 0;
+        List<Callable<Integer>> counts = new ArrayList<>();
         for (CountExecutor q : totalCountExecutors) {
-            int result = q.getCount();
-            // if the count is unknown for one, we don't know the total,
-            // period
-            if (result == -1) {
-                totalCount = -1;
-                break;
+            if (q.isCountSet()) {
+                totalCount += q.getCount();
             } else {
-                totalCount += result;
+                counts.add(q::getCount);
+            }
+        }
+        List<Future<Integer>> results = ParallelQueryExecutor.submitAll(counts);
+        try {
+            for (Future<Integer> future : results) {
+                int result = await(future);
+                // if the count is unknown for one, we don't know the total,
+                // period
+                if (result == -1) {
+                    totalCount = -1;
+                    break;
+                } else {
+                    totalCount += result;
+                }
             }
+        } finally {
+            ParallelQueryExecutor.cancel(results);
         }
         return totalCount;
     }
 
+    /** Waits for the result of a task run by the {@link ParallelQueryExecutor} */
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return ParallelQueryExecutor.get(future);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
     private Filter toFeatureIdFilter(List<FeatureId> lockedFeatures) {
         if (lockedFeatures == null || lockedFeatures.isEmpty()) {
             return Filter.EXCLUDE;
@@ -963,17 +1285,21 @@ protected FeatureCollectionResponse buildResults(
             Supplier<BigInteger> total,
             List<FeatureCollection<? extends FeatureType, ? extends Feature>> results,
             String lockId,
-            boolean getFeatureById) {
+            boolean getFeatureById,
+            String nextCursor) {
 
         FeatureCollectionResponse result = request.createResponse();
-        result.setNumberOfFeatures(BigInteger.valueOf(count));
+        // a negative count means the results are streamed, and their number is unknown
+        if (count >= 0) {
+            result.setNumberOfFeatures(BigInteger.valueOf(count));
+        }
         result.setLazyTotalNumberOfFeatures(total);
         result.setTimeStamp(Calendar.getInstance());
         result.setLockId(lockId);
         result.getFeature().addAll(results);
         result.setGetFeatureById(getFeatureById);
 
-        if (offset > 0 || count < Integer.MAX_VALUE) {
+        if (count >= 0 && (offset > 0 || count < Integer.MAX_VALUE)) {
             // paged request, set the values of previous and next
 
             // get the Request thread local since we need to know about the request, whether it is
@@ -993,7 +1319,7 @@ protected FeatureCollectionResponse buildResults(
                 // generate kvp map from request object
                 kvp = buildKvpFromRequest(request);
             }
-            buildPrevNextLinks(request, offset, maxFeatures, count, result, kvp);
+            buildPrevNextLinks(request, offset, maxFeatures, count, result, kvp, nextCursor);
         }
 
         return result;
@@ -1010,13 +1336,19 @@ private KvpMap<String, String> mapValuesToStrings(Map<String, Object> rawKvp) {
                         () -> new KvpMap<>()));
     }
 
+    /**
+     * Builds the previous and next links of a paged response
+     *
+     * @param nextCursor the keyset paging cursor for the next page, or {@code null} if keyset paging is not in use
+     */
     protected void buildPrevNextLinks(
             GetFeatureRequest request,
             int offset,
             int maxFeatures,
             int count,
             FeatureCollectionResponse result,
-            Map<String, String> kvp) {
+            Map<String, String> kvp,
+            String nextCursor) {
         // WFS 2.0 specific, must have a next and should point to the first result
         if (request.isResultTypeHits()
                 && (request.getVersion() == null || request.getVersion().startsWith("2"))) {
@@ -1025,6 +1357,9 @@ protected void buildPrevNextLinks(
             kvp.put("STARTINDEX", "0");
         }
 
+        // the cursor of the current page, if any, is not valid for the other pages
+        kvp.remove(CURSOR_PARAMETER);
+
         // WFS 2.0 has specific requirements for hits, there is no previous link, the next
         // points to the first
         // page of results
@@ -1048,6 +1383,9 @@ protected void buildPrevNextLinks(
         } else if (count > 0 && offset > -1 && maxFeatures <= count) {
             kvp.put("startIndex", String.valueOf(offset > 0 ? offset + count : count));
             kvp.put("count", String.valueOf(maxFeatures));
+            if (nextCursor != null) {
+                kvp.put(CURSOR_PARAMETER, nextCursor);
+            }
             result.setNext(buildURL(request.getBaseUrl(), "wfs", kvp, URLType.SERVICE));
         }
     }
@@ -15,6 +15,7 @@
 import java.util.Map;
 import java.util.logging.Logger;
 import javax.xml.namespace.QName;
+import net.opengis.wfs.InsertElementType;
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.config.GeoServer;
 import org.geoserver.feature.ReprojectingFeatureCollection;
@@ -53,6 +54,12 @@ public class InsertElementHandler extends AbstractTransactionElementHandler {
     /** logger */
     static Logger LOGGER = org.geotools.util.logging.Logging.getLogger("org.geoserver.wfs");
 
+    /**
+     * Maximum number of features of the same type written to the store in one go, each batch firing a single pair of
+     * pre/post insert events. Keeps bounded the id filter used to gather the inserted features after the write.
+     */
+    static final String INSERT_BATCH_SIZE = "org.geoserver.wfs.insertBatchSize";
+
     private FilterFactory filterFactory;
 
     public InsertElementHandler(GeoServer gs, FilterFactory filterFactory) {
@@ -85,18 +92,13 @@ public void execute(
 
         try {
             // group features by their schema
-            HashMap /* <SimpleFeatureType,FeatureCollection> */ schema2features = new LinkedHashMap<>();
+            Map<SimpleFeatureType, List<SimpleFeature>> schema2features = new LinkedHashMap<>();
 
             List featureList = insert.getFeatures();
             for (Object item : featureList) {
                 SimpleFeature feature = (SimpleFeature) item;
                 SimpleFeatureType schema = feature.getFeatureType();
-                ListFeatureCollection collection = (ListFeatureCollection) schema2features.get(schema);
-
-                if (collection == null) {
-                    collection = new ListFeatureCollection(schema);
-                    schema2features.put(schema, collection);
-                }
+                List<SimpleFeature> collection = schema2features.computeIfAbsent(schema, k -> new ArrayList<>());
 
                 // do a check for idegen = useExisting, if set try to tell the datastore to use
                 // the provided fid
@@ -124,9 +126,12 @@ public void execute(
             // as they were supplied
             Map<String, List<FeatureId>> schema2fids = new HashMap<>();
 
-            for (Object value : schema2features.values()) {
-                SimpleFeatureCollection collection = (SimpleFeatureCollection) value;
-                SimpleFeatureType schema = collection.getSchema();
+            int batchSize = Math.max(Integer.getInteger(INSERT_BATCH_SIZE, 1000), 1);
+            // the event source copies the whole feature list for WFS 2.0, build it once
+            InsertElementType source = Insert.WFS11.unadapt(insert);
+            for (Map.Entry<SimpleFeatureType, List<SimpleFeature>> entry : schema2features.entrySet()) {
+                SimpleFeatureType schema = entry.getKey();
+                List<SimpleFeature> schemaFeatures = entry.getValue();
 
                 final QName elementName = new QName(schema.getName().getNamespaceURI(), schema.getTypeName());
                 SimpleFeatureStore store = DataUtilities.simple((FeatureStore) featureStores.get(elementName));
@@ -135,7 +140,10 @@ public void execute(
                     throw new WFSException(request, "Could not locate FeatureStore for '" + elementName + "'");
                 }
 
-                if (collection != null) {
+                for (int from = 0; from < schemaFeatures.size(); from += batchSize) {
+                    int to = Math.min(from + batchSize, schemaFeatures.size());
+                    SimpleFeatureCollection collection =
+                            new ListFeatureCollection(schema, schemaFeatures.subList(from, to));
                     // if we really need to, make sure we are inserting coordinates that do
                     // match the CRS area of validity
                     if (getInfo().isCiteCompliant()) {
@@ -186,19 +194,20 @@ public void execute(
                     // fire pre insert event
                     TransactionEvent event =
                             new TransactionEvent(TransactionEventType.PRE_INSERT, request, elementName, collection);
-                    event.setSource(Insert.WFS11.unadapt(insert));
+                    event.setSource(source);
 
                     listener.dataStoreChange(event);
-                    fids.addAll(store.addFeatures(collection));
+                    List<FeatureId> batchFids = store.addFeatures(collection);
+                    fids.addAll(batchFids);
 
                     // fire post insert event
-                    SimpleFeatureCollection features = store.getFeatures(filterFactory.id(new HashSet<>(fids)));
+                    SimpleFeatureCollection features = store.getFeatures(filterFactory.id(new HashSet<>(batchFids)));
                     event = new TransactionEvent(
                             TransactionEventType.POST_INSERT,
                             request,
                             elementName,
                             features,
-                            Insert.WFS11.unadapt(insert));
+                            source);
                     listener.dataStoreChange(event);
                 }
             }
@@ -0,0 +1,326 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.api.filter.sort.SortBy;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.util.Converters;
+
+/**
+ * A continuation token for keyset (seek) paging. Instead of skipping the first N features of a result, which data
+ * stores normally implement with a linear scan ({@code OFFSET} in SQL), the next page is selected with a filter
+ * returning only the features sorting after the last one of the current page (e.g., {@code WHERE pk > ?}), so that
+ * every page costs the same regardless of its position.
+ *
+ * <p>Keyset paging requires a sort on a set of attributes uniquely identifying each feature. The unique key is either
+ * configured in the feature type metadata, as a comma separated list of attributes under {@link #KEY_ATTRIBUTES}, or
+ * derived from the primary key columns exposed by JDBC stores. The sort requested by the client, if any, is extended
+ * with the key attributes to make it unique. The natural order is the key order, which for JDBC stores is also the
+ * primary key order the feature ids are built from. Feature types with no key keep using offsets, as the feature ids
+ * cannot be compared in a filter.
+ *
+ * <p>All the sort attributes must be non nillable: stores disagree on where null values sort, and comparisons with null
+ * values never match, so a seek filter could skip or repeat features.
+ *
+ * <p>The token is opaque to clients, it encodes the type name, the sort and the last key values, base64 encoded.
+ */
+public class KeysetCursor {
+
+    /** Feature type metadata key listing the attributes forming a unique key, comma separated */
+    public static final String KEY_ATTRIBUTES = "keysetPagingKey";
+
+    /** Attribute user data key JDBC stores use to mark exposed primary key columns */
+    static final String JDBC_PRIMARY_KEY_COLUMN = "org.geotools.jdbc.pk.column";
+
+    /**
+     * Maximum page size for keyset paging, defaults to 10000. The key of the last feature of a page is needed to
+     * build the link to the next one, which is written before the features, so the page is read in memory
+     */
+    public static final int MAX_PAGE_SIZE = Integer.getInteger("org.geoserver.wfs.keysetPaging.maxPageSize", 10000);
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory(null);
+
+    private static final String VERSION = "1";
+
+    private static final char NUMBER = 'V';
+
+    private static final char DATE = 'D';
+
+    private static final char STRING = 'S';
+
+    private final String typeName;
+
+    private final List<SortBy> sort;
+
+    private final List<String> values;
+
+    KeysetCursor(String typeName, List<SortBy> sort, List<String> values) {
+        this.typeName = typeName;
+        this.sort = sort;
+        this.values = values;
+    }
+
+    /**
+     * Returns the sort to be used for keyset paging on the given feature type, that is, the requested sort extended
+     * with the unique key attributes, or {@code null} if keyset paging cannot be used (no unique key available, or
+     * sorting on attributes that cannot be used in a keyset filter)
+     */
+    public static List<SortBy> getKeysetSort(FeatureTypeInfo info, SimpleFeatureType schema, List<SortBy> requested) {
+        List<String> keys = getKeyAttributes(info, schema);
+        if (keys.isEmpty()) {
+            return null;
+        }
+
+        List<SortBy> result = new ArrayList<>();
+        List<String> sorted = new ArrayList<>();
+        SortOrder keyOrder = SortOrder.ASCENDING;
+        if (requested != null) {
+            for (SortBy sb : requested) {
+                PropertyName pn = sb.getPropertyName();
+                // natural order is the key one, the key attributes are added below
+                if (pn == null) {
+                    keyOrder = normalize(sb.getSortOrder());
+                    continue;
+                }
+                if (!isSupported(schema.getDescriptor(pn.getPropertyName()))) {
+                    return null;
+                }
+                result.add(sb);
+                sorted.add(pn.getPropertyName());
+            }
+        }
+        for (String key : keys) {
+            if (!isSupported(schema.getDescriptor(key))) {
+                return null;
+            }
+            if (!sorted.contains(key)) {
+                result.add(FF.sort(key, keyOrder));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> getKeyAttributes(FeatureTypeInfo info, SimpleFeatureType schema) {
+        List<String> keys = new ArrayList<>();
+        String configured = info.getMetadata() != null ? info.getMetadata().get(KEY_ATTRIBUTES, String.class) : null;
+        if (configured != null && !configured.isBlank()) {
+            for (String key : configured.split("\\s*,\\s*")) {
+                if (!key.isBlank()) {
+                    keys.add(key.trim());
+                }
+            }
+        } else {
+            for (AttributeDescriptor ad : schema.getAttributeDescriptors()) {
+                if (Boolean.TRUE.equals(ad.getUserData().get(JDBC_PRIMARY_KEY_COLUMN))) {
+                    keys.add(ad.getLocalName());
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static boolean isSupported(AttributeDescriptor ad) {
+        if (ad == null || ad.isNillable()) {
+            return false;
+        }
+        Class<?> binding = ad.getType().getBinding();
+        return Number.class.isAssignableFrom(binding)
+                || String.class.equals(binding)
+                || Date.class.isAssignableFrom(binding);
+    }
+
+    /** Builds a cursor positioned after the given feature, or returns {@code null} if a key value is missing */
+    public static KeysetCursor after(String typeName, List<SortBy> sort, SimpleFeature last) {
+        List<String> values = new ArrayList<>();
+        for (SortBy sb : sort) {
+            Object value = last.getAttribute(sb.getPropertyName().getPropertyName());
+            if (value == null) {
+                // cannot seek past null values, should not happen as the sort attributes are not nillable
+                return null;
+            } else if (value instanceof Date date) {
+                values.add(DATE + encodeDate(date));
+            } else if (value instanceof Number) {
+                values.add(NUMBER + value.toString());
+            } else {
+                values.add(STRING + value.toString());
+            }
+        }
+        return new KeysetCursor(typeName, sort, values);
+    }
+
+    private static String encodeDate(Date date) {
+        if (date instanceof Timestamp ts) {
+            // preserve the sub-millisecond precision
+            return date.getTime() + "." + ts.getNanos();
+        }
+        return String.valueOf(date.getTime());
+    }
+
+    /** Returns the opaque token representation of this cursor */
+    public String encode() {
+        StringBuilder sb = new StringBuilder(VERSION).append('\n').append(encodeValue(typeName));
+        for (int i = 0; i < sort.size(); i++) {
+            SortBy sortBy = sort.get(i);
+            sb.append('\n')
+                    .append(encodeValue(sortBy.getPropertyName().getPropertyName()))
+                    .append(' ')
+                    .append(sortBy.getSortOrder() == SortOrder.DESCENDING ? 'D' : 'A')
+                    .append(' ')
+                    .append(encodeValue(values.get(i)));
+        }
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token back into a cursor
+     *
+     * @throws IllegalArgumentException if the token is not valid
+     */
+    public static KeysetCursor decode(String token) {
+        String contents;
+        try {
+            contents = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        String[] lines = contents.split("\n");
+        if (lines.length < 3 || !VERSION.equals(lines[0])) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        String typeName = decodeValue(lines[1]);
+        List<SortBy> sort = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (int i = 2; i < lines.length; i++) {
+            String[] parts = lines[i].split(" ");
+            if (parts.length != 3 || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            SortOrder order = "D".equals(parts[1]) ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+            sort.add(FF.sort(decodeValue(parts[0]), order));
+            values.add(decodeValue(parts[2]));
+        }
+        return new KeysetCursor(typeName, sort, values);
+    }
+
+    private static String encodeValue(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decodeValue(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /** Checks the cursor has been generated for the given type name and sort */
+    public boolean matches(String typeName, List<SortBy> sort) {
+        if (!Objects.equals(this.typeName, typeName) || this.sort.size() != sort.size()) {
+            return false;
+        }
+        for (int i = 0; i < sort.size(); i++) {
+            SortBy expected = sort.get(i);
+            SortBy actual = this.sort.get(i);
+            if (!expected.getPropertyName().getPropertyName().equals(actual.getPropertyName().getPropertyName())
+                    || normalize(expected.getSortOrder()) != normalize(actual.getSortOrder())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static SortOrder normalize(SortOrder order) {
+        return order == SortOrder.DESCENDING ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+    }
+
+    /**
+     * Builds the filter selecting the features sorting after the cursor position, that is, for a key (k1, k2, k3):
+     * {@code k1 > v1 OR (k1 = v1 AND k2 > v2) OR (k1 = v1 AND k2 = v2 AND k3 > v3)}, with the comparisons reversed for
+     * descending sort.
+     */
+    public Filter toFilter(SimpleFeatureType schema) {
+        FilterFactory ff = FF;
+        List<Filter> alternatives = new ArrayList<>();
+        List<Filter> equalities = new ArrayList<>();
+        for (int i = 0; i < sort.size(); i++) {
+            SortBy sb = sort.get(i);
+            String name = sb.getPropertyName().getPropertyName();
+            Object value = toValue(values.get(i), schema.getDescriptor(name));
+            PropertyName property = ff.property(name);
+
+            Filter after = sb.getSortOrder() == SortOrder.DESCENDING
+                    ? ff.less(property, ff.literal(value))
+                    : ff.greater(property, ff.literal(value));
+            if (equalities.isEmpty()) {
+                alternatives.add(after);
+            } else {
+                List<Filter> conditions = new ArrayList<>(equalities);
+                conditions.add(after);
+                alternatives.add(ff.and(conditions));
+            }
+            equalities.add(ff.equals(property, ff.literal(value)));
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : ff.or(alternatives);
+    }
+
+    private static Object toValue(String encoded, AttributeDescriptor ad) {
+        if (ad == null) {
+            throw new IllegalArgumentException("Cursor references an unknown attribute");
+        }
+        Class<?> binding = ad.getType().getBinding();
+        char type = encoded.charAt(0);
+        String value = encoded.substring(1);
+        if (type == DATE) {
+            return toDate(value, binding);
+        }
+        Object converted = Converters.convert(value, binding);
+        if (converted == null) {
+            throw new IllegalArgumentException("Invalid cursor value " + value + " for attribute " + ad.getLocalName());
+        }
+        return converted;
+    }
+
+    private static Date toDate(String value, Class<?> binding) {
+        try {
+            int dot = value.indexOf('.');
+            long millis = Long.parseLong(dot > 0 ? value.substring(0, dot) : value);
+            if (Timestamp.class.isAssignableFrom(binding)) {
+                Timestamp ts = new Timestamp(millis);
+                if (dot > 0) {
+                    ts.setNanos(Integer.parseInt(value.substring(dot + 1)));
+                }
+                return ts;
+            } else if (java.sql.Date.class.isAssignableFrom(binding)) {
+                return new java.sql.Date(millis);
+            } else if (Time.class.isAssignableFrom(binding)) {
+                return new Time(millis);
+            }
+            return new Date(millis);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor date value " + value, e);
+        }
+    }
+}
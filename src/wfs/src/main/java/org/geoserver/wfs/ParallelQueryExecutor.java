@@ -0,0 +1,181 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Runs the independent parts of a multi-query GetFeature (feature source opening, feature counts) concurrently on an
+ * application wide, bounded thread pool. The first task is always run by the calling thread, the others are handed to
+ * the pool, after transferring the request thread locals (dispatcher request, authentication, local workspace, ...).
+ *
+ * <p>Parallel execution is opt-in, the pool size is controlled by the {@link #THREADS_PROPERTY} property, defaulting to
+ * 1, which makes all tasks run sequentially in the calling thread. The pool threads are daemons and get released after
+ * a minute of inactivity. The pool queue holds as many tasks as there are threads, when it's full the tasks are run in
+ * the calling thread instead, slowing down the requests submitting them rather than piling up work.
+ */
+class ParallelQueryExecutor {
+
+    static final Logger LOGGER = Logging.getLogger(ParallelQueryExecutor.class);
+
+    /** Number of threads used to run the queries of a GetFeature request in parallel */
+    static final String THREADS_PROPERTY = "GEOSERVER_WFS_QUERY_THREADS";
+
+    private static volatile ThreadPoolExecutor POOL;
+
+    private static volatile Integer THREADS;
+
+    private ParallelQueryExecutor() {}
+
+    /** Returns true if tasks are run concurrently */
+    static boolean isParallel() {
+        return getThreads() > 1;
+    }
+
+    static int getThreads() {
+        if (THREADS == null) {
+            int threads = 1;
+            String value = GeoServerExtensions.getProperty(THREADS_PROPERTY);
+            if (value != null) {
+                try {
+                    threads = Integer.parseInt(value.trim());
+                } catch (NumberFormatException e) {
+                    LOGGER.log(Level.WARNING, "Invalid value for " + THREADS_PROPERTY + ": " + value, e);
+                }
+            }
+            THREADS = threads;
+        }
+        return THREADS;
+    }
+
+    /** Forgets the configured thread count and releases the pool, for tests */
+    static synchronized void reset() {
+        THREADS = null;
+        if (POOL != null) {
+            POOL.shutdown();
+            POOL = null;
+        }
+    }
+
+    private static ThreadPoolExecutor getPool() {
+        if (POOL == null) {
+            synchronized (ParallelQueryExecutor.class) {
+                if (POOL == null) {
+                    int threads = getThreads();
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                            threads,
+                            threads,
+                            60L,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(threads),
+                            new QueryThreadFactory());
+                    pool.allowCoreThreadTimeOut(true);
+                    POOL = pool;
+                }
+            }
+        }
+        return POOL;
+    }
+
+    /**
+     * Starts the execution of the given tasks, returning their futures in the same order. The first task is run in the
+     * calling thread before returning, the other ones are run in the pool, or in the calling thread too, if parallel
+     * execution is disabled or the pool queue is full.
+     */
+    static <T> List<Future<T>> submitAll(List<Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        if (tasks.isEmpty()) {
+            return futures;
+        }
+        if (tasks.size() == 1 || !isParallel()) {
+            for (Callable<T> task : tasks) {
+                FutureTask<T> future = new FutureTask<>(task);
+                future.run();
+                futures.add(future);
+            }
+            return futures;
+        }
+
+        FutureTask<T> first = new FutureTask<>(tasks.get(0));
+        futures.add(first);
+        List<FutureTask<T>> rejected = new ArrayList<>();
+        ThreadPoolExecutor pool = getPool();
+        for (Callable<T> task : tasks.subList(1, tasks.size())) {
+            ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+            try {
+                futures.add(pool.submit(() -> {
+                    transfer.apply();
+                    try {
+                        return task.call();
+                    } finally {
+                        transfer.cleanup();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // the pool is saturated, the calling thread already has the thread locals
+                FutureTask<T> future = new FutureTask<>(task);
+                futures.add(future);
+                rejected.add(future);
+            }
+        }
+        first.run();
+        for (FutureTask<T> future : rejected) {
+            future.run();
+        }
+        return futures;
+    }
+
+    /** Waits for the given future, unwrapping the task exception */
+    static <T> T get(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /** Cancels the tasks that did not start yet, for results that are no longer needed */
+    static void cancel(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    private static class QueryThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "gs-wfs-query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
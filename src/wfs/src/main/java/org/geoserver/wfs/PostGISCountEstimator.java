@@ -0,0 +1,127 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.api.data.DataAccess;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.jdbc.FilterToSQL;
+import org.geotools.data.jdbc.FilterToSQLException;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.jdbc.BasicSQLDialect;
+import org.geotools.jdbc.JDBCDataStore;
+import org.geotools.jdbc.SQLDialect;
+import org.geotools.util.decorate.Wrapper;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Estimates feature counts on PostGIS tables using the query planner statistics, that is, the row count in the
+ * {@code EXPLAIN} output of the count query. The estimate is only as good as the table statistics (see
+ * {@code ANALYZE}), but it's computed in constant time, regardless of the number of rows matched.
+ *
+ * <p>SQL views, feature types with customized attributes, stores using prepared statements, and filters that cannot be
+ * fully encoded in SQL are not estimated.
+ */
+public class PostGISCountEstimator implements CountEstimator {
+
+    static final Logger LOGGER = Logging.getLogger(PostGISCountEstimator.class);
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory(null);
+
+    static final Pattern ROWS = Pattern.compile("rows=(\\d+)");
+
+    @Override
+    public long estimate(FeatureTypeInfo info, Query query) throws IOException {
+        JDBCDataStore store = getPostGISStore(info);
+        if (store == null
+                || info.getMetadata().containsKey(FeatureTypeInfo.JDBC_VIRTUAL_TABLE)
+                || (info.getAttributes() != null && !info.getAttributes().isEmpty())) {
+            return -1;
+        }
+
+        String sql;
+        try {
+            sql = buildExplain(store, info, query);
+        } catch (FilterToSQLException e) {
+            LOGGER.log(Level.FINE, "Filter cannot be encoded in SQL, won't estimate the count", e);
+            return -1;
+        }
+
+        Connection cx = store.getConnection(Transaction.AUTO_COMMIT);
+        try (Statement st = cx.createStatement();
+                ResultSet rs = st.executeQuery(sql)) {
+            // the first line describes the top level node, with the overall row estimate
+            if (rs.next()) {
+                Matcher matcher = ROWS.matcher(rs.getString(1));
+                if (matcher.find()) {
+                    return Long.parseLong(matcher.group(1));
+                }
+            }
+            return -1;
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Failed to estimate the count with: " + sql, e);
+            return -1;
+        } finally {
+            store.closeSafe(cx);
+        }
+    }
+
+    private JDBCDataStore getPostGISStore(FeatureTypeInfo info) throws IOException {
+        DataAccess<?, ?> access = info.getStore().getDataStore(null);
+        JDBCDataStore store = null;
+        if (access instanceof JDBCDataStore jdbc) {
+            store = jdbc;
+        } else if (access instanceof Wrapper wrapper && wrapper.isWrapperFor(JDBCDataStore.class)) {
+            store = wrapper.unwrap(JDBCDataStore.class);
+        }
+        if (store == null) {
+            return null;
+        }
+        // checking the class name avoids a dependency on the PostGIS module, the filter can be encoded as a
+        // plain SQL string only with the non prepared statement dialect
+        SQLDialect dialect = store.getSQLDialect();
+        if (!dialect.getClass().getSimpleName().startsWith("PostGIS") || !(dialect instanceof BasicSQLDialect)) {
+            return null;
+        }
+        return store;
+    }
+
+    private String buildExplain(JDBCDataStore store, FeatureTypeInfo info, Query query)
+            throws IOException, FilterToSQLException {
+        SimpleFeatureType schema = store.getSchema(info.getNativeName());
+        SQLDialect dialect = store.getSQLDialect();
+
+        StringBuffer sql = new StringBuffer("EXPLAIN SELECT 1 FROM ");
+        if (store.getDatabaseSchema() != null) {
+            dialect.encodeSchemaName(store.getDatabaseSchema(), sql);
+            sql.append(".");
+        }
+        dialect.encodeTableName(schema.getTypeName(), sql);
+
+        Filter filter = query.getFilter() != null ? query.getFilter() : Filter.INCLUDE;
+        Filter cqlFilter = info.filter();
+        if (cqlFilter != null && cqlFilter != Filter.INCLUDE) {
+            filter = FF.and(filter, cqlFilter);
+        }
+        if (filter != Filter.INCLUDE) {
+            FilterToSQL toSQL = store.createFilterToSQL(schema);
+            sql.append(" ").append(toSQL.encodeToString(filter));
+        }
+        return sql.toString();
+    }
+}
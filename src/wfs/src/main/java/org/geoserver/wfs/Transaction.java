@@ -11,9 +11,11 @@
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,16 +30,22 @@
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wfs.request.Delete;
 import org.geoserver.wfs.request.Insert;
+import org.geoserver.wfs.request.Property;
 import org.geoserver.wfs.request.TransactionElement;
 import org.geoserver.wfs.request.TransactionRequest;
 import org.geoserver.wfs.request.TransactionResponse;
+import org.geoserver.wfs.request.Update;
 import org.geotools.api.data.FeatureLockException;
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.FeatureStore;
 import org.geotools.api.feature.Feature;
 import org.geotools.api.feature.type.FeatureType;
 import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.Id;
+import org.geotools.api.filter.identity.Identifier;
 import org.geotools.data.DefaultTransaction;
+import org.geotools.factory.CommonFactoryFinder;
+import org.locationtech.jts.geom.Geometry;
 import org.springframework.context.ApplicationContext;
 
 /**
@@ -51,6 +59,9 @@ public class Transaction {
 
     private static final int DELETE_BATCH_SIZE = Integer.getInteger("org.geoserver.wfs.deleteBatchSize", 100);
 
+    /** Maximum number of consecutive updates by feature id, setting the same values, merged in a single update */
+    static final String UPDATE_BATCH_SIZE = "org.geoserver.wfs.updateBatchSize";
+
     /** WFS configuration */
     protected WFSInfo wfs;
 
@@ -411,7 +422,7 @@ protected TransactionResponse execute(TransactionRequest request) throws Excepti
      * @param stores
      * @param elementHandlers
      * @param result
-     * @return a new {@link BatchManager} batching INSERT and DELETE operations where possible.
+     * @return a new {@link BatchManager} batching INSERT, UPDATE and DELETE operations where possible.
      */
     protected BatchManager createBatchManager(
             TransactionRequest request,
@@ -419,7 +430,14 @@ protected BatchManager createBatchManager(
             Map<QName, FeatureStore> stores,
             Map<TransactionElement, TransactionElementHandler> elementHandlers,
             TransactionResponse result) {
-        return new BatchManager(request, multiplexer, stores, result, elementHandlers, DELETE_BATCH_SIZE);
+        return new BatchManager(
+                request,
+                multiplexer,
+                stores,
+                result,
+                elementHandlers,
+                DELETE_BATCH_SIZE,
+                Integer.getInteger(UPDATE_BATCH_SIZE, 100));
     }
 
     private TransactionRequest fireBeforeTransaction(TransactionRequest request) {
@@ -613,14 +631,21 @@ public void dataStoreChange(TransactionEvent event) throws WFSException {
      * {@link BatchManager} restructures the contents of the transaction in order to enable batched execution in the
      * data stores. When processing the {@link TransactionElement}s it aggregates INSERT and DELETE operations where
      * possible before calling the corresponding {@link TransactionElementHandler}s.
+     *
+     * <p>Consecutive UPDATE operations are aggregated as well when they target distinct features of the same type by
+     * id, setting the very same property values, as it's common for clients synchronizing large datasets. They are
+     * then executed as a single store update, with a single pair of transaction events.
      */
     protected static class BatchManager {
+        private static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
         private TransactionRequest request;
         private TransactionListener multiplexer;
         private Map<QName, FeatureStore> stores;
         private TransactionResponse result;
         private Map<TransactionElement, TransactionElementHandler> elementHandlers;
         private int maxDeleteCount;
+        private int maxUpdateCount;
 
         /**
          * Creates a new {@link BatchManager}, ready to {@link #run()} and process the transactions content.
@@ -640,17 +665,43 @@ public BatchManager(
                 TransactionResponse result,
                 Map<TransactionElement, TransactionElementHandler> elementHandlers,
                 int maxDeleteCount) {
+            this(request, multiplexer, stores, result, elementHandlers, maxDeleteCount, 1);
+        }
+
+        /**
+         * Creates a new {@link BatchManager}, ready to {@link #run()} and process the transactions content.
+         *
+         * @param request The current request
+         * @param multiplexer the current transaction listener
+         * @param stores The map of stores
+         * @param result The result
+         * @param elementHandlers Mapping of {@link TransactionElement} to its corresponding
+         *     {@link TransactionElementHandler}
+         * @param maxDeleteCount Maximum number of deletes to be aggregated into and existing delete
+         * @param maxUpdateCount Maximum number of updates to be aggregated into and existing update
+         */
+        public BatchManager(
+                TransactionRequest request,
+                TransactionListener multiplexer,
+                Map<QName, FeatureStore> stores,
+                TransactionResponse result,
+                Map<TransactionElement, TransactionElementHandler> elementHandlers,
+                int maxDeleteCount,
+                int maxUpdateCount) {
             this.request = request;
             this.multiplexer = multiplexer;
             this.stores = stores;
             this.result = result;
             this.elementHandlers = elementHandlers;
             this.maxDeleteCount = maxDeleteCount;
+            this.maxUpdateCount = maxUpdateCount;
         }
 
         private TransactionElement aggrTargetElement;
         private TransactionElementHandler aggrTargetHandler;
         private int aggrDeleteCount = 0;
+        private int aggrUpdateCount = 0;
+        private Set<Identifier> aggrUpdateIds;
 
         /**
          * Runs the aggregation of the {@link TransactionElement}s and invokes the required
@@ -697,9 +748,48 @@ private boolean canAggregate(TransactionElement pElem) {
                     return true;
                 }
             }
+            if (aggrTargetElement instanceof Update lTarget && pElem instanceof Update lElem) {
+                if (lTarget.getTypeName() == null
+                        || !lTarget.getTypeName().equals(lElem.getTypeName())
+                        || !Objects.equals(lTarget.getHandle(), lElem.getHandle())
+                        || !(lTarget.getFilter() instanceof Id lTargetIds)
+                        || !(lElem.getFilter() instanceof Id lElemIds)) {
+                    return false;
+                }
+                if (aggrUpdateIds == null) {
+                    aggrUpdateIds = new LinkedHashSet<>(lTargetIds.getIdentifiers());
+                }
+                // the same feature updated twice is reported twice in the update count, keep the updates separate
+                return aggrUpdateCount < maxUpdateCount - 1
+                        && Collections.disjoint(aggrUpdateIds, lElemIds.getIdentifiers())
+                        && sameProperties(lTarget.getUpdateProperties(), lElem.getUpdateProperties());
+            }
             return false;
         }
 
+        /** Checks the two updates set the same values on the same properties */
+        private boolean sameProperties(List<Property> p1, List<Property> p2) {
+            if (p1.size() != p2.size()) {
+                return false;
+            }
+            for (int i = 0; i < p1.size(); i++) {
+                Object v1 = p1.get(i).getValue();
+                Object v2 = p2.get(i).getValue();
+                if (!Objects.equals(p1.get(i).getName(), p2.get(i).getName())) {
+                    return false;
+                }
+                if (v1 instanceof Geometry g1 && v2 instanceof Geometry g2) {
+                    // the user data holds the geometry CRS, if any
+                    if (!g1.equalsExact(g2) || !Objects.equals(g1.getUserData(), g2.getUserData())) {
+                        return false;
+                    }
+                } else if (!Objects.equals(v1, v2)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         private IdentifierGenerationOptionType getIdGen(Insert insert) {
             EObject adaptee = insert.getAdaptee();
             if (adaptee instanceof InsertElementType type) {
@@ -731,6 +821,10 @@ private void aggregate(TransactionElement pElem) {
                 lTarget.addFilter(lElem.getFilter());
                 aggrDeleteCount++;
                 lRemoveFromRequest = true;
+            } else if (aggrTargetElement instanceof Update) {
+                aggrUpdateIds.addAll(((Id) pElem.getFilter()).getIdentifiers());
+                aggrUpdateCount++;
+                lRemoveFromRequest = true;
             }
             if (lRemoveFromRequest) {
                 // contents of the element have been added to target element. To avoid contents
@@ -740,10 +834,15 @@ private void aggregate(TransactionElement pElem) {
             }
         }
 
-        /** Calls the current handler with the current element, resetting the delete counter. */
+        /** Calls the current handler with the current element, resetting the delete and update counters. */
         private void runAggregated() {
+            if (aggrTargetElement instanceof Update lTarget && aggrUpdateCount > 0) {
+                lTarget.setFilter(FF.id(aggrUpdateIds));
+            }
             aggrTargetHandler.execute(aggrTargetElement, request, stores, result, multiplexer);
             aggrDeleteCount = 0;
+            aggrUpdateCount = 0;
+            aggrUpdateIds = null;
         }
     }
 }
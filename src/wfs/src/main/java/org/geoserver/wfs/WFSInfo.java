@@ -9,6 +9,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.config.ServiceInfo;
 
 public interface WFSInfo extends ServiceInfo {
@@ -187,6 +188,41 @@ public static ServiceLevel get(int code) {
         }
     }
 
+    /** How the number of features matched by a GetFeature request (numberMatched) is computed */
+    static enum CountPolicy {
+        /** Always run an exact count */
+        EXACT,
+        /** Run an exact count, and reuse it for the same type and filter until it expires, or the data is modified */
+        CACHED,
+        /**
+         * Use the store statistics to estimate the count, where available, and fall back on a cached exact count
+         * otherwise
+         */
+        ESTIMATED;
+
+        /** Feature type metadata key used to override the service wide count policy */
+        public static final String METADATA_KEY = "countPolicy";
+
+        /**
+         * Returns the count policy to be used for the given feature type, either its own or the service one, defaulting
+         * to {@link #EXACT}
+         */
+        public static CountPolicy get(WFSInfo wfs, FeatureTypeInfo info) {
+            if (info != null && info.getMetadata() != null) {
+                String value = info.getMetadata().get(METADATA_KEY, String.class);
+                if (value != null && !value.isBlank()) {
+                    try {
+                        return valueOf(value.trim().toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        // invalid configuration, use the service policy
+                    }
+                }
+            }
+            CountPolicy policy = wfs != null ? wfs.getCountPolicy() : null;
+            return policy != null ? policy : EXACT;
+        }
+    }
+
     /** A map of wfs version to gml encoding configuration. */
     Map<Version, GMLInfo> getGML();
 
@@ -326,4 +362,34 @@ public static ServiceLevel get(int code) {
     boolean isDisableStoredQueriesManagement();
 
     void setDisableStoredQueriesManagement(boolean disableStoredQueriesManagement);
+
+    /**
+     * The policy used to compute the number of features matched by GetFeature requests, can be overridden by each
+     * feature type using the {@link CountPolicy#METADATA_KEY} metadata entry. A {@code null} value means
+     * {@link CountPolicy#EXACT}.
+     */
+    CountPolicy getCountPolicy();
+
+    /** Sets the policy used to compute the number of features matched by GetFeature requests */
+    void setCountPolicy(CountPolicy countPolicy);
+
+    /**
+     * Time to live, in seconds, of the feature counts cached by the {@link CountPolicy#CACHED} and
+     * {@link CountPolicy#ESTIMATED} policies. A {@code null} value means the default, 60 seconds.
+     */
+    Integer getCountCacheTimeToLive();
+
+    /** Sets the time to live, in seconds, of cached feature counts */
+    void setCountCacheTimeToLive(Integer countCacheTimeToLive);
+
+    /**
+     * Flag enabling the streaming GML 3 encoder for GetFeature responses made of simple features. When enabled, the
+     * GML 3.1 and 3.2 output formats write simple features straight to the output, instead of going through the XSD
+     * encoder, and fall back on the latter for the cases the streaming encoder does not handle (complex features,
+     * customized schemas).
+     */
+    boolean isStreamingGMLEncoding();
+
+    /** Enables or disables the streaming GML 3 encoder for simple features */
+    void setStreamingGMLEncoding(boolean streamingGMLEncoding);
 }
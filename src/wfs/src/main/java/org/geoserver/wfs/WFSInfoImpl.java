@@ -33,6 +33,12 @@ public class WFSInfoImpl extends ServiceInfoImpl implements WFSInfo {
 
     protected String csvDateFormat;
 
+    protected CountPolicy countPolicy;
+
+    protected Integer countCacheTimeToLive;
+
+    protected boolean streamingGMLEncoding = false;
+
     public WFSInfoImpl() {}
 
     @Override
@@ -206,6 +212,36 @@ public void setDisableStoredQueriesManagement(boolean disableStoredQueriesManage
         this.disableStoredQueriesManagement = disableStoredQueriesManagement;
     }
 
+    @Override
+    public CountPolicy getCountPolicy() {
+        return countPolicy;
+    }
+
+    @Override
+    public void setCountPolicy(CountPolicy countPolicy) {
+        this.countPolicy = countPolicy;
+    }
+
+    @Override
+    public Integer getCountCacheTimeToLive() {
+        return countCacheTimeToLive;
+    }
+
+    @Override
+    public void setCountCacheTimeToLive(Integer countCacheTimeToLive) {
+        this.countCacheTimeToLive = countCacheTimeToLive;
+    }
+
+    @Override
+    public boolean isStreamingGMLEncoding() {
+        return streamingGMLEncoding;
+    }
+
+    @Override
+    public void setStreamingGMLEncoding(boolean streamingGMLEncoding) {
+        this.streamingGMLEncoding = streamingGMLEncoding;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -225,6 +261,9 @@ public int hashCode() {
         result = prime * result + ((getFeatureOutputTypes == null) ? 0 : getFeatureOutputTypes.hashCode());
         result = prime * result + ((csvDateFormat == null) ? 0 : csvDateFormat.hashCode());
         result = prime * result + (disableStoredQueriesManagement ? 1231 : 1237);
+        result = prime * result + ((countPolicy == null) ? 0 : countPolicy.hashCode());
+        result = prime * result + ((countCacheTimeToLive == null) ? 0 : countCacheTimeToLive.hashCode());
+        result = prime * result + (streamingGMLEncoding ? 1231 : 1237);
         return result;
     }
 
@@ -267,6 +306,9 @@ public boolean equals(Object obj) {
             return false;
         }
         if (disableStoredQueriesManagement != other.isDisableStoredQueriesManagement()) return false;
+        if (!Objects.equals(countPolicy, other.getCountPolicy())) return false;
+        if (!Objects.equals(countCacheTimeToLive, other.getCountCacheTimeToLive())) return false;
+        if (streamingGMLEncoding != other.isStreamingGMLEncoding()) return false;
         return true;
     }
 }
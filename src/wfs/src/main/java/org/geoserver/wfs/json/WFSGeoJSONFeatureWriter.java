@@ -4,6 +4,7 @@
  */
 package org.geoserver.wfs.json;
 
+import java.math.BigInteger;
 import java.util.List;
 import org.geoserver.config.GeoServer;
 import org.geoserver.json.GeoJSONBuilder;
@@ -30,6 +31,15 @@ protected boolean isFeatureBounding() {
         return gs.getService(WFSInfo.class).isFeatureBounding();
     }
 
+    @Override
+    protected void writeCollectionCounts(BigInteger featureCount, long numberReturned, GeoJSONBuilder jsonWriter) {
+        super.writeCollectionCounts(featureCount, numberReturned, jsonWriter);
+        // flag counts computed from statistics, see WFSInfo.CountPolicy
+        if (featureCount != null && response.isTotalNumberOfFeaturesEstimated()) {
+            jsonWriter.key("numberMatchedEstimated").value(true);
+        }
+    }
+
     @Override
     protected void writeExtraCollectionProperties(List<FeatureCollection<T, F>> featureCollections, GeoJSONBuilder jb) {
         if (response.getPrevious() != null || response.getNext() != null) {
@@ -8,6 +8,7 @@
 import java.math.BigInteger;
 import java.util.Calendar;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 import net.opengis.wfs.FeatureCollectionType;
 import net.opengis.wfs.WfsFactory;
@@ -31,6 +32,9 @@ public abstract class FeatureCollectionResponse extends RequestObject {
      */
     protected Supplier<BigInteger> lazyTotalNumberOfFeatures = null;
 
+    /** Tells whether the total number of features is an estimate, evaluated after the total itself */
+    protected BooleanSupplier lazyTotalNumberOfFeaturesEstimated = null;
+
     public static FeatureCollectionResponse adapt(Object adaptee) {
         if (adaptee instanceof FeatureCollectionType type) {
             return new WFS11(type);
@@ -120,6 +124,22 @@ public void setTotalNumberOfFeatures(final BigInteger totalHits) {
         lazyTotalNumberOfFeatures = () -> totalHits;
     }
 
+    /**
+     * Sets the deferred check telling if the total number of features is an estimate, rather than an exact count (see
+     * {@link org.geoserver.wfs.WFSInfo.CountPolicy})
+     */
+    public void setLazyTotalNumberOfFeaturesEstimated(BooleanSupplier estimated) {
+        this.lazyTotalNumberOfFeaturesEstimated = estimated;
+    }
+
+    /**
+     * Returns true if the total number of features is an estimate. Only reliable after
+     * {@link #getTotalNumberOfFeatures()} has been called, as the total is computed lazily.
+     */
+    public boolean isTotalNumberOfFeaturesEstimated() {
+        return lazyTotalNumberOfFeaturesEstimated != null && lazyTotalNumberOfFeaturesEstimated.getAsBoolean();
+    }
+
     public abstract void setPrevious(String previous);
 
     public abstract String getPrevious();
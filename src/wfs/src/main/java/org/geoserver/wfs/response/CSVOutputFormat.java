@@ -11,6 +11,7 @@
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.security.InvalidParameterException;
 import java.text.NumberFormat;
 import java.util.Arrays;
@@ -29,6 +30,7 @@
 import org.geoserver.config.GeoServer;
 import org.geoserver.data.util.TemporalUtils;
 import org.geoserver.feature.FlatteningFeatureCollection;
+import org.geoserver.feature.PipelinedFeatureEncoder;
 import org.geoserver.platform.Operation;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wfs.WFSGetFeatureOutputFormat;
@@ -157,24 +159,20 @@ protected void write(FeatureCollectionResponse featureCollection, OutputStream o
 
         // write out the features
         try (FeatureIterator<?> i = fc.features()) {
+            if (fc.getSchema() instanceof SimpleFeatureType && PipelinedFeatureEncoder.isEnabled()) {
+                // consumes the whole iterator
+                writeSimpleFeaturesPipelined(i, w, csvSeparator, fc.getSchema());
+            }
             while (i.hasNext()) {
                 Feature f = i.next();
-                // dump fid
-                w.write(prepCSVField(f.getIdentifier().getID()));
-                w.write(csvSeparator);
                 if (f instanceof SimpleFeature feature) {
-                    // dump attributes
-                    for (int j = 0; j < feature.getAttributeCount(); j++) {
-                        Object att = feature.getAttribute(j);
-                        if (att != null) {
-                            String value = formatters[j].format(att);
-                            w.write(value);
-                        }
-                        if (j < feature.getAttributeCount() - 1) {
-                            w.write(csvSeparator);
-                        }
-                    }
+                    // dump fid and attributes
+                    writeSimpleFeature(feature, w, csvSeparator, formatters);
                 } else {
+                    // dump fid
+                    w.write(prepCSVField(f.getIdentifier().getID()));
+                    w.write(csvSeparator);
+
                     // complex feature
                     Iterator<PropertyDescriptor> descriptors =
                             fc.getSchema().getDescriptors().iterator();
@@ -215,15 +213,54 @@ protected void write(FeatureCollectionResponse featureCollection, OutputStream o
                             }
                         }
                     }
+                    // by RFC each line is terminated by CRLF
+                    w.write("\r\n");
                 }
-                // by RFC each line is terminated by CRLF
-                w.write("\r\n");
             }
         }
 
         w.flush();
     }
 
+    /** Writes a simple feature fid and attributes, as a CSV line */
+    private void writeSimpleFeature(SimpleFeature feature, Writer w, String csvSeparator, AttrFormatter[] formatters)
+            throws IOException {
+        // dump fid
+        w.write(prepCSVField(feature.getIdentifier().getID()));
+        w.write(csvSeparator);
+        // dump attributes
+        for (int j = 0; j < feature.getAttributeCount(); j++) {
+            Object att = feature.getAttribute(j);
+            if (att != null) {
+                String value = formatters[j].format(att);
+                w.write(value);
+            }
+            if (j < feature.getAttributeCount() - 1) {
+                w.write(csvSeparator);
+            }
+        }
+        // by RFC each line is terminated by CRLF
+        w.write("\r\n");
+    }
+
+    /**
+     * Writes all the simple features in the iterator, encoding batches of them in parallel, see
+     * {@link PipelinedFeatureEncoder}. Number formats are not thread safe, each batch gets its own formatters.
+     */
+    private void writeSimpleFeaturesPipelined(
+            FeatureIterator<?> features, Writer w, String csvSeparator, FeatureType schema) throws IOException {
+        PipelinedFeatureEncoder.<Object, Void>encode(
+                features,
+                (batch, writer) -> {
+                    AttrFormatter[] formatters = getFormatters(schema);
+                    for (Object feature : batch) {
+                        writeSimpleFeature((SimpleFeature) feature, writer, csvSeparator, formatters);
+                    }
+                    return null;
+                },
+                (encoded, result) -> w.write(encoded));
+    }
+
     @SuppressWarnings("unchecked")
     private String getCsvSeparator(Object o) {
 
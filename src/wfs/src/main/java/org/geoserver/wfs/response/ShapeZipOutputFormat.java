@@ -12,9 +12,9 @@
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.FilenameFilter;
 import java.io.IOException;
@@ -22,6 +22,7 @@
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -34,6 +35,7 @@
 import java.util.Properties;
 import java.util.SimpleTimeZone;
 import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import javax.xml.namespace.QName;
 import org.apache.commons.io.FileUtils;
@@ -89,6 +91,8 @@ public class ShapeZipOutputFormat extends WFSGetFeatureOutputFormat implements A
     private static final Logger LOGGER = Logging.getLogger(ShapeZipOutputFormat.class);
     public static final String GS_SHAPEFILE_CHARSET = "GS-SHAPEFILE-CHARSET";
     public static final String SHAPE_ZIP_DEFAULT_PRJ_IS_ESRI = "SHAPE-ZIP_DEFAULT_PRJ_IS_ESRI";
+    /** Enables the streaming mode by default, can be overridden with the STREAMING format option */
+    public static final String GS_SHAPEZIP_STREAMING = "GS_SHAPEZIP_STREAMING";
 
     private static final Configuration templateConfig = TemplateUtils.getSafeConfiguration(null, null, EXPOSE_NOTHING);
 
@@ -172,7 +176,25 @@ public void write(FeatureCollectionResponse featureCollection, OutputStream outp
         List<SimpleFeatureCollection> features = (List) featureCollection.getFeature();
         collections.addAll(features);
         Charset charset = getShapefileCharset(getFeature);
-        write(collections, charset, output, GetFeatureRequest.adapt(getFeature.getParameters()[0]));
+        write(
+                collections,
+                getKnownCount(featureCollection, collections),
+                charset,
+                output,
+                GetFeatureRequest.adapt(getFeature.getParameters()[0]));
+    }
+
+    /**
+     * Returns the number of features, if there is a single collection and the count was already computed while
+     * running the query, or -1 otherwise. A zero count is also reported when the count was not computed, so it is not
+     * trusted.
+     */
+    private static int getKnownCount(FeatureCollectionResponse response, List<SimpleFeatureCollection> collections) {
+        BigInteger count = response.getNumberOfFeatures();
+        if (collections.size() == 1 && count != null && count.signum() > 0 && count.bitLength() < Integer.SIZE) {
+            return count.intValue();
+        }
+        return -1;
     }
 
     /** @see WFSGetFeatureOutputFormat#write(Object, OutputStream, Operation) */
@@ -182,6 +204,20 @@ public void write(
             OutputStream output,
             final GetFeatureRequest request)
             throws IOException, ServiceException {
+        write(collections, -1, charset, output, request);
+    }
+
+    private void write(
+            List<SimpleFeatureCollection> collections,
+            int count,
+            Charset charset,
+            OutputStream output,
+            final GetFeatureRequest request)
+            throws IOException, ServiceException {
+        if (isStreaming(request) && writeStreaming(collections, count, charset, output, request)) {
+            return;
+        }
+
         // We might get multiple feature collections in our response (multiple queries?) so we need
         // to write out multiple shapefile sets, one for each query response.
         final File tempDir = IOUtils.createTempDirectory("shpziptemp");
@@ -254,18 +290,115 @@ protected void shapefileDumped(String fileName, SimpleFeatureType remappedSchema
         }
     }
 
+    /**
+     * Checks if the streaming mode has been requested, either with the {@code STREAMING} format option, or by default
+     * with the {@link #GS_SHAPEZIP_STREAMING} property
+     */
+    private boolean isStreaming(GetFeatureRequest request) {
+        Object option = request != null && request.getFormatOptions() != null
+                ? request.getFormatOptions().get("STREAMING")
+                : null;
+        if (option != null) {
+            return Boolean.parseBoolean(option.toString());
+        }
+        return Boolean.parseBoolean(GeoServerExtensions.getProperty(GS_SHAPEZIP_STREAMING, applicationContext));
+    }
+
+    /**
+     * Streams the shapefiles straight into the zip, without a temporary directory, see
+     * {@link StreamingShapeZipWriter}. The {@link ShapefileDumper} is not involved, so its {@code getShapeName} and
+     * {@code shapefileDumped} hooks are not called: the shapefile names and the ESRI style prj files are computed
+     * directly here instead.
+     *
+     * @param count the number of features of the single collection, or -1 if not known
+     * @return false if the collections cannot be streamed, in that case nothing has been written yet
+     */
+    private boolean writeStreaming(
+            List<SimpleFeatureCollection> collections,
+            int count,
+            Charset charset,
+            OutputStream output,
+            GetFeatureRequest request)
+            throws IOException {
+        StreamingShapeZipWriter writer = new StreamingShapeZipWriter(charset, maxShpSize, maxDbfSize);
+        List<StreamingShapeZipWriter.Shapefile> shapefiles = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (SimpleFeatureCollection collection : collections) {
+            StreamingShapeZipWriter.Shapefile shapefile = writer.prepare(collection, count);
+            if (shapefile == null) {
+                return false;
+            }
+            FeatureTypeInfo ftInfo = getFeatureTypeInfo(collection.getSchema());
+            String name = new FileNameSource(getClass()).getShapeName(ftInfo, null, null);
+            if (names.contains(name)) {
+                // zip entries must be unique
+                return false;
+            }
+            shapefiles.add(shapefile);
+            names.add(name);
+        }
+
+        ZipOutputStream zipOut = new ZipOutputStream(output);
+        for (int i = 0; i < shapefiles.size(); i++) {
+            StreamingShapeZipWriter.Shapefile shapefile = shapefiles.get(i);
+            String prj;
+            try {
+                prj = getESRIWKT(request, shapefile.getSchema());
+            } catch (FactoryException e) {
+                throw new IOException("Failed to write out the ESRI style prj file", e);
+            }
+            if (prj == null) {
+                prj = StreamingShapeZipWriter.toSingleLineWKT(
+                        shapefile.getSchema().getCoordinateReferenceSystem());
+            }
+            if (!writer.write(shapefile, names.get(i), prj, zipOut)) {
+                if (i == 0) {
+                    // nothing written yet, the non streaming writer can take over
+                    return false;
+                }
+                throw new IOException("The features of " + names.get(i)
+                        + " could not be streamed, as the shapefile is too big, disable the STREAMING format option");
+            }
+        }
+
+        // dump the request
+        if (this.gs.getService(WFSInfo.class).getIncludeWFSRequestDumpFile()) {
+            byte[] dump = getRequestDump(request);
+            if (dump != null) {
+                zipOut.putNextEntry(new ZipEntry(getRequestDumpFileName(collections.get(0))));
+                zipOut.write(dump);
+                zipOut.closeEntry();
+            }
+        }
+        zipOut.finish();
+        return true;
+    }
+
     /** Dumps the request */
     private void createRequestDump(File tempDir, GetFeatureRequest gft, SimpleFeatureCollection fc) {
-        final Request request = Dispatcher.REQUEST.get();
-        if (request == null || gft == null) {
-            // we're probably running in a unit test
+        byte[] dump = getRequestDump(gft);
+        if (dump == null) {
             return;
         }
+        try {
+            FileUtils.writeByteArrayToFile(new File(tempDir, getRequestDumpFileName(fc)), dump);
+        } catch (IOException e) {
+            throw new WFSException(gft, "Failed to dump the WFS request");
+        }
+    }
 
-        // build the target file
+    private String getRequestDumpFileName(SimpleFeatureCollection fc) {
         FeatureTypeInfo ftInfo = getFeatureTypeInfo(fc.getSchema());
-        String fileName = new FileNameSource(getClass()).getRequestDumpName(ftInfo) + ".txt";
-        File target = new File(tempDir, fileName);
+        return new FileNameSource(getClass()).getRequestDumpName(ftInfo) + ".txt";
+    }
+
+    /** Returns the request dump, or {@code null} if there is no request to dump */
+    private byte[] getRequestDump(GetFeatureRequest gft) {
+        final Request request = Dispatcher.REQUEST.get();
+        if (request == null || gft == null) {
+            // we're probably running in a unit test
+            return null;
+        }
 
         try {
             if (request.isGet()) {
@@ -277,7 +410,7 @@ private void createRequestDump(File tempDir, GetFeatureRequest gft, SimpleFeatur
                 StringBuilder url = new StringBuilder();
                 String parameters = httpRequest.getQueryString();
                 url.append(mangledUrl).append("?").append(parameters);
-                FileUtils.writeStringToFile(target, url.toString(), "UTF-8");
+                return url.toString().getBytes(StandardCharsets.UTF_8);
             } else {
                 org.geotools.xsd.Configuration cfg = null;
                 QName elementName = null;
@@ -288,12 +421,12 @@ private void createRequestDump(File tempDir, GetFeatureRequest gft, SimpleFeatur
                     cfg = new WFSConfiguration_1_0();
                     elementName = org.geotools.wfs.v1_0.WFS.GetFeature;
                 }
-                try (FileOutputStream fos = new FileOutputStream(target)) {
-                    Encoder encoder = new Encoder(cfg);
-                    encoder.setIndenting(true);
-                    encoder.setIndentSize(2);
-                    encoder.encode(gft, elementName, fos);
-                }
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                Encoder encoder = new Encoder(cfg);
+                encoder.setIndenting(true);
+                encoder.setIndentSize(2);
+                encoder.encode(gft, elementName, bos);
+                return bos.toByteArray();
             }
         } catch (IOException e) {
             throw new WFSException(gft, "Failed to dump the WFS request");
@@ -334,12 +467,26 @@ private FeatureTypeInfo getFeatureTypeInfo(SimpleFeatureType schema) {
     private void changeWKTFormatIfFileFormatIsESRI(
             File tempDir, GetFeatureRequest request, String fileName, SimpleFeatureType remappedSchema)
             throws FactoryException, IOException, FileNotFoundException {
+        String data = getESRIWKT(request, remappedSchema);
+        if (data != null) {
+            File prjShapeFile = new File(tempDir, fileName + ".prj");
+            prjShapeFile.delete();
+
+            try (BufferedWriter out = new BufferedWriter(new FileWriter(prjShapeFile))) {
+                out.write(data);
+            }
+        }
+    }
+
+    /** Returns the ESRI WKT for the schema CRS, if requested and available, or {@code null} otherwise */
+    private String getESRIWKT(GetFeatureRequest request, SimpleFeatureType schema)
+            throws FactoryException, IOException {
 
         boolean useEsriFormat = false;
 
         // if the request originates from the WPS we won't actually have any GetFeatureType request
         if (request == null) {
-            return;
+            return null;
         }
 
         Map<String, ?> formatOptions = request.getFormatOptions();
@@ -354,19 +501,19 @@ private void changeWKTFormatIfFileFormatIsESRI(
         }
 
         if (useEsriFormat) {
-            replaceOGCPrjFileByESRIPrjFile(tempDir, fileName, remappedSchema);
+            return lookupESRIWKT(schema);
         }
+        return null;
     }
 
-    private void replaceOGCPrjFileByESRIPrjFile(File tempDir, String fileName, SimpleFeatureType remappedSchema)
-            throws FactoryException, IOException, FileNotFoundException {
+    private String lookupESRIWKT(SimpleFeatureType schema) throws FactoryException, IOException {
         // The ESRI replacement property file is keyed by code only, so it's ok to simply
         // lookup the code for the remapped schema, if not found the WKT1 will be just dumped as is
         final Integer epsgCode =
-                CRS.lookupEpsgCode(remappedSchema.getGeometryDescriptor().getCoordinateReferenceSystem(), true);
+                CRS.lookupEpsgCode(schema.getGeometryDescriptor().getCoordinateReferenceSystem(), true);
         if (epsgCode == null) {
             LOGGER.info("Can't find the EPSG code for the shapefile CRS");
-            return;
+            return null;
         }
         Resource file = resourceLoader.get("user_projections/esri.properties");
 
@@ -378,22 +525,17 @@ private void replaceOGCPrjFileByESRIPrjFile(File tempDir, String fileName, Simpl
 
             String data = (String) properties.get(epsgCode.toString());
 
-            if (data != null) {
-                File prjShapeFile = new File(tempDir, fileName + ".prj");
-                prjShapeFile.delete();
-
-                try (BufferedWriter out = new BufferedWriter(new FileWriter(prjShapeFile))) {
-                    out.write(data);
-                }
-            } else {
+            if (data == null) {
                 LOGGER.info("Requested shapefile with ESRI WKT .prj format but couldn't find an entry for ESPG code "
                         + epsgCode
                         + " in esri.properties");
             }
+            return data;
         } else {
             LOGGER.info(
                     "Requested shapefile with ESRI WKT .prj format but the esri.properties file does not exist in the user_projections directory");
         }
+        return null;
     }
 
     /**
@@ -0,0 +1,504 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.data.shapefile.dbf.DbaseFileHeader;
+import org.geotools.data.shapefile.dbf.DbaseFileWriter;
+import org.geotools.data.shapefile.shp.JTSUtilities;
+import org.geotools.data.shapefile.shp.ShapeHandler;
+import org.geotools.data.shapefile.shp.ShapeType;
+import org.geotools.data.shapefile.shp.ShapefileHeader;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.FeatureTypes;
+import org.geotools.referencing.wkt.Formattable;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Writes a feature collection as a shapefile directly into a zip stream, without going through a temporary directory.
+ *
+ * <p>The features are read once. The shp records are spooled, in memory up to {@link #SPOOL_THRESHOLD} and in a
+ * temporary file past it, while the shx index, 8 bytes per feature, is kept in memory. The shp and shx headers,
+ * containing the file length and bounds, are computed at the end. The dbf header only needs the record count: when the
+ * caller already knows it the dbf is written straight into the zip while reading, otherwise the dbf records are spooled
+ * too, and the header is written with the number of records actually read. In the latter case nothing is added to the
+ * zip if the files exceed the size limits, so that the caller can fall back on the non streaming writer.
+ *
+ * <p>Only collections with a single geometry of a specific type (not a generic geometry, which requires a split in
+ * multiple shapefiles) and attributes that can be mapped to dbf columns can be streamed, see
+ * {@link #prepare(SimpleFeatureCollection)}.
+ */
+class StreamingShapeZipWriter {
+
+    static final Logger LOGGER = Logging.getLogger(StreamingShapeZipWriter.class);
+
+    /** Size of the shp records kept in memory, before spooling to a temporary file */
+    static final int SPOOL_THRESHOLD = 16 * 1024 * 1024;
+
+    /** Size of the shp and shx headers */
+    static final int HEADER_SIZE = 100;
+
+    /** Max length of a dbf field name */
+    static final int MAX_FIELD_NAME = 10;
+
+    /** A collection ready to be streamed, with the dbf layout and the expected record count, if known */
+    static class Shapefile {
+        final SimpleFeatureCollection features;
+
+        final GeometryDescriptor geometry;
+
+        final List<Integer> attributes;
+
+        final List<Character> types;
+
+        final DbaseFileHeader header;
+
+        /** The number of features, or -1 if not known in advance */
+        final int count;
+
+        Shapefile(
+                SimpleFeatureCollection features,
+                GeometryDescriptor geometry,
+                List<Integer> attributes,
+                List<Character> types,
+                DbaseFileHeader header,
+                int count) {
+            this.features = features;
+            this.geometry = geometry;
+            this.attributes = attributes;
+            this.types = types;
+            this.header = header;
+            this.count = count;
+        }
+
+        SimpleFeatureType getSchema() {
+            return features.getSchema();
+        }
+    }
+
+    private final Charset charset;
+
+    private final long maxShpSize;
+
+    private final long maxDbfSize;
+
+    StreamingShapeZipWriter(Charset charset, long maxShpSize, long maxDbfSize) {
+        this.charset = charset;
+        this.maxShpSize = maxShpSize;
+        this.maxDbfSize = maxDbfSize;
+    }
+
+    /**
+     * Checks if the collection can be streamed, and prepares the dbf layout for it. The collection is not counted, the
+     * count has to be provided by the caller, if already available.
+     *
+     * @param count the number of features in the collection, or -1 if not known
+     * @return the prepared shapefile, or {@code null} if the collection cannot be streamed
+     */
+    Shapefile prepare(SimpleFeatureCollection features, int count) throws IOException {
+        SimpleFeatureType schema = features.getSchema();
+        GeometryDescriptor geometry = null;
+        for (AttributeDescriptor ad : schema.getAttributeDescriptors()) {
+            if (ad instanceof GeometryDescriptor gd) {
+                if (geometry != null) {
+                    // multiple geometries, one shapefile per geometry is needed
+                    return null;
+                }
+                geometry = gd;
+            }
+        }
+        if (geometry == null || getDefaultShapeType(geometry.getType().getBinding()) == null) {
+            return null;
+        }
+
+        DbaseFileHeader header = new DbaseFileHeader(charset);
+        List<Integer> attributes = new ArrayList<>();
+        List<Character> types = new ArrayList<>();
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < schema.getAttributeCount(); i++) {
+            AttributeDescriptor ad = schema.getDescriptor(i);
+            if (ad instanceof GeometryDescriptor) {
+                continue;
+            }
+            Character type = addColumn(header, getFieldName(ad.getLocalName(), names), ad);
+            if (type == null) {
+                return null;
+            }
+            attributes.add(i);
+            types.add(type);
+        }
+
+        if (count >= 0) {
+            header.setNumRecords(count);
+            if (getDbfSize(header, count) > maxDbfSize) {
+                // needs to be split in multiple shapefiles
+                return null;
+            }
+        }
+
+        return new Shapefile(features, geometry, attributes, types, header, count);
+    }
+
+    private static long getDbfSize(DbaseFileHeader header, int count) {
+        return header.getHeaderLength() + (long) header.getRecordLength() * count;
+    }
+
+    /** Shapefile attribute names are limited to 10 chars, truncates them making sure they stay unique */
+    static String getFieldName(String name, Set<String> names) {
+        String base = name.length() > MAX_FIELD_NAME ? name.substring(0, MAX_FIELD_NAME) : name;
+        String result = base;
+        int counter = 0;
+        while (names.contains(result)) {
+            String suffix = String.valueOf(counter++);
+            result = base.substring(0, Math.min(base.length(), MAX_FIELD_NAME - suffix.length())) + suffix;
+        }
+        names.add(result);
+        return result;
+    }
+
+    /** Adds the dbf column for the attribute, returning its type, or {@code null} if not supported */
+    private Character addColumn(DbaseFileHeader header, String name, AttributeDescriptor ad) throws IOException {
+        Class<?> binding = ad.getType().getBinding();
+        int length = FeatureTypes.getFieldLength(ad);
+        if (length == FeatureTypes.ANY_LENGTH) {
+            length = 255;
+        }
+        char type;
+        if (binding == Integer.class || binding == Short.class || binding == Byte.class) {
+            type = 'N';
+            header.addColumn(name, type, Math.min(length, 9), 0);
+        } else if (binding == Long.class) {
+            type = 'N';
+            header.addColumn(name, type, Math.min(length, 19), 0);
+        } else if (binding == BigInteger.class) {
+            type = 'N';
+            header.addColumn(name, type, Math.min(length, 33), 0);
+        } else if (Number.class.isAssignableFrom(binding)) {
+            type = 'N';
+            int l = Math.min(length, 33);
+            header.addColumn(name, type, l, Math.max(l - 2, 0));
+        } else if (Date.class.isAssignableFrom(binding) || Calendar.class.isAssignableFrom(binding)) {
+            type = Boolean.getBoolean("org.geotools.shapefile.datetime") ? '@' : 'D';
+            header.addColumn(name, type, 8, 0);
+        } else if (binding == Boolean.class) {
+            type = 'L';
+            header.addColumn(name, type, 1, 0);
+        } else if (CharSequence.class.isAssignableFrom(binding) || binding == UUID.class) {
+            type = 'C';
+            header.addColumn(name, type, Math.min(254, length), 0);
+        } else {
+            return null;
+        }
+        return type;
+    }
+
+    /**
+     * Writes the shapefile in the zip stream
+     *
+     * @param shapefile the prepared collection
+     * @param shapeName the name of the shapefile, without extension
+     * @param prj the contents of the prj file, or {@code null} if not available
+     * @param zip the target zip stream
+     * @return {@code false} if the count was not known in advance, and the files exceed the maximum sizes, in that case
+     *     nothing has been written in the zip
+     * @throws IOException if the count was known in advance but does not match the features read, or the files exceed
+     *     the maximum sizes, as part of the shapefile has already been written in the zip
+     */
+    boolean write(Shapefile shapefile, String shapeName, String prj, ZipOutputStream zip) throws IOException {
+        boolean countKnown = shapefile.count >= 0;
+        DeferredFileOutputStream shpSpool = spool(".shp");
+        DeferredFileOutputStream dbfSpool = countKnown ? null : spool(".dbf");
+        try {
+            OutputStream dbfOut;
+            if (countKnown) {
+                // the dbf header is already known, the dbf goes straight into the zip
+                writeInfoEntries(shapeName, prj, zip);
+                zip.putNextEntry(new ZipEntry(shapeName + ".dbf"));
+                dbfOut = CloseShieldOutputStream.wrap(zip);
+            } else {
+                dbfOut = CloseShieldOutputStream.wrap(dbfSpool);
+            }
+            ShpRecords records = new ShpRecords(shapefile, shpSpool);
+            DbaseFileWriter dbf = new DbaseFileWriter(shapefile.header, Channels.newChannel(dbfOut), charset);
+            Object[] values = new Object[shapefile.attributes.size()];
+            int written = 0;
+            try (SimpleFeatureIterator it = shapefile.features.features()) {
+                while (it.hasNext()) {
+                    SimpleFeature feature = it.next();
+                    if (countKnown && written == shapefile.count) {
+                        throw new IOException(getCountMismatchMessage(shapefile.count, "more"));
+                    }
+                    written++;
+                    for (int i = 0; i < values.length; i++) {
+                        Object value = feature.getAttribute(shapefile.attributes.get(i));
+                        values[i] = toDbfValue(value, shapefile.types.get(i));
+                    }
+                    dbf.write(values);
+                    records.write((Geometry) feature.getAttribute(shapefile.geometry.getName()));
+                    if (records.getLength() > maxShpSize || getDbfSize(shapefile.header, written) > maxDbfSize) {
+                        String message = "The shapefile exceeds the maximum sizes, " + maxShpSize + " bytes for the shp"
+                                + " and " + maxDbfSize + " bytes for the dbf";
+                        if (countKnown) {
+                            throw new IOException(message);
+                        }
+                        LOGGER.fine(message);
+                        return false;
+                    }
+                }
+            }
+            dbf.close();
+            if (countKnown) {
+                if (written != shapefile.count) {
+                    throw new IOException(getCountMismatchMessage(shapefile.count, String.valueOf(written)));
+                }
+                zip.closeEntry();
+            } else {
+                dbfSpool.close();
+                writeInfoEntries(shapeName, prj, zip);
+                zip.putNextEntry(new ZipEntry(shapeName + ".dbf"));
+                // the spooled header has no record count, replace it
+                shapefile.header.setNumRecords(written);
+                shapefile.header.writeHeader(Channels.newChannel(CloseShieldOutputStream.wrap(zip)));
+                try (InputStream in = dbfSpool.toInputStream()) {
+                    in.skipNBytes(shapefile.header.getHeaderLength());
+                    in.transferTo(zip);
+                }
+                zip.closeEntry();
+            }
+            shpSpool.close();
+
+            // all records written, now the shp and shx headers are known
+            zip.putNextEntry(new ZipEntry(shapeName + ".shp"));
+            zip.write(records.getHeader(records.getLength()));
+            shpSpool.writeTo(zip);
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry(shapeName + ".shx"));
+            byte[] index = records.getIndex();
+            zip.write(records.getHeader(HEADER_SIZE + index.length));
+            zip.write(index);
+            zip.closeEntry();
+            return true;
+        } finally {
+            release(shpSpool);
+            if (dbfSpool != null) {
+                release(dbfSpool);
+            }
+        }
+    }
+
+    private void writeInfoEntries(String shapeName, String prj, ZipOutputStream zip) throws IOException {
+        if (prj != null) {
+            writeEntry(zip, shapeName + ".prj", prj.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        writeEntry(zip, shapeName + ".cst", charset.name().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static DeferredFileOutputStream spool(String suffix) throws IOException {
+        return DeferredFileOutputStream.builder()
+                .setThreshold(SPOOL_THRESHOLD)
+                .setPrefix("shpzip")
+                .setSuffix(suffix)
+                .get();
+    }
+
+    private static void release(DeferredFileOutputStream spool) throws IOException {
+        spool.close();
+        if (!spool.isInMemory()) {
+            Files.deleteIfExists(spool.getFile().toPath());
+        }
+    }
+
+    private static String getCountMismatchMessage(int expected, String actual) {
+        return "Expected " + expected + " features but got " + actual
+                + ", the data changed while writing the shapefile, or the count is not exact";
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] contents) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(contents);
+        zip.closeEntry();
+    }
+
+    private static Object toDbfValue(Object value, char type) {
+        if (value == null) {
+            return null;
+        }
+        switch (type) {
+            case 'C':
+                return value.toString();
+            case 'D':
+            case '@':
+                return value instanceof Calendar calendar ? calendar.getTime() : value;
+            default:
+                return value;
+        }
+    }
+
+    /** The shape type for the given geometry class, in two dimensions, or {@code null} if not a specific type */
+    static ShapeType getDefaultShapeType(Class<?> binding) {
+        if (Point.class.isAssignableFrom(binding)) {
+            return ShapeType.POINT;
+        } else if (MultiPoint.class.isAssignableFrom(binding)) {
+            return ShapeType.MULTIPOINT;
+        } else if (LineString.class.isAssignableFrom(binding) || MultiLineString.class.isAssignableFrom(binding)) {
+            return ShapeType.ARC;
+        } else if (Polygon.class.isAssignableFrom(binding) || MultiPolygon.class.isAssignableFrom(binding)) {
+            return ShapeType.POLYGON;
+        }
+        return null;
+    }
+
+    /** Returns the prj file contents for the given CRS, in the same format used by the shapefile store */
+    static String toSingleLineWKT(CoordinateReferenceSystem crs) {
+        if (crs == null) {
+            return null;
+        }
+        String wkt;
+        if (crs instanceof Formattable formattable) {
+            // lenient, works with polar stereographic too
+            wkt = formattable.toWKT(0, false);
+        } else {
+            wkt = crs.toWKT();
+        }
+        return wkt.replaceAll("\n", "").replaceAll("  ", "");
+    }
+
+    /** Encodes the shp records, and keeps track of the index and bounds */
+    private static class ShpRecords {
+
+        final OutputStream out;
+
+        final GeometryFactory factory = new GeometryFactory();
+
+        final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+
+        final DataOutputStream index = new DataOutputStream(indexBytes);
+
+        final Envelope bounds = new Envelope();
+
+        ShapeType shapeType;
+
+        ShapeHandler handler;
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        int records;
+
+        long length = HEADER_SIZE;
+
+        ShpRecords(Shapefile shapefile, OutputStream out) {
+            this.out = out;
+            this.shapeType = getDefaultShapeType(shapefile.geometry.getType().getBinding());
+        }
+
+        void write(Geometry geometry) throws IOException {
+            if (geometry != null && geometry.isEmpty()) {
+                geometry = null;
+            }
+            if (geometry != null && handler == null) {
+                // the dimensions are found looking at the first geometry, like the shapefile store does
+                int dims = JTSUtilities.guessCoorinateDims(geometry.getCoordinates());
+                shapeType = JTSUtilities.getShapeType(geometry, dims);
+                handler = shapeType.getShapeHandler(factory);
+            }
+
+            int contentLength;
+            if (geometry == null) {
+                contentLength = 4;
+                prepareBuffer(contentLength);
+                buffer.putInt(ShapeType.NULL.id);
+            } else {
+                geometry = JTSUtilities.convertToCollection(geometry, shapeType);
+                bounds.expandToInclude(geometry.getEnvelopeInternal());
+                contentLength = handler.getLength(geometry);
+                prepareBuffer(contentLength);
+                buffer.putInt(shapeType.id);
+                handler.write(buffer, geometry);
+            }
+            records++;
+
+            index.writeInt((int) (length / 2));
+            index.writeInt(contentLength / 2);
+
+            out.write(buffer.array(), 0, buffer.position());
+            length += buffer.position();
+        }
+
+        private void prepareBuffer(int contentLength) {
+            if (buffer.capacity() < contentLength + 8) {
+                buffer = ByteBuffer.allocate(contentLength + 8);
+            }
+            buffer.clear();
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            buffer.putInt(records + 1);
+            buffer.putInt(contentLength / 2);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long getLength() {
+            return length;
+        }
+
+        byte[] getIndex() {
+            return indexBytes.toByteArray();
+        }
+
+        /** Builds the shp/shx header, for a file of the given length in bytes */
+        byte[] getHeader(long fileLength) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            Envelope env = bounds.isNull() ? new Envelope(0, 0, 0, 0) : bounds;
+            new ShapefileHeader()
+                    .write(
+                            header,
+                            shapeType,
+                            records,
+                            (int) (fileLength / 2),
+                            env.getMinX(),
+                            env.getMinY(),
+                            env.getMaxX(),
+                            env.getMaxY());
+            return header.array();
+        }
+    }
+}
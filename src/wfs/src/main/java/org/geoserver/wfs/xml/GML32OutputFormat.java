@@ -31,6 +31,7 @@
 import org.geotools.api.feature.type.FeatureType;
 import org.geotools.data.DataUtilities;
 import org.geotools.feature.FeatureCollection;
+import org.geotools.gml.producer.CoordinateFormatter;
 import org.geotools.gml3.v3_2.GML;
 import org.geotools.gml3.v3_2.GMLConfiguration;
 import org.geotools.wfs.v2_0.WFS;
@@ -115,12 +116,26 @@ protected Encoder createEncoder(
     }
 
     @Override
-    protected void setAdditionalSchemaLocations(Encoder encoder, GetFeatureRequest request, WFSInfo wfs) {
+    protected Map<String, String> getAdditionalSchemaLocations(GetFeatureRequest request, WFSInfo wfs) {
         // since wfs 2.0 schema does not depend on gml 3.2 schema we register it manually
         String loc = wfs.isCanonicalSchemaLocation()
                 ? GML.CANONICAL_SCHEMA_LOCATION
                 : ResponseUtils.buildSchemaURL(request.getBaseUrl(), "gml/3.2.1/gml.xsd");
-        encoder.setSchemaLocation(GML.NAMESPACE, loc);
+        return Map.of(GML.NAMESPACE, loc);
+    }
+
+    @Override
+    protected GML3StreamingEncoder createStreamingEncoder(
+            WFSInfo wfs, CoordinateFormatter formatter, Map<String, String> schemaLocations) {
+        // the application schema builder looks up the GML attributes override in the GML 3.1 configuration
+        return new GML32StreamingEncoder(
+                catalog,
+                wfs.getGML().get(WFSInfo.Version.V_20).getSrsNameStyle().toSrsSyntax(),
+                Boolean.TRUE.equals(wfs.getGML().get(WFSInfo.Version.V_11).getOverrideGMLAttributes()),
+                formatter,
+                wfs.isFeatureBounding(),
+                !wfs.isCiteCompliant(),
+                schemaLocations);
     }
 
     @Override
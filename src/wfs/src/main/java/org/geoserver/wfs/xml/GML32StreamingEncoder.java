@@ -0,0 +1,161 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLStreamException;
+import org.eclipse.emf.ecore.EObject;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.wfs.WFSException;
+import org.geoserver.wfs.request.FeatureCollectionResponse;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.FeatureCollection;
+import org.geotools.gml.producer.CoordinateFormatter;
+import org.geotools.gml2.SrsSyntax;
+import org.geotools.gml3.v3_2.GML;
+import org.geotools.wfs.v2_0.WFS;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.MultiLineString;
+
+/**
+ * Streaming encoder writing a WFS 2.0 feature collection of GML 3.2 simple features, or a single feature for
+ * GetFeatureById requests. Geometries get the gml:id GML 3.2 mandates, built from the feature id and attribute name.
+ *
+ * <p>Responses with more than one collection, that would require nested feature collections, are left to the XSD
+ * encoder.
+ */
+public class GML32StreamingEncoder extends GML3StreamingEncoder {
+
+    private SimpleFeature featureById;
+
+    public GML32StreamingEncoder(
+            Catalog catalog,
+            SrsSyntax srsSyntax,
+            boolean overrideGMLAttributes,
+            CoordinateFormatter formatter,
+            boolean featureBounding,
+            boolean encodeSrsDimension,
+            Map<String, String> schemaLocations) {
+        super(
+                catalog,
+                srsSyntax,
+                overrideGMLAttributes,
+                formatter,
+                featureBounding,
+                encodeSrsDimension,
+                false,
+                schemaLocations);
+    }
+
+    @Override
+    protected String getGmlNamespace() {
+        return GML.NAMESPACE;
+    }
+
+    @Override
+    protected String getWfsNamespace() {
+        return WFS.NAMESPACE;
+    }
+
+    @Override
+    protected Set<String> getGmlAttributes() {
+        return Set.of(
+                "name",
+                "description",
+                "boundedBy",
+                "metaDataProperty",
+                "location",
+                "descriptionReference",
+                "identifier");
+    }
+
+    @Override
+    public boolean canEncode(FeatureCollectionResponse results) throws IOException {
+        return results.getFeatures().size() == 1 && super.canEncode(results);
+    }
+
+    @Override
+    public void encode(FeatureCollectionResponse results, OutputStream output) throws IOException {
+        if (results.isGetFeatureById()) {
+            // look up the feature before writing anything, so that a proper exception can be returned
+            featureById = (SimpleFeature) DataUtilities.first(results.getFeatures().get(0));
+            if (featureById == null) {
+                throw new WFSException(
+                        (EObject) null, "No feature matching the requested id found", WFSException.NOT_FOUND);
+            }
+        }
+        super.encode(results, output);
+    }
+
+    @Override
+    protected void writeResponse(FeatureCollectionResponse results) throws XMLStreamException, IOException {
+        List<FeatureCollection> collections = results.getFeatures();
+        FeatureCollection fc = collections.get(0);
+        FeatureTypeEncoding encoding = getEncoding((SimpleFeatureType) fc.getSchema());
+
+        if (results.isGetFeatureById()) {
+            // a single feature, without the collection wrapper
+            writer.writeStartElement(encoding.prefix, encoding.localName, encoding.namespaceURI);
+            writeNamespaces(collections);
+            writeSchemaLocation();
+            writer.writeAttribute(GML_PREFIX, getGmlNamespace(), "id", featureById.getID());
+            writeFeatureContents(featureById, encoding);
+            writer.writeEndElement();
+            return;
+        }
+
+        try (SimpleFeatureIterator it = (SimpleFeatureIterator) fc.features()) {
+            writer.writeStartElement(WFS_PREFIX, "FeatureCollection", getWfsNamespace());
+            writeNamespaces(collections);
+            writeTimeStamp(results.getTimeStamp());
+            BigInteger matched = results.getTotalNumberOfFeatures();
+            writer.writeAttribute(
+                    "numberMatched", matched != null && matched.signum() >= 0 ? matched.toString() : "unknown");
+            BigInteger returned = results.getNumberOfFeatures();
+            writer.writeAttribute("numberReturned", String.valueOf(returned != null ? returned : fc.size()));
+            if (results.getNext() != null) {
+                writer.writeAttribute("next", results.getNext());
+            }
+            if (results.getPrevious() != null) {
+                writer.writeAttribute("previous", results.getPrevious());
+            }
+            if (results.getLockId() != null) {
+                writer.writeAttribute("lockId", results.getLockId());
+            }
+            writeSchemaLocation();
+            if (featureBounding) {
+                writeCollectionBounds(collections, WFS_PREFIX, getWfsNamespace());
+            }
+            while (it.hasNext()) {
+                writer.writeStartElement(WFS_PREFIX, "member", getWfsNamespace());
+                writeFeature(it.next(), encoding);
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    @Override
+    protected String[] getCollectionNames(GeometryCollection collection) {
+        // MultiLineString is deprecated in GML 3.2
+        if (collection instanceof MultiLineString) {
+            return new String[] {"MultiCurve", "curveMember"};
+        }
+        return super.getCollectionNames(collection);
+    }
+
+    @Override
+    protected void writeGeometryId(String id) throws XMLStreamException {
+        writer.writeAttribute(GML_PREFIX, getGmlNamespace(), "id", id);
+    }
+}
@@ -21,9 +21,11 @@
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +50,7 @@
 import org.geoserver.ows.URLMangler.URLType;
 import org.geoserver.platform.Operation;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.wfs.GMLInfo;
 import org.geoserver.wfs.WFSException;
 import org.geoserver.wfs.WFSGetFeatureOutputFormat;
 import org.geoserver.wfs.WFSInfo;
@@ -62,10 +65,12 @@
 import org.geotools.feature.FeatureCollection;
 import org.geotools.feature.NameImpl;
 import org.geotools.feature.simple.SimpleFeatureTypeImpl;
+import org.geotools.gml.producer.CoordinateFormatter;
 import org.geotools.gml3.GMLConfiguration;
 import org.geotools.xsd.Configuration;
 import org.geotools.xsd.Encoder;
 import org.w3c.dom.Document;
+import org.xml.sax.helpers.NamespaceSupport;
 
 public class GML3OutputFormat extends WFSGetFeatureOutputFormat implements ComplexFeatureAwareFormat {
 
@@ -181,6 +186,27 @@ protected void write(FeatureCollectionResponse results, OutputStream output, Ope
 
         WFSInfo wfs = getInfo();
 
+        if (wfs.isStreamingGMLEncoding()
+                && !isComplexFeature(results)
+                && !hasJoins(request)
+                && !encodeMeasures(featureCollections, catalog)) {
+            CoordinateFormatter formatter = new CoordinateFormatter(numDecimals);
+            formatter.setPadWithZeros(padWithZeros);
+            formatter.setForcedDecimal(forcedDecimal);
+            Map<String, String> schemaLocations = getSchemaLocations(request, wfs, ns2metas, new NamespaceSupport());
+            schemaLocations.putAll(getAdditionalSchemaLocations(request, wfs));
+            GML3StreamingEncoder streamingEncoder = createStreamingEncoder(wfs, formatter, schemaLocations);
+            if (streamingEncoder.canEncode(results)) {
+                streamingEncoder.setCharset(Charset.forName(geoServer.getSettings().getCharset()));
+                Request dispatcherRequest = Dispatcher.REQUEST.get();
+                if (dispatcherRequest != null) {
+                    streamingEncoder.setOmitXMLDeclaration(dispatcherRequest.isSOAP());
+                }
+                streamingEncoder.encode(results, output);
+                return;
+            }
+        }
+
         // set feature bounding parameter
         // JD: this is quite bad as its not at all thread-safe, once we remove the configuration
         // as being a singleton on trunk/2.0.x this should not be an issue
@@ -236,10 +262,30 @@ protected void write(FeatureCollectionResponse results, OutputStream output, Ope
             encoder.setOmitXMLDeclaration(dispatcherRequest.isSOAP());
         }
 
+        getSchemaLocations(request, wfs, ns2metas, encoder.getNamespaces()).forEach(encoder::setSchemaLocation);
+        setAdditionalSchemaLocations(encoder, request, wfs);
+        if (isComplexFeature(results)) {
+            complexFeatureStreamIntercept(results, output, encoder);
+        } else {
+            encode(results, output, encoder);
+        }
+    }
+
+    /**
+     * Returns the WFS and application schema locations, keyed by namespace URI. Prefixes for namespaces of resources
+     * that are not feature types are declared in the provided namespace support.
+     */
+    protected Map<String, String> getSchemaLocations(
+            GetFeatureRequest request,
+            WFSInfo wfs,
+            Map<String, Set<ResourceInfo>> ns2metas,
+            NamespaceSupport namespaces)
+            throws IOException {
+        Map<String, String> schemaLocations = new LinkedHashMap<>();
         if (wfs.isCanonicalSchemaLocation()) {
-            encoder.setSchemaLocation(getWfsNamespace(), getCanonicalWfsSchemaLocation());
+            schemaLocations.put(getWfsNamespace(), getCanonicalWfsSchemaLocation());
         } else {
-            encoder.setSchemaLocation(
+            schemaLocations.put(
                     getWfsNamespace(), buildSchemaURL(request.getBaseURL(), getRelativeWfsSchemaLocation()));
         }
 
@@ -262,9 +308,7 @@ protected void write(FeatureCollectionResponse results, OutputStream output, Ope
                     if (userSchemaLocation != null && userSchemaLocation instanceof Map) {
                         @SuppressWarnings("unchecked")
                         Map<String, String> schemaURIs = (Map<String, String>) userSchemaLocation;
-                        for (String namespace : schemaURIs.keySet()) {
-                            encoder.setSchemaLocation(namespace, schemaURIs.get(namespace));
-                        }
+                        schemaLocations.putAll(schemaURIs);
                     } else {
                         typeNames.append(meta.prefixedName());
                         if (m.hasNext()) {
@@ -272,8 +316,7 @@ protected void write(FeatureCollectionResponse results, OutputStream output, Ope
                         }
                     }
                 } else {
-                    encoder.getNamespaces()
-                            .declarePrefix(ri.getStore().getWorkspace().getName(), namespaceURI);
+                    namespaces.declarePrefix(ri.getStore().getWorkspace().getName(), namespaceURI);
                 }
             }
 
@@ -285,16 +328,32 @@ protected void write(FeatureCollectionResponse results, OutputStream output, Ope
                         + namespaceURI
                         + ". Using a built schema location by default: "
                         + schemaLocation);
-                encoder.setSchemaLocation(namespaceURI, schemaLocation);
+                schemaLocations.put(namespaceURI, schemaLocation);
             }
         }
+        return schemaLocations;
+    }
 
-        setAdditionalSchemaLocations(encoder, request, wfs);
-        if (isComplexFeature(results)) {
-            complexFeatureStreamIntercept(results, output, encoder);
-        } else {
-            encode(results, output, encoder);
-        }
+    /**
+     * Builds the streaming encoder used for simple features when {@link WFSInfo#isStreamingGMLEncoding()} is enabled
+     */
+    protected GML3StreamingEncoder createStreamingEncoder(
+            WFSInfo wfs, CoordinateFormatter formatter, Map<String, String> schemaLocations) {
+        GMLInfo gml = wfs.getGML().get(WFSInfo.Version.V_11);
+        return new GML3StreamingEncoder(
+                catalog,
+                gml.getSrsNameStyle().toSrsSyntax(),
+                Boolean.TRUE.equals(gml.getOverrideGMLAttributes()),
+                formatter,
+                wfs.isFeatureBounding(),
+                !wfs.isCiteCompliant(),
+                wfs.isEncodeFeatureMember(),
+                schemaLocations);
+    }
+
+    /** Returns true if any of the queries is a join, the streaming encoder does not handle them */
+    private boolean hasJoins(GetFeatureRequest request) {
+        return request != null && request.getQueries().stream().anyMatch(q -> q.getTypeNames().size() > 1);
     }
 
     protected void updateConfiguration(
@@ -360,7 +419,13 @@ protected Encoder createEncoder(
     }
 
     protected void setAdditionalSchemaLocations(Encoder encoder, GetFeatureRequest request, WFSInfo wfs) {
+        getAdditionalSchemaLocations(request, wfs).forEach(encoder::setSchemaLocation);
+    }
+
+    /** Returns schema locations to be declared besides the WFS and application ones, keyed by namespace URI */
+    protected Map<String, String> getAdditionalSchemaLocations(GetFeatureRequest request, WFSInfo wfs) {
         // hook for subclasses
+        return Collections.emptyMap();
     }
 
     protected void encode(FeatureCollectionResponse results, OutputStream output, Encoder encoder) throws IOException {
@@ -0,0 +1,653 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.ResourcePool;
+import org.geoserver.platform.resource.Paths;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.util.ISO8601Formatter;
+import org.geoserver.wfs.request.FeatureCollectionResponse;
+import org.geotools.api.feature.Feature;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.FeatureCollection;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.gml.producer.CoordinateFormatter;
+import org.geotools.gml2.SrsSyntax;
+import org.geotools.util.Converters;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Streaming encoder for GetFeature responses made of simple features, writing a WFS 1.1 feature collection of GML 3.1
+ * features straight to a {@link XMLStreamWriter}, without going through the XSD {@link org.geotools.xsd.Encoder}.
+ *
+ * <p>Element names, namespace prefixes, property order and srsName values are computed once per feature type, in a
+ * {@link FeatureTypeEncoding}, features are then written without any schema lookup or binding resolution. Only the
+ * cases matching the XSD encoder output are handled, {@link #canEncode(FeatureCollectionResponse)} returns
+ * {@code false} for the others (complex features, joins, customized {@code schema.xsd} files, user provided schemas,
+ * curved geometries, GML attributes other than {@code name} and {@code description}) and the caller is expected to
+ * fall back on the XSD encoder.
+ *
+ * <p>Instances are meant to be used for a single response, and are not thread safe.
+ */
+public class GML3StreamingEncoder {
+
+    static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+
+    static final String GML_PREFIX = "gml";
+
+    static final String WFS_PREFIX = "wfs";
+
+    protected final Catalog catalog;
+
+    protected final SrsSyntax srsSyntax;
+
+    protected final boolean overrideGMLAttributes;
+
+    protected final CoordinateFormatter formatter;
+
+    protected final boolean featureBounding;
+
+    protected final boolean encodeSrsDimension;
+
+    protected final boolean encodeFeatureMember;
+
+    protected final Map<String, String> schemaLocations;
+
+    protected final ISO8601Formatter dateFormatter = new ISO8601Formatter();
+
+    protected XMLStreamWriter writer;
+
+    private final Map<SimpleFeatureType, FeatureTypeEncoding> encodings = new IdentityHashMap<>();
+
+    private final StringBuilder ordinates = new StringBuilder();
+
+    private Charset charset = StandardCharsets.UTF_8;
+
+    private boolean omitXMLDeclaration;
+
+    /**
+     * Builds a new encoder
+     *
+     * @param catalog The catalog used to look up the feature type configurations
+     * @param srsSyntax The syntax used for srsName attributes
+     * @param overrideGMLAttributes Whether feature attributes named as GML properties are encoded as application ones
+     * @param formatter The coordinate formatter
+     * @param featureBounding Whether the collection and feature bounds should be encoded
+     * @param encodeSrsDimension Whether the srsDimension attribute should be encoded
+     * @param encodeFeatureMember Whether to encode a featureMember element per feature, instead of a single
+     *     featureMembers one (WFS 1.1 only)
+     * @param schemaLocations The schema locations, keyed by namespace URI
+     */
+    public GML3StreamingEncoder(
+            Catalog catalog,
+            SrsSyntax srsSyntax,
+            boolean overrideGMLAttributes,
+            CoordinateFormatter formatter,
+            boolean featureBounding,
+            boolean encodeSrsDimension,
+            boolean encodeFeatureMember,
+            Map<String, String> schemaLocations) {
+        this.catalog = catalog;
+        this.srsSyntax = srsSyntax;
+        this.overrideGMLAttributes = overrideGMLAttributes;
+        this.formatter = formatter;
+        this.featureBounding = featureBounding;
+        this.encodeSrsDimension = encodeSrsDimension;
+        this.encodeFeatureMember = encodeFeatureMember;
+        this.schemaLocations = schemaLocations;
+    }
+
+    public void setCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    public void setOmitXMLDeclaration(boolean omitXMLDeclaration) {
+        this.omitXMLDeclaration = omitXMLDeclaration;
+    }
+
+    protected String getGmlNamespace() {
+        return org.geotools.gml3.GML.NAMESPACE;
+    }
+
+    protected String getWfsNamespace() {
+        return org.geoserver.wfs.xml.v1_1_0.WFS.NAMESPACE;
+    }
+
+    /** Returns the names of the feature attributes that are mapped to GML properties, instead of application ones */
+    protected Set<String> getGmlAttributes() {
+        return Set.of("name", "description", "boundedBy", "metaDataProperty", "location");
+    }
+
+    /**
+     * Returns {@code true} if all the collections in the response can be encoded by this class, preparing their
+     * {@link FeatureTypeEncoding} along the way
+     */
+    public boolean canEncode(FeatureCollectionResponse results) throws IOException {
+        for (FeatureCollection fc : results.getFeatures()) {
+            if (!(fc.getSchema() instanceof SimpleFeatureType schema) || getEncoding(schema) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Encodes the response, the output is left open */
+    public void encode(FeatureCollectionResponse results, OutputStream output) throws IOException {
+        try {
+            writer = XMLOutputFactory.newInstance().createXMLStreamWriter(output, charset.name());
+            if (!omitXMLDeclaration) {
+                writer.writeStartDocument(charset.name(), "1.0");
+            }
+            writeResponse(results);
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /** Writes the WFS 1.1 feature collection, holding the features of all the collections */
+    protected void writeResponse(FeatureCollectionResponse results) throws XMLStreamException, IOException {
+        List<FeatureCollection> collections = results.getFeatures();
+        writer.writeStartElement(WFS_PREFIX, "FeatureCollection", getWfsNamespace());
+        writeNamespaces(collections);
+        if (results.getNumberOfFeatures() != null) {
+            writer.writeAttribute("numberOfFeatures", results.getNumberOfFeatures().toString());
+        }
+        writeTimeStamp(results.getTimeStamp());
+        if (results.getLockId() != null) {
+            writer.writeAttribute("lockId", results.getLockId());
+        }
+        writeSchemaLocation();
+        if (featureBounding) {
+            writeCollectionBounds(collections, GML_PREFIX, getGmlNamespace());
+        }
+
+        if (collections.isEmpty()) {
+            writer.writeEndElement();
+            return;
+        }
+        if (!encodeFeatureMember) {
+            writer.writeStartElement(GML_PREFIX, "featureMembers", getGmlNamespace());
+        }
+        for (FeatureCollection fc : collections) {
+            FeatureTypeEncoding encoding = getEncoding((SimpleFeatureType) fc.getSchema());
+            try (SimpleFeatureIterator it = (SimpleFeatureIterator) fc.features()) {
+                while (it.hasNext()) {
+                    SimpleFeature feature = it.next();
+                    if (encodeFeatureMember) {
+                        writer.writeStartElement(GML_PREFIX, "featureMember", getGmlNamespace());
+                        writeFeature(feature, encoding);
+                        writer.writeEndElement();
+                    } else {
+                        writeFeature(feature, encoding);
+                    }
+                }
+            }
+        }
+        if (!encodeFeatureMember) {
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+    }
+
+    /** Declares the WFS, GML, XSI and feature type namespaces on the current element */
+    protected void writeNamespaces(List<FeatureCollection> collections) throws XMLStreamException, IOException {
+        Map<String, String> namespaces = new LinkedHashMap<>();
+        namespaces.put(WFS_PREFIX, getWfsNamespace());
+        namespaces.put(GML_PREFIX, getGmlNamespace());
+        namespaces.put("xsi", XSI_NAMESPACE);
+        for (FeatureCollection fc : collections) {
+            FeatureTypeEncoding encoding = getEncoding((SimpleFeatureType) fc.getSchema());
+            namespaces.putIfAbsent(encoding.prefix, encoding.namespaceURI);
+        }
+        for (Map.Entry<String, String> entry : namespaces.entrySet()) {
+            writer.writeNamespace(entry.getKey(), entry.getValue());
+        }
+    }
+
+    protected void writeSchemaLocation() throws XMLStreamException {
+        if (schemaLocations.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : schemaLocations.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(" ");
+            }
+            sb.append(entry.getKey()).append(" ").append(entry.getValue());
+        }
+        writer.writeAttribute("xsi", XSI_NAMESPACE, "schemaLocation", sb.toString());
+    }
+
+    protected void writeTimeStamp(Calendar timeStamp) throws XMLStreamException {
+        if (timeStamp != null) {
+            writer.writeAttribute("timeStamp", dateFormatter.format(timeStamp.getTime()));
+        }
+    }
+
+    /**
+     * Writes the overall bounds of the collections, if not empty, in a boundedBy element with the given prefix and
+     * namespace
+     */
+    protected void writeCollectionBounds(List<FeatureCollection> collections, String prefix, String namespaceURI)
+            throws XMLStreamException, IOException {
+        ReferencedEnvelope bounds = null;
+        for (FeatureCollection fc : collections) {
+            ReferencedEnvelope fcBounds = fc.getBounds();
+            if (fcBounds == null) {
+                continue;
+            }
+            if (bounds == null) {
+                CoordinateReferenceSystem crs = fcBounds.getCoordinateReferenceSystem();
+                if (crs == null) {
+                    crs = getEncoding((SimpleFeatureType) fc.getSchema()).crs;
+                }
+                bounds = new ReferencedEnvelope(fcBounds, crs);
+            } else {
+                bounds.expandToInclude(fcBounds);
+            }
+        }
+        // as in the XSD encoder, empty bounds are not encoded to please the CITE tests, see GEOS-2700
+        if (bounds != null && !bounds.isNull() && !bounds.isEmpty()) {
+            writer.writeStartElement(prefix, "boundedBy", namespaceURI);
+            writeEnvelope(bounds, getSrsName(bounds.getCoordinateReferenceSystem()));
+            writer.writeEndElement();
+        }
+    }
+
+    /** Writes a single feature, using its precomputed encoding */
+    protected void writeFeature(SimpleFeature feature, FeatureTypeEncoding encoding) throws XMLStreamException {
+        writer.writeStartElement(encoding.prefix, encoding.localName, encoding.namespaceURI);
+        if (feature.getID() != null) {
+            writer.writeAttribute(GML_PREFIX, getGmlNamespace(), "id", feature.getID());
+        }
+        writeFeatureContents(feature, encoding);
+        writer.writeEndElement();
+    }
+
+    protected void writeFeatureContents(SimpleFeature feature, FeatureTypeEncoding encoding)
+            throws XMLStreamException {
+        // GML properties first, in the order mandated by AbstractGMLType
+        writeGmlProperty(feature, encoding.descriptionIndex, "description");
+        writeGmlProperty(feature, encoding.nameIndex, "name");
+        if (featureBounding) {
+            Geometry geometry = encoding.defaultGeometryIndex >= 0
+                    ? (Geometry) feature.getAttribute(encoding.defaultGeometryIndex)
+                    : null;
+            if (geometry != null && !geometry.isEmpty()) {
+                writer.writeStartElement(GML_PREFIX, "boundedBy", getGmlNamespace());
+                writeEnvelope(geometry.getEnvelopeInternal(), encoding.srsName);
+                writer.writeEndElement();
+            }
+        }
+
+        for (AttributeEncoding attribute : encoding.attributes) {
+            Object value = feature.getAttribute(attribute.index);
+            if (value == null) {
+                if (attribute.minOccurs > 0) {
+                    writer.writeStartElement(encoding.prefix, attribute.localName, encoding.namespaceURI);
+                    writer.writeAttribute("xsi", XSI_NAMESPACE, "nil", "true");
+                    writer.writeEndElement();
+                }
+                continue;
+            }
+            writer.writeStartElement(encoding.prefix, attribute.localName, encoding.namespaceURI);
+            if (value instanceof Geometry geometry) {
+                String srsName = attribute.srsName != null ? attribute.srsName : getSrsName(geometry);
+                writeGeometry(geometry, srsName, feature.getID() + "." + attribute.localName);
+            } else {
+                writer.writeCharacters(encodeValue(value));
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    private void writeGmlProperty(SimpleFeature feature, int index, String name) throws XMLStreamException {
+        if (index >= 0) {
+            Object value = feature.getAttribute(index);
+            if (value != null) {
+                writer.writeStartElement(GML_PREFIX, name, getGmlNamespace());
+                writer.writeCharacters(encodeValue(value));
+                writer.writeEndElement();
+            }
+        }
+    }
+
+    /** Encodes a non geometric attribute value, the same way as the XML schema bindings */
+    protected String encodeValue(Object value) {
+        if (value instanceof java.sql.Date || value instanceof java.sql.Time) {
+            return value.toString();
+        } else if (value instanceof Date date) {
+            return dateFormatter.format(date);
+        } else if (value instanceof Calendar calendar) {
+            return dateFormatter.format(calendar.getTime());
+        } else if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        } else if (value instanceof String
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof BigInteger) {
+            return value.toString();
+        }
+        String converted = Converters.convert(value, String.class);
+        return converted != null ? converted : value.toString();
+    }
+
+    /** Writes the envelope, with its corners */
+    protected void writeEnvelope(Envelope envelope, String srsName) throws XMLStreamException {
+        writer.writeStartElement(GML_PREFIX, "Envelope", getGmlNamespace());
+        if (srsName != null) {
+            writer.writeAttribute("srsName", srsName);
+        }
+        if (encodeSrsDimension) {
+            writer.writeAttribute("srsDimension", "2");
+        }
+        writer.writeStartElement(GML_PREFIX, "lowerCorner", getGmlNamespace());
+        ordinates.setLength(0);
+        appendOrdinates(envelope.getMinX(), envelope.getMinY());
+        writer.writeCharacters(ordinates.toString());
+        writer.writeEndElement();
+        writer.writeStartElement(GML_PREFIX, "upperCorner", getGmlNamespace());
+        ordinates.setLength(0);
+        appendOrdinates(envelope.getMaxX(), envelope.getMaxY());
+        writer.writeCharacters(ordinates.toString());
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
+    /**
+     * Writes a geometry, with the srsName and srsDimension attributes on the top level element
+     *
+     * @param id The gml:id of the geometry, used only by GML versions requiring it
+     */
+    protected void writeGeometry(Geometry geometry, String srsName, String id) throws XMLStreamException {
+        writeGeometry(geometry, srsName, getDimension(geometry), id);
+    }
+
+    private void writeGeometry(Geometry geometry, String srsName, int dimension, String id)
+            throws XMLStreamException {
+        if (geometry instanceof Point point) {
+            startGeometry("Point", srsName, dimension, id);
+            writePositions("pos", point.getCoordinateSequence());
+            writer.writeEndElement();
+        } else if (geometry instanceof LineString line) {
+            startGeometry("LineString", srsName, dimension, id);
+            writePositions("posList", line.getCoordinateSequence());
+            writer.writeEndElement();
+        } else if (geometry instanceof Polygon polygon) {
+            startGeometry("Polygon", srsName, dimension, id);
+            writeRing("exterior", polygon.getExteriorRing());
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                writeRing("interior", polygon.getInteriorRingN(i));
+            }
+            writer.writeEndElement();
+        } else if (geometry instanceof GeometryCollection collection) {
+            String[] names = getCollectionNames(collection);
+            startGeometry(names[0], srsName, dimension, id);
+            for (int i = 0; i < collection.getNumGeometries(); i++) {
+                writer.writeStartElement(GML_PREFIX, names[1], getGmlNamespace());
+                writeGeometry(collection.getGeometryN(i), null, -1, id + "." + (i + 1));
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        } else {
+            throw new IllegalArgumentException("Unsupported geometry type " + geometry.getGeometryType());
+        }
+    }
+
+    /** Returns the element and member names of a geometry collection */
+    protected String[] getCollectionNames(GeometryCollection collection) {
+        if (collection instanceof MultiPoint) {
+            return new String[] {"MultiPoint", "pointMember"};
+        } else if (collection instanceof MultiLineString) {
+            return new String[] {"MultiLineString", "lineStringMember"};
+        } else if (collection instanceof MultiPolygon) {
+            return new String[] {"MultiSurface", "surfaceMember"};
+        }
+        return new String[] {"MultiGeometry", "geometryMember"};
+    }
+
+    /**
+     * Starts a geometry element, only the top level one gets the srsName and srsDimension attributes (a negative
+     * dimension is used for nested ones)
+     */
+    protected void startGeometry(String name, String srsName, int dimension, String id) throws XMLStreamException {
+        writer.writeStartElement(GML_PREFIX, name, getGmlNamespace());
+        writeGeometryId(id);
+        if (srsName != null) {
+            writer.writeAttribute("srsName", srsName);
+        }
+        if (encodeSrsDimension && dimension > 0) {
+            writer.writeAttribute("srsDimension", String.valueOf(dimension));
+        }
+    }
+
+    /** Writes the geometry gml:id, GML 3.1 does not require one, so nothing is written by default */
+    protected void writeGeometryId(String id) throws XMLStreamException {
+        // optional in GML 3.1
+    }
+
+    private void writeRing(String name, LineString ring) throws XMLStreamException {
+        writer.writeStartElement(GML_PREFIX, name, getGmlNamespace());
+        writer.writeStartElement(GML_PREFIX, "LinearRing", getGmlNamespace());
+        writePositions("posList", ring.getCoordinateSequence());
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
+    private void writePositions(String name, CoordinateSequence cs) throws XMLStreamException {
+        writer.writeStartElement(GML_PREFIX, name, getGmlNamespace());
+        boolean hasZ = cs.hasZ();
+        ordinates.setLength(0);
+        for (int i = 0; i < cs.size(); i++) {
+            if (i > 0) {
+                ordinates.append(' ');
+            }
+            appendOrdinates(cs.getX(i), cs.getY(i));
+            if (hasZ) {
+                double z = cs.getZ(i);
+                ordinates.append(' ').append(formatter.format(Double.isNaN(z) ? 0 : z));
+            }
+        }
+        writer.writeCharacters(ordinates.toString());
+        writer.writeEndElement();
+    }
+
+    private void appendOrdinates(double x, double y) {
+        ordinates.append(formatter.format(x)).append(' ').append(formatter.format(y));
+    }
+
+    private static int getDimension(Geometry geometry) {
+        if (geometry.isEmpty()) {
+            return 2;
+        }
+        if (geometry instanceof Point point) {
+            return point.getCoordinateSequence().hasZ() ? 3 : 2;
+        } else if (geometry instanceof LineString line) {
+            return line.getCoordinateSequence().hasZ() ? 3 : 2;
+        } else if (geometry instanceof Polygon polygon) {
+            return getDimension(polygon.getExteriorRing());
+        }
+        return getDimension(geometry.getGeometryN(0));
+    }
+
+    /** Returns the srsName of a geometry not having a declared CRS, based on its user data, if any */
+    private String getSrsName(Geometry geometry) {
+        if (geometry.getUserData() instanceof CoordinateReferenceSystem crs) {
+            return getSrsName(crs);
+        }
+        return null;
+    }
+
+    /** Returns the srsName for the given CRS, in the configured syntax, or {@code null} if it cannot be identified */
+    protected String getSrsName(CoordinateReferenceSystem crs) {
+        if (crs == null) {
+            return null;
+        }
+        try {
+            String identifier = ResourcePool.lookupIdentifier(crs, true);
+            return identifier != null ? srsSyntax.getSRS(identifier) : null;
+        } catch (FactoryException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the encoding of the given feature type, computing it on the first call, or {@code null} if the type
+     * cannot be handled by the streaming encoder
+     */
+    protected FeatureTypeEncoding getEncoding(SimpleFeatureType schema) throws IOException {
+        if (encodings.containsKey(schema)) {
+            return encodings.get(schema);
+        }
+        FeatureTypeEncoding encoding = buildEncoding(schema);
+        encodings.put(schema, encoding);
+        return encoding;
+    }
+
+    private FeatureTypeEncoding buildEncoding(SimpleFeatureType schema) throws IOException {
+        FeatureTypeInfo info = catalog.getFeatureTypeByName(schema.getName());
+        if (info == null || info.isCircularArcPresent() || hasCustomSchema(info)) {
+            return null;
+        }
+        SimpleFeatureType published = (SimpleFeatureType) info.getFeatureType();
+        if (published.getUserData().get("schemaURI") != null) {
+            return null;
+        }
+
+        FeatureTypeEncoding encoding = new FeatureTypeEncoding();
+        encoding.prefix = info.getNamespace().getPrefix();
+        encoding.namespaceURI = schema.getName().getNamespaceURI();
+        encoding.localName = schema.getTypeName();
+        GeometryDescriptor defaultGeometry = schema.getGeometryDescriptor();
+        if (defaultGeometry != null) {
+            encoding.defaultGeometryIndex = schema.indexOf(defaultGeometry.getLocalName());
+            encoding.crs = defaultGeometry.getCoordinateReferenceSystem();
+            encoding.srsName = getSrsName(encoding.crs);
+        }
+
+        // the XSD encoder follows the order of the published schema, rather than the (possibly retyped) one
+        // of the collection
+        Set<String> gmlAttributes = overrideGMLAttributes ? Set.of() : getGmlAttributes();
+        List<AttributeEncoding> attributes = new ArrayList<>();
+        for (AttributeDescriptor publishedDescriptor : published.getAttributeDescriptors()) {
+            String name = publishedDescriptor.getLocalName();
+            AttributeDescriptor descriptor = schema.getDescriptor(name);
+            if (descriptor == null) {
+                continue;
+            }
+            int index = schema.indexOf(name);
+            if (gmlAttributes.contains(name)) {
+                if ("name".equals(name)) {
+                    encoding.nameIndex = index;
+                } else if ("description".equals(name)) {
+                    encoding.descriptionIndex = index;
+                } else {
+                    // other GML properties are not simple values
+                    return null;
+                }
+                continue;
+            }
+            Class<?> binding = descriptor.getType().getBinding();
+            if (Feature.class.isAssignableFrom(binding)) {
+                return null;
+            }
+            AttributeEncoding attribute = new AttributeEncoding();
+            attribute.index = index;
+            attribute.localName = name;
+            attribute.minOccurs = descriptor.getMinOccurs();
+            if (descriptor instanceof GeometryDescriptor gd) {
+                attribute.srsName = getSrsName(gd.getCoordinateReferenceSystem());
+            }
+            attributes.add(attribute);
+        }
+        // attributes not found in the published schema, if any, cannot be encoded
+        if (attributes.size() + (encoding.nameIndex >= 0 ? 1 : 0) + (encoding.descriptionIndex >= 0 ? 1 : 0)
+                != schema.getAttributeCount()) {
+            return null;
+        }
+        encoding.attributes = attributes.toArray(new AttributeEncoding[attributes.size()]);
+        return encoding;
+    }
+
+    /** Checks if a customized schema.xsd has been provided for the feature type */
+    private boolean hasCustomSchema(FeatureTypeInfo info) {
+        String ws = info.getStore().getWorkspace().getName();
+        String ds = info.getStore().getName();
+        Resource schema =
+                catalog.getResourceLoader().get(Paths.path("workspaces", ws, ds, info.getName(), "schema.xsd"));
+        return schema.getType() == Resource.Type.RESOURCE;
+    }
+
+    /** The precomputed encoding of a feature type */
+    protected static class FeatureTypeEncoding {
+
+        String prefix;
+
+        String namespaceURI;
+
+        String localName;
+
+        int defaultGeometryIndex = -1;
+
+        CoordinateReferenceSystem crs;
+
+        String srsName;
+
+        int nameIndex = -1;
+
+        int descriptionIndex = -1;
+
+        AttributeEncoding[] attributes;
+    }
+
+    /** The precomputed encoding of a feature attribute */
+    protected static class AttributeEncoding {
+
+        int index;
+
+        String localName;
+
+        int minOccurs;
+
+        String srsName;
+    }
+}
@@ -35,6 +35,7 @@
 import org.geoserver.wfs.request.Delete;
 import org.geoserver.wfs.request.Insert;
 import org.geoserver.wfs.request.Native;
+import org.geoserver.wfs.request.Property;
 import org.geoserver.wfs.request.Replace;
 import org.geoserver.wfs.request.TransactionElement;
 import org.geoserver.wfs.request.TransactionRequest;
@@ -43,7 +44,10 @@
 import org.geotools.api.data.FeatureStore;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.Id;
 import org.geotools.api.filter.Or;
+import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.util.MapEntry;
 import org.junit.Test;
 
@@ -270,6 +274,70 @@ public void testAggregationWithDifferentIdGen() {
         verify(insert4Handler, times(1)).execute(same(insertUseExisting4), any(), any(), any(), any());
     }
 
+    /**
+     * Verifies that consecutive updates by id of the same type, setting the same values, are merged, as long as they
+     * touch distinct features and the batch size allows.
+     */
+    @Test
+    public void testUpdateAggregation() {
+        FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+        Update update1 = newUpdate(type1Name, ff.id(ff.featureId("t1.1")), "value");
+        TransactionElementHandler update1Handler = mock(TransactionElementHandler.class);
+        Update update2 = newUpdate(type1Name, ff.id(ff.featureId("t1.2")), "value");
+        TransactionElementHandler update2Handler = mock(TransactionElementHandler.class);
+        // same ids updated twice, not merged
+        Update update3 = newUpdate(type1Name, ff.id(ff.featureId("t1.2")), "value");
+        TransactionElementHandler update3Handler = mock(TransactionElementHandler.class);
+        // different value, not merged
+        Update update4 = newUpdate(type1Name, ff.id(ff.featureId("t1.3")), "other");
+        TransactionElementHandler update4Handler = mock(TransactionElementHandler.class);
+        // not an id filter, not merged
+        Update update5 = newUpdate(type1Name, filter1, "other");
+        TransactionElementHandler update5Handler = mock(TransactionElementHandler.class);
+
+        Map<TransactionElement, TransactionElementHandler> element2Handlers = asMap( //
+                keyValue(update1, update1Handler), //
+                keyValue(update2, update2Handler), //
+                keyValue(update3, update3Handler), //
+                keyValue(update4, update4Handler), //
+                keyValue(update5, update5Handler));
+        TransactionRequest lTransaction = transactionRequest(element2Handlers.keySet());
+
+        BatchManager sut = new BatchManager(
+                lTransaction, transactionListener, stores, transactionResponse, element2Handlers, 100, 100);
+        sut.run();
+
+        assertTrue(update1.getFilter() instanceof Id);
+        assertEquals(2, ((Id) update1.getFilter()).getIDs().size());
+        verify(update1Handler, times(1)).execute(same(update1), any(), any(), any(), any());
+        verify(update2Handler, times(0)).execute(any(), any(), any(), any(), any());
+        verify(update3Handler, times(1)).execute(same(update3), any(), any(), any(), any());
+        verify(update4Handler, times(1)).execute(same(update4), any(), any(), any(), any());
+        verify(update5Handler, times(1)).execute(same(update5), any(), any(), any(), any());
+        assertEquals(4, lTransaction.getElements().size());
+    }
+
+    @Test
+    public void testUpdateAggregationDisabled() {
+        FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+        Update update1 = newUpdate(type1Name, ff.id(ff.featureId("t1.1")), "value");
+        TransactionElementHandler update1Handler = mock(TransactionElementHandler.class);
+        Update update2 = newUpdate(type1Name, ff.id(ff.featureId("t1.2")), "value");
+        TransactionElementHandler update2Handler = mock(TransactionElementHandler.class);
+
+        Map<TransactionElement, TransactionElementHandler> element2Handlers =
+                asMap(keyValue(update1, update1Handler), keyValue(update2, update2Handler));
+        TransactionRequest lTransaction = transactionRequest(element2Handlers.keySet());
+
+        BatchManager sut = new BatchManager(
+                lTransaction, transactionListener, stores, transactionResponse, element2Handlers, 100, 1);
+        sut.run();
+
+        assertEquals(1, ((Id) update1.getFilter()).getIDs().size());
+        verify(update1Handler, times(1)).execute(same(update1), any(), any(), any(), any());
+        verify(update2Handler, times(1)).execute(same(update2), any(), any(), any(), any());
+    }
+
     private void testAggregationWithDeleteBatchSize(int pDeleteBatchSize) {
         // given: test transactions contents...
         Insert insert1 = newInsert(feature1);
@@ -414,6 +482,17 @@ private Update newUpdate() {
         return lUpdate;
     }
 
+    private Update newUpdate(QName pTypeName, Filter pFilter, Object pValue) {
+        Update lUpdate = newUpdate();
+        lUpdate.setTypeName(pTypeName);
+        lUpdate.setFilter(pFilter);
+        Property lProperty = lUpdate.createProperty();
+        lProperty.setName(new QName("name"));
+        lProperty.setValue(pValue);
+        lUpdate.setUpdateProperties(List.of(lProperty));
+        return lUpdate;
+    }
+
     private Insert newInsert(SimpleFeature pFeature) {
         InsertType lInsertType = Wfs20Factory.eINSTANCE.createInsertType();
         Insert lInsert = new Insert.WFS20(lInsertType);
@@ -0,0 +1,112 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.namespace.QName;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.wfs.WFSInfo.CountPolicy;
+import org.geotools.api.data.Query;
+import org.geotools.api.filter.Filter;
+import org.geotools.filter.text.ecql.ECQL;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FeatureCountCacheTest {
+
+    CatalogImpl catalog;
+
+    FeatureCountCache cache;
+
+    FeatureTypeInfo roads;
+
+    WFSInfo wfs;
+
+    AtomicLong counts;
+
+    @Before
+    public void setup() {
+        catalog = new CatalogImpl();
+        cache = new FeatureCountCache(catalog);
+        NamespaceInfo ns = catalog.getFactory().createNamespace();
+        ns.setPrefix("topp");
+        ns.setURI("http://www.openplans.org/topp");
+        roads = catalog.getFactory().createFeatureType();
+        roads.setName("roads");
+        roads.setNamespace(ns);
+        wfs = new WFSInfoImpl();
+        counts = new AtomicLong();
+    }
+
+    private long count(Filter filter) throws Exception {
+        return cache.getCount(wfs, roads, new Query("roads", filter), false, () -> counts.incrementAndGet() * 10);
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        Filter filter = ECQL.toFilter("id > 10");
+        assertEquals(10, count(filter));
+        // an equivalent filter hits the cache
+        assertEquals(10, count(ECQL.toFilter("id>10")));
+        assertEquals(1, counts.get());
+
+        // a different filter does not
+        assertEquals(20, count(ECQL.toFilter("id > 20")));
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        wfs.setCountCacheTimeToLive(0);
+        assertEquals(10, count(Filter.INCLUDE));
+        Thread.sleep(5);
+        assertEquals(20, count(Filter.INCLUDE));
+    }
+
+    @Test
+    public void testUnavailableCountNotCached() throws Exception {
+        Query query = new Query("roads");
+        assertEquals(-1, cache.getCount(wfs, roads, query, true, () -> -1));
+        assertEquals(5, cache.getCount(wfs, roads, query, true, () -> 5));
+        assertEquals(5, cache.getCount(wfs, roads, query, true, () -> 6));
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        assertEquals(10, count(Filter.INCLUDE));
+        // other types do not affect the count
+        cache.invalidate(new QName("http://www.openplans.org/topp", "states"));
+        assertEquals(10, count(Filter.INCLUDE));
+
+        // transactions may use the prefixed name
+        cache.invalidate(new QName("topp:roads"));
+        assertEquals(20, count(Filter.INCLUDE));
+
+        cache.invalidate(new QName("http://www.openplans.org/topp", "roads"));
+        assertEquals(30, count(Filter.INCLUDE));
+
+        cache.invalidateAll();
+        assertEquals(40, count(Filter.INCLUDE));
+    }
+
+    @Test
+    public void testCountPolicy() {
+        assertEquals(CountPolicy.EXACT, CountPolicy.get(wfs, roads));
+        wfs.setCountPolicy(CountPolicy.CACHED);
+        assertEquals(CountPolicy.CACHED, CountPolicy.get(wfs, roads));
+
+        // layer override
+        roads.getMetadata().put(CountPolicy.METADATA_KEY, "estimated");
+        assertEquals(CountPolicy.ESTIMATED, CountPolicy.get(wfs, roads));
+
+        // invalid values are ignored
+        roads.getMetadata().put(CountPolicy.METADATA_KEY, "whatever");
+        assertEquals(CountPolicy.CACHED, CountPolicy.get(wfs, roads));
+    }
+}
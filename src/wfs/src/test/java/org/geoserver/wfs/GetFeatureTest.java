@@ -358,6 +358,36 @@ public void testMultiLayer() throws Exception {
         }
     }
 
+    @Test
+    public void testMultiLayerParallel() throws Exception {
+        System.setProperty(ParallelQueryExecutor.THREADS_PROPERTY, "4");
+        ParallelQueryExecutor.reset();
+        try {
+            // the prefetched queries are used as is
+            Document doc = getAsDOM("wfs?request=GetFeature&typename=cdf:Fifteen,cdf:Seven&version=1.1.0&service=wfs");
+            assertEquals("22", doc.getDocumentElement().getAttribute("numberOfFeatures"));
+            assertXpathEvaluatesTo("15", "count(//cdf:Fifteen)", doc);
+            assertXpathEvaluatesTo("7", "count(//cdf:Seven)", doc);
+
+            // the global limit cuts the second query, it has to run again
+            doc = getAsDOM("wfs?request=GetFeature&typename=cdf:Fifteen,cdf:Seven&version=1.1.0&service=wfs"
+                    + "&maxFeatures=20");
+            assertEquals("20", doc.getDocumentElement().getAttribute("numberOfFeatures"));
+            assertXpathEvaluatesTo("15", "count(//cdf:Fifteen)", doc);
+            assertXpathEvaluatesTo("5", "count(//cdf:Seven)", doc);
+
+            // the global limit is reached by the first query, the second one is skipped
+            doc = getAsDOM("wfs?request=GetFeature&typename=cdf:Fifteen,cdf:Seven&version=1.1.0&service=wfs"
+                    + "&maxFeatures=10");
+            assertEquals("10", doc.getDocumentElement().getAttribute("numberOfFeatures"));
+            assertXpathEvaluatesTo("10", "count(//cdf:Fifteen)", doc);
+            assertXpathEvaluatesTo("0", "count(//cdf:Seven)", doc);
+        } finally {
+            System.clearProperty(ParallelQueryExecutor.THREADS_PROPERTY);
+            ParallelQueryExecutor.reset();
+        }
+    }
+
     @Test
     public void testStrictComplianceBBoxValidator() throws Exception {
         GeoServer geoServer = getGeoServer();
@@ -0,0 +1,170 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Timestamp;
+import java.util.List;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.sort.SortBy;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.LineString;
+
+public class KeysetCursorTest {
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    SimpleFeatureType schema;
+
+    FeatureTypeInfo info;
+
+    @Before
+    public void setup() throws Exception {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("roads");
+        tb.nillable(false).add("id", Integer.class);
+        tb.nillable(false).add("name", String.class);
+        tb.nillable(false).add("created", Timestamp.class);
+        tb.nillable(false).add("geom", LineString.class);
+        tb.nillable(true).add("description", String.class);
+        schema = tb.buildFeatureType();
+        info = new CatalogImpl().getFactory().createFeatureType();
+        info.setName("roads");
+    }
+
+    @Test
+    public void testNoKey() {
+        assertNull(KeysetCursor.getKeysetSort(info, schema, null));
+    }
+
+    @Test
+    public void testKeySort() {
+        info.getMetadata().put(KeysetCursor.KEY_ATTRIBUTES, "id");
+        List<SortBy> sort = KeysetCursor.getKeysetSort(info, schema, null);
+        assertEquals(List.of(FF.sort("id", SortOrder.ASCENDING)), sort);
+
+        // the requested sort is extended with the key
+        sort = KeysetCursor.getKeysetSort(info, schema, List.of(FF.sort("name", SortOrder.DESCENDING)));
+        assertEquals(List.of(FF.sort("name", SortOrder.DESCENDING), FF.sort("id", SortOrder.ASCENDING)), sort);
+
+        // unless it already contains it
+        sort = KeysetCursor.getKeysetSort(info, schema, List.of(FF.sort("id", SortOrder.DESCENDING)));
+        assertEquals(List.of(FF.sort("id", SortOrder.DESCENDING)), sort);
+
+        // cannot seek on geometries
+        assertNull(KeysetCursor.getKeysetSort(info, schema, List.of(FF.sort("geom", SortOrder.ASCENDING))));
+    }
+
+    @Test
+    public void testNaturalOrder() {
+        info.getMetadata().put(KeysetCursor.KEY_ATTRIBUTES, "id");
+        List<SortBy> sort = KeysetCursor.getKeysetSort(info, schema, List.of(SortBy.NATURAL_ORDER));
+        assertEquals(List.of(FF.sort("id", SortOrder.ASCENDING)), sort);
+
+        // reverse natural order is reverse key order
+        sort = KeysetCursor.getKeysetSort(info, schema, List.of(SortBy.REVERSE_ORDER));
+        assertEquals(List.of(FF.sort("id", SortOrder.DESCENDING)), sort);
+
+        // no key, no natural order to seek on
+        info.getMetadata().remove(KeysetCursor.KEY_ATTRIBUTES);
+        assertNull(KeysetCursor.getKeysetSort(info, schema, List.of(SortBy.NATURAL_ORDER)));
+    }
+
+    @Test
+    public void testNillableAttributes() {
+        // nulls sort differently depending on the store, and never match comparisons
+        info.getMetadata().put(KeysetCursor.KEY_ATTRIBUTES, "id");
+        assertNull(KeysetCursor.getKeysetSort(info, schema, List.of(FF.sort("description", SortOrder.ASCENDING))));
+        info.getMetadata().put(KeysetCursor.KEY_ATTRIBUTES, "description");
+        assertNull(KeysetCursor.getKeysetSort(info, schema, null));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        info.getMetadata().put(KeysetCursor.KEY_ATTRIBUTES, "id");
+        List<SortBy> sort = KeysetCursor.getKeysetSort(
+                info, schema, List.of(FF.sort("name", SortOrder.DESCENDING), FF.sort("created", SortOrder.ASCENDING)));
+        Timestamp created = new Timestamp(1_700_000_000_123L);
+        created.setNanos(123_456_789);
+        SimpleFeature last = road(10, "Main st, 12\n", created);
+
+        KeysetCursor cursor = KeysetCursor.after("topp:roads", sort, last);
+        assertNotNull(cursor);
+        String token = cursor.encode();
+        // url safe
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+
+        KeysetCursor decoded = KeysetCursor.decode(token);
+        assertEquals("topp:roads", decoded.getTypeName());
+        assertTrue(decoded.matches("topp:roads", sort));
+        assertFalse(decoded.matches("topp:rivers", sort));
+        assertFalse(decoded.matches("topp:roads", List.of(FF.sort("id", SortOrder.ASCENDING))));
+
+        Filter expected = FF.or(List.of(
+                FF.less(FF.property("name"), FF.literal("Main st, 12\n")),
+                FF.and(
+                        FF.equals(FF.property("name"), FF.literal("Main st, 12\n")),
+                        FF.greater(FF.property("created"), FF.literal(created))),
+                FF.and(List.of(
+                        FF.equals(FF.property("name"), FF.literal("Main st, 12\n")),
+                        FF.equals(FF.property("created"), FF.literal(created)),
+                        FF.greater(FF.property("id"), FF.literal(10))))));
+        assertEquals(expected, decoded.toFilter(schema));
+    }
+
+    @Test
+    public void testSelectsFollowingFeatures() {
+        info.getMetadata().put(KeysetCursor.KEY_ATTRIBUTES, "id");
+        List<SortBy> sort = KeysetCursor.getKeysetSort(info, schema, List.of(FF.sort("name", SortOrder.ASCENDING)));
+        SimpleFeature last = road(5, "b", null);
+        Filter filter = KeysetCursor.decode(
+                        KeysetCursor.after("roads", sort, last).encode())
+                .toFilter(schema);
+
+        assertFalse(filter.evaluate(road(9, "a", null)));
+        assertFalse(filter.evaluate(road(4, "b", null)));
+        assertFalse(filter.evaluate(last));
+        assertTrue(filter.evaluate(road(6, "b", null)));
+        assertTrue(filter.evaluate(road(1, "c", null)));
+    }
+
+    @Test
+    public void testNullKey() {
+        info.getMetadata().put(KeysetCursor.KEY_ATTRIBUTES, "id");
+        List<SortBy> sort = KeysetCursor.getKeysetSort(info, schema, null);
+        SimpleFeature last = road(null, "b", null);
+        assertNull(KeysetCursor.after("roads", sort, last));
+    }
+
+    @Test
+    public void testInvalidToken() {
+        try {
+            KeysetCursor.decode("not a token!");
+            fail("Should have failed");
+        } catch (IllegalArgumentException e) {
+            // fine
+        }
+    }
+
+    private SimpleFeature road(Integer id, String name, Timestamp created) {
+        return SimpleFeatureBuilder.build(schema, new Object[] {id, name, created, null, null}, "r." + id);
+    }
+}
@@ -0,0 +1,135 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelQueryExecutorTest {
+
+    @Before
+    public void enableParallelism() {
+        System.setProperty(ParallelQueryExecutor.THREADS_PROPERTY, "4");
+        ParallelQueryExecutor.reset();
+    }
+
+    @After
+    public void resetParallelism() {
+        System.clearProperty(ParallelQueryExecutor.THREADS_PROPERTY);
+        ParallelQueryExecutor.reset();
+    }
+
+    @Test
+    public void testSequentialByDefault() throws Exception {
+        resetParallelism();
+        assertFalse(ParallelQueryExecutor.isParallel());
+        Thread caller = Thread.currentThread();
+        List<Callable<Thread>> tasks = List.of(Thread::currentThread, Thread::currentThread);
+        List<Future<Thread>> futures = ParallelQueryExecutor.submitAll(tasks);
+        assertSame(caller, ParallelQueryExecutor.get(futures.get(0)));
+        assertSame(caller, ParallelQueryExecutor.get(futures.get(1)));
+    }
+
+    @Test
+    public void testOrderPreserved() throws Exception {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int value = i;
+            tasks.add(() -> {
+                // make the later tasks complete first
+                Thread.sleep(20 - value);
+                return value;
+            });
+        }
+        List<Future<Integer>> futures = ParallelQueryExecutor.submitAll(tasks);
+        assertEquals(20, futures.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), ParallelQueryExecutor.get(futures.get(i)));
+        }
+    }
+
+    @Test
+    public void testFirstTaskInCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        List<Callable<Thread>> tasks = List.of(Thread::currentThread, Thread::currentThread);
+        List<Future<Thread>> futures = ParallelQueryExecutor.submitAll(tasks);
+        assertTrue(futures.get(0).isDone());
+        assertSame(caller, ParallelQueryExecutor.get(futures.get(0)));
+    }
+
+    @Test
+    public void testConcurrentExecution() throws Exception {
+        assertTrue(ParallelQueryExecutor.isParallel());
+        // the first task can only complete if the second one runs concurrently
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Callable<Boolean>> tasks = List.of(() -> latch.await(10, TimeUnit.SECONDS), () -> {
+            latch.countDown();
+            return true;
+        });
+        List<Future<Boolean>> futures = ParallelQueryExecutor.submitAll(tasks);
+        assertTrue(ParallelQueryExecutor.get(futures.get(0)));
+        assertTrue(ParallelQueryExecutor.get(futures.get(1)));
+    }
+
+    @Test
+    public void testSaturatedPool() throws Exception {
+        System.setProperty(ParallelQueryExecutor.THREADS_PROPERTY, "2");
+        ParallelQueryExecutor.reset();
+        // two tasks keep the pool threads busy, two more fill the queue, the others run in the calling thread
+        Thread caller = Thread.currentThread();
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Callable<Thread>> tasks = new ArrayList<>();
+        tasks.add(Thread::currentThread);
+        for (int i = 1; i < 3; i++) {
+            tasks.add(() -> {
+                latch.await(10, TimeUnit.SECONDS);
+                return Thread.currentThread();
+            });
+        }
+        for (int i = 3; i < 10; i++) {
+            tasks.add(Thread::currentThread);
+        }
+        List<Future<Thread>> futures = ParallelQueryExecutor.submitAll(tasks);
+        assertEquals(10, futures.size());
+        for (int i = 5; i < 10; i++) {
+            assertTrue(futures.get(i).isDone());
+            assertSame(caller, ParallelQueryExecutor.get(futures.get(i)));
+        }
+        latch.countDown();
+        for (int i = 1; i < 5; i++) {
+            assertNotSame(caller, ParallelQueryExecutor.get(futures.get(i)));
+        }
+    }
+
+    @Test
+    public void testExceptionUnwrapped() throws Exception {
+        List<Callable<Integer>> tasks = List.of(() -> 1, () -> {
+            throw new IOException("Failed!");
+        });
+        List<Future<Integer>> futures = ParallelQueryExecutor.submitAll(tasks);
+        assertEquals(Integer.valueOf(1), ParallelQueryExecutor.get(futures.get(0)));
+        try {
+            ParallelQueryExecutor.get(futures.get(1));
+            fail("Should have thrown an exception");
+        } catch (IOException e) {
+            assertEquals("Failed!", e.getMessage());
+        }
+    }
+}
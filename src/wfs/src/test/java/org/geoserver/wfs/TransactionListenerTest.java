@@ -8,6 +8,7 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import net.opengis.wfs.DeleteElementType;
 import net.opengis.wfs.InsertElementType;
@@ -18,6 +19,7 @@
 import org.junit.Before;
 import org.junit.Test;
 import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
 
 /**
  * This test must be run with the server configured with the wfs 1.0 cite configuration, with data initialized.
@@ -218,4 +220,131 @@ public void testUpdate() throws Exception {
 
         assertEquals(2, listener.features.size());
     }
+
+    @Test
+    public void testBatchedInsert() throws Exception {
+        System.setProperty(InsertElementHandler.INSERT_BATCH_SIZE, "1");
+        try {
+            String insert = "<wfs:Transaction service=\"WFS\" version=\"1.0.0\" "
+                    + "xmlns:cgf=\"http://www.opengis.net/cite/geometry\" "
+                    + "xmlns:wfs=\"http://www.opengis.net/wfs\" "
+                    + "xmlns:gml=\"http://www.opengis.net/gml\"> "
+                    + "<wfs:Insert> "
+                    + "<cgf:Points>"
+                    + "<cgf:pointProperty>"
+                    + "<gml:Point><gml:coordinates>15,15</gml:coordinates></gml:Point>"
+                    + "</cgf:pointProperty>"
+                    + "<cgf:id>t0006</cgf:id>"
+                    + "</cgf:Points>"
+                    + "<cgf:Points>"
+                    + "<cgf:pointProperty>"
+                    + "<gml:Point><gml:coordinates>16,16</gml:coordinates></gml:Point>"
+                    + "</cgf:pointProperty>"
+                    + "<cgf:id>t0007</cgf:id>"
+                    + "</cgf:Points>"
+                    + "</wfs:Insert>"
+                    + "</wfs:Transaction>";
+
+            postAsDOM("wfs", insert);
+            // one pair of events per batch, each with its own features
+            assertEquals(4, listener.events.size());
+            assertEquals(TransactionEventType.PRE_INSERT, listener.events.get(0).getType());
+            assertEquals(TransactionEventType.POST_INSERT, listener.events.get(1).getType());
+            assertEquals(TransactionEventType.PRE_INSERT, listener.events.get(2).getType());
+            assertEquals(TransactionEventType.POST_INSERT, listener.events.get(3).getType());
+            assertEquals(4, listener.features.size());
+            assertEquals("t0006", listener.features.get(1).getProperty("id").getValue());
+            assertEquals("t0007", listener.features.get(3).getProperty("id").getValue());
+        } finally {
+            System.clearProperty(InsertElementHandler.INSERT_BATCH_SIZE);
+        }
+    }
+
+    @Test
+    public void testBatchedUpdate() throws Exception {
+        // two updates by id setting the same value are run as one
+        String update = "<wfs:Transaction service=\"WFS\" version=\"1.0.0\" "
+                + "xmlns:cite=\"http://www.opengis.net/cite\" "
+                + "xmlns:ogc=\"http://www.opengis.net/ogc\" "
+                + "xmlns:wfs=\"http://www.opengis.net/wfs\"> "
+                + "<wfs:Update typeName=\"cite:Buildings\"> "
+                + "<wfs:Property><wfs:Name>ADDRESS</wfs:Name><wfs:Value>1 Bulk Street</wfs:Value></wfs:Property>"
+                + "<ogc:Filter><ogc:FeatureId fid=\"Buildings.1107531701010\"/></ogc:Filter>"
+                + "</wfs:Update>"
+                + "<wfs:Update typeName=\"cite:Buildings\"> "
+                + "<wfs:Property><wfs:Name>ADDRESS</wfs:Name><wfs:Value>1 Bulk Street</wfs:Value></wfs:Property>"
+                + "<ogc:Filter><ogc:FeatureId fid=\"Buildings.1107531701011\"/></ogc:Filter>"
+                + "</wfs:Update>"
+                + "</wfs:Transaction>";
+
+        Document dom = postAsDOM("wfs", update);
+        assertEquals(1, dom.getElementsByTagName("wfs:SUCCESS").getLength());
+        assertEquals(2, listener.events.size());
+        assertEquals(TransactionEventType.PRE_UPDATE, listener.events.get(0).getType());
+        assertEquals(TransactionEventType.POST_UPDATE, listener.events.get(1).getType());
+        // both features before the update, and both after
+        assertEquals(4, listener.features.size());
+        assertEquals("1 Bulk Street", listener.features.get(2).getProperty("ADDRESS").getValue());
+        assertEquals("1 Bulk Street", listener.features.get(3).getProperty("ADDRESS").getValue());
+    }
+
+    @Test
+    public void testBatchCounts() throws Exception {
+        // many single feature inserts and updates, as sent by clients synchronizing datasets
+        System.setProperty(InsertElementHandler.INSERT_BATCH_SIZE, "10");
+        System.setProperty(Transaction.UPDATE_BATCH_SIZE, "10");
+        try {
+            StringBuilder insert = new StringBuilder(batchHeader());
+            for (int i = 0; i < 25; i++) {
+                insert.append("<wfs:Insert><cgf:Points><cgf:pointProperty><gml:Point><gml:pos>")
+                        .append(i)
+                        .append(" ")
+                        .append(i)
+                        .append("</gml:pos></gml:Point></cgf:pointProperty><cgf:id>b")
+                        .append(i)
+                        .append("</cgf:id></cgf:Points></wfs:Insert>");
+            }
+            insert.append("</wfs:Transaction>");
+            Document dom = postAsDOM("wfs", insert.toString());
+            NodeList fids = dom.getElementsByTagName("ogc:FeatureId");
+            assertEquals(25, fids.getLength());
+            assertEquals(List.of(10, 10, 5), getAffectedCounts(TransactionEventType.PRE_INSERT));
+
+            listener.clear();
+            StringBuilder update = new StringBuilder(batchHeader());
+            for (int i = 0; i < fids.getLength(); i++) {
+                String fid = fids.item(i).getAttributes().getNamedItem("fid").getNodeValue();
+                update.append("<wfs:Update typeName=\"cgf:Points\"><wfs:Property><wfs:Name>altitude</wfs:Name>")
+                        .append("<wfs:Value>100</wfs:Value></wfs:Property><ogc:Filter><ogc:FeatureId fid=\"")
+                        .append(fid)
+                        .append("\"/></ogc:Filter></wfs:Update>");
+            }
+            update.append("</wfs:Transaction>");
+            dom = postAsDOM("wfs", update.toString());
+            assertEquals("25", dom.getElementsByTagName("wfs:totalUpdated").item(0).getTextContent());
+            assertEquals(List.of(10, 10, 5), getAffectedCounts(TransactionEventType.PRE_UPDATE));
+        } finally {
+            System.clearProperty(InsertElementHandler.INSERT_BATCH_SIZE);
+            System.clearProperty(Transaction.UPDATE_BATCH_SIZE);
+        }
+    }
+
+    /** Returns the number of features affected by each event of the given type */
+    private List<Integer> getAffectedCounts(TransactionEventType type) {
+        List<Integer> counts = new ArrayList<>();
+        for (int i = 0; i < listener.events.size(); i++) {
+            if (listener.events.get(i).getType() == type) {
+                counts.add(listener.counts.get(i));
+            }
+        }
+        return counts;
+    }
+
+    private String batchHeader() {
+        return "<wfs:Transaction service=\"WFS\" version=\"1.1.0\" "
+                + "xmlns:cgf=\"http://www.opengis.net/cite/geometry\" "
+                + "xmlns:ogc=\"http://www.opengis.net/ogc\" "
+                + "xmlns:wfs=\"http://www.opengis.net/wfs\" "
+                + "xmlns:gml=\"http://www.opengis.net/gml\">";
+    }
 }
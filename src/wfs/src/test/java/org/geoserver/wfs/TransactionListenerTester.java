@@ -13,15 +13,20 @@
 public class TransactionListenerTester implements TransactionListener {
     List<TransactionEvent> events = new ArrayList<>();
     List<Feature> features = new ArrayList<>();
+    /** The number of features affected by each event */
+    List<Integer> counts = new ArrayList<>();
 
     public void clear() {
         events.clear();
         features.clear();
+        counts.clear();
     }
 
     @Override
     public void dataStoreChange(TransactionEvent event) throws WFSException {
         events.add(event);
-        features.addAll(DataUtilities.list(event.getAffectedFeatures()));
+        List<Feature> affected = DataUtilities.list(event.getAffectedFeatures());
+        features.addAll(affected);
+        counts.add(affected.size());
     }
 }
@@ -0,0 +1,146 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.opengis.wfs20.Wfs20Factory;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.config.impl.GeoServerImpl;
+import org.geoserver.config.impl.GeoServerInfoImpl;
+import org.geoserver.json.GeoJSONBuilder;
+import org.geoserver.json.JSONType;
+import org.geoserver.wfs.WFSInfoImpl;
+import org.geoserver.wfs.request.FeatureCollectionResponse;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.feature.FeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.geometry.jts.GeometryBuilder;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.locationtech.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the GeoJSON output of WFS, writing a collection of polygons through the {@link WFSGeoJSONFeatureWriter}
+ * with and without the legacy ordinate formatting.
+ */
+@Ignore
+public class GeoJSONFeatureWriterBenchmarkTest {
+
+    /**
+     * Runs the JMH benchmark. This isn't a real test, by integrating JMH with JUnit it just provides an easy way to run
+     * the benchmark (typically through the IDE).
+     */
+    @Test
+    public void runBenchmark() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(GeoJSONFeatureWriterBenchmark.class.getSimpleName() + ".*")
+                .result("./target/geojson-writer-results.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(1)
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class GeoJSONFeatureWriterBenchmark {
+
+        @State(Scope.Thread)
+        public static class Features {
+
+            @Param({"2", "6", "8"})
+            public int numDecimals;
+
+            @Param({"false", "true"})
+            public boolean legacyOrdinates;
+
+            WFSGeoJSONFeatureWriter<SimpleFeatureType, SimpleFeature> writer;
+
+            List<FeatureCollection<SimpleFeatureType, SimpleFeature>> collections;
+
+            @Setup(Level.Trial)
+            public void setup() {
+                // builders check the flag when created, one is created for each write
+                System.setProperty(GeoJSONBuilder.LEGACY_ORDINATES_PROPERTY, String.valueOf(legacyOrdinates));
+
+                GeoServerImpl gs = new GeoServerImpl();
+                gs.setCatalog(new CatalogImpl());
+                GeoServerInfoImpl global = new GeoServerInfoImpl();
+                global.getSettings().setNumDecimals(numDecimals);
+                gs.setGlobal(global);
+                gs.add(new WFSInfoImpl());
+                FeatureCollectionResponse response =
+                        FeatureCollectionResponse.adapt(Wfs20Factory.eINSTANCE.createFeatureCollectionType());
+                writer = new WFSGeoJSONFeatureWriter<>(gs, JSONType.json, response);
+
+                SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+                tb.setName("polygons");
+                tb.add("geom", Polygon.class, DefaultGeographicCRS.WGS84);
+                tb.add("name", String.class);
+                SimpleFeatureType type = tb.buildFeatureType();
+                ListFeatureCollection features = new ListFeatureCollection(type);
+                SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+                GeometryBuilder gb = new GeometryBuilder();
+                Random random = new Random(0);
+                for (int f = 0; f < 100; f++) {
+                    double x = random.nextDouble() * 340 - 170;
+                    double y = random.nextDouble() * 160 - 80;
+                    double[] ordinates = new double[200];
+                    for (int i = 0; i < ordinates.length; i += 2) {
+                        double angle = 2 * Math.PI * i / ordinates.length;
+                        double radius = 1 + random.nextDouble();
+                        ordinates[i] = x + Math.cos(angle) * radius;
+                        ordinates[i + 1] = y + Math.sin(angle) * radius;
+                    }
+                    ordinates[ordinates.length - 2] = ordinates[0];
+                    ordinates[ordinates.length - 1] = ordinates[1];
+                    fb.add(gb.polygon(ordinates));
+                    fb.add("polygon." + f);
+                    features.add(fb.buildFeature("polygons." + f));
+                }
+                collections = new ArrayList<>();
+                collections.add(features);
+            }
+
+            @TearDown(Level.Trial)
+            public void tearDown() {
+                System.clearProperty(GeoJSONBuilder.LEGACY_ORDINATES_PROPERTY);
+            }
+        }
+
+        @Benchmark
+        public byte[] writeFeatures(Features state) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            state.writer.write(state.collections, output, BigInteger.valueOf(100), false);
+            return output.toByteArray();
+        }
+    }
+}
@@ -32,6 +32,7 @@
 import org.geoserver.config.GeoServer;
 import org.geoserver.data.test.MockData;
 import org.geoserver.data.test.SystemTestData;
+import org.geoserver.feature.PipelinedFeatureEncoder;
 import org.geoserver.json.JSONType;
 import org.geoserver.util.IOUtils;
 import org.geoserver.wfs.WFSInfo;
@@ -890,4 +891,23 @@ public void testIAULayer() throws Exception {
         String crs = json.getJSONObject("crs").getJSONObject("properties").getString("name");
         assertEquals("urn:ogc:def:crs:IAU::49900", crs);
     }
+
+    @Test
+    public void testPipelinedEncoding() throws Exception {
+        String request = "wfs?request=GetFeature&version=2.0.0&typename=sf:PrimitiveGeoFeature&outputformat="
+                + JSONType.json;
+        JSONObject expected = (JSONObject) getAsJSON(request);
+        System.setProperty(PipelinedFeatureEncoder.THREADS_PROPERTY, "4");
+        // small batches, to have more than one
+        System.setProperty(PipelinedFeatureEncoder.BATCH_SIZE_PROPERTY, "2");
+        try {
+            JSONObject actual = (JSONObject) getAsJSON(request);
+            expected.remove("timeStamp");
+            actual.remove("timeStamp");
+            assertEquals(expected, actual);
+        } finally {
+            System.clearProperty(PipelinedFeatureEncoder.THREADS_PROPERTY);
+            System.clearProperty(PipelinedFeatureEncoder.BATCH_SIZE_PROPERTY);
+        }
+    }
 }
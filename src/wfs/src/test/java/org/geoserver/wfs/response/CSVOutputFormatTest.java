@@ -35,6 +35,7 @@
 import org.geoserver.config.GeoServer;
 import org.geoserver.data.test.MockData;
 import org.geoserver.data.test.SystemTestData;
+import org.geoserver.feature.PipelinedFeatureEncoder;
 import org.geoserver.platform.Operation;
 import org.geoserver.wfs.WFSInfo;
 import org.geoserver.wfs.WFSTestSupport;
@@ -532,4 +533,19 @@ public void testCountZero() throws Exception {
         List<String[]> lines = readLines(response.getContentAsString(), ',');
         assertEquals(1, lines.size());
     }
+
+    @Test
+    public void testPipelinedEncoding() throws Exception {
+        String request = "wfs?version=2.0.0&request=GetFeature&typeName=sf:PrimitiveGeoFeature&outputFormat=csv";
+        String expected = getAsString(request);
+        System.setProperty(PipelinedFeatureEncoder.THREADS_PROPERTY, "4");
+        // small batches, to have more than one
+        System.setProperty(PipelinedFeatureEncoder.BATCH_SIZE_PROPERTY, "2");
+        try {
+            assertEquals(expected, getAsString(request));
+        } finally {
+            System.clearProperty(PipelinedFeatureEncoder.THREADS_PROPERTY);
+            System.clearProperty(PipelinedFeatureEncoder.BATCH_SIZE_PROPERTY);
+        }
+    }
 }
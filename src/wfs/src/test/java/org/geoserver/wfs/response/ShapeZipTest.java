@@ -10,6 +10,7 @@
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -20,6 +21,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -60,12 +62,14 @@
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.feature.FeatureCollection;
+import org.geotools.feature.collection.DecoratingSimpleFeatureCollection;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.geometry.jts.JTSFactoryFinder;
 import org.geotools.util.URLs;
 import org.junit.Before;
 import org.junit.Test;
 import org.locationtech.jts.geom.CoordinateXYZM;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
@@ -1005,4 +1009,141 @@ public void testCountZero() throws Exception {
         checkShapefileIntegrity(
                 new String[] {"BasicPolygons"}, new ByteArrayInputStream(response.getContentAsByteArray()));
     }
+
+    @Test
+    public void testStreaming() throws Exception {
+        SimpleFeatureCollection fc = getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures();
+        byte[] expected = writeOut(fc);
+        gft.setFormatOptions(streamingOptions());
+        byte[] zip = writeOut(fc);
+
+        checkShapefileIntegrity(new String[] {"BasicPolygons"}, new ByteArrayInputStream(zip));
+        // the streamed shapefile reads back the same as the one written by the shapefile store
+        List<SimpleFeature> expectedFeatures = new ArrayList<>();
+        Envelope expectedBounds = new Envelope();
+        testShapefile(new ByteArrayInputStream(expected), "BasicPolygons", store -> {
+            expectedFeatures.addAll(DataUtilities.list(store.getFeatureSource().getFeatures()));
+            expectedBounds.init(store.getFeatureSource().getBounds());
+        });
+        testShapefile(new ByteArrayInputStream(zip), "BasicPolygons", store -> {
+            assertEquals(expectedBounds, new Envelope(store.getFeatureSource().getBounds()));
+            List<SimpleFeature> actualFeatures =
+                    DataUtilities.list(store.getFeatureSource().getFeatures());
+            assertEquals(expectedFeatures.size(), actualFeatures.size());
+            for (int i = 0; i < expectedFeatures.size(); i++) {
+                assertEquals(expectedFeatures.get(i).getAttributes(), actualFeatures.get(i).getAttributes());
+            }
+        });
+    }
+
+    @Test
+    public void testStreamingLongNames() throws Exception {
+        gft.setFormatOptions(streamingOptions());
+        byte[] zip = writeOut(getFeatureSource(LONGNAMES).getFeatures());
+
+        SimpleFeatureType schema = checkFieldsAreNotEmpty(new ByteArrayInputStream(zip));
+        checkLongNamesSchema(schema);
+    }
+
+    @Test
+    public void testStreamingNullGeometries() throws Exception {
+        gft.setFormatOptions(streamingOptions());
+        byte[] zip = writeOut(getFeatureSource(NULLGEOM).getFeatures());
+
+        checkShapefileIntegrity(new String[] {"nullgeom"}, new ByteArrayInputStream(zip));
+        testShapefile(new ByteArrayInputStream(zip), "nullgeom", store -> {
+            List<SimpleFeature> features = DataUtilities.list(store.getFeatureSource().getFeatures());
+            assertEquals(getFeatureSource(NULLGEOM).getFeatures().size(), features.size());
+        });
+    }
+
+    @Test
+    public void testStreamingEmptyResult() throws Exception {
+        gft.setFormatOptions(streamingOptions());
+        byte[] zip = writeOut(getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures(Filter.EXCLUDE));
+
+        checkShapefileIntegrity(new String[] {"BasicPolygons"}, new ByteArrayInputStream(zip));
+        testShapefile(
+                new ByteArrayInputStream(zip),
+                "BasicPolygons",
+                store -> assertEquals(0, store.getFeatureSource().getFeatures().size()));
+    }
+
+    @Test
+    public void testStreamingFallbackMultiType() throws Exception {
+        // generic geometries need to be split in multiple shapefiles, cannot be streamed
+        gft.setFormatOptions(streamingOptions());
+        byte[] zip = writeOut(getFeatureSource(ALL_TYPES).getFeatures());
+
+        final String[] expectedTypes = {"AllTypesPoint", "AllTypesMPoint", "AllTypesPolygon", "AllTypesLine"};
+        checkShapefileIntegrity(expectedTypes, new ByteArrayInputStream(zip));
+    }
+
+    @Test
+    public void testStreamingUnknownCount() throws Exception {
+        // the collection is never counted, the dbf header is written once all records have been read
+        SimpleFeatureCollection features = getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures();
+        int actual = features.size();
+        SimpleFeatureCollection uncounted = new DecoratingSimpleFeatureCollection(features) {
+            @Override
+            public int size() {
+                throw new UnsupportedOperationException("The collection should not be counted");
+            }
+        };
+        gft.setFormatOptions(streamingOptions());
+        byte[] zip = writeOut(uncounted);
+
+        checkShapefileIntegrity(new String[] {"BasicPolygons"}, new ByteArrayInputStream(zip));
+        testShapefile(
+                new ByteArrayInputStream(zip),
+                "BasicPolygons",
+                store -> assertEquals(actual, store.getFeatureSource().getFeatures().size()));
+    }
+
+    @Test
+    public void testStreamingKnownCount() throws Exception {
+        // the count computed by the query is used, the dbf goes straight in the zip
+        SimpleFeatureCollection features = getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures();
+        int actual = features.size();
+        gft.setFormatOptions(streamingOptions());
+        byte[] zip = writeOut(features, actual);
+
+        checkShapefileIntegrity(new String[] {"BasicPolygons"}, new ByteArrayInputStream(zip));
+        testShapefile(
+                new ByteArrayInputStream(zip),
+                "BasicPolygons",
+                store -> assertEquals(actual, store.getFeatureSource().getFeatures().size()));
+    }
+
+    @Test
+    public void testStreamingKnownCountMismatch() throws Exception {
+        // the dbf header would be wrong, and part of the zip is already out, the request must fail
+        SimpleFeatureCollection features = getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures();
+        int actual = features.size();
+        gft.setFormatOptions(streamingOptions());
+        for (int count : new int[] {actual - 1, actual + 1}) {
+            assertThrows(IOException.class, () -> writeOut(features, count));
+        }
+    }
+
+    /** Writes out the collection as the result of a query that already counted its features */
+    private byte[] writeOut(FeatureCollection fc, int numberOfFeatures) throws IOException {
+        ShapeZipOutputFormat zip = new ShapeZipOutputFormat(
+                GeoServerExtensions.bean(GeoServer.class),
+                (Catalog) GeoServerExtensions.bean("catalog"),
+                (GeoServerResourceLoader) GeoServerExtensions.bean("resourceLoader"));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        FeatureCollectionResponse fct =
+                FeatureCollectionResponse.adapt(WfsFactory.eINSTANCE.createFeatureCollectionType());
+        fct.getFeature().add(fc);
+        fct.setNumberOfFeatures(BigInteger.valueOf(numberOfFeatures));
+        zip.write(fct, bos, op);
+        return bos.toByteArray();
+    }
+
+    private Map<String, Object> streamingOptions() {
+        Map<String, Object> options = new HashMap<>();
+        options.put("STREAMING", "true");
+        return options;
+    }
 }
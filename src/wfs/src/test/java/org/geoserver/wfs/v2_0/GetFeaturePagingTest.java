@@ -25,6 +25,8 @@
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.data.test.SystemTestData;
 import org.geoserver.ows.util.KvpMap;
+import org.geoserver.wfs.GetFeature;
+import org.geoserver.wfs.KeysetCursor;
 import org.geotools.api.data.DataStore;
 import org.geotools.api.data.SimpleFeatureSource;
 import org.geotools.api.data.SimpleFeatureStore;
@@ -40,9 +42,15 @@
 import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.filter.v2_0.FESConfiguration;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
 import org.geotools.xsd.Parser;
 import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 public class GetFeaturePagingTest extends WFS20TestSupport {
 
@@ -92,6 +100,28 @@ protected void setUpInternal(SystemTestData data) throws Exception {
 
         ft = cb.buildFeatureType(fs);
         cat.add(ft);
+
+        // a type with a non nillable key, and a nillable attribute with some null values
+        tb = new SimpleFeatureTypeBuilder();
+        tb.setName("Keyed");
+        tb.setCRS(DefaultGeographicCRS.WGS84);
+        tb.add("geom", Point.class);
+        tb.nillable(false).add("code", Integer.class);
+        tb.nillable(true).add("name", String.class);
+        store.createSchema(tb.buildFeatureType());
+        fs = (SimpleFeatureStore) store.getFeatureSource("Keyed");
+        DefaultFeatureCollection keyed = new DefaultFeatureCollection(null, null);
+        GeometryFactory gf = new GeometryFactory();
+        String[] names = {"c", null, "a", null, "b", "a", null};
+        for (int i = 0; i < names.length; i++) {
+            Point point = gf.createPoint(new Coordinate(i, i));
+            keyed.add(SimpleFeatureBuilder.build(fs.getSchema(), new Object[] {point, i, names[i]}, null));
+        }
+        fs.addFeatures(keyed);
+
+        ft = cb.buildFeatureType(fs);
+        ft.getMetadata().put(KeysetCursor.KEY_ATTRIBUTES, "code");
+        cat.add(ft);
     }
 
     void addFeatures(SimpleFeatureStore fs, SimpleFeatureCollection features) throws Exception {
@@ -600,6 +630,41 @@ public void doTestNextPreviousHitsGET(String typeName) throws Exception {
         assertStartIndexCount(doc, "next", 0, -1 /* not there */);
     }
 
+    @Test
+    public void testKeysetPaging() throws Exception {
+        // sorting on the key, the next pages are selected with a cursor
+        assertEquals(7, getAllPages("gs:Keyed", "code DESC", true).size());
+        // natural order is the key one
+        assertEquals(7, getAllPages("gs:Keyed", null, true).size());
+        // sorting on an attribute with null values, the next pages are selected with an offset
+        assertEquals(7, getAllPages("gs:Keyed", "name", false).size());
+    }
+
+    /**
+     * Follows the next links two features at a time, checking each feature is returned exactly once, and returns the
+     * feature ids
+     */
+    private Set<String> getAllPages(String typeName, String sortBy, boolean cursor) throws Exception {
+        String path = "wfs?request=GetFeature&version=2.0.0&service=wfs&typeNames=" + typeName + "&startIndex=0&count=2"
+                + (sortBy != null ? "&sortBy=" + sortBy : "");
+        Set<String> ids = new LinkedHashSet<>();
+        for (int i = 0; path != null && i < 10; i++) {
+            Document doc = getAsDOM(path);
+            NodeList features = doc.getElementsByTagName(typeName);
+            for (int j = 0; j < features.getLength(); j++) {
+                String id = ((Element) features.item(j)).getAttribute("gml:id");
+                assertTrue("Feature returned twice: " + id, ids.add(id));
+            }
+            path = null;
+            if (doc.getDocumentElement().hasAttribute("next")) {
+                String next = URLDecoder.decode(doc.getDocumentElement().getAttribute("next"), "UTF-8");
+                assertEquals(next, cursor, next.contains(GetFeature.CURSOR_PARAMETER + "="));
+                path = "wfs" + next.substring(next.indexOf('?'));
+            }
+        }
+        return ids;
+    }
+
     @Test
     public void testCountZero() throws Exception {
         Document doc = getAsDOM("/wfs?request=GetFeature&version=2.0.0&service=wfs&typename=gs:Fifteen&count=0");
@@ -15,10 +15,12 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
 import java.net.URLEncoder;
 import java.util.Collections;
 import java.util.List;
@@ -26,6 +28,9 @@
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Executors;
 import javax.xml.namespace.QName;
+import net.opengis.wfs20.GetFeatureType;
+import net.opengis.wfs20.QueryType;
+import net.opengis.wfs20.Wfs20Factory;
 import org.custommonkey.xmlunit.XMLAssert;
 import org.custommonkey.xmlunit.XMLUnit;
 import org.custommonkey.xmlunit.XpathEngine;
@@ -42,10 +47,15 @@
 import org.geoserver.ows.Dispatcher;
 import org.geoserver.ows.util.KvpUtils;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.wfs.DefaultWebFeatureService20;
 import org.geoserver.wfs.GMLInfo;
 import org.geoserver.wfs.StoredQuery;
 import org.geoserver.wfs.WFSException;
 import org.geoserver.wfs.WFSInfo;
+import org.geoserver.wfs.request.FeatureCollectionResponse;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.filter.text.ecql.ECQL;
 import org.geotools.filter.v2_0.FES;
 import org.geotools.gml3.v3_2.GML;
 import org.geotools.wfs.v2_0.WFS;
@@ -101,6 +111,30 @@ public void testSkipNumberMatched() throws Exception {
         this.getCatalog().save(fti);
     }
 
+    @Test
+    public void testStreaming() throws Exception {
+        GetFeatureType request = Wfs20Factory.eINSTANCE.createGetFeatureType();
+        request.setService("WFS");
+        request.setVersion("2.0.0");
+        QueryType query = Wfs20Factory.eINSTANCE.createQueryType();
+        query.getTypeNames().add(MockData.FIFTEEN);
+        query.setFilter(ECQL.toFilter("IN ('Fifteen.1', 'Fifteen.2', 'Fifteen.3')"));
+        request.getAbstractQueryExpression().add(query);
+
+        DefaultWebFeatureService20 wfs =
+                applicationContext.getBean("wfsService20Target", DefaultWebFeatureService20.class);
+        FeatureCollectionResponse response = wfs.getFeature(request, true);
+
+        // no counts have been computed, and no paging links built
+        assertEquals(BigInteger.valueOf(-1), response.getTotalNumberOfFeatures());
+        assertNull(response.getNext());
+
+        // but the filter has been applied
+        assertEquals(1, response.getFeature().size());
+        SimpleFeatureCollection features = (SimpleFeatureCollection) response.getFeature().get(0);
+        assertEquals(3, DataUtilities.list(features).size());
+    }
+
     @Test
     public void testGet() throws Exception {
         testGetFifteenAll("wfs?request=GetFeature&typenames=cdf:Fifteen&version=2.0.0&service=wfs");
@@ -0,0 +1,214 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.custommonkey.xmlunit.SimpleNamespaceContext;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.custommonkey.xmlunit.XpathEngine;
+import org.geoserver.data.test.CiteTestData;
+import org.geoserver.wfs.WFSInfo;
+import org.geoserver.wfs.WFSTestSupport;
+import org.junit.After;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+/**
+ * Checks the streaming GML encoder produces the same documents as the XSD encoder, for the bits that matter to clients
+ * and the CITE tests
+ */
+public class GML3StreamingEncoderTest extends WFSTestSupport {
+
+    @After
+    public void disableStreaming() {
+        setStreaming(false);
+    }
+
+    @Test
+    public void testGML31() throws Exception {
+        String path = "wfs?request=GetFeature&version=1.1.0&service=wfs&typename=cite:Buildings";
+        Document[] docs = getBoth(path);
+        XpathEngine xpath = newXpathEngine();
+        for (String expression : List.of(
+                "name(/*)",
+                "/wfs:FeatureCollection/@numberOfFeatures",
+                "count(//gml:featureMembers/cite:Buildings)",
+                "//gml:featureMembers/cite:Buildings[1]/@gml:id",
+                "//gml:featureMembers/cite:Buildings[2]/@gml:id",
+                "count(/wfs:FeatureCollection/gml:boundedBy/gml:Envelope)",
+                "count(//cite:Buildings/gml:boundedBy/gml:Envelope)",
+                "//cite:Buildings[1]/cite:the_geom/gml:MultiSurface/@srsName",
+                "//cite:Buildings[1]/cite:the_geom/gml:MultiSurface/@srsDimension",
+                "//cite:Buildings[1]/cite:the_geom/gml:MultiSurface/gml:surfaceMember/gml:Polygon/gml:exterior"
+                        + "/gml:LinearRing/gml:posList",
+                "count(//cite:Buildings/cite:the_geom//gml:Polygon[@gml:id])",
+                "//cite:Buildings[1]/cite:ADDRESS",
+                "//cite:Buildings[2]/cite:FID",
+                "name(//cite:Buildings[1]/*[last()])")) {
+            assertSameValue(xpath, expression, docs);
+        }
+        assertSameSchemaLocations(docs);
+    }
+
+    @Test
+    public void testGML31FeatureMember() throws Exception {
+        WFSInfo wfs = getWFS();
+        wfs.setEncodeFeatureMember(true);
+        getGeoServer().save(wfs);
+        try {
+            String path = "wfs?request=GetFeature&version=1.1.0&service=wfs&typename=cite:Buildings,cite:Bridges";
+            Document[] docs = getBoth(path);
+            XpathEngine xpath = newXpathEngine();
+            assertSameValue(xpath, "count(//gml:featureMember)", docs);
+            assertSameValue(xpath, "count(//gml:featureMembers)", docs);
+            assertSameValue(xpath, "count(//gml:featureMember/cite:Bridges)", docs);
+            assertSameSchemaLocations(docs);
+        } finally {
+            wfs = getWFS();
+            wfs.setEncodeFeatureMember(false);
+            getGeoServer().save(wfs);
+        }
+    }
+
+    @Test
+    public void testGML31GmlAttributes() throws Exception {
+        String path = "wfs?request=GetFeature&version=1.1.0&service=wfs&typename=sf:PrimitiveGeoFeature";
+        Document[] docs = getBoth(path);
+        XpathEngine xpath = newXpathEngine();
+        for (String expression : List.of(
+                "count(//sf:PrimitiveGeoFeature)",
+                "//sf:PrimitiveGeoFeature[1]/gml:name",
+                "//sf:PrimitiveGeoFeature[1]/gml:description",
+                "name(//sf:PrimitiveGeoFeature[1]/*[1])",
+                "count(//sf:PrimitiveGeoFeature/sf:surfaceProperty)",
+                "//sf:PrimitiveGeoFeature[1]/sf:pointProperty/gml:Point/gml:pos",
+                "//sf:PrimitiveGeoFeature[1]/sf:pointProperty/gml:Point/@srsDimension",
+                "//sf:PrimitiveGeoFeature[1]/sf:intProperty",
+                "//sf:PrimitiveGeoFeature[1]/sf:booleanProperty",
+                "//sf:PrimitiveGeoFeature[1]/sf:decimalProperty")) {
+            assertSameValue(xpath, expression, docs);
+        }
+    }
+
+    @Test
+    public void testGML31CiteCompliant() throws Exception {
+        setCiteCompliant(true);
+        String path = "wfs?request=GetFeature&version=1.1.0&service=wfs&typename=sf:PrimitiveGeoFeature";
+        Document[] docs = getBoth(path);
+        XpathEngine xpath = newXpathEngine();
+        assertSameValue(xpath, "count(//gml:Point[@srsDimension])", docs);
+        assertEquals("0", xpath.evaluate("count(//gml:Point[@srsDimension])", docs[1]));
+    }
+
+    @Test
+    public void testGML32() throws Exception {
+        String path = "wfs?request=GetFeature&version=2.0.0&service=wfs&typenames=cite:Buildings";
+        Document[] docs = getBoth(path);
+        XpathEngine xpath = newXpathEngine();
+        for (String expression : List.of(
+                "name(/*)",
+                "/wfs20:FeatureCollection/@numberMatched",
+                "/wfs20:FeatureCollection/@numberReturned",
+                "count(/wfs20:FeatureCollection/wfs20:member/cite:Buildings)",
+                "//wfs20:member[1]/cite:Buildings/@gml32:id",
+                "count(/wfs20:FeatureCollection/wfs20:boundedBy/gml32:Envelope)",
+                "//cite:Buildings[1]/cite:the_geom/gml32:MultiSurface/@srsName",
+                "//cite:Buildings[1]/cite:the_geom/gml32:MultiSurface/gml32:surfaceMember/gml32:Polygon"
+                        + "/gml32:exterior/gml32:LinearRing/gml32:posList",
+                "count(//cite:Buildings/cite:the_geom/gml32:MultiSurface[@gml32:id])",
+                "count(//cite:Buildings/cite:the_geom//gml32:Polygon[@gml32:id])",
+                "//cite:Buildings[1]/cite:ADDRESS")) {
+            assertSameValue(xpath, expression, docs);
+        }
+        assertSameSchemaLocations(docs);
+    }
+
+    @Test
+    public void testGML32MultiCurve() throws Exception {
+        String path = "wfs?request=GetFeature&version=2.0.0&service=wfs&typenames=cite:Streams";
+        Document[] docs = getBoth(path);
+        XpathEngine xpath = newXpathEngine();
+        assertSameValue(xpath, "count(//cite:Streams/cite:the_geom/gml32:MultiCurve/gml32:curveMember)", docs);
+        assertSameValue(xpath, "(//gml32:posList)[1]", docs);
+    }
+
+    @Test
+    public void testGML32GetFeatureById() throws Exception {
+        String path = "wfs?request=GetFeature&version=2.0.0&service=wfs"
+                + "&storedQuery_Id=urn:ogc:def:query:OGC-WFS::GetFeatureById&ID=Buildings.1107531701010";
+        Document[] docs = getBoth(path);
+        XpathEngine xpath = newXpathEngine();
+        assertEquals("cite:Buildings", xpath.evaluate("name(/*)", docs[1]));
+        assertSameValue(xpath, "/cite:Buildings/@gml32:id", docs);
+        assertSameValue(xpath, "/cite:Buildings/cite:ADDRESS", docs);
+
+        // missing features are reported as such
+        setStreaming(true);
+        Document dom = getAsDOM(path.replace("1107531701010", "foo"));
+        assertEquals("ExceptionReport", dom.getDocumentElement().getLocalName());
+    }
+
+    @Test
+    public void testGML32MultipleTypesFallback() throws Exception {
+        // nested collections are left to the XSD encoder
+        String path = "wfs?request=GetFeature&version=2.0.0&service=wfs&typenames=cdf:Fifteen,cdf:Seven";
+        Document[] docs = getBoth(path);
+        XpathEngine xpath = newXpathEngine();
+        assertSameValue(xpath, "count(/wfs20:FeatureCollection/wfs20:member/wfs20:FeatureCollection)", docs);
+        assertNotEquals("0", xpath.evaluate("count(//cdf:Seven)", docs[1]));
+    }
+
+    /** Returns the response of the XSD encoder, and the one of the streaming encoder */
+    private Document[] getBoth(String path) throws Exception {
+        setStreaming(false);
+        Document expected = getAsDOM(path);
+        setStreaming(true);
+        Document actual = getAsDOM(path);
+        setStreaming(false);
+        return new Document[] {expected, actual};
+    }
+
+    private void setStreaming(boolean streaming) {
+        WFSInfo wfs = getWFS();
+        wfs.setStreamingGMLEncoding(streaming);
+        getGeoServer().save(wfs);
+    }
+
+    private XpathEngine newXpathEngine() {
+        Map<String, String> namespaces = new HashMap<>(getNamespaces());
+        CiteTestData.registerNamespaces(namespaces);
+        namespaces.put("wfs20", org.geotools.wfs.v2_0.WFS.NAMESPACE);
+        namespaces.put("gml32", org.geotools.gml3.v3_2.GML.NAMESPACE);
+        XpathEngine xpath = XMLUnit.newXpathEngine();
+        xpath.setNamespaceContext(new SimpleNamespaceContext(namespaces));
+        return xpath;
+    }
+
+    private void assertSameValue(XpathEngine xpath, String expression, Document[] docs) throws Exception {
+        assertEquals(expression, xpath.evaluate(expression, docs[0]), xpath.evaluate(expression, docs[1]));
+    }
+
+    private void assertSameSchemaLocations(Document[] docs) {
+        assertEquals(getSchemaLocations(docs[0]), getSchemaLocations(docs[1]));
+    }
+
+    private Set<String> getSchemaLocations(Document doc) {
+        String schemaLocation =
+                doc.getDocumentElement().getAttributeNS(GML3StreamingEncoder.XSI_NAMESPACE, "schemaLocation");
+        String[] tokens = schemaLocation.trim().split("\\s+");
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 1 < tokens.length; i += 2) {
+            result.add(tokens[i] + " " + tokens[i + 1]);
+        }
+        return result;
+    }
+}